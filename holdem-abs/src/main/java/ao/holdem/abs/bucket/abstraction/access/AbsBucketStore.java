@@ -83,21 +83,34 @@ public class AbsBucketStore implements Iterable<Character>
 
     //--------------------------------------------------------------------
     public Iterator<Character> iterator()
+    {
+        return iterator(0, River.CANONS);
+    }
+
+    /**
+     * @param from first canonical river
+     * @param count number of rivers to iterate over
+     * @return absolute buckets of rivers [from, from + count),
+     *          each iterator has its own stream so that disjoint
+     *          ranges can be read from different threads.
+     */
+    public Iterator<Character> iterator(long from, final long count)
     {
         final DataInputStream in;
         try {
+            FileInputStream file = new FileInputStream(ioFile);
+            file.getChannel().position(from * 2);
+
             in = new DataInputStream(
-                    new BufferedInputStream(
-                            new FileInputStream(ioFile),
-                            1024 * 1024));
-        } catch (FileNotFoundException e) {
+                    new BufferedInputStream(file, 1024 * 1024));
+        } catch (IOException e) {
             throw new Error( e );
         }
 
         return new Iterator<Character>() {
             private long position = 0;
             public boolean hasNext() {
-                return position < River.CANONS;
+                return position < count;
             }
 
             public Character next() {
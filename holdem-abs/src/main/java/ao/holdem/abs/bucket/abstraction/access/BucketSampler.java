@@ -0,0 +1,131 @@
+package ao.holdem.abs.bucket.abstraction.access;
+
+import ao.holdem.abs.bucket.abstraction.access.tree.BucketTree;
+import ao.holdem.canon.CanonIndexer;
+import ao.holdem.model.card.Card;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Deals random bucket sequences on demand, without a sequence file.
+ *  Deals are drawn the same way as for BucketSequencer, but are not
+ *  limited to (or cycled through) a fixed set.
+ *
+ * Keeps a small cache of hole and flop buckets, which are the most
+ *  often repeated.  Canonical indexes come from CanonIndexer, so
+ *  nothing is allocated per deal.
+ *
+ * Note: NOT threadsafe, each thread should have its own sampler.
+ */
+public class BucketSampler implements BucketSequence
+{
+    //--------------------------------------------------------------------
+    private static final int  FLOP_CACHE_BITS = 12;
+    private static final int  FLOP_CACHE_MASK = (1 << FLOP_CACHE_BITS) - 1;
+
+    private static final int  DEALT           = 9;
+
+
+    //--------------------------------------------------------------------
+    private final BucketTree    TREE;
+    private final BucketDecoder DECODER;
+    private final Random        RAND;
+    private final long          END;
+    private       long          position;
+
+    private final Card          DECK[] = Card.VALUES.clone();
+
+    private final int           HOLE_BUCKETS[] = new int[ Card.COUNT * Card.COUNT ];
+
+    private final long          FLOP_KEYS   [] = new long[ FLOP_CACHE_MASK + 1 ];
+    private final int           FLOP_BUCKETS[] = new int [ FLOP_CACHE_MASK + 1 ];
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param tree source of canon bucket for each round
+     * @param decoder translates canon buckets into absolute buckets
+     * @param rand source of deals
+     * @param sequences how many sequences to deal,
+     *          Long.MAX_VALUE for unbounded
+     */
+    public BucketSampler(
+            BucketTree    tree,
+            BucketDecoder decoder,
+            Random        rand,
+            long          sequences)
+    {
+        TREE    = tree;
+        DECODER = decoder;
+        RAND    = rand;
+        END     = sequences;
+
+        // no valid key or bucket is all ones
+        Arrays.fill(FLOP_KEYS,    -1);
+        Arrays.fill(HOLE_BUCKETS, -1);
+    }
+
+
+    //--------------------------------------------------------------------
+    public boolean hasNext() {
+        return position < END;
+    }
+
+    public void next(char dealerBuckets[], char dealeeBuckets[])
+    {
+        position++;
+
+        // partial shuffle, only the dealt cards are needed
+        for (int i = 0; i < DEALT; i++) {
+            int  j    = i + RAND.nextInt(Card.COUNT - i);
+            Card swap = DECK[ i ];
+            DECK[ i ] = DECK[ j ];
+            DECK[ j ] = swap;
+        }
+
+        // same order as DeckCards in BucketSequencer
+        computeBuckets(DECK[0], DECK[1], dealerBuckets);
+        computeBuckets(DECK[2], DECK[3], dealeeBuckets);
+    }
+
+
+    //--------------------------------------------------------------------
+    private void computeBuckets(Card holeA, Card holeB, char into[])
+    {
+        long holeMask = (1L << holeA.ordinal()) |
+                        (1L << holeB.ordinal());
+        long flopMask = (1L << DECK[4].ordinal()) |
+                        (1L << DECK[5].ordinal()) |
+                        (1L << DECK[6].ordinal());
+
+        int holeKey = holeA.ordinal() * Card.COUNT + holeB.ordinal();
+        if (HOLE_BUCKETS[ holeKey ] == -1) {
+            HOLE_BUCKETS[ holeKey ] = TREE.getHole(
+                    CanonIndexer.holeIndex(holeMask));
+        }
+        int holeBucket = HOLE_BUCKETS[ holeKey ];
+
+        long flopKey = ((long) holeKey << Card.COUNT) | flopMask;
+        int  slot    = (int) (flopKey ^ (flopKey >>> 29)) & FLOP_CACHE_MASK;
+        if (FLOP_KEYS[ slot ] != flopKey) {
+            FLOP_KEYS   [ slot ] = flopKey;
+            FLOP_BUCKETS[ slot ] = TREE.getFlop(
+                    CanonIndexer.flopIndex(holeMask, flopMask));
+        }
+        int flopBucket = FLOP_BUCKETS[ slot ];
+
+        int turnBucket  = TREE.getTurn(CanonIndexer.turnIndex(
+                holeMask, flopMask, DECK[7].ordinal()));
+        int riverBucket = TREE.getRiver(CanonIndexer.riverIndex(
+                holeMask, flopMask, DECK[7].ordinal(), DECK[8].ordinal()));
+
+        into[0] = (char) holeBucket;
+        into[1] = DECODER.decode(holeBucket, flopBucket);
+        into[2] = DECODER.decode(holeBucket, flopBucket, turnBucket);
+        into[3] = DECODER.decode(holeBucket, flopBucket,
+                                 turnBucket, riverBucket);
+    }
+}
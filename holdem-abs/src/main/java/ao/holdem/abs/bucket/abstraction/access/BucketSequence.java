@@ -0,0 +1,21 @@
+package ao.holdem.abs.bucket.abstraction.access;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Source of (dealer, dealee) bucket sequences for CFR iteration,
+ *  either read from a BucketSequencer file or sampled on the fly.
+ */
+public interface BucketSequence
+{
+    //--------------------------------------------------------------------
+    public boolean hasNext();
+
+
+    /**
+     * @param dealerBuckets hole, flop, turn and river bucket,
+     *          decoded into absolute buckets
+     * @param dealeeBuckets as above, for the other player
+     */
+    public void next(char dealerBuckets[], char dealeeBuckets[]);
+}
@@ -10,13 +10,20 @@ import ao.holdem.model.card.Community;
 import ao.holdem.model.card.Hole;
 import ao.holdem.model.card.chance.ChanceCards;
 import ao.holdem.model.card.chance.DeckCards;
-import ao.util.math.Calc;
+import ao.util.math.rand.MersenneTwisterFast;
 import ao.util.math.rand.Rand;
 import ao.util.time.Progress;
 import org.apache.log4j.Logger;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.*;
 
 /**
  * Date: Feb 19, 2009
@@ -31,6 +38,13 @@ public class BucketSequencer
     private static final String FILE_NAME = "bucket_seq.byte";
     public  static final long   COUNT     = 1000 * 1000 * 1000;
 
+    private static final int    SEQUENCE_SIZE = 8;
+    private static final int    SEGMENT_BITS  = 30;
+    private static final long   SEGMENT_MASK  = (1L << SEGMENT_BITS) - 1;
+
+    private static final int    BLOCK         = 128 * 1024;
+    private static final int    LOG_EVERY     = 512;
+
 
     //--------------------------------------------------------------------
     public static boolean delete(File dir)
@@ -48,9 +62,9 @@ public class BucketSequencer
         if (! store.canRead()) {
             LOG.debug("can't read");
             return null;
-        } else if (store.length() < (COUNT * 8)) {
+        } else if (store.length() < (COUNT * SEQUENCE_SIZE)) {
             LOG.debug("too small " +
-                      store.length() + " vs " + (COUNT * 8));
+                      store.length() + " vs " + (COUNT * SEQUENCE_SIZE));
             return null;
         }
 
@@ -64,9 +78,26 @@ public class BucketSequencer
         BucketSequencer seq = retrieve(dir, decoder);
         if (seq != null) return seq;
 
+        Rand.randomize();
+        return compute(dir, tree, decoder, Rand.nextLong());
+    }
+
+    public static BucketSequencer retrieveOrCompute(
+            File dir, BucketTree tree, BucketDecoder decoder, long seed)
+    {
+        BucketSequencer seq = retrieve(dir, decoder);
+        if (seq != null) return seq;
+
+        return compute(dir, tree, decoder, seed);
+    }
+
+    private static BucketSequencer compute(
+            File dir, BucketTree tree, BucketDecoder decoder, long seed)
+    {
         File store = new File(dir, FILE_NAME);
         try {
-            computeSequences(store, tree);
+            computeSequences(store, tree, seed,
+                    Runtime.getRuntime().availableProcessors());
         } catch (IOException e) {
             throw new Error( e );
         }
@@ -75,42 +106,129 @@ public class BucketSequencer
 
 
     //--------------------------------------------------------------------
+    /**
+     * Sequences are dealt in blocks, each from its own random stream
+     *  seeded by (seed, block), so the file depends only on the seed
+     *  and not on the number of threads.
+     * Blocks are dealt in parallel, and written in order.
+     *
+     * Note: tree lookups must be threadsafe.
+     */
     private static void computeSequences(
-            File store, BucketTree tree) throws IOException
+            File       store,
+            BucketTree tree,
+            long       seed,
+            int        nThreads) throws IOException
     {
-        LOG.debug("computeSequences");
-        Progress p = new Progress(COUNT);
+        LOG.debug("computeSequences with seed " + seed +
+                  " on " + nThreads + " threads");
+
+        ExecutorService exec = Executors.newFixedThreadPool(nThreads);
+        try (FileChannel out =
+                     new RandomAccessFile(store, "rw").getChannel()) {
+            out.truncate(0);
+            computeSequences(out, tree, seed, nThreads, exec);
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdownNow();
+        }
+    }
 
-        Rand.randomize();
+    private static void computeSequences(
+            FileChannel     out,
+            BucketTree      tree,
+            long            seed,
+            int             nThreads,
+            ExecutorService exec)
+            throws IOException, InterruptedException, ExecutionException
+    {
+        int  nBlocks  = (int) ((COUNT + BLOCK - 1) / BLOCK);
+        int  inFlight = nThreads * 2;
+
+        BlockingQueue<ByteBuffer> buffers =
+                new ArrayBlockingQueue<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            buffers.add(ByteBuffer.allocateDirect(BLOCK * SEQUENCE_SIZE));
+        }
+        Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+
+        Progress p         = new Progress(COUNT);
+        long     start     = System.currentTimeMillis();
+        int      nextBlock = 0;
+        long     written   = 0;
+
+        while (written < COUNT)
+        {
+            while (nextBlock < nBlocks && pending.size() < inFlight) {
+                pending.add(exec.submit(computeBlock(
+                        tree, seed, nextBlock++, buffers)));
+            }
 
-        DataOutputStream out = new DataOutputStream(
-                new BufferedOutputStream(
-                        new FileOutputStream(store)));
-        for (long i = 0; i < COUNT; i++) {
-            byte[][] pair = randomBucketSequencePair(tree);
-            writeBuckets(out, pair);
-            p.checkpoint();
+            ByteBuffer block = pending.remove().get();
+            int        size  = block.remaining() / SEQUENCE_SIZE;
+            while (block.hasRemaining()) {
+                out.write( block );
+            }
+            buffers.add( block );
+
+            written += size;
+            for (int i = 0; i < size; i++) {
+                p.checkpoint();
+            }
+
+            if (written % (LOG_EVERY * BLOCK) == 0 || written == COUNT) {
+                long took = Math.max(1, System.currentTimeMillis() - start);
+                LOG.debug("wrote " + written + " at " +
+                          (written * 1000 / took) + " sequences/sec");
+            }
         }
-        out.close();
+
+        out.force(false);
     }
 
-    private static byte[][] randomBucketSequencePair(
-            BucketTree tree)
+    private static Callable<ByteBuffer> computeBlock(
+            final BucketTree                tree,
+            final long                      seed,
+            final int                       block,
+            final BlockingQueue<ByteBuffer> buffers)
     {
-        ChanceCards cards     = new DeckCards();
+        return new Callable<ByteBuffer>() {
+            public ByteBuffer call() throws Exception {
+                Random     rand   = new MersenneTwisterFast(new int[]{
+                        (int) (seed >>> 32), (int) seed, block});
+                ByteBuffer buffer = buffers.take();
+                long       size   = Math.min(
+                        BLOCK, COUNT - (long) block * BLOCK);
+
+                buffer.clear();
+                for (long i = 0; i < size; i++) {
+                    putRandomBucketSequencePair(tree, rand, buffer);
+                }
+                buffer.flip();
+                return buffer;
+            }};
+    }
+
+    private static void putRandomBucketSequencePair(
+            BucketTree tree,
+            Random     rand,
+            ByteBuffer into)
+    {
+        ChanceCards cards     = new DeckCards(rand);
         Hole        holeA     = cards.hole(1);
         Hole        holeB     = cards.hole(0);
         Community   community = cards.community(Round.RIVER);
 
-        return new byte[][]{
-                computeBuckets(tree, holeA, community),
-                computeBuckets(tree, holeB, community)};
+        putBuckets(tree, holeA, community, into);
+        putBuckets(tree, holeB, community, into);
     }
 
-    private static byte[] computeBuckets(
+    private static void putBuckets(
             BucketTree tree,
             Hole       hole,
-            Community  community)
+            Community  community,
+            ByteBuffer into)
     {
         CanonHole canonHole  = CanonHole.create(hole);
         int       holeBucket = tree.getHole(canonHole.canonIndex());
@@ -124,37 +242,36 @@ public class BucketSequencer
         River river       = turn.addRiver(community.river());
         int  riverBucket = tree.getRiver( river.canonIndex() );
 
-        return new byte[]{
-                (byte) holeBucket, (byte) flopBucket,
-                (byte) turnBucket, (byte) riverBucket};
+        into.put( (byte)  holeBucket );
+        into.put( (byte)  flopBucket );
+        into.put( (byte)  turnBucket );
+        into.put( (byte) riverBucket );
     }
 
 
     //--------------------------------------------------------------------
-    private static void writeBuckets(
-            DataOutput out, byte[][] buckets) throws IOException {
-        for (int i = 0; i < 2; i++) {
-            for (int j = 0; j < 4; j++) {
-                out.writeByte(buckets[i][j]);
-            }
-        }
-    }
-
-    private static int[][] readBuckets(DataInput in) {
-        try {
-            return doReadBuckets(in);
-        } catch (IOException e) {
-            throw new Error( e );
-        }
-    }
-    private static int[][] doReadBuckets(DataInput in) throws IOException {
-        int[][] buckets = new int[2][4];
-        for (int i = 0; i < 2; i++) {
-            for (int j = 0; j < 4; j++) {
-                buckets[i][j] = Calc.unsigned( in.readByte() );
-            }
-        }
-        return buckets;
+    /**
+     * Alternative to a sequence file: deals and buckets sequences on
+     *  demand.  Samplers with different streams are independent.
+     *
+     * @param tree must be threadsafe if samplers are used concurrently
+     * @param decoder translates canon buckets into absolute buckets
+     * @param seed shared by all streams in a run
+     * @param stream e.g. index of the thread using the sampler
+     * @param sequences how many to deal, Long.MAX_VALUE for unbounded
+     * @return on the fly sequence source
+     */
+    public static BucketSequence sampler(
+            BucketTree    tree,
+            BucketDecoder decoder,
+            long          seed,
+            int           stream,
+            long          sequences)
+    {
+        return new BucketSampler(tree, decoder,
+                new MersenneTwisterFast(new int[]{
+                        (int) (seed >>> 32), (int) seed, stream}),
+                sequences);
     }
 
 
@@ -162,6 +279,8 @@ public class BucketSequencer
     private final File          STORE;
     private final BucketDecoder DECODER;
 
+    private volatile MappedByteBuffer segments[];
+
 
     //--------------------------------------------------------------------
     private BucketSequencer(File store, BucketDecoder decoder)
@@ -172,62 +291,91 @@ public class BucketSequencer
 
 
     //--------------------------------------------------------------------
-    public Iterator<char[][]> iterator(final long sequences) {
-        return new Iterator<char[][]>() {
-            private long            location;
-            private long            count = 0;
-            private DataInputStream in;
-            private DataInputStream open(long at) {
-                DataInputStream in;
-                try {
-                    in = new DataInputStream(
-                            new BufferedInputStream(
-                                    new FileInputStream(STORE),
-                                    1024 * 1024));
-                    long toSkip = ((at % COUNT) * 8);
-                    if (in.skip( toSkip ) != toSkip) {
-                        throw new Error("skip failed");
+    private MappedByteBuffer[] segments()
+    {
+        MappedByteBuffer mapped[] = segments;
+        if (mapped == null) {
+            synchronized (this) {
+                mapped = segments;
+                if (mapped == null) {
+                    try {
+                        mapped = map();
+                    } catch (IOException e) {
+                        throw new Error( e );
                     }
-                    location = at;
-                } catch (IOException e) {
-                    throw new Error( e );
+                    segments = mapped;
                 }
-                return in;
             }
+        }
+        return mapped;
+    }
+
+    private MappedByteBuffer[] map() throws IOException
+    {
+        LOG.debug("mapping " + STORE);
+
+        long length = COUNT * SEQUENCE_SIZE;
+        try (FileChannel channel =
+                     new RandomAccessFile(STORE, "r").getChannel()) {
+            MappedByteBuffer mapped[] = new MappedByteBuffer[
+                    (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS) ];
+            for (int i = 0; i < mapped.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                mapped[ i ] = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        start,
+                        Math.min(SEGMENT_MASK + 1, length - start));
+            }
+            return mapped;
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param from index of first sequence, taken modulo COUNT
+     * @param sequences how many sequences to read, wrapping around
+     *          to the first sequence after the last one
+     * @return cursor positioned at the first sequence
+     */
+    public Cursor cursor(long from, long sequences)
+    {
+        return new Cursor(segments(), from, from + sequences);
+    }
+
+    /**
+     * Splits the given number of sequences into disjoint, contiguous
+     *  shards, so that several trainers can each take their own.
+     *
+     * @param shard which shard, from 0 to nShards - 1
+     * @param nShards total number of shards
+     * @param sequences total number of sequences across all shards
+     * @return cursor over the shard
+     */
+    public Cursor shard(int shard, int nShards, long sequences)
+    {
+        long from = sequences *  shard      / nShards;
+        long to   = sequences * (shard + 1) / nShards;
+        return cursor(from, to - from);
+    }
+
+
+    //--------------------------------------------------------------------
+    public Iterator<char[][]> iterator(long sequences) {
+        return iterator(0, sequences);
+    }
 
+    public Iterator<char[][]> iterator(long from, long sequences) {
+        final Cursor cursor = cursor(from, sequences);
+        return new Iterator<char[][]>() {
             public boolean hasNext() {
-                boolean hasNext = (count < sequences);
-                if ((! hasNext) && in != null) {
-                    try {
-                        in.close();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    } finally {
-                        in = null;
-                    }
-                }
-                return hasNext;
+                return cursor.hasNext();
             }
 
             public char[][] next() {
-                try {
-                    if ((location++ % COUNT) == 0) {
-                        if (in != null) {
-                            in.close();
-                            in = open(0);
-                        } else {
-                            in = open(0);
-                            location++;
-                        }
-                    }
-                    count++;
-
-                    char decoded[][] = decode(readBuckets(in));
-                    hasNext();
-                    return decoded;
-                } catch (IOException e) {
-                    throw new Error( e );
-                }
+                char decoded[][] = new char[2][4];
+                cursor.next(decoded[0], decoded[1]);
+                return decoded;
             }
 
             public void remove() {
@@ -238,20 +386,65 @@ public class BucketSequencer
 
 
     //--------------------------------------------------------------------
-    private char[] decode(int buckets[])
+    /**
+     * Reads sequences directly from the mapped file into caller supplied
+     *  buffers, with constant time positioning.
+     *
+     * Note: NOT threadsafe, each thread should have its own Cursor.
+     */
+    public class Cursor implements BucketSequence
     {
-        return new char[]{
-                (char) buckets[0],
-                DECODER.decode(buckets[0], buckets[1]),
-                DECODER.decode(buckets[0], buckets[1], buckets[2]),
-                DECODER.decode(buckets[0], buckets[1],
-                               buckets[2], buckets[3])};
+        private final MappedByteBuffer SEGMENTS[];
+        private final long             END;
+        private       long             position;
+
+        private Cursor(MappedByteBuffer mapped[], long from, long end)
+        {
+            SEGMENTS = mapped;
+            END      = end;
+            position = from;
+        }
+
+        public long position() {
+            return position;
+        }
+
+        public long end() {
+            return END;
+        }
+
+        public void seek(long index) {
+            position = index;
+        }
+
+        public boolean hasNext() {
+            return position < END;
+        }
+
+        public void next(char dealerBuckets[], char dealeeBuckets[])
+        {
+            long offset = (position++ % COUNT) * SEQUENCE_SIZE;
+            long packed = SEGMENTS[ (int) (offset >>> SEGMENT_BITS) ]
+                            .getLong( (int) (offset & SEGMENT_MASK) );
+
+            decode((int) (packed >>> 32), dealerBuckets);
+            decode((int)  packed        , dealeeBuckets);
+        }
     }
 
-    private char[][] decode(int buckets[][])
+
+    //--------------------------------------------------------------------
+    // one byte per round, hole bucket in the high byte
+    private void decode(int buckets, char into[])
     {
-        return new char[][]{
-                decode(buckets[0]),
-                decode(buckets[1])};
+        int hole  =  buckets >>> 24;
+        int flop  = (buckets >>> 16) & 0xFF;
+        int turn  = (buckets >>>  8) & 0xFF;
+        int river =  buckets         & 0xFF;
+
+        into[0] = (char) hole;
+        into[1] = DECODER.decode(hole, flop);
+        into[2] = DECODER.decode(hole, flop, turn);
+        into[3] = DECODER.decode(hole, flop, turn, river);
     }
 }
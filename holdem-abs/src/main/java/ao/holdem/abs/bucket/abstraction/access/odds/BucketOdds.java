@@ -5,13 +5,22 @@ import ao.holdem.abs.bucket.abstraction.access.BucketDecoder;
 import ao.holdem.abs.bucket.abstraction.access.tree.BucketTree;
 import ao.holdem.canon.river.River;
 import ao.holdem.abs.bucket.index.detail.river.RiverEvalLookup;
+import ao.holdem.abs.odds.agglom.hist.CompactRiverStrengths;
 import ao.util.time.Progress;
 import com.sleepycat.bind.tuple.TupleInput;
 import com.sleepycat.bind.tuple.TupleOutput;
 import org.apache.log4j.Logger;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Date: Jan 29, 2009
@@ -24,7 +33,10 @@ public class BucketOdds implements IBucketOdds
             Logger.getLogger(BucketOdds.class);
 
     private static final String STR_FILE = "eval";
-    private static final int    BUFFER   = 100000;
+    private static final int    CHUNKS_PER_THREAD = 16;
+
+    // buckets per pass when computed on a single thread
+    private static final int    MIN_WINDOW        = 100000;
 
 
     //--------------------------------------------------------------------
@@ -46,8 +58,11 @@ public class BucketOdds implements IBucketOdds
         SlimRiverHist[] hist = retrieveStrengths(dir, riverBuckets);
         int             off  = offset(hist);
         if (hist == null || off != hist.length) {
-            hist = computeAndPersistStrengths(off,
-                    riverBuckets, bucketTree, decoder, dir);
+            if (hist == null) {
+                hist = new SlimRiverHist[ riverBuckets ];
+            }
+            computeAndPersistStrengths(hist, off,
+                    bucketTree, decoder, dir);
         }
         return new BucketOdds(hist);
     }
@@ -112,11 +127,11 @@ public class BucketOdds implements IBucketOdds
 
     //--------------------------------------------------------------------
     private static void persistStrengths(
-            SlimRiverHist[] bucketHist, File file)
+            SlimRiverHist[] bucketHist, int from, int to, File file)
     {
         try
         {
-            doPersistStrengths(bucketHist, file);
+            doPersistStrengths(bucketHist, from, to, file);
         }
         catch (IOException e)
         {
@@ -124,18 +139,20 @@ public class BucketOdds implements IBucketOdds
         }
     }
     private static void doPersistStrengths(
-            SlimRiverHist[] bucketHist, File file) throws IOException
+            SlimRiverHist[] bucketHist,
+            int             from,
+            int             to,
+            File            file) throws IOException
     {
-        LOG.debug("persisting strengths");
+        LOG.debug("persisting strengths " + from + " to " + to);
 
         OutputStream outFile = new BufferedOutputStream(
                                  new FileOutputStream(file, true));
 
         TupleOutput out = new TupleOutput();
-        for (SlimRiverHist hist : bucketHist)
+        for (int i = from; i < to; i++)
         {
-            if (hist == null) break;
-            SlimRiverHist.BINDING.write(hist, out);
+            SlimRiverHist.BINDING.write(bucketHist[ i ], out);
 
             byte asBinary[] = out.getBufferBytes();
             outFile.write(asBinary, 0, out.getBufferLength());
@@ -147,111 +164,159 @@ public class BucketOdds implements IBucketOdds
 
 
     //--------------------------------------------------------------------
-    private static SlimRiverHist[] computeAndPersistStrengths(
-            int           initialOffset,
-            int           riverBuckets,
-            BucketTree    tree,
-            BucketDecoder decoder,
-            File          dir)
+    /**
+     * Computes histograms for all buckets from initialOffset onwards.
+     *
+     * The threads share one RiverHist per bucket of the window, each
+     *  counting its share of the canonical rivers into them under the
+     *  lock of the histogram, so memory does not grow with threads.
+     * Buckets are done in as few windows as fit in memory, which is a
+     *  single pass over the rivers for all but the largest abstractions.
+     *  Each window is persisted as soon as it is done.
+     */
+    private static void computeAndPersistStrengths(
+            SlimRiverHist[] hist,
+            int             initialOffset,
+            BucketTree      tree,
+            BucketDecoder   decoder,
+            File            dir)
     {
-        LOG.debug("computing strengths");
-        File            outFile = new File(dir, STR_FILE);
-        SlimRiverHist[] hist    = new SlimRiverHist[ riverBuckets ];
-
-        if (riverBuckets <= BUFFER) {
-            computeAllStrengths(hist, tree, decoder);
-            persistStrengths(hist, outFile);
-        } else {
-            AbsBucketStore absBuckets =
-                    new AbsBucketStore(dir, tree, decoder);
-            for (int offset = initialOffset;
-                     offset < riverBuckets;
-                     offset += BUFFER)
-            {
-                computeStrengths(hist,
-                                 offset,
-                                 Math.min(BUFFER,
-                                          riverBuckets - offset),
-                                 absBuckets);
-                persistStrengths(hist, outFile);
-            }
+        int nThreads = Runtime.getRuntime().availableProcessors();
+        int window   = strengthWindow(hist.length);
+        LOG.debug("computing strengths from " + initialOffset +
+                  " in windows of " + window +
+                  " on " + nThreads + " threads");
+
+        File outFile = new File(dir, STR_FILE);
+
+        // with more than one pass, avoid re-computing the buckets
+        AbsBucketStore absBuckets =
+                (initialOffset + window < hist.length)
+                ? new AbsBucketStore(dir, tree, decoder)
+                : null;
+
+        for (int offset = initialOffset;
+                 offset < hist.length;
+                 offset += window)
+        {
+            int length = Math.min(window, hist.length - offset);
+            computeStrengths(hist, offset, length,
+                             tree, decoder, absBuckets, nThreads);
+            persistStrengths(hist, offset, offset + length, outFile);
         }
 
         LOG.debug(" DONE!");
-        return hist;
     }
+
+    private static int strengthWindow(int riverBuckets)
+    {
+        long histBytes = (long) CompactRiverStrengths.COUNT *
+                                (Integer.SIZE / 8);
+        long budget    = Runtime.getRuntime().maxMemory() / 2;
+        long window    = Math.max(MIN_WINDOW, budget / histBytes);
+        return (int) Math.min(riverBuckets, window);
+    }
+
+
+    //--------------------------------------------------------------------
     private static void computeStrengths(
             final SlimRiverHist[] hist,
             final int             offset,
             final int             length,
-            final AbsBucketStore absBuckets)
+            final BucketTree      tree,
+            final BucketDecoder   decoder,
+            final AbsBucketStore  absBuckets,
+            int                   nThreads)
     {
-        final RiverHist[]  histBuff = new RiverHist[ length ];
-        for (int i = 0; i < histBuff.length; i++) {
-            histBuff[ i ] = new RiverHist();
+        LOG.debug("computing strengths for " + offset + " to " +
+                  (offset + length));
+
+        final int           nChunks   = nThreads * CHUNKS_PER_THREAD;
+        final AtomicInteger nextChunk = new AtomicInteger();
+        final Progress      progress  = new Progress(nChunks);
+
+        final RiverHist windowHist[] = new RiverHist[ length ];
+        for (int i = 0; i < windowHist.length; i++) {
+            windowHist[ i ] = new RiverHist();
         }
 
-//        final LongBitSet allowRivers =
-//                computeAllowedRivers(
-//                        offset, length, tree, holes);
-
-        LOG.debug("computing strengths for allowed");
-        final Progress progress = new Progress(length * 100000);
-//        RiverEvalLookup.traverse(allowRivers,
-//                new AbsVisitor() {public void traverse(
-//                        long river, short strength, byte count) {
-//
-//            char absoluteRiverBucket = bucketOf(tree, holes, river);
-//            histBuff[absoluteRiverBucket - offset]
-//                     .count( strength, count );
-//            checkpoint(progress[0]++);
-//        }});
-
-        final Iterator<Character> absBucketItr = absBuckets.iterator();
-        RiverEvalLookup.traverse(new RiverEvalLookup.AbsVisitor() {public void traverse(
-                     long river, short strength, byte count) {
-            char absoluteRiverBucket =
-                    absBucketItr.next();
-
-            if (offset <= absoluteRiverBucket &&
-                          absoluteRiverBucket < (offset + length)) {
-
-                histBuff[absoluteRiverBucket - offset]
-                         .count( strength, count );
-                progress.checkpoint();
-            }
-        }});
+        List<Callable<Void>> counters = new ArrayList<>();
+        for (int t = 0; t < nThreads; t++) {
+            counters.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    for (int chunk;
+                             (chunk = nextChunk.getAndIncrement())
+                                    < nChunks;) {
+                        long from = River.CANONS *  chunk      / nChunks;
+                        long to   = River.CANONS * (chunk + 1) / nChunks;
+                        countStrengths(windowHist, offset, from, to - from,
+                                       tree, decoder, absBuckets);
+
+                        synchronized (progress) {
+                            progress.checkpoint();
+                        }
+                    }
+                    return null;
+                }});
+        }
+        invokeAll(counters, nThreads);
 
         for (int i = 0; i < length; i++) {
-            hist[offset + i] = histBuff[i].slim();
+            hist[offset + i] = windowHist[i].slim();
         }
     }
 
-
-    //--------------------------------------------------------------------
-    private static void computeAllStrengths(
-            final SlimRiverHist[] hist,
-            final BucketTree      tree,
-            final BucketDecoder   decoder)
+    private static void countStrengths(
+            final RiverHist[]    windowHist,
+            final int            offset,
+            long                 fromRiver,
+            long                 count,
+            final BucketTree     tree,
+            final BucketDecoder  decoder,
+            final AbsBucketStore absBuckets)
     {
-        final RiverHist[]  histBuff = new RiverHist[ hist.length ];
-        for (int i = 0; i < histBuff.length; i++) {
-            histBuff[ i ] = new RiverHist();
-        }
-
-        LOG.debug("computing all strengths");
-        final Progress progress = new Progress(River.CANONS);
-        RiverEvalLookup.traverse(new RiverEvalLookup.AbsVisitor() {public void traverse(
-                     long river, short strength, byte count) {
-            char absoluteRiverBucket =
-                    AbsBucketStore.bucketOf(tree, decoder, river);
-            histBuff[absoluteRiverBucket]
-                     .count( strength, count );
-            progress.checkpoint();
+        final Iterator<Character> absBucketItr =
+                (absBuckets == null)
+                ? null : absBuckets.iterator(fromRiver, count);
+
+        RiverEvalLookup.traverseBlocks(fromRiver, count,
+                new RiverEvalLookup.AbsBlockVisitor() {public void traverse(
+                     long  firstRiver,
+                     short strengths [],
+                     byte  represents[],
+                     int   blockSize) {
+            for (int i = 0; i < blockSize; i++) {
+                char absoluteRiverBucket =
+                        (absBucketItr == null)
+                        ? AbsBucketStore.bucketOf(
+                                tree, decoder, firstRiver + i)
+                        : absBucketItr.next();
+
+                int index = absoluteRiverBucket - offset;
+                if (0 <= index && index < windowHist.length) {
+                    RiverHist bucketHist = windowHist[ index ];
+                    synchronized (bucketHist) {
+                        bucketHist.count(strengths[ i ], represents[ i ]);
+                    }
+                }
+            }
         }});
+    }
 
-        for (int i = 0; i < hist.length; i++) {
-            hist[i] = histBuff[i].slim();
+    private static <T> List<T> invokeAll(
+            List<Callable<T>> tasks, int nThreads)
+    {
+        ExecutorService exec = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> done : exec.invokeAll( tasks )) {
+                results.add( done.get() );
+            }
+            return results;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdown();
         }
     }
     
@@ -0,0 +1,287 @@
+package ao.holdem.abs.bucket.abstraction.access.odds;
+
+import ao.util.time.Progress;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Lower triangle of the nonLossProb matrix, packed row by row into a
+ *  single memory-mapped file, so lookups are O(1) and take no heap.
+ *  The upper triangle follows from nonLossProb(a, b) = 1 - nonLossProb(b, a).
+ *
+ * File format (big endian):
+ *  magic int, precision int, bucket count int, reserved int,
+ *  then entry [i][j] for j <= i at position i * (i + 1) / 2 + j.
+ *
+ * For 65535 river buckets the table is 4 GB at FIXED16, 8 GB at FLOAT.
+ */
+public class PackedBucketOdds implements IBucketOdds
+{
+    //--------------------------------------------------------------------
+    private static final Logger LOG =
+            Logger.getLogger(PackedBucketOdds.class);
+
+    private static final int  MAGIC        = 0x4F444453; // "ODDS"
+    private static final int  HEADER_SIZE  = 16;
+
+    private static final int  SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private static final int  FIXED_SCALE  = 0xFFFF;
+
+
+    //--------------------------------------------------------------------
+    public static enum Precision
+    {
+        DOUBLE (8),  // exact
+        FLOAT  (4),  // error under 1e-7
+        FIXED16(2);  // error under 1e-5
+
+        private final int SIZE;
+
+        private Precision(int size) {
+            SIZE = size;
+        }
+
+        public int size() {
+            return SIZE;
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    public static String fileName(Precision precision) {
+        return "odds." + precision.name().toLowerCase();
+    }
+
+
+    public static PackedBucketOdds retrieve(
+            File dir, Precision precision, char nBuckets)
+    {
+        try {
+            return doRetrieve(
+                    new File(dir, fileName(precision)), precision, nBuckets);
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+    private static PackedBucketOdds doRetrieve(
+            File file, Precision precision, char nBuckets)
+            throws IOException
+    {
+        if (! file.canRead()) return null;
+        LOG.debug("retrieving " + file);
+
+        long length = length(precision, nBuckets);
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            if (in.length() < length ||
+                    in.readInt() != MAGIC ||
+                    in.readInt() != precision.ordinal() ||
+                    in.readInt() != nBuckets) {
+                LOG.debug("invalid or incomplete");
+                return null;
+            }
+
+            return new PackedBucketOdds(
+                    map(in.getChannel(), FileChannel.MapMode.READ_ONLY, length),
+                    precision);
+        }
+    }
+
+
+    public static PackedBucketOdds retrieveOrCompute(
+            File dir, Precision precision, IBucketOdds odds, char nBuckets)
+    {
+        PackedBucketOdds packed = retrieve(dir, precision, nBuckets);
+        if (packed != null) return packed;
+
+        return computeAndStore(dir, precision, odds, nBuckets);
+    }
+
+    public static PackedBucketOdds computeAndStore(
+            File dir, Precision precision, IBucketOdds odds, char nBuckets)
+    {
+        try {
+            return compute(
+                    new File(dir, fileName(precision)),
+                    precision, odds, nBuckets,
+                    Runtime.getRuntime().availableProcessors());
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private static PackedBucketOdds compute(
+            File              file,
+            Precision         precision,
+            final IBucketOdds odds,
+            final char        nBuckets,
+            final int         nThreads) throws IOException
+    {
+        LOG.debug("computing " + (int) nBuckets + " buckets at " +
+                  precision + " on " + nThreads + " threads");
+
+        long length = length(precision, nBuckets);
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength( 0 );
+            out.setLength( length );
+
+            final PackedBucketOdds packed = new PackedBucketOdds(
+                    map(out.getChannel(),
+                        FileChannel.MapMode.READ_WRITE, length),
+                    precision);
+
+            // rows are interleaved because later ones are longer
+            final Progress progress = new Progress(nBuckets);
+            List<Callable<Void>> rows = new ArrayList<>();
+            for (int t = 0; t < nThreads; t++) {
+                final int thread = t;
+                rows.add(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (int i = thread; i < nBuckets; i += nThreads) {
+                            for (int j = 0; j <= i; j++) {
+                                packed.put((char) i, (char) j,
+                                        odds.nonLossProb((char) i, (char) j));
+                            }
+                            synchronized (progress) {
+                                progress.checkpoint();
+                            }
+                        }
+                        return null;
+                    }});
+            }
+            invokeAll(rows, nThreads);
+
+            // header last, so that a partial file is never retrieved
+            packed.force();
+            out.seek( 0 );
+            out.writeInt( MAGIC );
+            out.writeInt( precision.ordinal() );
+            out.writeInt( nBuckets );
+            out.writeInt( 0 );
+
+            return packed;
+        }
+    }
+
+    private static void invokeAll(List<Callable<Void>> tasks, int nThreads)
+    {
+        ExecutorService exec = Executors.newFixedThreadPool(nThreads);
+        try {
+            for (Future<Void> done : exec.invokeAll( tasks )) {
+                done.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private static long length(Precision precision, char nBuckets)
+    {
+        return HEADER_SIZE +
+               (long) nBuckets * (nBuckets + 1) / 2 * precision.size();
+    }
+
+    private static MappedByteBuffer[] map(
+            FileChannel channel, FileChannel.MapMode mode, long length)
+            throws IOException
+    {
+        MappedByteBuffer segments[] = new MappedByteBuffer[
+                (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS) ];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[ i ] = channel.map(mode, start,
+                    Math.min(SEGMENT_MASK + 1, length - start));
+        }
+        return segments;
+    }
+
+
+    //--------------------------------------------------------------------
+    private final MappedByteBuffer SEGMENTS[];
+    private final Precision        PRECISION;
+
+
+    //--------------------------------------------------------------------
+    private PackedBucketOdds(
+            MappedByteBuffer segments[], Precision precision)
+    {
+        SEGMENTS  = segments;
+        PRECISION = precision;
+    }
+
+
+    //--------------------------------------------------------------------
+    public double nonLossProb(char index, char vsIndex)
+    {
+        if (index >= vsIndex) {
+            return get(index, vsIndex);
+        } else {
+            return 1.0 - get(vsIndex, index);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    // entries are aligned to their size, so never straddle segments
+    private long offset(char row, char col)
+    {
+        return HEADER_SIZE +
+               ((long) row * (row + 1) / 2 + col) * PRECISION.size();
+    }
+
+    private double get(char row, char col)
+    {
+        long             offset  = offset(row, col);
+        MappedByteBuffer segment = SEGMENTS[ (int) (offset >>> SEGMENT_BITS) ];
+        int              at      = (int) (offset & SEGMENT_MASK);
+
+        switch (PRECISION) {
+            case DOUBLE:  return segment.getDouble(at);
+            case FLOAT:   return segment.getFloat (at);
+            default:      return (double) (segment.getShort(at) & 0xFFFF)
+                                          / FIXED_SCALE;
+        }
+    }
+
+    private void put(char row, char col, double value)
+    {
+        long             offset  = offset(row, col);
+        MappedByteBuffer segment = SEGMENTS[ (int) (offset >>> SEGMENT_BITS) ];
+        int              at      = (int) (offset & SEGMENT_MASK);
+
+        switch (PRECISION) {
+            case DOUBLE:  segment.putDouble(at, value);          break;
+            case FLOAT:   segment.putFloat (at, (float) value);  break;
+            default:      segment.putShort (at, (short)
+                                  Math.round(value * FIXED_SCALE));
+        }
+    }
+
+    private void force()
+    {
+        for (MappedByteBuffer segment : SEGMENTS) {
+            segment.force();
+        }
+    }
+}
@@ -62,6 +62,15 @@ public class RiverHist
     }
 
 
+    public void add(RiverHist that)
+    {
+        for (int i = 0; i < HIST.length; i++) {
+            HIST[ i ] += that.HIST[ i ];
+        }
+        mean = Double.NaN;
+    }
+
+
     //--------------------------------------------------------------------
     public int get(short riverStrength)
     {
@@ -2,8 +2,8 @@ package ao.holdem.abs.bucket.abstraction.access.tree;
 
 import ao.holdem.abs.bucket.abstraction.access.tree.list.FullLongByteList;
 import ao.holdem.abs.bucket.abstraction.access.tree.list.HalfLongByteList;
-import ao.holdem.abs.bucket.abstraction.access.tree.list.StoredHalfLongByteList;
-import ao.holdem.abs.bucket.abstraction.access.tree.list.StoredLongByteList;
+import ao.holdem.abs.bucket.abstraction.access.tree.list.MappedHalfLongByteList;
+import ao.holdem.abs.bucket.abstraction.access.tree.list.MappedLongByteList;
 import ao.holdem.canon.flop.Flop;
 import ao.holdem.model.card.canon.hole.CanonHole;
 import ao.holdem.canon.river.River;
@@ -53,11 +53,11 @@ public class BucketTreeImpl implements BucketTree
 
         if (storedReadOnly)
         {
-            LOG.debug("retrieving stored read-only");
-            holes  = new StoredLongByteList(holeFile);
-            flops  = new StoredLongByteList(flopFile);
-            turns  = new StoredHalfLongByteList(turnFile);
-            rivers = new StoredHalfLongByteList(riverFile);
+            LOG.debug("mapping stored read-only");
+            holes  = new MappedLongByteList(holeFile);
+            flops  = new MappedLongByteList(flopFile);
+            turns  = new MappedHalfLongByteList(turnFile);
+            rivers = new MappedHalfLongByteList(riverFile);
         }
         else
         {
@@ -46,10 +46,15 @@ public class HalfLongByteList implements PersistentLongByteList
 
     public  static final int  MAX_BUCKETS = LO_MASK;
 
+    // two indexes share each byte, so concurrent writes to neighbouring
+    //  indexes (e.g. from sibling branches) must not interleave
+    private static final int  LOCK_STRIPES = 1024;
+
 
     //--------------------------------------------------------------------
     private final File   FILE;
     private final byte[] LIST;
+    private final Object LOCKS[] = new Object[ LOCK_STRIPES ];
 
 
     //--------------------------------------------------------------------
@@ -57,6 +62,10 @@ public class HalfLongByteList implements PersistentLongByteList
     {
         FILE = file;
         LIST = retrieveOrCreate( size );
+
+        for (int i = 0; i < LOCKS.length; i++) {
+            LOCKS[ i ] = new Object();
+        }
     }
 
     private byte[] retrieveOrCreate(long size)
@@ -83,11 +92,14 @@ public class HalfLongByteList implements PersistentLongByteList
     {
         assert bucket < LO_MASK : index + " is >= " + LO_MASK;
 
-        byte current = LIST[ halfIndex(index) ];
-        LIST[ halfIndex(index) ] =
-                (byte)(isLow(index)
-                       ? current & HI_MASK | bucket
-                       : current & LO_MASK | bucket << 4);
+        int half = halfIndex(index);
+        synchronized (LOCKS[ half & (LOCK_STRIPES - 1) ]) {
+            byte current = LIST[ half ];
+            LIST[ half ] =
+                    (byte)(isLow(index)
+                           ? current & HI_MASK | bucket
+                           : current & LO_MASK | bucket << 4);
+        }
     }
 
     public int get(long index)
@@ -0,0 +1,67 @@
+package ao.holdem.abs.bucket.abstraction.access.tree.list;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Read-only file of bytes, mapped in 1 GB segments so that
+ *  it can be addressed with long offsets.
+ * The mapping is shared through the OS page cache, so several
+ *  processes reading the same file only keep one copy in memory.
+ */
+class MappedBytes
+{
+    //--------------------------------------------------------------------
+    private static final int SEGMENT_BITS = 30;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+
+    //--------------------------------------------------------------------
+    private final MappedByteBuffer SEGMENTS[];
+    private final long             LENGTH;
+
+
+    //--------------------------------------------------------------------
+    public MappedBytes(File file)
+    {
+        try {
+            try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                LENGTH   = in.length();
+                SEGMENTS = map(in.getChannel(), LENGTH);
+            }
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+
+    private static MappedByteBuffer[] map(
+            FileChannel channel, long length) throws IOException
+    {
+        MappedByteBuffer segments[] = new MappedByteBuffer[
+                (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS) ];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[ i ] = channel.map(
+                    FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(SEGMENT_SIZE, length - start));
+        }
+        return segments;
+    }
+
+
+    //--------------------------------------------------------------------
+    public long length() {
+        return LENGTH;
+    }
+
+    public byte get(long offset) {
+        return SEGMENTS[ (int) (offset >>> SEGMENT_BITS) ]
+                  .get( (int) (offset  &  SEGMENT_MASK) );
+    }
+}
@@ -0,0 +1,52 @@
+package ao.holdem.abs.bucket.abstraction.access.tree.list;
+
+import ao.holdem.abs.bucket.abstraction.access.tree.PersistentLongByteList;
+
+import java.io.File;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Read-only, memory-mapped view of a HalfLongByteList,
+ *  lookups are plain memory reads and are safe from any thread.
+ * Indexes may go past Integer.MAX_VALUE (there are about 2.4 billion
+ *  canonical rivers).
+ */
+public class MappedHalfLongByteList implements PersistentLongByteList
+{
+    //--------------------------------------------------------------------
+    private static final byte LO_MASK     =        0x0f;
+    private static final int  HI_INT_MASK =  0x000000f0;
+
+
+    //--------------------------------------------------------------------
+    private final MappedBytes IN;
+
+
+    //--------------------------------------------------------------------
+    public MappedHalfLongByteList(File file)
+    {
+        IN = new MappedBytes(file);
+    }
+
+
+    //--------------------------------------------------------------------
+    public int maxBuckets() {
+        return HalfLongByteList.MAX_BUCKETS;
+    }
+
+    public void set(long index, int bucket) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void flush() {}
+
+
+    //--------------------------------------------------------------------
+    public int get(long index) {
+        byte pair = IN.get(index >>> 1);
+        return (HalfLongByteList.isLow(index)
+               ?  pair & LO_MASK
+               : (pair & HI_INT_MASK) >>> 4);
+    }
+}
@@ -0,0 +1,51 @@
+package ao.holdem.abs.bucket.abstraction.access.tree.list;
+
+import ao.holdem.abs.bucket.abstraction.access.tree.PersistentLongByteList;
+import ao.util.math.Calc;
+
+import java.io.File;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Read-only, memory-mapped view of a FullLongByteList,
+ *  lookups are plain memory reads and are safe from any thread.
+ */
+public class MappedLongByteList implements PersistentLongByteList
+{
+    //--------------------------------------------------------------------
+    private final MappedBytes IN_A;
+    private final MappedBytes IN_B;
+
+
+    //--------------------------------------------------------------------
+    public MappedLongByteList(File dir)
+    {
+        IN_A = new MappedBytes(
+                new File(dir, StoredLongByteList.FILENAME_A));
+        IN_B = new MappedBytes(
+                new File(dir, StoredLongByteList.FILENAME_B));
+    }
+
+
+    //--------------------------------------------------------------------
+    public int maxBuckets() {
+        return FullLongByteList.MAX_BUCKETS;
+    }
+
+    public void set(long index, int bucket) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void flush() {}
+
+
+    //--------------------------------------------------------------------
+    // same split as FullLongByteList
+    public int get(long index) {
+        return Calc.unsigned(
+                (index < Integer.MAX_VALUE)
+                ? IN_A.get(index)
+                : IN_B.get(index - Integer.MAX_VALUE));
+    }
+}
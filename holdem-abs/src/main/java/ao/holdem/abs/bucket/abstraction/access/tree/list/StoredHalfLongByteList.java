@@ -55,7 +55,7 @@ public class StoredHalfLongByteList implements PersistentLongByteList
             throw new Error( e );
         }
     }
-    private int doGet(long index) throws IOException {
+    private synchronized int doGet(long index) throws IOException {
         IN.seek(HalfLongByteList.halfIndex(index));
         byte pair = IN.readByte();
         return (HalfLongByteList.isLow(index)
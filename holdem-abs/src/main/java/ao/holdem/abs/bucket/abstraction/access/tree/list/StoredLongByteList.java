@@ -66,7 +66,7 @@ public class StoredLongByteList implements PersistentLongByteList
             throw new Error( e );
         }
     }
-    private int doGet(long index) throws IOException {
+    private synchronized int doGet(long index) throws IOException {
         byte signed;
         if (index < Integer.MAX_VALUE)
         {
@@ -0,0 +1,151 @@
+package ao.holdem.abs.bucket.abstraction.bucketize.build;
+
+import ao.holdem.abs.bucket.abstraction.access.tree.BucketTree.Branch;
+import ao.util.time.Stopwatch;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Sibling branches of one round, processed on a number of threads.
+ *
+ * Once the buckets of the previous round are fixed, siblings cover
+ *  disjoint canonical hands and can be bucketized independently.
+ *  Rounds are done one after another, so the buckets of a round are
+ *  all written before its sub-branches are looked up, and the order
+ *  of the sub-branches (hence their bucket allocation) is the same
+ *  as when built on a single thread.
+ */
+public class BranchRound
+{
+    //--------------------------------------------------------------------
+    private static final Logger LOG =
+            Logger.getLogger(BranchRound.class);
+
+    private static final int PROGRESS_STEPS = 20;
+
+
+    //--------------------------------------------------------------------
+    public static interface Task
+    {
+        public void process(int branchIndex, Branch branch);
+    }
+
+
+    //--------------------------------------------------------------------
+    private final List<Branch> BRANCHES;
+    private final int          N_THREADS;
+
+
+    //--------------------------------------------------------------------
+    public BranchRound(List<Branch> branches, int nThreads)
+    {
+        BRANCHES  = branches;
+        N_THREADS = Math.max(1, Math.min(nThreads, branches.size()));
+    }
+
+
+    //--------------------------------------------------------------------
+    public List<Branch> branches()
+    {
+        return BRANCHES;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param description what is being done, for progress reports
+     * @param task applied once to each branch, from any thread
+     */
+    public void forEach(
+            final String description,
+            final Task   task)
+    {
+        final Stopwatch     time       = new Stopwatch();
+        final AtomicInteger nextBranch = new AtomicInteger();
+        final AtomicInteger done       = new AtomicInteger();
+        final int           reportStep =
+                Math.max(1, BRANCHES.size() / PROGRESS_STEPS);
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < N_THREADS; t++) {
+            workers.add(new Callable<Void>() {
+                @Override public Void call() {
+                    for (int i; (i = nextBranch.getAndIncrement())
+                                        < BRANCHES.size();) {
+                        task.process(i, BRANCHES.get(i));
+
+                        int doneCount = done.incrementAndGet();
+                        if (doneCount % reportStep == 0 &&
+                                doneCount != BRANCHES.size()) {
+                            LOG.info(description + ": " + doneCount +
+                                     " of " + BRANCHES.size() +
+                                     " branches, " + time);
+                        }
+                    }
+                    return null;
+                }});
+        }
+        invokeAll(workers);
+
+        LOG.info(description + ": " + BRANCHES.size() +
+                 " branches on " + N_THREADS + " threads took " + time);
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @return sub-branches of all branches, in branch order
+     */
+    public BranchRound next()
+    {
+        final List<List<Branch>> subBranches = new ArrayList<>();
+        for (int i = 0; i < BRANCHES.size(); i++) {
+            subBranches.add( null );
+        }
+        forEach("looking up sub-branches", new Task() {
+            @Override public void process(int branchIndex, Branch branch) {
+                subBranches.set(branchIndex, branch.subBranches());
+            }});
+
+        List<Branch> all = new ArrayList<>();
+        for (List<Branch> siblings : subBranches) {
+            all.addAll( siblings );
+        }
+        return new BranchRound(all, N_THREADS);
+    }
+
+
+    //--------------------------------------------------------------------
+    private void invokeAll(List<Callable<Void>> workers)
+    {
+        if (workers.size() == 1) {
+            try {
+                workers.get(0).call();
+            } catch (Exception e) {
+                throw new Error( e );
+            }
+            return;
+        }
+
+        ExecutorService exec = Executors.newFixedThreadPool(N_THREADS);
+        try {
+            for (Future<Void> done : exec.invokeAll( workers )) {
+                done.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdown();
+        }
+    }
+}
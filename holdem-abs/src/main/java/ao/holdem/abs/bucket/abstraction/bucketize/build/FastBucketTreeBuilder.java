@@ -5,6 +5,7 @@ import ao.holdem.abs.bucket.abstraction.access.tree.BucketTree.Branch;
 import ao.holdem.abs.bucket.abstraction.access.tree.BucketTreeImpl;
 import ao.holdem.abs.bucket.abstraction.alloc.SubBucketAllocator;
 import ao.holdem.abs.bucket.abstraction.bucketize.def.Bucketizer;
+import ao.holdem.model.Round;
 
 import java.io.File;
 
@@ -16,12 +17,19 @@ public class FastBucketTreeBuilder implements BucketTreeBuilder
 {
     //--------------------------------------------------------------------
     private final Bucketizer BUCKETIZER;
+    private final int        N_THREADS;
 
 
     //--------------------------------------------------------------------
     public FastBucketTreeBuilder(Bucketizer bucketizer)
+    {
+        this(bucketizer, Runtime.getRuntime().availableProcessors());
+    }
+
+    public FastBucketTreeBuilder(Bucketizer bucketizer, int nThreads)
     {
         BUCKETIZER = bucketizer;
+        N_THREADS  = nThreads;
     }
 
 
@@ -74,78 +82,34 @@ public class FastBucketTreeBuilder implements BucketTreeBuilder
 //                });
 
 
-        bucketizeFlopsDown(
-                holes.subBranches(),
-                new SubBucketAllocator().allocate(
-                        (char) numHoleBuckets, numFlopBuckets),
-                new SubBucketAllocator().allocate(
-                        numFlopBuckets, numTurnBuckets),
-                new SubBucketAllocator().allocate(
-                        numTurnBuckets, numRiverBuckets));
-    }
+        BranchRound flops = new BranchRound(
+                holes.subBranches(), N_THREADS);
+        bucketize(flops, Round.FLOP, new SubBucketAllocator().allocate(
+                (char) numHoleBuckets, numFlopBuckets));
 
+        BranchRound turns = flops.next();
+        bucketize(turns, Round.TURN, new SubBucketAllocator().allocate(
+                numFlopBuckets, numTurnBuckets));
 
-    //--------------------------------------------------------------------
-    private void bucketizeFlopsDown(
-            Iterable<Branch> flops,
-            byte[]           flopBucketCounts,
-            byte[]           turnBucketCounts,
-            byte[]           riverBucketCounts)
-    {
-        char turnBuckets     = 0;
-        char holeBucketIndex = 0;
-        for (Branch flop : flops)
-        {
-            BUCKETIZER.bucketize(
-                    flop, flopBucketCounts[ holeBucketIndex++ ]);
-
-            turnBuckets += bucketizeTurnsDown(
-                                flop.subBranches(),
-                                turnBuckets,
-                                turnBucketCounts,
-                                riverBucketCounts);
-        }
+        BranchRound rivers = turns.next();
+        bucketize(rivers, Round.RIVER, new SubBucketAllocator().allocate(
+                numTurnBuckets, numRiverBuckets));
     }
 
 
     //--------------------------------------------------------------------
-    private char bucketizeTurnsDown(
-            Iterable<Branch> turns,
-            char             turnBucketOffset,
-            byte[]           turnBucketCounts,
-            byte[]           riverBucketCounts)
+    // the i-th branch of the round is the i-th bucket of the previous
+    //  round, and is split into bucketCounts[i] buckets
+    private void bucketize(
+            BranchRound  branches,
+            Round        round,
+            final byte[] bucketCounts)
     {
-        char riverBuckets    = 0;
-        char flopBucketIndex = 0;
-        for (Branch turn : turns)
-        {
-            BUCKETIZER.bucketize(
-                    turn, turnBucketCounts[
-                            turnBucketOffset + (flopBucketIndex++) ]);
-
-            riverBuckets += bucketizeRivers(
-                                turn.subBranches(),
-                                riverBuckets,
-                                riverBucketCounts);
-        }
-        return flopBucketIndex;
-    }
-
-
-    //--------------------------------------------------------------------
-    private char bucketizeRivers(
-            Iterable<Branch> rivers,
-            char             riverBucketOffset,
-            byte[]           riverBucketCounts)
-    {
-        char turnBucketIndex = 0;
-        for (Branch river : rivers)
-        {
-            BUCKETIZER.bucketize(
-                    river, riverBucketCounts[
-                            riverBucketOffset + (turnBucketIndex++) ]);
-        }
-        return turnBucketIndex;
+        branches.forEach("bucketizing " + round, new BranchRound.Task() {
+            @Override public void process(int branchIndex, Branch branch) {
+                BUCKETIZER.bucketize(
+                        branch, bucketCounts[ branchIndex ]);
+            }});
     }
 
 
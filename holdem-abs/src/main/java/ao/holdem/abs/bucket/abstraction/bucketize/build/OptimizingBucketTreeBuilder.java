@@ -7,9 +7,7 @@ import ao.holdem.model.Round;
 import org.apache.log4j.Logger;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * Date: 21-May-2009
@@ -24,12 +22,19 @@ public class OptimizingBucketTreeBuilder implements BucketTreeBuilder
 
     //--------------------------------------------------------------------
     private final Bucketizer BUCKETIZER;
+    private final int        N_THREADS;
 
 
     //--------------------------------------------------------------------
     public OptimizingBucketTreeBuilder(Bucketizer bucketizer)
+    {
+        this(bucketizer, Runtime.getRuntime().availableProcessors());
+    }
+
+    public OptimizingBucketTreeBuilder(Bucketizer bucketizer, int nThreads)
     {
         BUCKETIZER = bucketizer;
+        N_THREADS  = nThreads;
     }
 
 
@@ -78,7 +83,7 @@ public class OptimizingBucketTreeBuilder implements BucketTreeBuilder
                 root, numBuckets[Round.PREFLOP.ordinal()]);
         BUCKETIZER.setThorough(false);
 
-        bucketize(root.subBranches(),
+        bucketize(new BranchRound(root.subBranches(), N_THREADS),
                   Round.FLOP,
                   numBuckets,
                   maxBuckets);
@@ -87,62 +92,54 @@ public class OptimizingBucketTreeBuilder implements BucketTreeBuilder
 
     //--------------------------------------------------------------------
     private void bucketize(
-            List<BucketTree.Branch> prevBuckets,
-            Round                   round,
-            char[]                  numBuckets,
-            int []                  maxBuckets)
+            BranchRound prevBuckets,
+            Round       round,
+            char[]      numBuckets,
+            int []      maxBuckets)
     {
-        int subBucketCounts[] =
+        final int subBucketCounts[] =
                 allocateBuckets(prevBuckets,
                                 numBuckets[round.ordinal()],
                                 maxBuckets[round.ordinal()]);
         LOG.debug("allocated: " + Arrays.toString(subBucketCounts));
 
         BUCKETIZER.setThorough(true);
-        for (int prevBucketIndex = 0;
-                 prevBucketIndex < prevBuckets.size();
-                 prevBucketIndex++) {
-            BUCKETIZER.bucketize(
-                    prevBuckets.get(prevBucketIndex),
-                    subBucketCounts[prevBucketIndex]);
-        }
+        prevBuckets.forEach("bucketizing " + round,
+                new BranchRound.Task() {
+            @Override public void process(
+                    int prevBucketIndex, BucketTree.Branch prevBucket) {
+                BUCKETIZER.bucketize(
+                        prevBucket,
+                        subBucketCounts[prevBucketIndex]);
+            }});
 
         if (round == Round.RIVER) return;
-        List<BucketTree.Branch> subBranches =
-                new ArrayList<BucketTree.Branch>();
-        for (BucketTree.Branch prevBucket : prevBuckets) {
-            subBranches.addAll( prevBucket.subBranches() );
-        }
-        bucketize(subBranches,
+        bucketize(prevBuckets.next(),
                   round.next(), numBuckets, maxBuckets);
     }
 
 
     //--------------------------------------------------------------------
     private int[] allocateBuckets(
-            List<BucketTree.Branch> branches,
-            char                    nBuckets,
-            int                     nTrials)
+            BranchRound branches,
+            char        nBuckets,
+            final int   nTrials)
     {
-        double errors[][]    = new double[ branches.size() ]
-                                         [ nTrials         ];
+        final double errors[][] = new double[ branches.branches().size() ]
+                                            [ nTrials                    ];
 //        int    parentPaths[] = parentReachPaths(branches);
 
         BUCKETIZER.setThorough(false);
-        for (int branchIndex = 0;
-                 branchIndex < branches.size();
-                 branchIndex++) {
-            BucketTree.Branch branch = branches.get(branchIndex);
-
-            LOG.debug("allocating branch " + (branchIndex + 1) + " of " +
-                        branches.size());
-            for (byte nBucketTrial = 0;
-                      nBucketTrial < nTrials;
-                      nBucketTrial++) {
-                errors[branchIndex][nBucketTrial] = BUCKETIZER.bucketize(
-                        branch, (byte)(nBucketTrial + 1));
-            }
-        }
+        branches.forEach("allocating", new BranchRound.Task() {
+            @Override public void process(
+                    int branchIndex, BucketTree.Branch branch) {
+                for (byte nBucketTrial = 0;
+                          nBucketTrial < nTrials;
+                          nBucketTrial++) {
+                    errors[branchIndex][nBucketTrial] = BUCKETIZER.bucketize(
+                            branch, (byte)(nBucketTrial + 1));
+                }
+            }});
 
         return Optimizer.optimize(errors, nBuckets);
     }
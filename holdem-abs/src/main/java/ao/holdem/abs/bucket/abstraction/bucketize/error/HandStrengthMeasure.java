@@ -23,13 +23,28 @@ public class HandStrengthMeasure
             BucketTree.Branch   branch,
             IndexedStrengthList details,
             int                 nBuckets)
+    {
+        int buckets[] = new int[ details.length() ];
+        for (int i = 0; i < details.length(); i++)
+        {
+            buckets[ i ] = branch.get(details.index(i));
+        }
+        return error(details, buckets, nBuckets);
+    }
+
+    // buckets[i] is the bucket of details.index(i), so that candidate
+    //  bucketings can be measured without writing them into the branch
+    public double error(
+            IndexedStrengthList details,
+            int                 buckets[],
+            int                 nBuckets)
     {
         double[] sums   = new double[ nBuckets ];
         int   [] counts = new int   [ nBuckets ];
 
         for (int i = 0; i < details.length(); i++)
         {
-            int bucket = branch.get(details.index(i));
+            int bucket = buckets[ i ];
 
             sums  [ bucket ] += details.realStrength(i) *
                                   details.represents(i);
@@ -47,7 +62,7 @@ public class HandStrengthMeasure
         long   total = 0;
         for (int i = 0; i < details.length(); i++)
         {
-            int    bucket = branch.get(details.index(i));
+            int    bucket = buckets[ i ];
             double delta  = details.realStrength(i)
                               - means[bucket];
 
@@ -9,7 +9,17 @@ import ao.util.time.Stopwatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Date: 12-May-2009
@@ -29,6 +39,23 @@ public class KMeansBucketizer implements ScalarBucketizer
     private static final double LIGHT_DELTA_CUTOFF = 0.01;
     private static final int    LIGHT_BEST_OF      = 1;
 
+    private static final int N_THREADS =
+            Runtime.getRuntime().availableProcessors();
+
+    // shared by all bucketizers, so that branches bucketized on
+    //  several threads at once (see BranchRound) queue their restarts
+    //  here instead of each starting a pool of its own
+    private static final ExecutorService RESTARTS =
+            Executors.newFixedThreadPool(N_THREADS, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r,
+                            KMeansBucketizer.class.getSimpleName() + "-" +
+                            count.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }});
+
 
     //--------------------------------------------------------------------
     private double deltaCutoff;
@@ -52,73 +79,118 @@ public class KMeansBucketizer implements ScalarBucketizer
         return bucketize(branch, strengths, numBuckets);
     }
     public double bucketize(
-            BucketTree.Branch   branch,
-            IndexedStrengthList details,
-            int                 numBuckets)
+            final BucketTree.Branch   branch,
+            final IndexedStrengthList details,
+            final int                 numBuckets)
     {
+        Stopwatch time = new Stopwatch();
+
         MersenneTwisterFast rand =
                 new MersenneTwisterFast(
                         branch.parentCanons().length *
                         details.length() * numBuckets);
 
-        long seeds[] = new long[ bestOf ];
+        final long seeds[] = new long[ bestOf ];
         for (int i = 0; i < seeds.length; i++) {
             seeds[ i ] = rand.nextLong();
         }
 
-        double maxErr      = Double.NEGATIVE_INFINITY;
-        double minErr      = Double.POSITIVE_INFINITY;
-        int    minErrIndex = -1;
-
-        HandStrengthMeasure errorMeasure = new HandStrengthMeasure();
-        for (int i = 0; i < bestOf; i++) {
-            rand.setSeed(seeds[i]);
-
-            bucketize(branch, details, numBuckets, rand, false);
-            double err = errorMeasure.error(branch, details, numBuckets);
-            LOG.debug("Error {}: {}", i + 1, err);
+        // each restart has its own random stream, seeded as before,
+        //  so the outcome does not depend on the number of threads
+        final AtomicInteger nextRestart = new AtomicInteger();
+        List<Callable<Restart>> restarts = new ArrayList<>();
+        int nThreads = Math.min(bestOf, N_THREADS);
+        for (int t = 0; t < nThreads; t++) {
+            restarts.add(new Callable<Restart>() {
+                @Override public Restart call() {
+                    HandStrengthMeasure errorMeasure = new HandStrengthMeasure();
+                    Restart best = null;
+                    for (int i; (i = nextRestart.getAndIncrement()) < seeds.length;) {
+                        int clusters[] = cluster(
+                                initMeans(details, numBuckets,
+                                          new MersenneTwisterFast(seeds[ i ])),
+                                details);
+                        double err = errorMeasure.error(
+                                details, clusters, numBuckets);
+                        LOG.debug("Error {}: {}", i + 1, err);
+
+                        Restart restart = new Restart(i, err, clusters);
+                        if (restart.isBetterThan(best)) {
+                            best = restart;
+                        }
+                    }
+                    return best;
+                }});
+        }
 
-            if (err < minErr) {
-                minErr      = err;
-                minErrIndex = i;
-            }
-            if (err > maxErr) {
-                maxErr = err;
+        Restart best = null;
+        for (Restart restart : invokeAll(restarts)) {
+            if (restart != null && restart.isBetterThan(best)) {
+                best = restart;
             }
         }
 
-        rand.setSeed(seeds[ minErrIndex ]);
-        bucketize(branch, details, numBuckets, rand, true);
-//        LOG.debug("error range: " + minErr + " .. " + maxErr +
-//                    " = " + ((maxErr - minErr) / maxErr) * 100 + "%");
-        return minErr;
-    }
-    private void bucketize(
-            BucketTree.Branch   branch,
-            IndexedStrengthList strengths,
-            int                 numBuckets,
-            MersenneTwisterFast rand,
-            boolean             verbose)
-    {
-        Stopwatch time    = new Stopwatch();
-        double    means[] = initMeans(strengths, numBuckets, rand);
-
-        int counts  [] = new int[numBuckets];
-        int clusters[] = cluster(means, strengths);
-        for (int i = 0; i < clusters.length; i++) {
-            branch.set(strengths.index(i),
-                       clusters[i]);
+        int counts[] = new int[numBuckets];
+        for (int i = 0; i < best.CLUSTERS.length; i++) {
+            branch.set(details.index(i),
+                       best.CLUSTERS[i]);
 
-            counts[ clusters[i] ]++;
+            counts[ best.CLUSTERS[i] ]++;
         }
 
-        if (! verbose) return;
         LOG.info("bucketized " + branch.round() +
                 " into " + numBuckets +
                 "\t(p " + branch.parentCanons().length +
-                " \tc " + strengths.length() +
+                " \tc " + details.length() +
                 ")\t" + Arrays.toString(counts) +
                 "\ttook " + time + " per " + bestOf + " trials");
+        return best.ERROR;
+    }
+
+    private static <T> List<T> invokeAll(
+            List<Callable<T>> tasks)
+    {
+        if (tasks.size() == 1) {
+            try {
+                return Collections.singletonList(tasks.get(0).call());
+            } catch (Exception e) {
+                throw new Error( e );
+            }
+        }
+
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> done : RESTARTS.invokeAll( tasks )) {
+                results.add( done.get() );
+            }
+            return results;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private static class Restart
+    {
+        private final int    INDEX;
+        private final double ERROR;
+        private final int    CLUSTERS[];
+
+        public Restart(int index, double error, int clusters[])
+        {
+            INDEX    = index;
+            ERROR    = error;
+            CLUSTERS = clusters;
+        }
+
+        // ties go to the earliest restart, as when they were serial
+        public boolean isBetterThan(Restart other)
+        {
+            return other == null ||
+                   ERROR < other.ERROR ||
+                   ERROR == other.ERROR && INDEX < other.INDEX;
+        }
     }
 
 
@@ -189,21 +261,17 @@ public class KMeansBucketizer implements ScalarBucketizer
             IndexedStrengthList details,
             int                 clusters[])
     {
+        double sums  [] = new double[ means.length ];
+        int    counts[] = new int   [ means.length ];
+        for (int j = 0; j < clusters.length; j++) {
+            sums  [ clusters[j] ] += value(details.realStrength(j)) *
+                                     details.represents(j);
+            counts[ clusters[j] ] += details.represents(j);
+        }
+
         double maxDelta = 0;
         for (int i = 0; i < means.length; i++) {
-
-            double sum   = 0;
-            int    count = 0;
-
-            for (int j = 0; j < clusters.length; j++) {
-                if (clusters[j] != i) continue;
-
-                sum += value(details.realStrength(j)) *
-                       details.represents(j);
-                count += details.represents(j);
-            }
-
-            double newMean = sum / count;
+            double newMean = sums[i] / counts[i];
             double delta   = Math.abs(newMean - means[i]);
             if (maxDelta < delta) {
                 maxDelta = delta;
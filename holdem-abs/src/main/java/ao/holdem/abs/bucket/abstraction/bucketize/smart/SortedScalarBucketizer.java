@@ -0,0 +1,214 @@
+package ao.holdem.abs.bucket.abstraction.bucketize.smart;
+
+import ao.holdem.abs.bucket.abstraction.access.tree.BucketTree;
+import ao.holdem.abs.bucket.abstraction.bucketize.def.ScalarBucketizer;
+import ao.holdem.abs.bucket.abstraction.bucketize.error.HandStrengthMeasure;
+import ao.holdem.abs.bucket.abstraction.bucketize.linear.IndexedStrengthList;
+import ao.holdem.abs.bucket.index.detail.river.ProbabilityEncoding;
+import ao.util.time.Stopwatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Exact alternative to KMeansBucketizer: the strengths are one
+ *  dimensional, so the optimal clusters are contiguous runs of sorted
+ *  strength and can be found by dynamic programming instead of
+ *  restarting k-means.
+ *
+ * Minimizes the same objective as KMeansBucketizer (squared distance
+ *  of squared win probability, weighted by represents).  Strengths
+ *  are encoded as chars, so there are at most 65536 distinct points,
+ *  and each layer of the program is solved by divide and conquer over
+ *  the (monotone) optimal split points, O(k * n * log n) in all.
+ */
+public class SortedScalarBucketizer implements ScalarBucketizer
+{
+    //--------------------------------------------------------------------
+    private static final Logger LOG =
+            LoggerFactory.getLogger(SortedScalarBucketizer.class);
+
+    private static final int STRENGTHS = Character.MAX_VALUE + 1;
+
+
+    //--------------------------------------------------------------------
+    public double bucketize(
+            BucketTree.Branch branch,
+            int               numBuckets)
+    {
+        IndexedStrengthList strengths =
+                IndexedStrengthList.strengths(branch);
+        return bucketize(branch, strengths, numBuckets);
+    }
+    public double bucketize(
+            BucketTree.Branch   branch,
+            IndexedStrengthList details,
+            int                 numBuckets)
+    {
+        Stopwatch time = new Stopwatch();
+
+        int counts  [] = new int[numBuckets];
+        int clusters[] = cluster(details, numBuckets);
+        for (int i = 0; i < clusters.length; i++) {
+            branch.set(details.index(i),
+                       clusters[i]);
+
+            counts[ clusters[i] ]++;
+        }
+
+        LOG.info("bucketized " + branch.round() +
+                " into " + numBuckets +
+                "\t(p " + branch.parentCanons().length +
+                " \tc " + details.length() +
+                ")\t" + Arrays.toString(counts) +
+                "\ttook " + time);
+        return new HandStrengthMeasure().error(
+                details, clusters, numBuckets);
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param details strengths to cluster
+     * @param numBuckets maximum number of clusters
+     * @return cluster of each detail, in order of increasing strength,
+     *          fewer than numBuckets are used if there are fewer
+     *          distinct strengths
+     */
+    public static int[] cluster(
+            IndexedStrengthList details,
+            int                 numBuckets)
+    {
+        long weights[] = new long[ STRENGTHS ];
+        for (int i = 0; i < details.length(); i++) {
+            weights[ details.strength(i) ] += details.represents(i);
+        }
+
+        int distinct = 0;
+        for (long weight : weights) {
+            if (weight != 0) distinct++;
+        }
+
+        // prefix sums over distinct strengths, in sorted order
+        char   strengths[] = new char  [ distinct     ];
+        double sumW     [] = new double[ distinct + 1 ];
+        double sumX     [] = new double[ distinct + 1 ];
+        double sumXX    [] = new double[ distinct + 1 ];
+        for (int c = 0, n = 0; c < STRENGTHS; c++) {
+            if (weights[c] == 0) continue;
+
+            double x = value(ProbabilityEncoding.decodeWinProb((char) c));
+            strengths[ n ] = (char) c;
+            sumW [n + 1] = sumW [n] + weights[c];
+            sumX [n + 1] = sumX [n] + weights[c] * x;
+            sumXX[n + 1] = sumXX[n] + weights[c] * x * x;
+            n++;
+        }
+
+        int nClusters = Math.min(numBuckets, distinct);
+        int split[][] = split(sumW, sumX, sumXX, nClusters);
+
+        int strengthCluster[] = new int[ STRENGTHS ];
+        int end = distinct;
+        for (int k = nClusters - 1; k >= 0; k--) {
+            int start = split[k][end];
+            for (int i = start; i < end; i++) {
+                strengthCluster[ strengths[i] ] = k;
+            }
+            end = start;
+        }
+
+        int clusters[] = new int[ details.length() ];
+        for (int i = 0; i < clusters.length; i++) {
+            clusters[ i ] = strengthCluster[ details.strength(i) ];
+        }
+        return clusters;
+    }
+
+
+    //--------------------------------------------------------------------
+    // split[k][j] is where the last of k + 1 clusters starts in the best
+    //  clustering of the first j distinct strengths
+    private static int[][] split(
+            double sumW[], double sumX[], double sumXX[], int nClusters)
+    {
+        int n = sumW.length - 1;
+
+        int    split[][] = new int[ nClusters ][ n + 1 ];
+        double prev   [] = new double[ n + 1 ];
+        double cost   [] = new double[ n + 1 ];
+
+        for (int j = 1; j <= n; j++) {
+            prev[ j ] = cost(sumW, sumX, sumXX, 0, j);
+        }
+
+        for (int k = 1; k < nClusters; k++) {
+            Arrays.fill(cost, Double.POSITIVE_INFINITY);
+            solve(sumW, sumX, sumXX, prev, cost, split[k],
+                  k + 1, n, k, n - 1);
+
+            double swap[] = prev;
+            prev = cost;
+            cost = swap;
+        }
+        return split;
+    }
+
+    // fills cost[j] for j in [lo, hi], knowing that its split point is
+    //  in [optLo, optHi]
+    private static void solve(
+            double sumW[], double sumX[], double sumXX[],
+            double prev[], double cost[], int split[],
+            int lo, int hi, int optLo, int optHi)
+    {
+        if (lo > hi) return;
+
+        int mid = (lo + hi) >>> 1;
+
+        double best      = Double.POSITIVE_INFINITY;
+        int    bestSplit = optLo;
+        for (int i = optLo; i <= Math.min(mid - 1, optHi); i++) {
+            double candidate = prev[i] + cost(sumW, sumX, sumXX, i, mid);
+            if (candidate < best) {
+                best      = candidate;
+                bestSplit = i;
+            }
+        }
+        cost [ mid ] = best;
+        split[ mid ] = bestSplit;
+
+        solve(sumW, sumX, sumXX, prev, cost, split,
+              lo, mid - 1, optLo, bestSplit);
+        solve(sumW, sumX, sumXX, prev, cost, split,
+              mid + 1, hi, bestSplit, optHi);
+    }
+
+    // weighted sum of squared distances from the mean of [from, to)
+    private static double cost(
+            double sumW[], double sumX[], double sumXX[], int from, int to)
+    {
+        double w  = sumW [to] - sumW [from];
+        double x  = sumX [to] - sumX [from];
+        double xx = sumXX[to] - sumXX[from];
+        return Math.max(0, xx - x * x / w);
+    }
+
+    private static double value(double winProbability) {
+        return winProbability * winProbability;
+    }
+
+
+    //--------------------------------------------------------------------
+    // always exact
+    public void setThorough(boolean highPrecision) {}
+
+
+    //--------------------------------------------------------------------
+    public String id()
+    {
+        return "sorted";
+    }
+}
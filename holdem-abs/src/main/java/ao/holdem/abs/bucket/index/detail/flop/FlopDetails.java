@@ -102,11 +102,12 @@ public class FlopDetails
         final byte[] turnCounts =
                 new byte[ Flop.CANONS];
 
+        // all turns of a flop are enumerated on the same thread
         HandEnum.uniqueTurns(
                 new Traverser<Turn>() {
             public void traverse(Turn turn) {
                 turnCounts[ turn.flop().canonIndex() ]++;
-            }});
+            }}, Runtime.getRuntime().availableProcessors());
 
         return turnCounts;
     }
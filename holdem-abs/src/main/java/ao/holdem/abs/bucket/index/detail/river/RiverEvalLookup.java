@@ -16,6 +16,7 @@ import ao.holdem.abs.odds.agglom.OddFinder;
 import ao.holdem.abs.odds.agglom.impl.PreciseHeadsUpOdds;
 import ao.util.data.LongBitSet;
 import ao.util.io.Dirs;
+import ao.util.pass.Filter;
 import ao.util.pass.Traverser;
 import ao.util.persist.PersistentInts;
 import ao.util.time.Stopwatch;
@@ -23,8 +24,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Date: Feb 10, 2009
@@ -44,6 +55,14 @@ public enum RiverEvalLookup
 
     private static final int  chunk    = 20 * 1000 * 1000;
 
+    // rivers per traversal block, and per range handed to a scan thread
+    private static final int  BLOCK        = 8 * 1024;
+    private static final long SCAN_CHUNK   = 4 * 1024 * 1024;
+
+    // 1 GB of chars per mapped segment
+    private static final int  SEGMENT_BITS = 29;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
 
 
     //--------------------------------------------------------------------
@@ -67,62 +86,113 @@ public enum RiverEvalLookup
 
 
     //--------------------------------------------------------------------
+    // Chunks are computed concurrently, one per thread, and appended
+    //  in order as they complete, so the files are always a prefix of
+    //  the full details and can be resumed from their length.
     private static void computeEvalDetails()
     {
-        LOG.debug("computing");
+        int  nThreads  = Runtime.getRuntime().availableProcessors();
+        int  chunkSize = chunkSize(nThreads);
+        long offset    = resumeOffset();
+        LOG.debug("computing from " + offset + " in chunks of " +
+                  chunkSize + " on " + nThreads + " threads");
 
-        long offset    = strRepF.length() / (Character.SIZE / 8);
-        long remaining = (River.CANONS + 1) - offset;
-        long chunks    = remaining / chunk + 1;
-        for (long c = 0; c < chunks; c++)
-        {
-            computeEvalDetails(offset + c * chunk);
+        ExecutorService exec = Executors.newFixedThreadPool(nThreads);
+        try {
+            Queue<Future<EvalDetails>> inFlight = new ArrayDeque<>();
+            long next = offset;
+            while (next < River.CANONS || ! inFlight.isEmpty())
+            {
+                // at most one chunk per thread is held in memory
+                while (next < River.CANONS && inFlight.size() < nThreads)
+                {
+                    final long from        = next;
+                    final long toExcluding =
+                            Math.min(River.CANONS, from + chunkSize);
+                    inFlight.add(exec.submit(new Callable<EvalDetails>() {
+                        public EvalDetails call() throws Exception {
+                            return computeEvalDetails(from, toExcluding);
+                        }}));
+                    next = toExcluding;
+                }
+
+                appendEvalDetails( inFlight.remove().get() );
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    private static int chunkSize(int nThreads)
+    {
+        long perRiver = (Short.SIZE + Byte.SIZE + Character.SIZE) / 8;
+        long fits     = Runtime.getRuntime().maxMemory() / 2 /
+                            (perRiver * nThreads);
+        return (int) Math.max(1, Math.min(chunk, fits));
+    }
+
+    // a chunk that was partly appended to only one of the files
+    //  is dropped from the other
+    private static long resumeOffset()
+    {
+        long offset = Math.min(strRepF.length(), winProbF.length())
+                        / (Character.SIZE / 8);
+        try {
+            truncate(strRepF,  offset);
+            truncate(winProbF, offset);
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+        return offset;
+    }
+    private static void truncate(File file, long count) throws IOException
+    {
+        long length = count * (Character.SIZE / 8);
+        if (! file.exists() || file.length() == length) return;
+
+        LOG.debug("truncating " + file + " to " + count);
+        try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+            f.setLength( length );
         }
     }
 
-    private static void computeEvalDetails(long from)
+
+    //--------------------------------------------------------------------
+    private static EvalDetails computeEvalDetails(
+            long from, long toExcluding)
     {
         LOG.debug("chunk from " + from);
         Stopwatch timer = new Stopwatch();
 
-        long toExcluding =
-                Math.min(River.CANONS, from + chunk);
-        int  count       = (int)(toExcluding - from);
-        if (count == 0) return;
-
         LongBitSet allowHoles  = new LongBitSet(CanonHole.CANONS);
         LongBitSet allowFlops  = new LongBitSet(Flop.CANONS);
         LongBitSet allowTurns  = new LongBitSet(Turn.CANONS);
-        LongBitSet allowRivers = new LongBitSet(River.CANONS);
 
         computeAllowedEvalDetails(
                 from, toExcluding,
-                allowHoles, allowFlops, allowTurns, allowRivers);
+                allowHoles, allowFlops, allowTurns);
 
-        short[] strengths  = new short[ count ];
-        byte [] represents = new byte [ count ];
-        char [] winProbs   = new char [ count ];
+        EvalDetails details = new EvalDetails(
+                from, (int)(toExcluding - from));
 
         computeEvalDetailsForAllowed(
-                from, strengths, represents, winProbs,
-                allowHoles, allowFlops, allowTurns, allowRivers);
-
-        appendEvalDetails(strengths, represents, winProbs);
+                details, allowHoles, allowFlops, allowTurns);
 
         LOG.debug("chunk from " + from + " took " + timer.timing());
+        return details;
     }
 
-    private static void appendEvalDetails(
-            short[] strengths, byte[] represents, char[] winProbs)
+    private static void appendEvalDetails(EvalDetails details)
     {
-        try { doAppendEvalDetails(strengths, represents, winProbs); }
+        try { doAppendEvalDetails(details); }
         catch (IOException e) { throw new Error(e); }
     }
-    private static void doAppendEvalDetails(
-            short[] strengths, byte[] represents, char[] winProbs)
+    private static void doAppendEvalDetails(EvalDetails details)
               throws IOException
     {
-        LOG.debug("appending");
+        LOG.debug("appending " + details.FROM);
 
         DataOutputStream strRepOut  =
                 new DataOutputStream(new BufferedOutputStream(
@@ -130,46 +200,41 @@ public enum RiverEvalLookup
         DataOutputStream winProbOut =
                 new DataOutputStream(new BufferedOutputStream(
                         new FileOutputStream(winProbF, true)));
-        for (int i = 0; i < strengths.length; i++) {
+        for (int i = 0; i < details.STRENGTHS.length; i++) {
             strRepOut.writeChar(
-                    encode(strengths [i],
-                           represents[i]));
-            winProbOut.writeChar(winProbs[i]);
+                    encode(details.STRENGTHS [i],
+                           details.REPRESENTS[i]));
+            winProbOut.writeChar(details.WIN_PROBS[i]);
         }
         strRepOut.close();
         winProbOut.close();
     }
 
     private static void computeEvalDetailsForAllowed(
-            final long       offset,
-            final short[]    strengths,
-            final byte []    represents,
-            final char []    winProbs,
-            final LongBitSet allowHoles,
-            final LongBitSet allowFlops,
-            final LongBitSet allowTurns,
-            final LongBitSet allowRivers)
+            final EvalDetails details,
+            final LongBitSet  allowHoles,
+            final LongBitSet  allowFlops,
+            final LongBitSet  allowTurns)
     {
         LOG.debug("computing details for allowed");
 
-//        int     cores = Runtime.getRuntime().availableProcessors();
-//        int freeCores = Math.max(1, cores - 1);
-//
-//        final ThreadPoolExecutor exec = new ThreadPoolExecutor(
-//                1,
-//                freeCores,
-//                5, TimeUnit.SECONDS,
-//                new ArrayBlockingQueue<Runnable>(1));
-//        final ExecutorService exec = Executors.newFixedThreadPool(
-//                freeCores);
-//        final ExecutorService exec = Executors.newCachedThreadPool();
+        final long    offset     = details.FROM;
+        final long    toExcluding = offset + details.STRENGTHS.length;
+        final short[] strengths  = details.STRENGTHS;
+        final byte [] represents = details.REPRESENTS;
+        final char [] winProbs   = details.WIN_PROBS;
 
         final OddFinder odds = new PreciseHeadsUpOdds();
         HandEnum.rivers(
                 new BitFilter<CanonHole>(allowHoles),
                 new BitFilter<Flop>     (allowFlops),
                 new BitFilter<Turn>     (allowTurns),
-                new BitFilter<River>    (allowRivers),
+                new Filter<River>() {
+                    public boolean accept(River river) {
+                        long index = river.canonIndex();
+                        return offset <= index && index < toExcluding;
+                    }
+                },
                 new Traverser<River>() {
             public void traverse(final River river) {
                 final int index = (int)(river.canonIndex() - offset);
@@ -177,53 +242,33 @@ public enum RiverEvalLookup
                 if (represents[ index ] == 0) {
                     represents[ index ] = 1;
 
-//                    exec.submit(new Runnable() {
-//                        public void run() {
-                            strengths[ index ] = CanonEval.eval(river);
-                            winProbs [ index ] =
-                                    ProbabilityEncoding.encodeWinProb(
-                                            CanonEval.vsRandom(river, odds));
-//                        }});
+                    strengths[ index ] = CanonEval.eval(river);
+                    winProbs [ index ] =
+                            ProbabilityEncoding.encodeWinProb(
+                                    CanonEval.vsRandom(river, odds));
                 } else {
                     represents[ index ]++;
                 }
-
-//                if (Rand.nextBoolean(100000)) {
-//                    System.out.println(
-//                        ((ThreadPoolExecutor) exec).getActiveCount() + "\t" +
-//                        ((ThreadPoolExecutor) exec).getPoolSize() + "\t" +
-//                        ((ThreadPoolExecutor) exec).getQueue().size());
-//                }
-
-//                else if (strengths[ index ] != river.eval()) {
-//                    LOG.error("inconcistent " + river);
-//                }
             }});
-
-//        LOG.debug("awaiting chunk termination");
-//        exec.shutdown();
-//        try {
-//            exec.awaitTermination(100, TimeUnit.DAYS);
-//        } catch (InterruptedException e) {
-//            throw new Error( e );
-//        }
     }
 
 
+    // the rivers of each turn are contiguous,
+    //  so only the turns that overlap the chunk are looked up
     private static void computeAllowedEvalDetails(
             final long       from,
             final long       toExcluding,
             final LongBitSet allowHoles,
             final LongBitSet allowFlops,
-            final LongBitSet allowTurns,
-            final LongBitSet allowRivers)
+            final LongBitSet allowTurns)
     {
         LOG.debug("computing allowed");
 
-        for (long river = from; river < toExcluding; river++)
+        for (int turn = TurnRivers.turnFor( from );
+                 turn < Turn.CANONS &&
+                     TurnRivers.firstRiverOf( turn ) < toExcluding;
+                 turn++)
         {
-            int turn = TurnRivers.turnFor( river );
-
             CanonFlopDetail flopDetail = FlopDetails.containing(turn);
             int flop = (int) flopDetail.canonIndex();
             int hole = (int) flopDetail.holeDetail().canonIndex();
@@ -231,7 +276,24 @@ public enum RiverEvalLookup
             allowHoles .set( hole );
             allowFlops .set( flop );
             allowTurns .set( turn );
-            allowRivers.set( river);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private static class EvalDetails
+    {
+        public final long    FROM;
+        public final short[] STRENGTHS;
+        public final byte [] REPRESENTS;
+        public final char [] WIN_PROBS;
+
+        public EvalDetails(long from, int count)
+        {
+            FROM       = from;
+            STRENGTHS  = new short[ count ];
+            REPRESENTS = new byte [ count ];
+            WIN_PROBS  = new char [ count ];
         }
     }
 
@@ -287,56 +349,23 @@ public enum RiverEvalLookup
 
 
     public static void traverse(
-            long            offset,
-            long            count,
-            VsRandomVisitor traverser)
+            long                  offset,
+            long                  count,
+            final VsRandomVisitor traverser)
     {
-        try {
-            doTraverse(offset, count, traverser);
-        } catch (IOException e) {
-            throw new Error(
-                    "offset: " + offset + ", " +
-                    "count: "  + count, e);
-        }
-    }
-
-    // for possible speed-ups, see:
-    //   http://nadeausoftware.com/articles/
-    //      2008/02/java_tip_how_read_files_quickly
-    private static void doTraverse(
-            long            offset,
-            long            count,
-            VsRandomVisitor traverser) throws IOException
-    {
-        DataInputStream winProbIn =
-                new DataInputStream(new BufferedInputStream(
-                        new FileInputStream(winProbF)));
-        DataInputStream strRepIn =
-                new DataInputStream(new BufferedInputStream(
-                        new FileInputStream(strRepF)));
-
-        if (offset > 0) {
-            long toSkip = offset * (Character.SIZE / 8);
-            if (toSkip != winProbIn.skip( toSkip )) {
-                throw new Error("unable to skip");
-            }
-            if (toSkip != strRepIn.skip( toSkip )) {
-                throw new Error("unable to skip");
-            }
-        }
-
-        for (long i = 0; i < count; i++) {
-            long river   = offset + i;
-            char winProb = winProbIn.readChar();
-            char strRep  = strRepIn .readChar();
-            traverser.traverse(
-                    river,
-                    ProbabilityEncoding.decodeWinProb(winProb),
-                    decodeRep(strRep));
-        }
-
-        strRepIn .close();
-        winProbIn.close();
+        traverseVsRandomBlocks(offset, count, new VsRandomBlockVisitor() {
+            public void traverse(
+                    long   firstCanonIndex,
+                    double strengthsVsRandom[],
+                    byte   represents[],
+                    int    blockSize) {
+                for (int i = 0; i < blockSize; i++) {
+                    traverser.traverse(
+                            firstCanonIndex + i,
+                            strengthsVsRandom[ i ],
+                            represents[ i ]);
+                }
+            }});
     }
 
 
@@ -364,49 +393,217 @@ public enum RiverEvalLookup
         traverse(0, River.CANONS, traverser);
     }
     public static void traverse(
-            long               offset,
-            long               count,
-            AbsVisitor traverser)
+            long             offset,
+            long             count,
+            final AbsVisitor traverser)
     {
-        try {
-            doTraverse(offset, count, traverser);
-        } catch (IOException e) {
-            throw new Error( e );
-        }
+        traverseBlocks(offset, count, new AbsBlockVisitor() {
+            public void traverse(
+                    long  firstCanonIndex,
+                    short strengths[],
+                    byte  represents[],
+                    int   blockSize) {
+                for (int i = 0; i < blockSize; i++) {
+                    traverser.traverse(
+                            firstCanonIndex + i,
+                            strengths [ i ],
+                            represents[ i ]);
+                }
+            }});
     }
 
-    // for possible speed-ups, see:
-    //   http://nadeausoftware.com/articles/
-    //      2008/02/java_tip_how_read_files_quickly
-    private static void doTraverse(
-            long       offset,
-            long       count,
-            AbsVisitor traverser) throws IOException
+
+    //--------------------------------------------------------------------
+    /**
+     * Visits [offset, offset + count) in blocks of up to BLOCK rivers,
+     *  read straight from the memory-mapped details.
+     */
+    public static void traverseBlocks(
+            long            offset,
+            long            count,
+            AbsBlockVisitor traverser)
     {
-        DataInputStream strRepIn =
-                new DataInputStream(new BufferedInputStream(
-                        new FileInputStream(strRepF),
-                        1024 * 1024));
+        char  strReps   [] = new char [ BLOCK ];
+        short strengths [] = new short[ BLOCK ];
+        byte  represents[] = new byte [ BLOCK ];
 
-        if (offset > 0)
+        long end = offset + count;
+        for (long from = offset; from < end;)
         {
-            long strSkip = offset * (Character.SIZE / 8);
-            if (strSkip != strRepIn.skip( strSkip )) {
-                throw new Error("unable to skip");
+            int blockSize = read(Mapped.STR_REP, from,
+                                 strReps, (int) Math.min(BLOCK, end - from));
+            for (int i = 0; i < blockSize; i++) {
+                strengths [ i ] = decodeStrength(strReps[ i ]);
+                represents[ i ] = decodeRep     (strReps[ i ]);
             }
+
+            traverser.traverse(from, strengths, represents, blockSize);
+            from += blockSize;
         }
+    }
 
-        for (long i = 0; i < count; i++)
+    public static void traverseVsRandomBlocks(
+            long                 offset,
+            long                 count,
+            VsRandomBlockVisitor traverser)
+    {
+        char   strReps   [] = new char  [ BLOCK ];
+        char   winProbs  [] = new char  [ BLOCK ];
+        double strengths [] = new double[ BLOCK ];
+        byte   represents[] = new byte  [ BLOCK ];
+
+        long end = offset + count;
+        for (long from = offset; from < end;)
         {
-            long river = offset + i;
-            char strRep = strRepIn.readChar();
-            traverser.traverse(
-                    river,
-                    decodeStrength(strRep),
-                    decodeRep(strRep));
+            int max       = (int) Math.min(BLOCK, end - from);
+            int blockSize = read(Mapped.STR_REP,  from, strReps,  max);
+            read(Mapped.WIN_PROB, from, winProbs, blockSize);
+
+            for (int i = 0; i < blockSize; i++) {
+                strengths [ i ] =
+                        ProbabilityEncoding.decodeWinProb(winProbs[ i ]);
+                represents[ i ] = decodeRep(strReps[ i ]);
+            }
+
+            traverser.traverse(from, strengths, represents, blockSize);
+            from += blockSize;
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Visits [offset, offset + count) on nThreads threads, each with
+     *  its own visitor.  Each visitor sees disjoint ranges of rivers in
+     *  increasing order, but not all of them, so per-thread results
+     *  have to be merged from the returned visitors.
+     *
+     * @return one visitor per thread, to be merged
+     */
+    public static <V extends AbsBlockVisitor> List<V> scan(
+            long                    offset,
+            long                    count,
+            final VisitorFactory<V> visitors,
+            int                     nThreads)
+    {
+        return scanRanges(offset, count, new RangeVisitor<V>() {
+            public V newVisitor() {
+                return visitors.newVisitor();
+            }
+            public void traverse(long from, long count, V visitor) {
+                RiverEvalLookup.traverseBlocks(from, count, visitor);
+            }}, nThreads);
+    }
+
+    public static <V extends VsRandomBlockVisitor> List<V> scanVsRandom(
+            long                    offset,
+            long                    count,
+            final VisitorFactory<V> visitors,
+            int                     nThreads)
+    {
+        return scanRanges(offset, count, new RangeVisitor<V>() {
+            public V newVisitor() {
+                return visitors.newVisitor();
+            }
+            public void traverse(long from, long count, V visitor) {
+                RiverEvalLookup.traverseVsRandomBlocks(from, count, visitor);
+            }}, nThreads);
+    }
+
+    private static <V> List<V> scanRanges(
+            long                  offset,
+            long                  count,
+            final RangeVisitor<V> ranges,
+            int                   nThreads)
+    {
+        final long       end  = offset + count;
+        final AtomicLong next = new AtomicLong( offset );
+
+        List<Callable<V>> tasks = new ArrayList<>();
+        for (int t = 0; t < nThreads; t++) {
+            tasks.add(new Callable<V>() {
+                public V call() throws Exception {
+                    V visitor = ranges.newVisitor();
+                    for (long from;
+                              (from = next.getAndAdd(SCAN_CHUNK)) < end;) {
+                        ranges.traverse(from,
+                                Math.min(SCAN_CHUNK, end - from), visitor);
+                    }
+                    return visitor;
+                }});
+        }
+
+        ExecutorService exec = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<V> visitors = new ArrayList<>();
+            for (Future<V> done : exec.invokeAll( tasks )) {
+                visitors.add( done.get() );
+            }
+            return visitors;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdown();
         }
+    }
 
-        strRepIn.close();
+    private static interface RangeVisitor<V> extends VisitorFactory<V>
+    {
+        public void traverse(long from, long count, V visitor);
+    }
+
+
+    //--------------------------------------------------------------------
+    // fills into[0 .. n) with the chars starting at the given river,
+    //  where n is at most max, but stops at the end of a segment
+    private static int read(
+            CharBuffer segments[], long from, char into[], int max)
+    {
+        CharBuffer segment =
+                segments[ (int) (from >>> SEGMENT_BITS) ].duplicate();
+        int        at      = (int) (from & SEGMENT_MASK);
+        int        n       = Math.min(max, segment.limit() - at);
+
+        segment.position( at );
+        segment.get(into, 0, n);
+        return n;
+    }
+
+    private static CharBuffer[] map(File file)
+    {
+        try {
+            return doMap(file);
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+    private static CharBuffer[] doMap(File file) throws IOException
+    {
+        LOG.debug("mapping " + file);
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            FileChannel channel = in.getChannel();
+            long        chars   = in.length() / (Character.SIZE / 8);
+
+            CharBuffer segments[] = new CharBuffer[
+                    (int) ((chars + SEGMENT_MASK) >>> SEGMENT_BITS) ];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                long size  = Math.min(SEGMENT_MASK + 1, chars - start);
+                segments[ i ] = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        start * (Character.SIZE / 8),
+                        size  * (Character.SIZE / 8)
+                    ).asCharBuffer();
+            }
+            return segments;
+        }
+    }
+
+    // mapped on first use, after the details have been computed
+    private static class Mapped
+    {
+        private static final CharBuffer STR_REP [] = map(strRepF);
+        private static final CharBuffer WIN_PROB[] = map(winProbF);
     }
 
 
@@ -476,4 +673,28 @@ public enum RiverEvalLookup
                 double strengthVsRandom,
                 byte   represents);
     }
+
+    // blocks start at firstCanonIndex, and only the first blockSize
+    //  entries of the arrays are set, which are reused between blocks
+    public static interface AbsBlockVisitor
+    {
+        public void traverse(
+                long  firstCanonIndex,
+                short strengths[],
+                byte  represents[],
+                int   blockSize);
+    }
+    public static interface VsRandomBlockVisitor
+    {
+        public void traverse(
+                long   firstCanonIndex,
+                double strengthsVsRandom[],
+                byte   represents[],
+                int    blockSize);
+    }
+
+    public static interface VisitorFactory<V>
+    {
+        public V newVisitor();
+    }
 }
@@ -2,7 +2,6 @@ package ao.holdem.abs.bucket.index.detail.river.compact;
 
 import ao.Infrastructure;
 import ao.holdem.canon.river.River;
-import ao.holdem.abs.bucket.index.detail.range.CanonRange;
 import ao.holdem.abs.bucket.index.detail.river.RiverEvalLookup;
 import ao.util.io.Dirs;
 import ao.util.persist.PersistentBytes;
@@ -51,19 +50,16 @@ public enum CompactRiverCounts
     {
         LOG.debug("computeCounts");
 
-        final BitSet used = new BitSet();
-        RiverEvalLookup.traverse(
-            new CanonRange[]{CanonRange.newFromCount(
-                    0, River.CANONS)},
-            new RiverEvalLookup.VsRandomVisitor() {
-                public void traverse(
-                        long   canonIndex,
-                        double strengthVsRandom,
-                        byte   represents)
-                {
-                    used.set(represents);
-                }
-            });
+        BitSet used = new BitSet();
+        for (UsedCounts shard : RiverEvalLookup.scan(
+                0, River.CANONS,
+                new RiverEvalLookup.VisitorFactory<UsedCounts>() {
+                    public UsedCounts newVisitor() {
+                        return new UsedCounts();
+                    }},
+                Runtime.getRuntime().availableProcessors())) {
+            used.or( shard.USED );
+        }
 
         int  nextCount = 0;
         byte counts[]  = new byte[ used.cardinality() ];
@@ -76,6 +72,24 @@ public enum CompactRiverCounts
     }
 
 
+    private static class UsedCounts
+            implements RiverEvalLookup.AbsBlockVisitor
+    {
+        public final BitSet USED = new BitSet();
+
+        public void traverse(
+                long  firstCanonIndex,
+                short strengths[],
+                byte  represents[],
+                int   blockSize)
+        {
+            for (int i = 0; i < blockSize; i++) {
+                USED.set( represents[i] );
+            }
+        }
+    }
+
+
     //--------------------------------------------------------------------
     public static int  NUM_COUNTS = COUNTS.length;
 
@@ -2,7 +2,6 @@ package ao.holdem.abs.bucket.index.detail.river.compact;
 
 import ao.Infrastructure;
 import ao.holdem.canon.river.River;
-import ao.holdem.abs.bucket.index.detail.range.CanonRange;
 import ao.holdem.abs.bucket.index.detail.river.ProbabilityEncoding;
 import ao.holdem.abs.bucket.index.detail.river.RiverEvalLookup;
 import ao.util.data.primitive.CharList;
@@ -120,25 +119,41 @@ public enum CompactRiverProbabilities
     {
         LOG.debug("computing raw probability counts");
 
-        final int counts[] = new int[ ProbabilityEncoding.COUNT ];
-        RiverEvalLookup.traverse(
-            new CanonRange[]{CanonRange.newFromCount(
-                    0, River.CANONS)},
-            new RiverEvalLookup.VsRandomVisitor() {
-                public void traverse(
-                        long   canonIndex,
-                        double strengthVsRandom,
-                        byte   represents)
-                {
-                    char strAsChar =
-                            ProbabilityEncoding.encodeWinProb(
-                                    strengthVsRandom);
-                    counts[ strAsChar ] += represents;
-                }
-            });
+        int counts[] = new int[ ProbabilityEncoding.COUNT ];
+        for (ProbCounts shard : RiverEvalLookup.scanVsRandom(
+                0, River.CANONS,
+                new RiverEvalLookup.VisitorFactory<ProbCounts>() {
+                    public ProbCounts newVisitor() {
+                        return new ProbCounts();
+                    }},
+                Runtime.getRuntime().availableProcessors())) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[ i ] += shard.COUNTS[ i ];
+            }
+        }
         return counts;
     }
 
+    private static class ProbCounts
+            implements RiverEvalLookup.VsRandomBlockVisitor
+    {
+        public final int COUNTS[] = new int[ ProbabilityEncoding.COUNT ];
+
+        public void traverse(
+                long   firstCanonIndex,
+                double strengthsVsRandom[],
+                byte   represents[],
+                int    blockSize)
+        {
+            for (int i = 0; i < blockSize; i++) {
+                char strAsChar =
+                        ProbabilityEncoding.encodeWinProb(
+                                strengthsVsRandom[ i ]);
+                COUNTS[ strAsChar ] += represents[ i ];
+            }
+        }
+    }
+
 
     //--------------------------------------------------------------------
     public static char compact(double nonLossProbability)
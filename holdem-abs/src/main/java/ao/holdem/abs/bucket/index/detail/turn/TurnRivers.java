@@ -13,6 +13,7 @@ import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Date: Feb 10, 2009
@@ -55,7 +56,8 @@ public enum TurnRivers
         final int offsets[] = new int[ Turn.CANONS ];
         Arrays.fill(offsets, (int)(River.CANONS + 1));
 
-        final long[] count = {0};
+        // all rivers of a turn are enumerated on the same thread
+        final AtomicLong count = new AtomicLong();
         HandEnum.uniqueRivers(new Traverser<River>() {
             public void traverse(River river) {
                 int turn = river.turn().canonIndex();
@@ -63,10 +65,11 @@ public enum TurnRivers
                         Calc.unsigned(offsets[ turn ]),
                         river.canonIndex());
 
-                if (count[0]              == 0) System.out.println();
-                if (count[0]++ % 40000000 == 0) System.out.print(".");
+                long n = count.getAndIncrement();
+                if (n            == 0) System.out.println();
+                if (n % 40000000 == 0) System.out.print(".");
             }
-        });
+        }, Runtime.getRuntime().availableProcessors());
 
         return offsets;
     }
@@ -3,7 +3,6 @@ package ao.holdem.abs.bucket.v2;
 import ao.holdem.abs.bucket.index.detail.CanonDetail;
 import ao.holdem.abs.bucket.index.detail.flop.FlopDetails;
 import ao.holdem.abs.bucket.index.detail.preflop.HoleDetails;
-import ao.holdem.abs.bucket.index.detail.river.CanonRiverDetail;
 import ao.holdem.abs.bucket.index.detail.river.RiverEvalLookup;
 import ao.holdem.abs.bucket.index.detail.turn.TurnDetails;
 import ao.holdem.abs.card.CentroidStrengthAbstraction;
@@ -15,10 +14,7 @@ import ao.holdem.model.card.canon.hole.CanonHole;
 import com.google.common.io.Files;
 
 import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.List;
 
 /**
  *
@@ -74,6 +70,20 @@ public enum PercentileImperfectAbstractionBuilder
 
 
 
+    /**
+     * @return abstraction that looks up buckets in precomputed tables
+     * @see TabledStrengthAbstraction
+     */
+    public static TabledStrengthAbstraction loadOrBuildTabled(int holeCount, int flopCount, int turnCount, int riverCount) {
+        CentroidStrengthAbstraction centroids = loadOrBuildAndSave(holeCount, flopCount, turnCount, riverCount);
+        return TabledStrengthAbstraction.loadOrBuild(centroids, tablesFor(centroids));
+    }
+
+
+    private static File tablesFor(CentroidStrengthAbstraction abstraction) {
+        File path = pathFor(abstraction);
+        return new File(path.getParentFile(), path.getName().replace(".bin", ""));
+    }
     private static File pathFor(CentroidStrengthAbstraction abstraction) {
         return pathFor(
                 abstraction.count(Round.PREFLOP),
@@ -99,143 +109,74 @@ public enum PercentileImperfectAbstractionBuilder
     
     
     private static double[] holeCentroids(int holeBuckets) {
-        SortedMap<Double, Integer> strengthCounts = holeStrengthCounts();
-        return partitionStrengthCounts(strengthCounts, holeBuckets);
+        return holeStrengthCounts().partition(holeBuckets);
     }
     private static double[] flopCentroids(int count) {
-        SortedMap<Double, Integer> strengthCounts = flopStrengthCounts();
-        return partitionStrengthCounts(strengthCounts, count);
+        return flopStrengthCounts().partition(count);
     }
     private static double[] turnCentroids(int count) {
-        SortedMap<Double, Integer> strengthCounts = turnStrengthCounts();
-        return partitionStrengthCounts(strengthCounts, count);
+        return turnStrengthCounts().partition(count);
     }
     private static double[] riverCentroids(int count) {
-        SortedMap<Double, Integer> strengthCounts = riverStrengthCounts();
-        return partitionStrengthCounts(strengthCounts, count);
+        return riverStrengthCounts().partition(count);
     }
 
 
-    private static SortedMap<Double, Integer> holeStrengthCounts() {
-        StrengthCounter counter = new StrengthCounter();
+    private static StrengthCounts holeStrengthCounts() {
+        StrengthCounts counter = new StrengthCounts();
         for (char i = 0; i < CanonHole.CANONS; i++) {
-            counter.add(HoleDetails.lookup(i));
+            add(counter, HoleDetails.lookup(i));
         }
-        return counter.strengthCounts;
+        return counter;
     }
-    private static SortedMap<Double, Integer> flopStrengthCounts() {
-        StrengthCounter counter = new StrengthCounter();
+    private static StrengthCounts flopStrengthCounts() {
+        StrengthCounts counter = new StrengthCounts();
         for (int i = 0; i < Flop.CANONS; i++) {
-            counter.add(FlopDetails.lookup(i));
+            add(counter, FlopDetails.lookup(i));
         }
-        return counter.strengthCounts;
+        return counter;
     }
-    private static SortedMap<Double, Integer> turnStrengthCounts() {
-        StrengthCounter counter = new StrengthCounter();
+    private static StrengthHistogram turnStrengthCounts() {
+        StrengthHistogram counter = new StrengthHistogram();
         for (int i = 0; i < Turn.CANONS; i++) {
-            counter.add(TurnDetails.lookup(i));
-        }
-        return counter.strengthCounts;
-    }
-    private static SortedMap<Double, Integer> riverStrengthCounts() {
-        final StrengthCounter counter = new StrengthCounter();
-
-//        OddFinder odds = new PreciseHeadsUpOdds();
-//        for (long i = 0; i < River.CANONS; i++) {
-//            List<River> examples = RiverExamples.examplesOf(i);
-//
-//            River example = examples.get(0);
-//            Hole hole = example.turn().hole().reify();
-//            Community community = new Community(
-//                    example.turn().flop().flopA(),
-//                    example.turn().flop().flopB(),
-//                    example.turn().flop().flopC(),
-//                    example.turn().turnRealCard(),
-//                    example.riverRealCard());
-//
-//            double strength = odds.compute(hole, community, 1).strengthVsRandom();
-//            CanonDetail detail = new CanonRiverDetail(strength, i, (byte) examples.size());
-//            counter.add(detail);
-//        }
-
-        RiverEvalLookup.traverse(0, River.CANONS, new RiverEvalLookup.VsRandomVisitor() {
-            @Override public void traverse(long canonIndex, double strengthVsRandom, byte represents) {
-                CanonRiverDetail detail = new CanonRiverDetail(strengthVsRandom, canonIndex, represents);
-                counter.add(detail);
-            }
-        });
-
-        return counter.strengthCounts;
-    }
-
-
-
-    private static double[] partitionStrengthCounts(SortedMap<Double, Integer> strengthCounts, int count) {
-        long totalCount = 0;
-        for (Integer represents : strengthCounts.values()) {
-            totalCount += represents;
-        }
-
-        long perBucket = (long) Math.ceil((double) totalCount / count);
-
-        double[] centroids = new double[count];
-        int nextCentroid = 0;
-
-        Map<Double, Integer> bucket = new HashMap<>();
-        long nextBucketRemaining = perBucket;
-
-        for (Map.Entry<Double, Integer> strengthCount : strengthCounts.entrySet()) {
-            nextBucketRemaining -= strengthCount.getValue();
-            bucket.put(strengthCount.getKey(), strengthCount.getValue());
-
-            if (nextBucketRemaining <= 0) {
-                centroids[nextCentroid++] = centroid(bucket);
-
-                bucket.clear();
-                nextBucketRemaining = perBucket + nextBucketRemaining;
-            }
+            add(counter, TurnDetails.lookup(i));
         }
-
-        if (! bucket.isEmpty()) {
-            centroids[nextCentroid++] = centroid(bucket);
-        }
-
-        if (nextCentroid != centroids.length) {
-            throw new Error();
+        return counter;
+    }
+    private static StrengthHistogram riverStrengthCounts() {
+        StrengthHistogram counter = new StrengthHistogram();
+
+        List<RiverShard> shards = RiverEvalLookup.scanVsRandom(
+                0, River.CANONS,
+                new RiverEvalLookup.VisitorFactory<RiverShard>() {
+                    @Override public RiverShard newVisitor() {
+                        return new RiverShard();
+                    }
+                },
+                Runtime.getRuntime().availableProcessors());
+
+        for (RiverShard shard : shards) {
+            counter.add(shard.counter);
         }
-
-        return centroids;
+        return counter;
     }
 
-    private static double centroid(Map<Double, Integer> bucket) {
-        if (bucket.isEmpty()) {
-            throw new Error();
-        }
-
-        double min = Double.POSITIVE_INFINITY;
-        double max = Double.NEGATIVE_INFINITY;
-
-        for (Double strength : bucket.keySet()) {
-            min = Math.min(min, strength);
-            max = Math.max(max, strength);
-        }
-
-        return (min + max) / 2;
+    private static void add(StrengthCounts counter, CanonDetail detail) {
+        counter.add(detail.strength(), detail.represents());
+    }
+    private static void add(StrengthHistogram counter, CanonDetail detail) {
+        counter.add(detail.strength(), detail.represents());
     }
 
 
-    private static class StrengthCounter {
-        final SortedMap<Double, Integer> strengthCounts = new TreeMap<>();
-
-        public void add(CanonDetail detail) {
-            int represents = detail.represents();
+    private static class RiverShard implements RiverEvalLookup.VsRandomBlockVisitor {
+        final StrengthHistogram counter = new StrengthHistogram();
 
-            Integer current = strengthCounts.get(detail.strength());
-            if (current != null) {
-                represents += current;
+        @Override public void traverse(
+                long firstCanonIndex, double[] strengthsVsRandom, byte[] represents, int blockSize) {
+            for (int i = 0; i < blockSize; i++) {
+                counter.add(strengthsVsRandom[i], represents[i]);
             }
-
-            strengthCounts.put(detail.strength(), represents);
         }
     }
 }
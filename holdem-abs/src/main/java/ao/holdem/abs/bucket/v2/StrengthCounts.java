@@ -0,0 +1,90 @@
+package ao.holdem.abs.bucket.v2;
+
+import java.util.Arrays;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Exact counts of hand strengths, kept as parallel primitive arrays of
+ *  (strength, represents) and sorted only when partitioned.
+ *
+ * Used for hole and flop strengths, which are finer than the bins of a
+ *  StrengthHistogram; about 16 bytes per added strength.
+ */
+public class StrengthCounts
+{
+    private double strengths [] = new double[ 1024 ];
+    private long   represents[] = new long  [ 1024 ];
+    private int    size;
+
+
+    public void add(double strength, long count) {
+        if (size == strengths.length) {
+            strengths  = Arrays.copyOf(strengths,  size * 2);
+            represents = Arrays.copyOf(represents, size * 2);
+        }
+
+        strengths [size] = strength;
+        represents[size] = count;
+        size++;
+    }
+
+
+    /**
+     * Splits the strengths into count buckets that each represent about
+     *  the same number of hands, see StrengthHistogram.partition.
+     *
+     * @param count number of buckets
+     * @return by bucket, midpoint of the lowest and highest strength
+     */
+    public double[] partition(int count) {
+        double distinct[] = Arrays.copyOf(strengths, size);
+        Arrays.sort(distinct);
+
+        int distinctCount = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (distinctCount == 0 ||
+                    Double.compare(distinct[distinctCount - 1], distinct[i]) != 0) {
+                distinct[distinctCount++] = distinct[i];
+            }
+        }
+
+        long counts[] = new long[ distinctCount ];
+        long totalCount = 0;
+        for (int i = 0; i < size; i++) {
+            int index = Arrays.binarySearch(
+                    distinct, 0, distinctCount, strengths[i]);
+            counts[index] += represents[i];
+            totalCount    += represents[i];
+        }
+
+        long perBucket = (long) Math.ceil((double) totalCount / count);
+
+        double[] centroids = new double[count];
+        int nextCentroid = 0;
+
+        int  bucketFrom = 0;
+        long nextBucketRemaining = perBucket;
+        for (int i = 0; i < distinctCount; i++) {
+            nextBucketRemaining -= counts[i];
+
+            if (nextBucketRemaining <= 0) {
+                centroids[nextCentroid++] = (distinct[bucketFrom] + distinct[i]) / 2;
+
+                bucketFrom = i + 1;
+                nextBucketRemaining = perBucket + nextBucketRemaining;
+            }
+        }
+
+        if (bucketFrom < distinctCount) {
+            centroids[nextCentroid++] =
+                    (distinct[bucketFrom] + distinct[distinctCount - 1]) / 2;
+        }
+
+        if (nextCentroid != centroids.length) {
+            throw new Error();
+        }
+
+        return centroids;
+    }
+}
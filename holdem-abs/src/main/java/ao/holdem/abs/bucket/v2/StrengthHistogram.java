@@ -0,0 +1,104 @@
+package ao.holdem.abs.bucket.v2;
+
+import java.util.Arrays;
+
+/**
+ * Counts of hand strengths in [0, 1], in fixed-width bins, along with
+ *  the lowest and highest strength seen in each bin.
+ *
+ * The bins are narrower than half the resolution of the strengths
+ *  that are stored as chars (out of 65535), so no two such strengths
+ *  ever share a bin, and partitioning gives the same centroids as
+ *  partitioning by exact strength.  That holds for turn and river
+ *  strengths.
+ *
+ * Flop strengths (floats) and hole strengths (doubles) are finer than
+ *  the bins, distinct strengths could share a bin and a bucket edge
+ *  could only fall between bins, so they are counted exactly by
+ *  StrengthCounts instead.
+ *
+ * Takes about 3 MB, shards can be filled separately and merged.
+ */
+public class StrengthHistogram
+{
+    private static final int BINS = 1 << 17;
+
+    private final long   counts[] = new long  [BINS];
+    private final double mins  [] = new double[BINS];
+    private final double maxes [] = new double[BINS];
+
+
+    public StrengthHistogram() {
+        Arrays.fill(mins,  Double.POSITIVE_INFINITY);
+        Arrays.fill(maxes, Double.NEGATIVE_INFINITY);
+    }
+
+
+    public void add(double strength, long represents) {
+        int bin = Math.min((int) (strength * BINS), BINS - 1);
+
+        counts[bin] += represents;
+        mins  [bin]  = Math.min(mins [bin], strength);
+        maxes [bin]  = Math.max(maxes[bin], strength);
+    }
+
+    public void add(StrengthHistogram shard) {
+        for (int bin = 0; bin < BINS; bin++) {
+            counts[bin] += shard.counts[bin];
+            mins  [bin]  = Math.min(mins [bin], shard.mins [bin]);
+            maxes [bin]  = Math.max(maxes[bin], shard.maxes[bin]);
+        }
+    }
+
+
+    /**
+     * Splits the strengths into count buckets that each represent about
+     *  the same number of hands.
+     *
+     * @param count number of buckets
+     * @return by bucket, midpoint of the lowest and highest strength
+     */
+    public double[] partition(int count) {
+        long totalCount = 0;
+        for (long represents : counts) {
+            totalCount += represents;
+        }
+
+        long perBucket = (long) Math.ceil((double) totalCount / count);
+
+        double[] centroids = new double[count];
+        int nextCentroid = 0;
+
+        double bucketMin = Double.POSITIVE_INFINITY;
+        double bucketMax = Double.NEGATIVE_INFINITY;
+        long nextBucketRemaining = perBucket;
+
+        for (int bin = 0; bin < BINS; bin++) {
+            if (counts[bin] == 0) {
+                continue;
+            }
+
+            nextBucketRemaining -= counts[bin];
+            bucketMin = Math.min(bucketMin, mins [bin]);
+            bucketMax = Math.max(bucketMax, maxes[bin]);
+
+            if (nextBucketRemaining <= 0) {
+                centroids[nextCentroid++] = (bucketMin + bucketMax) / 2;
+
+                bucketMin = Double.POSITIVE_INFINITY;
+                bucketMax = Double.NEGATIVE_INFINITY;
+                nextBucketRemaining = perBucket + nextBucketRemaining;
+            }
+        }
+
+        if (bucketMin <= bucketMax) {
+            centroids[nextCentroid++] = (bucketMin + bucketMax) / 2;
+        }
+
+        if (nextCentroid != centroids.length) {
+            throw new Error();
+        }
+
+        return centroids;
+    }
+}
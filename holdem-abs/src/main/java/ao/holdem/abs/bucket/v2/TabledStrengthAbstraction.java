@@ -0,0 +1,236 @@
+package ao.holdem.abs.bucket.v2;
+
+import ao.holdem.abs.bucket.index.detail.flop.FlopDetails;
+import ao.holdem.abs.bucket.index.detail.preflop.HoleDetails;
+import ao.holdem.abs.bucket.index.detail.river.RiverEvalLookup;
+import ao.holdem.abs.bucket.index.detail.turn.TurnDetails;
+import ao.holdem.abs.card.CentroidStrengthAbstraction;
+import ao.holdem.ai.abs.card.CardAbstraction;
+import ao.holdem.ai.odds.OddsEvaluator;
+import ao.holdem.canon.CanonIndexer;
+import ao.holdem.canon.flop.Flop;
+import ao.holdem.canon.river.River;
+import ao.holdem.canon.turn.Turn;
+import ao.holdem.model.Round;
+import ao.holdem.model.card.Hole;
+import ao.holdem.model.card.canon.hole.CanonHole;
+import ao.holdem.model.card.sequence.CardSequence;
+import ao.holdem.model.card.Community;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * CentroidStrengthAbstraction with the bucket of every canonical hand
+ *  worked out ahead of time, so that looking up a bucket is a
+ *  canonicalization and a table read instead of a strength estimate.
+ *  The OddsEvaluator passed to indexInRound is not used.
+ *
+ * Strengths come from HoleDetails, FlopDetails, TurnDetails, and
+ *  RiverEvalLookup, which are exact, so close to the midpoint of two
+ *  centroids a hand can land in a different bucket than with a
+ *  sampled estimate.
+ *
+ * One byte per canonical hand and round (2.4 GB for the river),
+ *  memory-mapped read-only, so at most 256 buckets per round.
+ */
+public class TabledStrengthAbstraction implements CardAbstraction
+{
+    private static final Logger LOG =
+            Logger.getLogger(TabledStrengthAbstraction.class);
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+
+    public static TabledStrengthAbstraction loadOrBuild(
+            CentroidStrengthAbstraction centroids, File dir)
+    {
+        try {
+            return loadOrBuildChecked(centroids, dir);
+        } catch (IOException e) {
+            throw new Error(e);
+        }
+    }
+
+    private static TabledStrengthAbstraction loadOrBuildChecked(
+            CentroidStrengthAbstraction centroids, File dir) throws IOException
+    {
+        for (Round round : Round.VALUES) {
+            if (centroids.count(round) > 256) {
+                throw new IllegalArgumentException(
+                        round + " has more than 256 buckets");
+            }
+        }
+
+        if (! dir.isDirectory() && ! dir.mkdirs()) {
+            throw new IOException("can't create " + dir);
+        }
+
+        return new TabledStrengthAbstraction(
+                centroids,
+                loadOrBuild(centroids, Round.PREFLOP, CanonHole.CANONS, dir),
+                loadOrBuild(centroids, Round.FLOP,    Flop.CANONS,      dir),
+                loadOrBuild(centroids, Round.TURN,    Turn.CANONS,      dir),
+                loadOrBuild(centroids, Round.RIVER,   River.CANONS,     dir));
+    }
+
+    // built into a temporary file, so that a partial table is never loaded
+    private static MappedByteBuffer[] loadOrBuild(
+            CentroidStrengthAbstraction centroids, Round round, long canons, File dir)
+            throws IOException
+    {
+        File file = new File(dir, round.name().toLowerCase() + ".byte");
+        if (! file.canRead()) {
+            File building = new File(dir, file.getName() + ".building");
+            LOG.debug("building " + file);
+
+            MappedByteBuffer[] table = map(building, canons, FileChannel.MapMode.READ_WRITE);
+            fill(table, centroids, round);
+            for (MappedByteBuffer segment : table) {
+                segment.force();
+            }
+
+            if (! building.renameTo(file)) {
+                throw new IOException("can't rename " + building);
+            }
+        }
+
+        return map(file, canons, FileChannel.MapMode.READ_ONLY);
+    }
+
+    private static void fill(
+            final MappedByteBuffer[] table,
+            final CentroidStrengthAbstraction centroids,
+            final Round round)
+    {
+        switch (round) {
+            case PREFLOP:
+                for (char i = 0; i < CanonHole.CANONS; i++) {
+                    put(table, i, centroids.indexInRound(round, HoleDetails.lookup(i).strength()));
+                }
+                break;
+
+            case FLOP:
+                for (int i = 0; i < Flop.CANONS; i++) {
+                    put(table, i, centroids.indexInRound(round, FlopDetails.lookup(i).strength()));
+                }
+                break;
+
+            case TURN:
+                for (int i = 0; i < Turn.CANONS; i++) {
+                    put(table, i, centroids.indexInRound(round, TurnDetails.lookup(i).strength()));
+                }
+                break;
+
+            case RIVER:
+                // each thread writes its own rivers
+                RiverEvalLookup.scanVsRandom(0, River.CANONS,
+                        new RiverEvalLookup.VisitorFactory<RiverEvalLookup.VsRandomBlockVisitor>() {
+                    @Override public RiverEvalLookup.VsRandomBlockVisitor newVisitor() {
+                        return new RiverEvalLookup.VsRandomBlockVisitor() {
+                            @Override public void traverse(
+                                    long firstCanonIndex, double[] strengthsVsRandom, byte[] represents, int blockSize) {
+                                for (int i = 0; i < blockSize; i++) {
+                                    put(table, firstCanonIndex + i,
+                                            centroids.indexInRound(round, strengthsVsRandom[i]));
+                                }
+                            }
+                        };
+                    }
+                }, Runtime.getRuntime().availableProcessors());
+                break;
+        }
+    }
+
+
+    private static MappedByteBuffer[] map(
+            File file, long length, FileChannel.MapMode mode) throws IOException
+    {
+        try (RandomAccessFile f = new RandomAccessFile(
+                file, mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+            if (mode == FileChannel.MapMode.READ_WRITE) {
+                f.setLength(length);
+            } else if (f.length() != length) {
+                throw new IOException("wrong length: " + file);
+            }
+
+            MappedByteBuffer[] segments = new MappedByteBuffer[
+                    (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = f.getChannel().map(
+                        mode, start, Math.min(SEGMENT_MASK + 1, length - start));
+            }
+            return segments;
+        }
+    }
+
+    private static void put(MappedByteBuffer[] table, long canonIndex, int bucket) {
+        table[(int) (canonIndex >>> SEGMENT_BITS)]
+                .put((int) (canonIndex & SEGMENT_MASK), (byte) bucket);
+    }
+
+    private static int get(MappedByteBuffer[] table, long canonIndex) {
+        return table[(int) (canonIndex >>> SEGMENT_BITS)]
+                .get((int) (canonIndex & SEGMENT_MASK)) & 0xFF;
+    }
+
+
+    private final CentroidStrengthAbstraction centroids;
+    private final MappedByteBuffer[] holeTable;
+    private final MappedByteBuffer[] flopTable;
+    private final MappedByteBuffer[] turnTable;
+    private final MappedByteBuffer[] riverTable;
+
+
+    private TabledStrengthAbstraction(
+            CentroidStrengthAbstraction centroids,
+            MappedByteBuffer[] holeTable,
+            MappedByteBuffer[] flopTable,
+            MappedByteBuffer[] turnTable,
+            MappedByteBuffer[] riverTable)
+    {
+        this.centroids = centroids;
+        this.holeTable = holeTable;
+        this.flopTable = flopTable;
+        this.turnTable = turnTable;
+        this.riverTable = riverTable;
+    }
+
+
+    @Override
+    public int indexInRound(CardSequence cards, OddsEvaluator oddsEvaluator) {
+        Hole hole = cards.hole();
+        long holeMask = (1L << hole.a().ordinal()) | (1L << hole.b().ordinal());
+
+        Community community = cards.community();
+        if (! community.hasFlop()) {
+            return get(holeTable, CanonIndexer.holeIndex(holeMask));
+        }
+
+        long flopMask = (1L << community.flopA().ordinal()) |
+                        (1L << community.flopB().ordinal()) |
+                        (1L << community.flopC().ordinal());
+        if (! community.hasTurn()) {
+            return get(flopTable, CanonIndexer.flopIndex(holeMask, flopMask));
+        }
+
+        int turn = community.turn().ordinal();
+        if (! community.hasRiver()) {
+            return get(turnTable, CanonIndexer.turnIndex(holeMask, flopMask, turn));
+        }
+
+        return get(riverTable, CanonIndexer.riverIndex(
+                holeMask, flopMask, turn, community.river().ordinal()));
+    }
+
+    @Override
+    public int count(Round round) {
+        return centroids.count(round);
+    }
+}
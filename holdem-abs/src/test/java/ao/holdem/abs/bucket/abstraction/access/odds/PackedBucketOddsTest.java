@@ -0,0 +1,86 @@
+package ao.holdem.abs.bucket.abstraction.access.odds;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class PackedBucketOddsTest
+{
+    //--------------------------------------------------------------------
+    private static final char N_BUCKETS = 300;
+
+    private static final IBucketOdds ODDS = new IBucketOdds() {
+        public double nonLossProb(char index, char vsIndex) {
+            double a = Math.sqrt(index   + 1);
+            double b = Math.sqrt(vsIndex + 1);
+            return a / (a + b);
+        }};
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void doublePrecision() throws IOException {
+        checkPacked(PackedBucketOdds.Precision.DOUBLE, 1e-15);
+    }
+
+    @Test
+    public void floatPrecision() throws IOException {
+        checkPacked(PackedBucketOdds.Precision.FLOAT, 1e-7);
+    }
+
+    @Test
+    public void fixedPrecision() throws IOException {
+        checkPacked(PackedBucketOdds.Precision.FIXED16, 1e-5);
+    }
+
+    @Test
+    public void otherPrecisionIsNotRetrieved() throws IOException {
+        File dir = Files.createTempDirectory("packed").toFile();
+
+        PackedBucketOdds.retrieveOrCompute(
+                dir, PackedBucketOdds.Precision.FLOAT, ODDS, N_BUCKETS);
+
+        assertNull(PackedBucketOdds.retrieve(
+                dir, PackedBucketOdds.Precision.FIXED16, N_BUCKETS));
+        assertNull(PackedBucketOdds.retrieve(
+                dir, PackedBucketOdds.Precision.FLOAT, (char) 10));
+    }
+
+
+    //--------------------------------------------------------------------
+    private void checkPacked(
+            PackedBucketOdds.Precision precision,
+            double                     delta) throws IOException
+    {
+        File dir = Files.createTempDirectory("packed").toFile();
+
+        assertNull(PackedBucketOdds.retrieve(dir, precision, N_BUCKETS));
+        checkOdds(PackedBucketOdds.retrieveOrCompute(
+                dir, precision, ODDS, N_BUCKETS), delta);
+
+        PackedBucketOdds retrieved =
+                PackedBucketOdds.retrieve(dir, precision, N_BUCKETS);
+        assertNotNull(retrieved);
+        checkOdds(retrieved, delta);
+    }
+
+    private void checkOdds(IBucketOdds packed, double delta)
+    {
+        for (char i = 0; i < N_BUCKETS; i++) {
+            for (char j = 0; j < N_BUCKETS; j++) {
+                assertEquals(ODDS.nonLossProb(i, j),
+                             packed.nonLossProb(i, j),
+                             delta);
+            }
+        }
+    }
+}
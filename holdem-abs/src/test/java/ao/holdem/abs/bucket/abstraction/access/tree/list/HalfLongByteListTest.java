@@ -0,0 +1,48 @@
+package ao.holdem.abs.bucket.abstraction.access.tree.list;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class HalfLongByteListTest
+{
+    //--------------------------------------------------------------------
+    private static final int SIZE    = 100 * 1000;
+    private static final int THREADS = 4;
+
+
+    //--------------------------------------------------------------------
+    // every thread writes every THREADS-th index, so all bytes are shared
+    @Test
+    public void concurrentNeighbourWritesAreKept() throws InterruptedException {
+        final HalfLongByteList list = new HalfLongByteList(null, SIZE);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int offset = t;
+            threads.add(new Thread(new Runnable() {
+                public void run() {
+                    for (int i = offset; i < SIZE; i += THREADS) {
+                        list.set(i, bucket(i));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(bucket(i), list.get(i));
+        }
+    }
+
+    private static int bucket(int index) {
+        return 1 + index % (HalfLongByteList.MAX_BUCKETS - 1);
+    }
+}
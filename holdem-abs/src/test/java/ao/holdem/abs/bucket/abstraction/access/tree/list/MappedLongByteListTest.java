@@ -0,0 +1,58 @@
+package ao.holdem.abs.bucket.abstraction.access.tree.list;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class MappedLongByteListTest
+{
+    //--------------------------------------------------------------------
+    private static final int SIZE = 10001;
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void fullMatchesWritten() throws IOException {
+        File dir    = Files.createTempDirectory("mapped").toFile();
+        byte list[] = randomBytes();
+
+        Files.write(new File(dir, StoredLongByteList.FILENAME_A).toPath(),
+                    list);
+        Files.write(new File(dir, StoredLongByteList.FILENAME_B).toPath(),
+                    new byte[0]);
+
+        MappedLongByteList mapped = new MappedLongByteList(dir);
+        for (int i = 0; i < list.length; i++) {
+            assertEquals(list[ i ] & 0xFF, mapped.get(i));
+        }
+    }
+
+    @Test
+    public void halfMatchesWritten() throws IOException {
+        File file   = Files.createTempFile("mapped", ".byte").toFile();
+        byte list[] = randomBytes();
+        Files.write(file.toPath(), list);
+
+        MappedHalfLongByteList mapped = new MappedHalfLongByteList(file);
+        for (int i = 0; i < list.length; i++) {
+            assertEquals( list[ i ] & 0x0F,         mapped.get(i * 2L    ));
+            assertEquals((list[ i ] & 0xF0) >>> 4,  mapped.get(i * 2L + 1));
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private byte[] randomBytes() {
+        byte list[] = new byte[ SIZE ];
+        new Random(42).nextBytes( list );
+        return list;
+    }
+}
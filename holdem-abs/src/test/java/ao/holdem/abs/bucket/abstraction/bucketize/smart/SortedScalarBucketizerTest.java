@@ -0,0 +1,94 @@
+package ao.holdem.abs.bucket.abstraction.bucketize.smart;
+
+import ao.holdem.abs.bucket.abstraction.bucketize.linear.IndexedStrengthList;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SortedScalarBucketizerTest
+{
+    @Test
+    public void matchesExhaustiveSearch() {
+        Random rand = new Random(42);
+
+        for (int trial = 0; trial < 200; trial++) {
+            int nBuckets = 1 + rand.nextInt(4);
+            IndexedStrengthList details = randomDetails(rand, 1 + rand.nextInt(9));
+
+            int clusters[] = SortedScalarBucketizer.cluster(details, nBuckets);
+
+            assertEquals(bestError(details, nBuckets), error(details, clusters), 1e-9);
+        }
+    }
+
+    @Test
+    public void clustersAreOrderedByStrength() {
+        Random rand = new Random(7);
+        IndexedStrengthList details = randomDetails(rand, 10 * 1000);
+
+        int clusters[] = SortedScalarBucketizer.cluster(details, 20);
+
+        for (int i = 0; i < details.length(); i++) {
+            for (int j = 0; j < details.length(); j += 97) {
+                if (details.strength(i) < details.strength(j)) {
+                    assertTrue(clusters[i] <= clusters[j]);
+                }
+            }
+        }
+    }
+
+
+    private static IndexedStrengthList randomDetails(Random rand, int count) {
+        IndexedStrengthList details = new IndexedStrengthList(count);
+        for (int i = 0; i < count; i++) {
+            details.set(i, i, rand.nextDouble(), (byte) (1 + rand.nextInt(24)));
+        }
+        return details;
+    }
+
+    // tries every clustering into nBuckets labels
+    private static double bestError(IndexedStrengthList details, int nBuckets) {
+        int clusters[] = new int[details.length()];
+        double best = Double.POSITIVE_INFINITY;
+        while (true) {
+            best = Math.min(best, error(details, clusters));
+
+            int i = 0;
+            while (i < clusters.length && ++clusters[i] == nBuckets) {
+                clusters[i++] = 0;
+            }
+            if (i == clusters.length) {
+                return best;
+            }
+        }
+    }
+
+    private static double error(IndexedStrengthList details, int clusters[]) {
+        int nBuckets = 0;
+        for (int cluster : clusters) {
+            nBuckets = Math.max(nBuckets, cluster + 1);
+        }
+
+        double sums[] = new double[nBuckets];
+        long counts[] = new long[nBuckets];
+        for (int i = 0; i < details.length(); i++) {
+            sums  [clusters[i]] += value(details, i) * details.represents(i);
+            counts[clusters[i]] += details.represents(i);
+        }
+
+        double error = 0;
+        for (int i = 0; i < details.length(); i++) {
+            double delta = value(details, i) - sums[clusters[i]] / counts[clusters[i]];
+            error += delta * delta * details.represents(i);
+        }
+        return error;
+    }
+
+    private static double value(IndexedStrengthList details, int i) {
+        double winProbability = details.realStrength(i);
+        return winProbability * winProbability;
+    }
+}
@@ -0,0 +1,85 @@
+package ao.holdem.abs.bucket.v2;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class StrengthCountsTest
+{
+    @Test
+    public void partitionsLikeSortedMap() {
+        Random rand = new Random(42);
+
+        StrengthCounts          counts = new StrengthCounts();
+        SortedMap<Double, Long> exact  = new TreeMap<>();
+        for (int i = 0; i < 100 * 1000; i++) {
+            // repeats, and strengths closer than a histogram bin
+            double strength = (i % 3 == 0)
+                              ? (double) rand.nextInt(1000) / 1000
+                              : rand.nextDouble() / 1000;
+            int represents = 1 + rand.nextInt(24);
+
+            counts.add(strength, represents);
+
+            Long current = exact.get(strength);
+            exact.put(strength, (current == null ? 0 : current) + represents);
+        }
+
+        for (int count : new int[]{1, 7, 50, 1000}) {
+            assertArrayEquals(
+                    partition(exact, count),
+                    counts.partition(count),
+                    0);
+        }
+    }
+
+
+    // as done by PercentileImperfectAbstractionBuilder before histograms
+    private static double[] partition(SortedMap<Double, Long> strengthCounts, int count) {
+        long totalCount = 0;
+        for (Long represents : strengthCounts.values()) {
+            totalCount += represents;
+        }
+
+        long perBucket = (long) Math.ceil((double) totalCount / count);
+
+        double[] centroids = new double[count];
+        int nextCentroid = 0;
+
+        Map<Double, Long> bucket = new HashMap<>();
+        long nextBucketRemaining = perBucket;
+
+        for (Map.Entry<Double, Long> strengthCount : strengthCounts.entrySet()) {
+            nextBucketRemaining -= strengthCount.getValue();
+            bucket.put(strengthCount.getKey(), strengthCount.getValue());
+
+            if (nextBucketRemaining <= 0) {
+                centroids[nextCentroid++] = centroid(bucket);
+
+                bucket.clear();
+                nextBucketRemaining = perBucket + nextBucketRemaining;
+            }
+        }
+
+        if (! bucket.isEmpty()) {
+            centroids[nextCentroid++] = centroid(bucket);
+        }
+        return centroids;
+    }
+
+    private static double centroid(Map<Double, Long> bucket) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Double strength : bucket.keySet()) {
+            min = Math.min(min, strength);
+            max = Math.max(max, strength);
+        }
+        return (min + max) / 2;
+    }
+}
@@ -0,0 +1,50 @@
+package ao.holdem.abs.bucket.v2;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class StrengthHistogramTest
+{
+    @Test
+    public void partitionsLikeExactStrengths() {
+        Random rand = new Random(42);
+
+        StrengthHistogram histogram = new StrengthHistogram();
+        StrengthCounts    exact     = new StrengthCounts();
+        for (int i = 0; i < 100 * 1000; i++) {
+            double strength = (double) rand.nextInt(Character.MAX_VALUE + 1)
+                                / Character.MAX_VALUE;
+            int represents = 1 + rand.nextInt(24);
+
+            histogram.add(strength, represents);
+            exact    .add(strength, represents);
+        }
+
+        for (int count : new int[]{1, 7, 50, 1000}) {
+            assertArrayEquals(
+                    exact.partition(count),
+                    histogram.partition(count),
+                    0);
+        }
+    }
+
+    @Test
+    public void mergedShardsPartitionLikeOne() {
+        Random rand = new Random(7);
+
+        StrengthHistogram whole  = new StrengthHistogram();
+        StrengthHistogram shardA = new StrengthHistogram();
+        StrengthHistogram shardB = new StrengthHistogram();
+        for (int i = 0; i < 100 * 1000; i++) {
+            double strength = rand.nextDouble();
+            whole.add(strength, 1);
+            (i % 2 == 0 ? shardA : shardB).add(strength, 1);
+        }
+        shardA.add(shardB);
+
+        assertArrayEquals(whole.partition(100), shardA.partition(100), 0);
+    }
+}
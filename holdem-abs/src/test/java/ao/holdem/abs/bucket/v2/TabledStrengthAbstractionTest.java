@@ -0,0 +1,66 @@
+package ao.holdem.abs.bucket.v2;
+
+import ao.holdem.abs.card.CentroidStrengthAbstraction;
+import ao.holdem.ai.odds.OddsBy5;
+import ao.holdem.ai.odds.OddsEvaluator;
+import ao.holdem.model.Round;
+import ao.holdem.model.card.Community;
+import ao.holdem.model.card.Hole;
+import ao.holdem.model.card.chance.Deck;
+import ao.holdem.model.card.sequence.CardSequence;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+public class TabledStrengthAbstractionTest
+{
+    private static final int DEALS = 1000;
+
+
+    // flop and turn strengths are sampled by OddsBy5, so close to the
+    //  midpoint of two centroids the direct bucket can be a neighbour
+    @Test
+    public void matchesDirectStrengths() {
+        CentroidStrengthAbstraction direct =
+                PercentileImperfectAbstractionBuilder.loadOrBuildAndSave(20, 30, 30, 50);
+        TabledStrengthAbstraction tabled =
+                PercentileImperfectAbstractionBuilder.loadOrBuildTabled(20, 30, 30, 50);
+
+        OddsEvaluator odds = new OddsBy5(10000, 5000, new Random(42));
+        Random rand = new Random(42);
+        for (Round round : Round.VALUES) {
+            int same = 0;
+            for (int i = 0; i < DEALS; i++) {
+                CardSequence cards = deal(rand, round);
+
+                int directBucket = direct.indexInRound(cards, odds);
+                int tabledBucket = tabled.indexInRound(cards, null);
+                assertTrue(round + " " + cards + ": " + directBucket + " vs " + tabledBucket,
+                        Math.abs(directBucket - tabledBucket) <= 1);
+
+                if (directBucket == tabledBucket) {
+                    same++;
+                }
+            }
+            assertTrue(round + ": " + same, same >= DEALS * 9 / 10);
+        }
+    }
+
+
+    private static CardSequence deal(Random rand, Round round) {
+        Deck      deck = new Deck(rand);
+        Hole      hole = deck.nextHole();
+        Community flop = deck.nextFlop();
+        switch (round) {
+            case PREFLOP: return new CardSequence(hole);
+            case FLOP:    return new CardSequence(hole, flop);
+            case TURN:    return new CardSequence(hole,
+                                  flop.addTurn(deck.nextCard()));
+            default:      return new CardSequence(hole,
+                                  flop.addTurn (deck.nextCard())
+                                      .addRiver(deck.nextCard()));
+        }
+    }
+}
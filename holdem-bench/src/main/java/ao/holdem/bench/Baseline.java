@@ -0,0 +1,52 @@
+package ao.holdem.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Runs the benchmarks with the GC profiler, so that each score comes
+ *  with its allocation rate (gc.alloc.rate.norm is bytes per op), and
+ *  writes the results as JSON, to compare a change against.
+ *
+ * By default the CanonBench river benchmarks are left out, their
+ *  river case lookup takes hours to compute the first time; name them
+ *  in the benchmark regex to run them.
+ *
+ * java -cp holdem-bench/target/benchmarks.jar ao.holdem.bench.Baseline
+ *      [benchmark regex] [result file]
+ */
+public class Baseline
+{
+    //--------------------------------------------------------------------
+    private static final String PACKAGE =
+            Baseline.class.getPackage().getName();
+
+
+    //--------------------------------------------------------------------
+    public static void main(String[] args) throws RunnerException
+    {
+        String result = (args.length > 1)
+                        ? args[1]
+                        : "baseline.json";
+
+        OptionsBuilder options = new OptionsBuilder();
+        if (args.length > 0) {
+            options.include(args[0]);
+        } else {
+            options.include(PACKAGE + ".*Bench")
+                   .exclude(PACKAGE + ".CanonBench.river.*");
+        }
+
+        new Runner(options
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,131 @@
+package ao.holdem.bench;
+
+import ao.holdem.abs.bucket.abstraction.access.tree.LongByteList;
+import ao.holdem.abs.bucket.abstraction.access.tree.list.FullLongByteList;
+import ao.holdem.abs.bucket.abstraction.access.tree.list.HalfLongByteList;
+import ao.holdem.abs.bucket.abstraction.access.tree.list.MappedHalfLongByteList;
+import ao.holdem.abs.bucket.abstraction.access.tree.list.MappedLongByteList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Bucket lookups through the lists behind BucketTreeImpl: in memory
+ *  as built, and memory-mapped as stored read-only.  Each score is the
+ *  number of random canonical indexes looked up per second.
+ *
+ * The lists are synthetic, with random buckets, and much smaller than
+ *  those of a real tree (16 million canons instead of 2.4 billion for
+ *  the river), but still larger than the CPU caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BucketTreeBench
+{
+    //--------------------------------------------------------------------
+    private static final long CANONS  = 1 << 24;
+    private static final int  LOOKUPS = 4096;
+
+
+    //--------------------------------------------------------------------
+    private LongByteList full;
+    private LongByteList half;
+    private LongByteList mappedFull;
+    private LongByteList mappedHalf;
+
+    private long         indexes[];
+
+
+    //--------------------------------------------------------------------
+    @Setup
+    public void setup() throws Exception
+    {
+        File dir = Files.createTempDirectory(
+                BucketTreeBench.class.getSimpleName()).toFile();
+        dir.deleteOnExit();
+
+        Random rand = new Random(42);
+
+        File             fullDir  = new File(dir, "full");
+        FullLongByteList fullList = new FullLongByteList(fullDir, CANONS);
+        for (long i = 0; i < CANONS; i++) {
+            fullList.set(i, rand.nextInt(FullLongByteList.MAX_BUCKETS));
+        }
+        fullList.flush();
+
+        File             halfFile = new File(dir, "half");
+        HalfLongByteList halfList = new HalfLongByteList(halfFile, CANONS);
+        for (long i = 0; i < CANONS; i++) {
+            halfList.set(i, rand.nextInt(HalfLongByteList.MAX_BUCKETS));
+        }
+        halfList.flush();
+
+        full       = fullList;
+        half       = halfList;
+        mappedFull = new MappedLongByteList(fullDir);
+        mappedHalf = new MappedHalfLongByteList(halfFile);
+
+        indexes = new long[ LOOKUPS ];
+        for (int i = 0; i < LOOKUPS; i++) {
+            indexes[ i ] = (long) (rand.nextDouble() * CANONS);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int full()
+    {
+        return lookup(full);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int half()
+    {
+        return lookup(half);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int mappedFull()
+    {
+        return lookup(mappedFull);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int mappedHalf()
+    {
+        return lookup(mappedHalf);
+    }
+
+    private int lookup(LongByteList list)
+    {
+        int sum = 0;
+        for (long index : indexes) {
+            sum += list.get(index);
+        }
+        return sum;
+    }
+}
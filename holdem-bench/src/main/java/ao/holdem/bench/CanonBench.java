@@ -0,0 +1,211 @@
+package ao.holdem.bench;
+
+import ao.holdem.canon.CanonIndexer;
+import ao.holdem.canon.flop.Flop;
+import ao.holdem.canon.river.River;
+import ao.holdem.canon.turn.Turn;
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.canon.hole.CanonHole;
+import ao.holdem.model.card.chance.Deck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Canonical hole, flop, turn, and river indexes of the same random
+ *  deals, through CanonHole / Flop / Turn / River objects and through
+ *  CanonIndexer.  Each score is the number of deals indexed per
+ *  second, run with "-prof gc" to compare allocation.
+ *
+ * The river benchmarks need the river case lookup (one byte per
+ *  canonical turn), which takes hours to compute the first time, so
+ *  it is loaded by its own state, only when they are run, and
+ *  Baseline leaves them out unless asked for.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CanonBench
+{
+    //--------------------------------------------------------------------
+    private static final int DEALS = 4096;
+
+
+    //--------------------------------------------------------------------
+    private Card deals     [][];
+    private long holeMasks [];
+    private long flopMasks [];
+    private int  turnCards [];
+    private int  riverCards[];
+
+
+    //--------------------------------------------------------------------
+    @Setup
+    public void setup()
+    {
+        Random rand = new Random(42);
+
+        deals      = new Card[ DEALS ][];
+        holeMasks  = new long[ DEALS ];
+        flopMasks  = new long[ DEALS ];
+        turnCards  = new int [ DEALS ];
+        riverCards = new int [ DEALS ];
+        for (int i = 0; i < DEALS; i++) {
+            Deck deck = new Deck(rand);
+            Card d[]  = deals[ i ] = new Card[ 7 ];
+            for (int j = 0; j < d.length; j++) {
+                d[ j ] = deck.nextCard();
+            }
+
+            holeMasks [ i ] = 1L << d[0].ordinal() | 1L << d[1].ordinal();
+            flopMasks [ i ] = 1L << d[2].ordinal() |
+                              1L << d[3].ordinal() |
+                              1L << d[4].ordinal();
+            turnCards [ i ] = d[5].ordinal();
+            riverCards[ i ] = d[6].ordinal();
+
+            // loads the turn lookup
+            new Flop(CanonHole.create(d[0], d[1]), d[2], d[3], d[4])
+                    .addTurn(d[5]).canonIndex();
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    @State(Scope.Benchmark)
+    public static class RiverLookups
+    {
+        @Setup
+        public void setup()
+        {
+            new Flop(CanonHole.create(Card.ACE_OF_CLUBS, Card.TWO_OF_CLUBS),
+                     Card.THREE_OF_CLUBS, Card.FOUR_OF_CLUBS,
+                     Card.FIVE_OF_CLUBS)
+                    .addTurn(Card.SIX_OF_CLUBS)
+                    .addRiver(Card.SEVEN_OF_CLUBS).canonIndex();
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public int holeObjects()
+    {
+        int sum = 0;
+        for (Card d[] : deals) {
+            sum += CanonHole.create(d[0], d[1]).canonIndex();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public int holeIndexer()
+    {
+        int sum = 0;
+        for (long holeMask : holeMasks) {
+            sum += CanonIndexer.holeIndex(holeMask);
+        }
+        return sum;
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public int flopObjects()
+    {
+        int sum = 0;
+        for (Card d[] : deals) {
+            sum += new Flop(CanonHole.create(d[0], d[1]), d[2], d[3], d[4])
+                    .canonIndex();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public int flopIndexer()
+    {
+        int sum = 0;
+        for (int i = 0; i < DEALS; i++) {
+            sum += CanonIndexer.flopIndex(holeMasks[ i ], flopMasks[ i ]);
+        }
+        return sum;
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public int turnObjects()
+    {
+        int sum = 0;
+        for (Card d[] : deals) {
+            Turn turn = new Flop(
+                    CanonHole.create(d[0], d[1]), d[2], d[3], d[4])
+                    .addTurn(d[5]);
+            sum += turn.canonIndex();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public int turnIndexer()
+    {
+        int sum = 0;
+        for (int i = 0; i < DEALS; i++) {
+            sum += CanonIndexer.turnIndex(
+                    holeMasks[ i ], flopMasks[ i ], turnCards[ i ]);
+        }
+        return sum;
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public long riverObjects(RiverLookups lookups)
+    {
+        long sum = 0;
+        for (Card d[] : deals) {
+            River river = new Flop(
+                    CanonHole.create(d[0], d[1]), d[2], d[3], d[4])
+                    .addTurn(d[5])
+                    .addRiver(d[6]);
+            sum += river.canonIndex();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public long riverIndexer(RiverLookups lookups)
+    {
+        long sum = 0;
+        for (int i = 0; i < DEALS; i++) {
+            sum += CanonIndexer.riverIndex(
+                    holeMasks[ i ], flopMasks[ i ],
+                    turnCards[ i ], riverCards[ i ]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,171 @@
+package ao.holdem.bench;
+
+import ao.holdem.abs.bucket.abstraction.access.odds.IBucketOdds;
+import ao.holdem.bot.regret.InfoPart;
+import ao.holdem.bot.regret.serial.AvgStrat;
+import ao.holdem.bot.regret.serial.RegMin;
+import ao.holdem.engine.state.HeadsUpStatus;
+import ao.holdem.engine.state.tree.StateTree;
+import ao.holdem.model.act.AbstractAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * CFR iteration against a small in-memory InfoPart, so that no
+ *  precomputed abstraction is needed.
+ *
+ * Run with "-prof gc" to see the allocation rate, the infoSet*
+ *  benchmarks compare the allocating InfoSet path with the
+ *  allocation free one used by the minimizers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CfrBench
+{
+    //--------------------------------------------------------------------
+    private static final int  HOLE_BUCKETS  = 169;
+    private static final char FLOP_BUCKETS  = 64;
+    private static final char TURN_BUCKETS  = 64;
+    private static final char RIVER_BUCKETS = 64;
+
+    private static final int  SEQUENCES     = 1024;
+
+
+    //--------------------------------------------------------------------
+    private InfoPart         info;
+    private RegMin           regMin;
+    private AvgStrat         avgStrat;
+
+    private StateTree.Node   nodes[];
+    private char             buckets[][][]; // [seq][dealer?][round]
+    private int              next;
+
+    private final double     strategy[] =
+            new double[ AbstractAction.VALUES.length ];
+
+
+    //--------------------------------------------------------------------
+    @Setup
+    public void setup() throws Exception
+    {
+        File dir = Files.createTempDirectory(
+                CfrBench.class.getSimpleName()).toFile();
+        dir.deleteOnExit();
+
+        info = InfoPart.retrieveOrCreate(dir,
+                HOLE_BUCKETS, FLOP_BUCKETS, TURN_BUCKETS, RIVER_BUCKETS,
+                false, false);
+
+        // sqrt keeps the odds monotonic in the bucket without being a
+        //  pure function of which bucket is larger
+        regMin = new RegMin(info, new IBucketOdds() {
+            public double nonLossProb(char index, char vsIndex) {
+                double a = Math.sqrt(index + 1);
+                double b = Math.sqrt(vsIndex + 1);
+                return a / (a + b);
+            }}, 1.0);
+        avgStrat = new AvgStrat(info);
+
+        List<StateTree.Node> inProgress = new ArrayList<>();
+        collect(StateTree.headsUpRoot(), inProgress);
+        nodes = inProgress.toArray(new StateTree.Node[ inProgress.size() ]);
+
+        Random rand = new Random(42);
+        buckets = new char[ SEQUENCES ][ 2 ][ 4 ];
+        for (char seq[][] : buckets) {
+            for (char player[] : seq) {
+                player[0] = (char) rand.nextInt(HOLE_BUCKETS);
+                player[1] = (char) rand.nextInt(FLOP_BUCKETS);
+                player[2] = (char) rand.nextInt(TURN_BUCKETS);
+                player[3] = (char) rand.nextInt(RIVER_BUCKETS);
+            }
+        }
+
+        // some regret, so that strategies are not all default
+        for (char seq[][] : buckets) {
+            regMin.iterate(seq[0], seq[1]);
+        }
+    }
+
+    private static void collect(
+            StateTree.Node node, List<StateTree.Node> into)
+    {
+        if (node.status() != HeadsUpStatus.IN_PROGRESS) return;
+
+        into.add( node );
+        for (StateTree.Node kid : node.acts().values()) {
+            collect(kid, into);
+        }
+    }
+
+    private char[][] nextSequence()
+    {
+        char seq[][] = buckets[ next ];
+        next = (next + 1) % SEQUENCES;
+        return seq;
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    public void infoSetStrategy(Blackhole bh)
+    {
+        char seq[][] = nextSequence();
+        for (StateTree.Node node : nodes) {
+            bh.consume(info.infoSet(node, bucket(node, seq)).strategy());
+        }
+    }
+
+    @Benchmark
+    public void infoSetStrategyInto(Blackhole bh)
+    {
+        char seq[][] = nextSequence();
+        for (StateTree.Node node : nodes) {
+            info.strategy(node, bucket(node, seq), strategy);
+            bh.consume(strategy);
+        }
+    }
+
+    private static char bucket(StateTree.Node node, char seq[][])
+    {
+        return seq[ node.dealerIsNext() ? 0 : 1 ][ node.round().ordinal() ];
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    public void regMinIterate()
+    {
+        char seq[][] = nextSequence();
+        regMin.iterate(seq[0], seq[1]);
+    }
+
+    @Benchmark
+    public void avgStratIterate()
+    {
+        char seq[][] = nextSequence();
+        avgStrat.iterate(seq[0], seq[1]);
+    }
+}
@@ -0,0 +1,114 @@
+package ao.holdem.bench;
+
+import ao.holdem.engine.eval.Eval5;
+import ao.holdem.engine.eval.EvalBy5;
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.chance.Deck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Five and six card evaluators over the same random hands, each
+ *  score is the number of hands evaluated per second.  The lookups
+ *  of Eval5 are built in memory, nothing is read from disk.
+ *
+ * See Eval7Bench for seven cards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Eval5Bench
+{
+    //--------------------------------------------------------------------
+    private static final int HANDS = 4096;
+
+
+    //--------------------------------------------------------------------
+    private Card hands      [][];
+    private int  cactusKevs [][];
+
+
+    //--------------------------------------------------------------------
+    @Setup
+    public void setup()
+    {
+        Random rand = new Random(42);
+
+        hands      = new Card[ HANDS ][];
+        cactusKevs = new int [ HANDS ][ 6 ];
+        for (int i = 0; i < HANDS; i++) {
+            Deck deck = new Deck(rand);
+            Card h[]  = hands[ i ] = new Card[ 6 ];
+            for (int j = 0; j < h.length; j++) {
+                h[ j ] = deck.nextCard();
+                cactusKevs[ i ][ j ] = Eval5.asCactusKevsFormat(h[ j ]);
+            }
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int eval5Cards()
+    {
+        int sum = 0;
+        for (Card h[] : hands) {
+            sum += Eval5.valueOf(h[0], h[1], h[2], h[3], h[4]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int eval5CactusKev()
+    {
+        int sum = 0;
+        for (int ck[] : cactusKevs) {
+            sum += Eval5.valueOf(ck[0], ck[1], ck[2], ck[3], ck[4]);
+        }
+        return sum;
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int evalBy5SixCards()
+    {
+        int sum = 0;
+        for (Card h[] : hands) {
+            sum += EvalBy5.valueOf(h[0], h[1], h[2], h[3], h[4], h[5]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int evalBy5SixCactusKev()
+    {
+        int sum = 0;
+        for (int ck[] : cactusKevs) {
+            sum += EvalBy5.valueOf(
+                    ck[0], ck[1], ck[2], ck[3], ck[4], ck[5]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,149 @@
+package ao.holdem.bench;
+
+import ao.holdem.abs.odds.eval.eval7.Eval7Fast;
+import ao.holdem.abs.odds.eval.eval7.Eval7Faster;
+import ao.holdem.engine.eval.Eval5;
+import ao.holdem.engine.eval.Eval7;
+import ao.holdem.engine.eval.EvalBy5;
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.chance.Deck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Seven card evaluators over the same random hands, each score is
+ *  the number of hands evaluated per second.
+ *
+ * Eval7Faster computes (and persists) its 130 MB table in setup the
+ *  first time it is run, Eval7Fast fills its cache as it goes, so it
+ *  is warmed up over all the hands in setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Eval7Bench
+{
+    //--------------------------------------------------------------------
+    private static final int HANDS = 4096;
+
+
+    //--------------------------------------------------------------------
+    private Card hands       [][];
+    private int  cactusKevs  [][];
+    private long masks       [];
+
+
+    //--------------------------------------------------------------------
+    @Setup
+    public void setup()
+    {
+        Random rand = new Random(42);
+
+        hands      = new Card[ HANDS ][];
+        cactusKevs = new int [ HANDS ][ 7 ];
+        masks      = new long[ HANDS ];
+        for (int i = 0; i < HANDS; i++) {
+            Deck deck = new Deck(rand);
+            Card h[]  = hands[ i ] = new Card[ 7 ];
+            for (int j = 0; j < h.length; j++) {
+                h[ j ] = deck.nextCard();
+                cactusKevs[ i ][ j ] = Eval5.asCactusKevsFormat(h[ j ]);
+            }
+
+            masks[ i ] = Eval7.mask(h[0], h[1], h[2], h[3], h[4], h[5], h[6]);
+
+            Eval7Fast  .valueOf(h);
+            Eval7Faster.valueOf(h);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int evalBy5()
+    {
+        int sum = 0;
+        for (int ck[] : cactusKevs) {
+            sum += EvalBy5.valueOf(
+                    ck[0], ck[1], ck[2], ck[3], ck[4], ck[5], ck[6]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int eval7Fast()
+    {
+        int sum = 0;
+        for (Card h[] : hands) {
+            sum += Eval7Fast.valueOf(h[0], h[1], h[2], h[3], h[4], h[5], h[6]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int eval7Faster()
+    {
+        int sum = 0;
+        for (Card h[] : hands) {
+            sum += Eval7Faster.valueOf(
+                    h[0], h[1], h[2], h[3], h[4], h[5], h[6]);
+        }
+        return sum;
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int eval7Mask()
+    {
+        int sum = 0;
+        for (long mask : masks) {
+            sum += Eval7.valueOf(mask);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int eval7Cards()
+    {
+        int sum = 0;
+        for (Card h[] : hands) {
+            sum += Eval7.valueOf(h[0], h[1], h[2], h[3], h[4], h[5], h[6]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int eval7CactusKev()
+    {
+        int sum = 0;
+        for (int ck[] : cactusKevs) {
+            sum += Eval7.valueOf(
+                    ck[0], ck[1], ck[2], ck[3], ck[4], ck[5], ck[6]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,170 @@
+package ao.holdem.bench;
+
+import ao.holdem.abs.odds.agglom.impl.ApproximateOddFinder;
+import ao.holdem.abs.odds.agglom.impl.PreciseHeadsUpOdds;
+import ao.holdem.abs.odds.eval.eval7.Eval7Faster;
+import ao.holdem.ai.odds.OddsBy5;
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.Community;
+import ao.holdem.model.card.Hole;
+import ao.holdem.model.card.chance.Deck;
+import ao.holdem.model.card.sequence.CardSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Heads-up odds of random hands, each score is the number of hands
+ *  whose odds are found per second, run with "-prof gc" to compare
+ *  allocation.
+ *
+ * PreciseHeadsUpOdds and ApproximateOddFinder use Eval7Faster, whose
+ *  130 MB table is computed (and persisted) in setup the first time.
+ *  Preflop odds are only benchmarked approximately, exact preflop odds
+ *  are a roll-out of every board, or a lookup in HoleOdds.
+ *
+ * OddsBy5 samples with a fixed seed and fewer iterations than its
+ *  INSTANCE, so that one hand is on the order of a millisecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OddsBench
+{
+    //--------------------------------------------------------------------
+    private static final int HANDS           = 256;
+
+    private static final int APPROX_FLOPS    = 100;
+    private static final int APPROX_HOLES    = 100;
+
+    private static final int BY5_FLOP_ITR    = 1000;
+    private static final int BY5_TURN_ITR    = 500;
+
+
+    //--------------------------------------------------------------------
+    private Hole      holes [];
+    private Community flops [];
+    private Community turns [];
+    private Community rivers[];
+    private int       next;
+
+    private PreciseHeadsUpOdds   precise;
+    private ApproximateOddFinder approximate;
+    private OddsBy5              by5;
+
+
+    //--------------------------------------------------------------------
+    @Setup
+    public void setup()
+    {
+        Random rand = new Random(42);
+
+        holes  = new Hole     [ HANDS ];
+        flops  = new Community[ HANDS ];
+        turns  = new Community[ HANDS ];
+        rivers = new Community[ HANDS ];
+        for (int i = 0; i < HANDS; i++) {
+            Deck deck = new Deck(rand);
+            holes [ i ] = deck.nextHole();
+            flops [ i ] = deck.nextFlop();
+            turns [ i ] = flops[ i ].addTurn (deck.nextCard());
+            rivers[ i ] = turns[ i ].addRiver(deck.nextCard());
+        }
+
+        precise     = new PreciseHeadsUpOdds();
+        approximate = new ApproximateOddFinder(APPROX_FLOPS, APPROX_HOLES);
+        by5         = new OddsBy5(BY5_FLOP_ITR, BY5_TURN_ITR, new Random(42));
+
+        // computes or loads its table
+        Eval7Faster.valueOf(Card.VALUES[0], Card.VALUES[1], Card.VALUES[2],
+                            Card.VALUES[3], Card.VALUES[4], Card.VALUES[5],
+                            Card.VALUES[6]);
+    }
+
+    private int nextHand()
+    {
+        int hand = next;
+        next = (next + 1) % HANDS;
+        return hand;
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    public Object preciseFlop()
+    {
+        int i = nextHand();
+        return precise.compute(holes[ i ], flops[ i ]);
+    }
+
+    @Benchmark
+    public Object preciseTurn()
+    {
+        int i = nextHand();
+        return precise.compute(holes[ i ], turns[ i ]);
+    }
+
+    @Benchmark
+    public Object preciseRiver()
+    {
+        int i = nextHand();
+        return precise.compute(holes[ i ], rivers[ i ]);
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    public Object approximatePreflop()
+    {
+        int i = nextHand();
+        return approximate.compute(holes[ i ], Community.PREFLOP, 1);
+    }
+
+    @Benchmark
+    public Object approximateFlop()
+    {
+        int i = nextHand();
+        return approximate.compute(holes[ i ], flops[ i ], 1);
+    }
+
+
+    //--------------------------------------------------------------------
+    @Benchmark
+    public double by5Flop()
+    {
+        int i = nextHand();
+        return by5.approximateHeadsUpHandStrength(
+                new CardSequence(holes[ i ], flops[ i ]));
+    }
+
+    @Benchmark
+    public double by5Turn()
+    {
+        int i = nextHand();
+        return by5.approximateHeadsUpHandStrength(
+                new CardSequence(holes[ i ], turns[ i ]));
+    }
+
+    @Benchmark
+    public double by5River()
+    {
+        int i = nextHand();
+        return by5.approximateHeadsUpHandStrength(
+                new CardSequence(holes[ i ], rivers[ i ]));
+    }
+}
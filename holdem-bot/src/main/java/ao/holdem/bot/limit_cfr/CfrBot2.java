@@ -10,7 +10,6 @@ import ao.holdem.engine.eval.EvalBy5;
 import ao.holdem.engine.eval.HandRank;
 import ao.holdem.engine.state.ActionState;
 import ao.holdem.engine.state.tree.StateTree;
-import ao.holdem.model.Avatar;
 import ao.holdem.model.ChipStack;
 import ao.holdem.model.Round;
 import ao.holdem.model.act.AbstractAction;
@@ -23,7 +22,7 @@ import org.apache.log4j.Logger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Random;
 
 
 /**
@@ -42,6 +41,7 @@ public class CfrBot2 extends AbstractPlayer
     private final boolean           DISPLAY;
     private final boolean           DETAILED;
     private final String            NAME;
+    private final Random            RAND;
     private       CardSequence      prevCards;
 
     @SuppressWarnings({"FieldCanBeLocal"})
@@ -75,18 +75,35 @@ public class CfrBot2 extends AbstractPlayer
                    boolean           doublePrecision,
                    boolean           display,
                    boolean           detailed)
+    {
+        this(equalibriumName, precomputedAbstraction,
+             doublePrecision, display, detailed, null);
+    }
+
+    /**
+     * @param rand source of mixed strategy choices, or null to share
+     *          ao.util.math.rand.Rand
+     */
+    public CfrBot2(String            equalibriumName,
+                   HoldemAbstraction precomputedAbstraction,
+                   boolean           doublePrecision,
+                   boolean           display,
+                   boolean           detailed,
+                   Random            rand)
     {
         ABS      = precomputedAbstraction;
         DISPLAY  = display;
         DETAILED = detailed;
         NAME     = equalibriumName;
+        RAND     = rand;
 
         DOUBLE_PRECISION = doublePrecision;
     }
 
 
     //--------------------------------------------------------------------
-    public void handEnded(Map<Avatar, ChipStack> deltas)
+    @Override
+    public void handEnded(List<ChipStack> deltas)
     {
         prevNode = StateTree.headsUpRoot();
         resetRoundCanons();
@@ -142,8 +159,10 @@ public class CfrBot2 extends AbstractPlayer
             }
         }
 
-        StateTree.Node gamePath = StateTree.fromState(prevNode, state, 4);
+        StateTree.Node gamePath = StateTree.follow(prevNode, state);
         if (gamePath == null) {
+            LOG.debug("searching for game path, misses: " +
+                      StateTree.followMisses());
             gamePath = StateTree.fromState(state);
             if (gamePath == null) {
                 LOG.debug("out of game path");
@@ -152,15 +171,16 @@ public class CfrBot2 extends AbstractPlayer
 
             resetRoundCanons();
         }
-        prevNode = gamePath;
 
         findBucket(cards, state.round());
 
         InfoMatrix.InfoSet infoSet =
-                ABS.infoPart(NAME, true, DOUBLE_PRECISION)
+                ABS.infoPart(NAME, true, DOUBLE_PRECISION, true)
                     .infoSet(gamePath, roundBucket);
 
-        AbstractAction act = infoSet.nextProbableAction();
+        AbstractAction act = (RAND == null)
+                             ? infoSet.nextProbableAction()
+                             : infoSet.nextProbableAction(RAND);
         Action realAction = state.reify( act.toFallbackAction() );
 
         if (DISPLAY) {
@@ -183,6 +203,10 @@ public class CfrBot2 extends AbstractPlayer
             handProbabilities.add( infoSet.toShortString() );
         }
 
+        // next time, start from the state right after this action
+        StateTree.Node afterAct = gamePath.kid( realAction.abstraction() );
+        prevNode  = (afterAct == null) ? gamePath : afterAct;
+
         prevRound = state.round();
         prevCards = cards;
         mucked    = realAction.is(AbstractAction.QUIT_FOLD);
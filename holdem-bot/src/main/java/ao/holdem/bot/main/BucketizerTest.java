@@ -26,8 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.Random;
 
 /**
  * User: alex
@@ -235,10 +235,14 @@ public class BucketizerTest
                 VS_NAME, vsAbs, VS_PRECISE, false, false);
         precompute(vsBot, false);
 
+        // abstractions load lazily, so do it before sharing between threads
+        abs.decoder();
+        vsAbs.decoder();
+
         LOG.debug("running tournament");
         long before = System.currentTimeMillis();
         new DealerTest(1000 * 1000).headsUp(
-                new LinkedHashMap<Avatar, Player>(){{
+                new LinkedHashMap<Avatar, DuplicateMatch.PlayerFactory>(){{
             // dealer last
 
 //            put(Avatar.local("rc"), new RaiseCallBot());
@@ -252,15 +256,30 @@ public class BucketizerTest
 //            put(Avatar.local("human"), new ConsoleBot());
 //            put(Avatar.local("ao-hist4"), bot);
                     
-            put(Avatar.local("ao-hist3-64b"), bot);
-            put(Avatar.local("ao-hist3-64s"), vsBot);
+            put(Avatar.local("ao-hist3-64b"),
+                cfrBots(BOT_NAME, abs, PRECISE));
+            put(Avatar.local("ao-hist3-64s"),
+                cfrBots(VS_NAME, vsAbs, VS_PRECISE));
 //            put(Avatar.local("cfr2 290"),
 //                    new CfrBot2("serial_290", abs, false, false, false));
-        }}, true);
+        }}, Runtime.getRuntime().availableProcessors());
         LOG.debug("tournament took " +
                   ((System.currentTimeMillis() - before) / 1000));
     }
 
+    private static DuplicateMatch.PlayerFactory cfrBots(
+            final String            name,
+            final HoldemAbstraction abs,
+            final boolean           precise)
+    {
+        return new DuplicateMatch.PlayerFactory() {
+            @Override public Player newPlayer(long seed) {
+                return new CfrBot2(name, abs, precise, false, false,
+                                   new Random(seed));
+            }
+        };
+    }
+
     public static void vsHuman(
             final HoldemAbstraction abs) throws IOException
     {
@@ -306,22 +325,18 @@ public class BucketizerTest
         MonoRegretMin cfrMin =
                 new MonoRegretMin(info, abs.odds() /* abs.oddsCache()*/);
 
-        long itr        = 0;
         long offset     = 0; //(125 + 560) * 1000 * 1000;
 //        long offset     = 200 * 1000 * 1000;
+        long itr        = offset;
         long iterations = BucketSequencer.COUNT;
 //        long milestone  = iterations * 2; // i.e. never
         long milestone  = iterations / 4;
 
         long before     = System.currentTimeMillis();
-        Iterator<char[][]> it = abs.sequence().iterator(iterations);
-
-        if (offset > 0) {
-            LOG.debug("Offsetting " + offset + "...");
-            for (; itr < offset; itr++) {
-                it.next();
-            }
-        }
+        BucketSequencer.Cursor it =
+                abs.sequence().cursor(offset, iterations - offset);
+        char dealerBuckets[] = new char[4];
+        char dealeeBuckets[] = new char[4];
 
         Progress  prog = new Progress(iterations - offset);
         while (it.hasNext())
@@ -350,9 +365,9 @@ public class BucketizerTest
                 }
                 before = System.currentTimeMillis();
             }
-            char[][] jbs = it.next();
+            it.next(dealerBuckets, dealeeBuckets);
 
-            cfrMin.iterate( jbs[0], jbs[1] );
+            cfrMin.iterate( dealerBuckets, dealeeBuckets );
 
             prog.checkpoint();
         }
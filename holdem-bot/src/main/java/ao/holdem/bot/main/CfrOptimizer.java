@@ -3,7 +3,9 @@ package ao.holdem.bot.main;
 import ao.holdem.abs.bucket.abstraction.bucketize.smart.KMeansBucketizer;
 import ao.holdem.bot.regret.HoldemAbstraction;
 import ao.holdem.bot.limit_cfr.CfrBot2;
+import ao.holdem.abs.bucket.abstraction.access.BucketSequence;
 import ao.holdem.abs.bucket.abstraction.access.BucketSequencer;
+import ao.holdem.abs.bucket.abstraction.access.odds.PackedBucketOdds;
 import ao.holdem.abs.bucket.abstraction.bucketize.def.Bucketizer;
 import ao.holdem.abs.bucket.abstraction.bucketize.smart.BucketDisplay;
 import ao.holdem.abs.bucket.index.detail.preflop.HoleOdds;
@@ -17,17 +19,22 @@ import ao.holdem.model.card.Community;
 import ao.holdem.model.card.Hole;
 import ao.holdem.model.card.sequence.CardSequence;
 import ao.holdem.abs.odds.agglom.impl.PreciseHeadsUpOdds;
+import ao.holdem.bot.regret.BestResponse;
+import ao.holdem.bot.regret.InfoCheckpoints;
 import ao.holdem.bot.regret.InfoPart;
 import ao.holdem.bot.regret.IterativeMinimizer;
-import ao.holdem.bot.regret.mono.ChainMinimizer;
+import ao.holdem.bot.regret.parallel.ParallelMinimizer;
+import ao.holdem.bot.regret.vector.PublicChanceMin;
+import ao.holdem.bot.regret.vector.TreeHandBuckets;
+import ao.util.math.rand.MersenneTwisterFast;
 import ao.util.math.rand.Rand;
 import ao.util.time.Progress;
 import ao.util.time.Stopwatch;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.Random;
 
 /**
  * Date: 21-Apr-2009
@@ -45,6 +52,25 @@ public class CfrOptimizer
     private static final double  AGGRESSION = 1.00;
     private static final boolean    PRECISE = false;
     private static final boolean VS_PRECISE = true;
+    private static final int     THREADS    =
+            Runtime.getRuntime().availableProcessors();
+
+    // deal sequences on the fly instead of reading bucket_seq.byte
+    private static final boolean SAMPLE     = false;
+
+    // deal public boards, and update every pair of hands on each,
+    //  instead of pairs of bucket sequences
+    private static final boolean BOARDS     = false;
+    private static final long    N_BOARDS   = 100 * 1000;
+
+    private static final PackedBucketOdds.Precision ODDS =
+            PackedBucketOdds.Precision.FLOAT;
+
+    // best response at every milestone, stop once it is within CONVERGED,
+    //  its actions are picked on one stream of deals and scored on another
+    private static final int     EVAL_DEALS = 1000 * 1000;
+    private static final long    EVAL_SEED  = 42;
+    private static final double  CONVERGED  = 10; // mb/hand
 
 
     //--------------------------------------------------------------------
@@ -135,7 +161,10 @@ public class CfrOptimizer
 
         if (deleteExisting)
         {
-            abs.deleteSequence();
+            // a checkpoint is only resumed on the sequence it was trained on
+            if (abs.resume(BOT_NAME, PRECISE) == 0) {
+                abs.deleteSequence();
+            }
 
             abs.infoPart(BOT_NAME, false, PRECISE);
             LOG.info("infoPart loaded!");
@@ -145,8 +174,10 @@ public class CfrOptimizer
             BucketDisplay.displayCanonHoleBuckets(
                     abs.tree(false).holes());
 
-            abs.odds();
-            abs.sequence();
+            abs.packedOdds(ODDS);
+            if (! SAMPLE) {
+                abs.sequence();
+            }
         }
 
         return abs;
@@ -229,10 +260,14 @@ public class CfrOptimizer
                 VS_NAME, vsAbs, VS_PRECISE, false, false);
         preComputeAbs(vsBot, false);
 
+        // abstractions load lazily, so do it before sharing between threads
+        abs.decoder();
+        vsAbs.decoder();
+
         LOG.debug("running tournament");
         long before = System.currentTimeMillis();
         new DealerTest(1000 * 1000).headsUp(
-                new LinkedHashMap<Avatar, Player>(){{
+                new LinkedHashMap<Avatar, DuplicateMatch.PlayerFactory>(){{
             // dealer last
 
 //            put(Avatar.local("rc"), new RaiseCallBot());
@@ -246,15 +281,30 @@ public class CfrOptimizer
 //            put(Avatar.local("human"), new ConsoleBot());
 //            put(Avatar.local("ao-hist4"), bot);
                     
-            put(Avatar.local("ao-hist3-64b"), bot);
-            put(Avatar.local("ao-hist3-64s"), vsBot);
+            put(Avatar.local("ao-hist3-64b"),
+                cfrBots(BOT_NAME, abs, PRECISE));
+            put(Avatar.local("ao-hist3-64s"),
+                cfrBots(VS_NAME, vsAbs, VS_PRECISE));
 //            put(Avatar.local("cfr2 290"),
 //                    new CfrBot2("serial_290", abs, false, false, false));
-        }}, true);
+        }}, THREADS);
         LOG.debug("tournament took " +
                   ((System.currentTimeMillis() - before) / 1000));
     }
 
+    private static DuplicateMatch.PlayerFactory cfrBots(
+            final String            name,
+            final HoldemAbstraction abs,
+            final boolean           precise)
+    {
+        return new DuplicateMatch.PlayerFactory() {
+            @Override public Player newPlayer(long seed) {
+                return new CfrBot2(name, abs, precise, false, false,
+                                   new Random(seed));
+            }
+        };
+    }
+
     public static void vsHuman(
             final HoldemAbstraction abs) throws IOException
     {
@@ -285,37 +335,39 @@ public class CfrOptimizer
     public static void computeCfr(
             HoldemAbstraction abs)
     {
+        if (SAMPLE) {
+            computeSampledCfr( abs );
+            return;
+        } else if (BOARDS) {
+            computeBoardCfr( abs );
+            return;
+        }
+
         LOG.debug("computeCfr");
 
+        long              offset = abs.resume(BOT_NAME, PRECISE);
         Stopwatch         t      = new Stopwatch();
         InfoPart          info   = abs.infoPart(BOT_NAME, false, PRECISE);
+        InfoCheckpoints   saves  = abs.checkpoints(BOT_NAME, PRECISE);
 
-//        IterativeMinimizer cfrMin = new ParallelMinimizer(
-//                ChainMinimizer.newMulti(info, abs.odds(), AGGRESSION),
-//                abs.tree(false).holes());
-        IterativeMinimizer cfrMin =
-                ChainMinimizer.newMulti(info, abs.odds(), AGGRESSION);
+        IterativeMinimizer cfrMin = ParallelMinimizer.newMulti(
+                info, abs.packedOdds(ODDS), AGGRESSION, THREADS);
 
 //        InfoPart        info   = abs.infoPart("mono", false);
 //        MonoRegretMin cfrMin =
 //                new MonoRegretMin(info, abs.odds() /* abs.oddsCache()*/);
 
-        long itr        = 0;
-        long offset     = 0; //(125 + 560) * 1000 * 1000;
-//        long offset     = 200 * 1000 * 1000;
+        LOG.debug("resuming from " + offset);
+        long itr        = offset;
         long iterations = BucketSequencer.COUNT;
 //        long milestone  = iterations * 2; // i.e. never
         long milestone  = iterations / 4;
 
         long before     = System.currentTimeMillis();
-        Iterator<char[][]> it = abs.sequence().iterator(iterations);
-
-        if (offset > 0) {
-            LOG.debug("Offsetting " + offset + "...");
-            for (; itr < offset; itr++) {
-                it.next();
-            }
-        }
+        BucketSequencer.Cursor it =
+                abs.sequence().cursor(offset, iterations - offset);
+        char dealerBuckets[] = new char[4];
+        char dealeeBuckets[] = new char[4];
 
         Progress  prog = new Progress(iterations - offset);
         while (it.hasNext())
@@ -340,19 +392,140 @@ public class CfrOptimizer
 
                 if (itr != (offset + 1)) {
                     cfrMin.flush();
-                    info.flush();
+                    saves.save(info, itr - 1);
+
+                    if (hasConverged(abs, info)) break;
                 }
                 before = System.currentTimeMillis();
             }
-            char[][] jbs = it.next();
+            it.next(dealerBuckets, dealeeBuckets);
 
-            cfrMin.iterate( jbs[0], jbs[1] );
+            cfrMin.iterate( dealerBuckets, dealeeBuckets );
 
             prog.checkpoint();
         }
 
         LOG.debug(" " + (itr - 1));
+        if (cfrMin instanceof ParallelMinimizer) {
+            ((ParallelMinimizer) cfrMin).close();
+        } else {
+            cfrMin.flush();
+        }
         info.displayHeadsUpRoots();
+        finish(info, saves);
+    }
+
+    // the next run starts a new pass over a new sequence
+    private static void finish(InfoPart info, InfoCheckpoints saves)
+    {
         info.flush();
+        saves.clear();
+        saves.close();
+    }
+
+
+    //--------------------------------------------------------------------
+    public static void computeSampledCfr(
+            HoldemAbstraction abs)
+    {
+        long seed = Rand.nextLong();
+        LOG.debug("computeSampledCfr with seed " + seed);
+
+        long              offset = abs.resume(BOT_NAME, PRECISE);
+        Stopwatch         t      = new Stopwatch();
+        InfoPart          info   = abs.infoPart(BOT_NAME, false, PRECISE);
+        InfoCheckpoints   saves  = abs.checkpoints(BOT_NAME, PRECISE);
+        ParallelMinimizer cfrMin = ParallelMinimizer.newInstance(
+                info, abs.packedOdds(ODDS), AGGRESSION, THREADS);
+
+        BucketSequence samplers[] = new BucketSequence[ THREADS ];
+        for (int i = 0; i < THREADS; i++) {
+            samplers[ i ] = abs.sampler(seed, i);
+        }
+
+        // not limited to BucketSequencer.COUNT
+        long iterations = BucketSequencer.COUNT;
+        long display    = 50 * 1000 * 1000;
+        long milestone  = iterations / 4;
+
+        // samples are not resumed exactly, only their number
+        for (long itr = offset; itr < iterations;)
+        {
+            long chunk = Math.min(display, iterations - itr);
+            cfrMin.iterate(samplers, chunk);
+            itr += chunk;
+
+            LOG.debug("\t" + itr + " took " + t.timing());
+            t = new Stopwatch();
+            info.displayHeadsUpRoots();
+
+            if (itr % milestone == 0) {
+                cfrMin.flush();
+                saves.save(info, itr);
+
+                if (hasConverged(abs, info)) break;
+            }
+        }
+
+        cfrMin.close();
+        finish(info, saves);
+    }
+
+
+    //--------------------------------------------------------------------
+    // checkpoint offsets are in boards
+    public static void computeBoardCfr(
+            HoldemAbstraction abs)
+    {
+        long seed = Rand.nextLong();
+        LOG.debug("computeBoardCfr with seed " + seed);
+
+        long            offset = abs.resume(BOT_NAME, PRECISE);
+        Stopwatch       t      = new Stopwatch();
+        InfoPart        info   = abs.infoPart(BOT_NAME, false, PRECISE);
+        InfoCheckpoints saves  = abs.checkpoints(BOT_NAME, PRECISE);
+        PublicChanceMin cfrMin = new PublicChanceMin(info,
+                new TreeHandBuckets(abs.tree(false), abs.decoder()),
+                new MersenneTwisterFast(seed));
+
+        long display   = 1000;
+        long milestone = N_BOARDS / 4;
+
+        // boards are not resumed exactly, only their number
+        for (long itr = offset; itr < N_BOARDS;)
+        {
+            cfrMin.iterate();
+            itr++;
+
+            if (itr % display == 0) {
+                LOG.debug("\t" + itr + " took " + t.timing());
+                t = new Stopwatch();
+                info.displayHeadsUpRoots();
+            }
+
+            if (itr % milestone == 0) {
+                saves.save(info, itr);
+
+                if (hasConverged(abs, info)) break;
+            }
+        }
+
+        finish(info, saves);
+    }
+
+
+    //--------------------------------------------------------------------
+    public static boolean hasConverged(
+            HoldemAbstraction abs,
+            InfoPart          info)
+    {
+        BestResponse.Result response = new BestResponse(
+                info, abs.packedOdds(ODDS), THREADS
+        ).evaluate(abs.sampler(EVAL_SEED, 0),
+                   abs.sampler(EVAL_SEED, 1),
+                   EVAL_DEALS);
+
+        LOG.debug("best response: " + response);
+        return response.exploitability() < CONVERGED;
     }
 }
@@ -4,9 +4,7 @@ import ao.holdem.bot.human.ConsoleBot;
 import ao.holdem.engine.Player;
 import ao.holdem.engine.dealer.Dealer;
 import ao.holdem.model.Avatar;
-import ao.holdem.model.ChipStack;
 import ao.holdem.model.card.chance.DeckCards;
-import ao.holdem.model.card.chance.SwapCards;
 import ao.util.math.rand.Rand;
 
 import java.util.*;
@@ -82,75 +80,29 @@ public class DealerTest
         assert brains.size() == 2;
         assert DUPLICATE_ROUNDS >= 10;
 
-        List<Avatar> orderA = new ArrayList<>(brains.keySet());
-        List<Avatar> orderB = new ArrayList<>(orderA);
-        Collections.swap(orderB, 0, 1);
-
-        Random r = new Random(Rand.nextLong());
-
-        List<Avatar>       order       = orderA;
-//        Progress           progress    = new Progress(DUPLICATE_ROUNDS);
-        Dealer             dealer      = new Dealer(true, brains);
-        Map<Avatar, ChipStack> cumDeltas   = new HashMap<Avatar, ChipStack>();
-        ChipStack dealerDelta = ChipStack.ZERO;
-        for (int trialSet = 0; trialSet < DUPLICATE_ROUNDS; trialSet++)
-        {
-            SwapCards cards = new SwapCards(r);
-
-            Map<Avatar, ChipStack> deltas = dealer.play(order, cards).deltas();
-            for (Map.Entry<Avatar, ChipStack> delta : deltas.entrySet()) {
-                cumDeltas.put(delta.getKey(),
-                        ChipStack.orZero(cumDeltas.get(delta.getKey()))
-                                .plus(delta.getValue()));
-            }
-            dealerDelta = dealerDelta.plus(deltas.get(order.get(1)));
-
-            cards.swap();
-
-            deltas = dealer.play(order, cards).deltas();
-            for (Map.Entry<Avatar, ChipStack> delta : deltas.entrySet()) {
-                cumDeltas.put(delta.getKey(),
-                        cumDeltas.get(delta.getKey())
-                                .plus(delta.getValue()));
-            }
-            dealerDelta = dealerDelta.plus(deltas.get(order.get(1)));
-
-            if (swap) {
-                order = ((order == orderA)
-                        ? orderB : orderA);
-            }
-
-//            progress.checkpoint();
-            if (((trialSet + 1) % (DUPLICATE_ROUNDS / 1000)) == 0) {
-                displayDeltas(
-                        cumDeltas, dealerDelta, brains, trialSet + 1);
-            }
+        Map<Avatar, DuplicateMatch.PlayerFactory> shared =
+                new LinkedHashMap<>();
+        for (Map.Entry<Avatar, Player> brain : brains.entrySet()) {
+            shared.put(brain.getKey(),
+                       DuplicateMatch.shared(brain.getValue()));
         }
 
-        System.out.println("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
+        new DuplicateMatch(DUPLICATE_ROUNDS, 1, Rand.nextLong(), swap)
+                .play(shared);
     }
 
-    private void displayDeltas(
-            Map<Avatar, ChipStack>  cumDeltas,
-            ChipStack dealerDelta,
-            Map<Avatar, Player> brains,
-            long                dupeRounds)
+    /**
+     * @param brains new players for each shard of hands, so that they
+     *          can be played on more than one thread
+     * @param nThreads number of threads
+     * @return outcome for the first of the brains
+     */
+    public DuplicateMatch.Result headsUp(
+            Map<Avatar, DuplicateMatch.PlayerFactory> brains,
+            int                                       nThreads)
     {
-        System.out.println();
-        for (Map.Entry<Avatar, ChipStack> delta
-                : cumDeltas.entrySet())
-        {
-            System.out.println(
-                    delta.getKey() + "\t" +
-                    brains.get(delta.getKey()) + "\t" +
-                    delta.getValue() + "\t" +
-                    (((double) delta.getValue().smallBets())
-                            / (2 * dupeRounds)));
-        }
-
-        System.out.println("dealer delta: " +
-                ((double) dealerDelta.smallBets())
-                    / (2 * dupeRounds));
+        return new DuplicateMatch(DUPLICATE_ROUNDS, nThreads, Rand.nextLong())
+                .play(brains);
     }
 
 
@@ -0,0 +1,312 @@
+package ao.holdem.bot.main;
+
+import ao.holdem.engine.Player;
+import ao.holdem.engine.dealer.Dealer;
+import ao.holdem.model.Avatar;
+import ao.holdem.model.ChipStack;
+import ao.holdem.model.card.chance.SwapCards;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Heads-up duplicate match, played on a number of threads.
+ *
+ * Each pair of hands deals the same cards twice, with the holes
+ *  swapped, and seats alternate between pairs.  Pairs are grouped into
+ *  shards, each with its own seed for the cards and its own players,
+ *  so that no player sees more than one hand at a time, and the
+ *  outcome for a given seed does not depend on the number of threads
+ *  (as long as the players only randomize with the seed they are
+ *  given).
+ *
+ * Results are in milli-big-blinds per hand, with a 95% confidence
+ *  interval from the variance between duplicate pairs.
+ */
+public class DuplicateMatch
+{
+    //--------------------------------------------------------------------
+    private static final Logger LOG =
+            Logger.getLogger(DuplicateMatch.class);
+
+    private static final int    SHARD_PAIRS      = 1000;
+    private static final long   REPORT_MILLIS    = 10 * 1000;
+    private static final double Z_95             = 1.96;
+
+    // per duplicate pair (4 small blinds) to per hand (1000 mb / 2)
+    private static final double MB_PER_PAIR_BLIND = 1000.0 / 4;
+
+
+    //--------------------------------------------------------------------
+    public static interface PlayerFactory
+    {
+        /**
+         * @param seed for any randomness the player has
+         * @return new player, it will play one shard of hands
+         */
+        public Player newPlayer(long seed);
+    }
+
+    // for a single thread, e.g. to keep a player between hands
+    public static PlayerFactory shared(final Player player)
+    {
+        return new PlayerFactory() {
+            @Override public Player newPlayer(long seed) {
+                return player;
+            }
+        };
+    }
+
+
+    //--------------------------------------------------------------------
+    private final long    DUPLICATE_PAIRS;
+    private final int     N_THREADS;
+    private final long    SEED;
+    private final boolean SWAP_SEATS;
+
+
+    //--------------------------------------------------------------------
+    public DuplicateMatch(long duplicatePairs, int nThreads, long seed)
+    {
+        this(duplicatePairs, nThreads, seed, true);
+    }
+    public DuplicateMatch(
+            long    duplicatePairs,
+            int     nThreads,
+            long    seed,
+            boolean swapSeats)
+    {
+        DUPLICATE_PAIRS = duplicatePairs;
+        N_THREADS       = nThreads;
+        SEED            = seed;
+        SWAP_SEATS      = swapSeats;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param players exactly two, in dealer-last order for the first
+     *          pair of hands
+     * @return outcome for the first of the players
+     */
+    public Result play(Map<Avatar, PlayerFactory> players)
+    {
+        if (players.size() != 2) {
+            throw new IllegalArgumentException(
+                    "heads-up only: " + players.keySet());
+        }
+
+        final List<Avatar> orderA = new ArrayList<>(players.keySet());
+        final List<Avatar> orderB = new ArrayList<>(orderA);
+        Collections.swap(orderB, 0, 1);
+
+        final int  nShards =
+                (int) ((DUPLICATE_PAIRS + SHARD_PAIRS - 1) / SHARD_PAIRS);
+        final long seeds[] = new long[ nShards * 2 ];
+        Random seedRand = new Random(SEED);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[ i ] = seedRand.nextLong();
+        }
+
+        final Result     total     = new Result(orderA.get(0));
+        final AtomicLong nextShard = new AtomicLong();
+        final Map<Avatar, PlayerFactory> factories = players;
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < Math.min(N_THREADS, nShards); t++) {
+            workers.add(new Callable<Void>() {
+                @Override public Void call() {
+                    for (int shard; (shard = (int) nextShard.getAndIncrement())
+                                        < nShards;) {
+                        Result shardResult = playShard(
+                                shard, seeds[ shard * 2 ], seeds[ shard * 2 + 1 ],
+                                factories, orderA, orderB);
+                        total.addShard(shardResult);
+                    }
+                    return null;
+                }});
+        }
+        invokeAll(workers);
+
+        LOG.info("done: " + total);
+        return total;
+    }
+
+
+    //--------------------------------------------------------------------
+    private Result playShard(
+            int                        shard,
+            long                       cardSeed,
+            long                       playerSeed,
+            Map<Avatar, PlayerFactory> factories,
+            List<Avatar>               orderA,
+            List<Avatar>               orderB)
+    {
+        Random playerSeeds = new Random(playerSeed);
+        Map<Avatar, Player> brains = new HashMap<>();
+        for (Avatar avatar : orderA) {
+            brains.put(avatar,
+                       factories.get(avatar).newPlayer(
+                               playerSeeds.nextLong()));
+        }
+
+        Dealer dealer = new Dealer(true, brains);
+        Random rand   = new Random(cardSeed);
+        Result result = new Result(orderA.get(0));
+
+        long firstPair = (long) shard * SHARD_PAIRS;
+        long endPair   = Math.min(firstPair + SHARD_PAIRS, DUPLICATE_PAIRS);
+        for (long pair = firstPair; pair < endPair; pair++)
+        {
+            List<Avatar> order =
+                    (SWAP_SEATS && pair % 2 == 1)
+                    ? orderB : orderA;
+
+            SwapCards cards = new SwapCards(rand);
+
+            Map<Avatar, ChipStack> deltas = dealer.play(order, cards).deltas();
+            ChipStack pairDelta   = deltas.get(result.PLAYER);
+            ChipStack dealerDelta = deltas.get(order.get(1));
+
+            cards.swap();
+
+            deltas       = dealer.play(order, cards).deltas();
+            pairDelta    = pairDelta  .plus(deltas.get(result.PLAYER));
+            dealerDelta  = dealerDelta.plus(deltas.get(order.get(1)));
+
+            result.addPair(pairDelta.smallBlinds(),
+                           dealerDelta.smallBlinds());
+        }
+        return result;
+    }
+
+
+    //--------------------------------------------------------------------
+    private void invokeAll(List<Callable<Void>> workers)
+    {
+        ExecutorService exec = Executors.newFixedThreadPool(workers.size());
+        try {
+            for (Future<Void> done : exec.invokeAll( workers )) {
+                done.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Running totals, in small blinds per duplicate pair, which are
+     *  exact, so they add up the same in any order.
+     */
+    public static class Result
+    {
+        private final Avatar PLAYER;
+        private final long   START = System.currentTimeMillis();
+
+        private long pairs;
+        private long sum;
+        private long sumOfSquares;
+        private long dealerSum;
+
+        private long lastReport = START;
+
+        private Result(Avatar player)
+        {
+            PLAYER = player;
+        }
+
+        private void addPair(long smallBlinds, long dealerSmallBlinds)
+        {
+            pairs++;
+            sum          += smallBlinds;
+            sumOfSquares += smallBlinds * smallBlinds;
+            dealerSum    += dealerSmallBlinds;
+        }
+
+        private synchronized void addShard(Result shard)
+        {
+            pairs        += shard.pairs;
+            sum          += shard.sum;
+            sumOfSquares += shard.sumOfSquares;
+            dealerSum    += shard.dealerSum;
+
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= REPORT_MILLIS) {
+                lastReport = now;
+                LOG.info(this);
+            }
+        }
+
+
+        //----------------------------------------------------------------
+        public synchronized Avatar player()
+        {
+            return PLAYER;
+        }
+
+        public synchronized long hands()
+        {
+            return pairs * 2;
+        }
+
+        // for player(), the opponent gets the negation
+        public synchronized double mbPerHand()
+        {
+            return pairs == 0
+                   ? 0 : MB_PER_PAIR_BLIND * sum / pairs;
+        }
+
+        // half-width of 95% confidence interval around mbPerHand
+        public synchronized double confidence95()
+        {
+            if (pairs < 2) return Double.POSITIVE_INFINITY;
+
+            double mean     = (double) sum / pairs;
+            double variance = (sumOfSquares - mean * sum) / (pairs - 1);
+            return Z_95 * MB_PER_PAIR_BLIND *
+                   Math.sqrt(Math.max(variance, 0) / pairs);
+        }
+
+        // advantage of the seat that deals
+        public synchronized double dealerMbPerHand()
+        {
+            return pairs == 0
+                   ? 0 : MB_PER_PAIR_BLIND * dealerSum / pairs;
+        }
+
+        public synchronized double handsPerSecond()
+        {
+            long millis = Math.max(1, System.currentTimeMillis() - START);
+            return hands() * 1000.0 / millis;
+        }
+
+
+        //----------------------------------------------------------------
+        @Override
+        public synchronized String toString()
+        {
+            return String.format(
+                    "%d hands: %s %+.2f +/- %.2f mb/hand" +
+                    " (dealer %+.2f), %.0f hands/sec",
+                    hands(), PLAYER, mbPerHand(), confidence95(),
+                    dealerMbPerHand(), handsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,823 @@
+package ao.holdem.bot.regret;
+
+import ao.holdem.abs.bucket.abstraction.access.BucketSequence;
+import ao.holdem.abs.bucket.abstraction.access.odds.IBucketOdds;
+import ao.holdem.engine.state.HeadsUpStatus;
+import ao.holdem.engine.state.tree.StateTree;
+import ao.holdem.model.Round;
+import ao.holdem.model.act.AbstractAction;
+import ao.util.time.Stopwatch;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Best response to the average strategy of an InfoPart, in the
+ *  abstract game, for each seat.
+ *
+ * Chance is a fixed sample of bucket sequences (e.g. from
+ *  HoldemAbstraction.sampler with a fixed seed), which stands in for
+ *  the bucket transition probabilities of the abstraction.  For each
+ *  seat the StateTree is walked once per hole bucket of the responder,
+ *  with a vector of opponent reach probabilities over the deals that
+ *  share it.  At the responder's nodes each of its round buckets takes
+ *  the action with the best total value over its deals, at the
+ *  opponent's nodes the deals are weighted by its average strategy.
+ *
+ * A responder that picks its actions knowing the sample looks better
+ *  than it is when there are few deals per bucket, so the actions are
+ *  picked on one sample (fit) and scored on an independent one.  The
+ *  scored value is that of a fixed strategy, so it does not overstate
+ *  exploitability, whatever the number of deals; the in-sample value
+ *  is reported alongside it, the gap between the two shows how much
+ *  the fit sample overfits.  Buckets that the fit sample does not reach
+ *  at a node take the best action over all of the hole bucket's deals,
+ *  nodes that it does not reach check or call.
+ *
+ * Hole buckets are independent (buckets of later rounds refine those
+ *  of earlier ones), so they are done on a number of threads, and
+ *  their values are added up in bucket order, so the result does not
+ *  depend on the number of threads.
+ */
+public class BestResponse
+{
+    //--------------------------------------------------------------------
+    private static final Logger LOG =
+            Logger.getLogger(BestResponse.class);
+
+    // small blinds to milli-big-blinds
+    private static final double MB_PER_SMALL_BLIND = 1000.0 / 2;
+
+    private static final int ACTS = AbstractAction.VALUES.length;
+
+
+    //--------------------------------------------------------------------
+    private final InfoPart    INFO;
+    private final IBucketOdds ODDS;
+    private final int         N_THREADS;
+
+
+    //--------------------------------------------------------------------
+    public BestResponse(
+            InfoPart    info,
+            IBucketOdds odds,
+            int         nThreads)
+    {
+        INFO      = info;
+        ODDS      = odds;
+        N_THREADS = nThreads;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param fit source of chance to pick actions on
+     * @param score independent source of chance to score them on
+     * @param nDeals how many deals to sample from each
+     * @return value of a best response in each seat
+     */
+    public Result evaluate(
+            BucketSequence fit,
+            BucketSequence score,
+            int            nDeals)
+    {
+        char fitDealer  [][] = new char[ nDeals ][ Round.VALUES.length ];
+        char fitDealee  [][] = new char[ nDeals ][ Round.VALUES.length ];
+        char scoreDealer[][] = new char[ nDeals ][ Round.VALUES.length ];
+        char scoreDealee[][] = new char[ nDeals ][ Round.VALUES.length ];
+        for (int i = 0; i < nDeals; i++) {
+            fit  .next(fitDealer  [i], fitDealee  [i]);
+            score.next(scoreDealer[i], scoreDealee[i]);
+        }
+        return evaluate(fitDealer, fitDealee, scoreDealer, scoreDealee);
+    }
+
+    /**
+     * @param fitDealer round buckets of the dealer, per deal to pick on
+     * @param fitDealee round buckets of the dealee, per deal to pick on
+     * @param scoreDealer round buckets of the dealer, per deal to score
+     * @param scoreDealee round buckets of the dealee, per deal to score
+     * @return value of a best response in each seat
+     */
+    public Result evaluate(
+            char fitDealer  [][],
+            char fitDealee  [][],
+            char scoreDealer[][],
+            char scoreDealee[][])
+    {
+        Stopwatch time = new Stopwatch();
+
+        Seat fitAsDealer   = new Seat(true,  fitDealer,   fitDealee);
+        Seat fitAsDealee   = new Seat(false, fitDealee,   fitDealer);
+        Seat scoreAsDealer = new Seat(true,  scoreDealer, scoreDealee);
+        Seat scoreAsDealee = new Seat(false, scoreDealee, scoreDealer);
+
+        List<Responder> responders = new ArrayList<>();
+        responders.addAll(responders(fitAsDealer, scoreAsDealer));
+        responders.addAll(responders(fitAsDealee, scoreAsDealee));
+
+        int maxDeals  = 0;
+        int maxBucket = 0;
+        for (Seat seat : new Seat[]{
+                fitAsDealer, fitAsDealee, scoreAsDealer, scoreAsDealee}) {
+            maxDeals  = Math.max(maxDeals,  seat.maxDeals());
+            maxBucket = Math.max(maxBucket, seat.maxBucket());
+        }
+
+        double values[][] = respond(responders, maxDeals, maxBucket);
+
+        double fitDealerValue   = 0;
+        double fitDealeeValue   = 0;
+        double scoreDealerValue = 0;
+        double scoreDealeeValue = 0;
+        for (int i = 0; i < responders.size(); i++) {
+            if (responders.get(i).SCORE.FOR_DEALER) {
+                fitDealerValue   += values[i][0];
+                scoreDealerValue += values[i][1];
+            } else {
+                fitDealeeValue   += values[i][0];
+                scoreDealeeValue += values[i][1];
+            }
+        }
+
+        Result result = new Result(
+                scoreDealer.length,
+                MB_PER_SMALL_BLIND * scoreDealerValue / scoreDealer.length,
+                MB_PER_SMALL_BLIND * scoreDealeeValue / scoreDealer.length,
+                MB_PER_SMALL_BLIND * fitDealerValue   / fitDealer.length,
+                MB_PER_SMALL_BLIND * fitDealeeValue   / fitDealer.length);
+        LOG.info(result + ", took " + time);
+        return result;
+    }
+
+    // one per hole bucket of the responder that is scored, in bucket order
+    private List<Responder> responders(Seat fit, Seat score)
+    {
+        List<Responder> responders = new ArrayList<>();
+        for (int h = 0; h < score.holes(); h++) {
+            if (score.deals(h) == 0) continue;
+
+            responders.add(new Responder(fit, score, h));
+        }
+        return responders;
+    }
+
+
+    //--------------------------------------------------------------------
+    // [responder][fit value, scored value]
+    private double[][] respond(
+            final List<Responder> responders,
+            final int             maxDeals,
+            final int             maxBucket)
+    {
+        final double        values[][]    = new double[ responders.size() ][];
+        final AtomicInteger nextResponder = new AtomicInteger();
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < Math.min(N_THREADS, responders.size()); t++) {
+            workers.add(new Callable<Void>() {
+                @Override public Void call() {
+                    Walker walker = new Walker(maxDeals, maxBucket);
+                    for (int i; (i = nextResponder.getAndIncrement())
+                                        < responders.size();) {
+                        values[ i ] = walker.respond(responders.get(i));
+                    }
+                    return null;
+                }});
+        }
+        invokeAll(workers);
+        return values;
+    }
+
+    private void invokeAll(List<Callable<Void>> workers)
+    {
+        if (workers.size() == 1) {
+            try {
+                workers.get(0).call();
+            } catch (Exception e) {
+                throw new Error( e );
+            }
+            return;
+        }
+
+        ExecutorService exec = Executors.newFixedThreadPool(workers.size());
+        try {
+            for (Future<Void> done : exec.invokeAll( workers )) {
+                done.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Deals from the point of view of one seat, counting sorted by the
+     *  hole bucket of the responder, with the showdown value of each.
+     *  This is all that is held for every responder at once.
+     */
+    private class Seat
+    {
+        //----------------------------------------------------------------
+        private final boolean FOR_DEALER;
+
+        private final char    OWN_BUCKETS[][]; // [round][deal]
+        private final char    OPP_BUCKETS[][]; // [round][deal]
+        private final double  SHOWDOWN   [];   // [deal], per unit of stakes
+
+        // deals of hole bucket h are from HOLE_START[h] to HOLE_START[h+1]
+        private final int     HOLE_START [];
+
+
+        //----------------------------------------------------------------
+        public Seat(
+                boolean forDealer,
+                char    ownBuckets[][],
+                char    oppBuckets[][])
+        {
+            FOR_DEALER = forDealer;
+
+            int nDeals  = ownBuckets.length;
+            int nRounds = Round.VALUES.length;
+            int preflop = Round.PREFLOP.ordinal();
+            int river   = Round.RIVER  .ordinal();
+
+            int nHoles = 0;
+            for (char own[] : ownBuckets) {
+                nHoles = Math.max(nHoles, own[ preflop ] + 1);
+            }
+
+            HOLE_START = new int[ nHoles + 1 ];
+            for (char own[] : ownBuckets) {
+                HOLE_START[ own[preflop] + 1 ]++;
+            }
+            for (int h = 0; h < nHoles; h++) {
+                HOLE_START[ h + 1 ] += HOLE_START[ h ];
+            }
+
+            OWN_BUCKETS = new char  [ nRounds ][ nDeals ];
+            OPP_BUCKETS = new char  [ nRounds ][ nDeals ];
+            SHOWDOWN    = new double[ nDeals ];
+
+            int next[] = Arrays.copyOf(HOLE_START, nHoles);
+            for (int deal = 0; deal < nDeals; deal++) {
+                char own[] = ownBuckets[ deal ];
+                char opp[] = oppBuckets[ deal ];
+                int  i     = next[ own[preflop] ]++;
+
+                for (int round = 0; round < nRounds; round++) {
+                    OWN_BUCKETS[ round ][ i ] = own[ round ];
+                    OPP_BUCKETS[ round ][ i ] = opp[ round ];
+                }
+
+                double dealerStakesFactor = forDealer
+                        ? (ODDS.nonLossProb(own[river], opp[river]) - 0.5) * 2.0
+                        : (ODDS.nonLossProb(opp[river], own[river]) - 0.5) * 2.0;
+                SHOWDOWN[ i ] = forDealer
+                                ? dealerStakesFactor : -dealerStakesFactor;
+            }
+        }
+
+
+        //----------------------------------------------------------------
+        public int holes()
+        {
+            return HOLE_START.length - 1;
+        }
+
+        public int firstDeal(int hole)
+        {
+            return hole < holes() ? HOLE_START[ hole ] : 0;
+        }
+
+        public int deals(int hole)
+        {
+            return hole < holes()
+                   ? HOLE_START[ hole + 1 ] - HOLE_START[ hole ] : 0;
+        }
+
+
+        //----------------------------------------------------------------
+        public int maxDeals()
+        {
+            int max = 0;
+            for (int h = 0; h < holes(); h++) {
+                max = Math.max(max, deals(h));
+            }
+            return max;
+        }
+
+        public int maxBucket()
+        {
+            int max = 0;
+            for (char buckets[] : OWN_BUCKETS) {
+                for (char bucket : buckets) {
+                    max = Math.max(max, bucket);
+                }
+            }
+            return max;
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    // deals of a fit and a scored Seat that share a hole bucket
+    //  of the responder
+    private static class Responder
+    {
+        private final Seat FIT;
+        private final int  FIT_FROM;
+        private final int  FIT_N;
+
+        private final Seat SCORE;
+        private final int  SCORE_FROM;
+        private final int  SCORE_N;
+
+        public Responder(Seat fit, Seat score, int hole)
+        {
+            FIT        = fit;
+            FIT_FROM   = fit.firstDeal(hole);
+            FIT_N      = fit.deals(hole);
+
+            SCORE      = score;
+            SCORE_FROM = score.firstDeal(hole);
+            SCORE_N    = score.deals(hole);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    // actions picked by the responder at one of its nodes
+    private static class Choice
+    {
+        private final char BUCKETS[]; // in increasing order
+        private final byte ACTS   [];
+        private final int  FALLBACK;
+
+        public Choice(char buckets[], byte acts[], int fallback)
+        {
+            BUCKETS  = buckets;
+            ACTS     = acts;
+            FALLBACK = fallback;
+        }
+
+        public int act(char bucket)
+        {
+            int index = Arrays.binarySearch(BUCKETS, bucket);
+            return index < 0 ? FALLBACK : ACTS[ index ];
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Best response over the deals of a Responder.  Values are from the
+     *  point of view of the responder, in small blinds, weighted by the
+     *  reach probability of the opponent.
+     *
+     * The fit deals are walked first, picking an action at each node
+     *  for each round bucket, then the scored deals are walked taking
+     *  those actions.
+     *
+     * One per thread, its scratch is sized for the largest Responder
+     *  and reused for each.
+     */
+    private class Walker
+    {
+        //----------------------------------------------------------------
+        // round buckets of the responder, renumbered from zero
+        private final int     GROUP      [][];   // [round][deal]
+        private final int     GROUPS     [];     // [round]
+        private final int     GROUP_OF   [];     // [bucket]
+        private final char    GROUP_BUCKET[];    // [group]
+
+        // per-depth scratch, so that no arrays are allocated per node
+        private final double  ROOT_REACH [];     // [deal]
+        private final double  REACH      [][];   // [depth][deal]
+        private final double  VALUE      [][];   // [depth][deal]
+        private final double  ACT_VALUE  [][][]; // [depth][act][deal]
+        private final int     CHOSEN     [][];   // [depth][deal]
+        private final double  GROUP_VALUE[][];   // [act][group]
+        private final int     GROUP_ACT  [];     // [group]
+        private final double  STRATEGY   [];
+
+        // picked on the fit deals of the current Responder
+        private final Map<StateTree.Node, Choice> POLICY =
+                new IdentityHashMap<>();
+
+        // deals being walked
+        private Seat    seat;
+        private int     from;
+        private int     n;
+        private boolean fitting;
+
+
+        //----------------------------------------------------------------
+        public Walker(int maxDeals, int maxBucket)
+        {
+            int nRounds = Round.VALUES.length;
+            GROUP        = new int[ nRounds ][ maxDeals ];
+            GROUPS       = new int[ nRounds ];
+            GROUP_OF     = new int[ maxBucket + 1 ];
+            GROUP_BUCKET = new char[ maxDeals ];
+
+            int depth = StateTree.depth() + 1;
+            ROOT_REACH  = new double[ maxDeals ];
+            REACH       = new double[ depth ][ maxDeals ];
+            VALUE       = new double[ depth ][ maxDeals ];
+            ACT_VALUE   = new double[ depth ][ ACTS ][ maxDeals ];
+            CHOSEN      = new int[ depth ][ maxDeals ];
+            GROUP_VALUE = new double[ ACTS ][ maxDeals ];
+            GROUP_ACT   = new int[ maxDeals ];
+            STRATEGY    = new double[ ACTS ];
+        }
+
+
+        //----------------------------------------------------------------
+        // fit value, scored value
+        public double[] respond(Responder toRespond)
+        {
+            POLICY.clear();
+
+            double fitValue = walk(
+                    true, toRespond.FIT, toRespond.FIT_FROM, toRespond.FIT_N);
+            double scoreValue = walk(
+                    false, toRespond.SCORE,
+                    toRespond.SCORE_FROM, toRespond.SCORE_N);
+
+            return new double[]{fitValue, scoreValue};
+        }
+
+        private double walk(
+                boolean toFit, Seat dealsOf, int fromDeal, int nDeals)
+        {
+            if (nDeals == 0) return 0;
+
+            fitting = toFit;
+            seat    = dealsOf;
+            from    = fromDeal;
+            n       = nDeals;
+
+            if (fitting) {
+                for (int round = 0; round < Round.VALUES.length; round++) {
+                    GROUPS[ round ] = group(
+                            seat.OWN_BUCKETS[ round ], GROUP[ round ]);
+                }
+            }
+
+            Arrays.fill(ROOT_REACH, 0, n, 1.0);
+            respond(StateTree.headsUpRoot(), ROOT_REACH, 0);
+
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += VALUE[ 0 ][ i ];
+            }
+            return total;
+        }
+
+        // groups are in bucket order, GROUP_OF is left zeroed
+        private int group(char buckets[], int into[])
+        {
+            int maxBucket = 0;
+            for (int i = 0; i < n; i++) {
+                GROUP_OF[ buckets[from + i] ] = 1;
+                maxBucket = Math.max(maxBucket, buckets[from + i]);
+            }
+
+            int nextGroup = 0;
+            for (int bucket = 0; bucket <= maxBucket; bucket++) {
+                if (GROUP_OF[ bucket ] != 0) {
+                    GROUP_OF[ bucket ] = ++nextGroup;
+                }
+            }
+
+            for (int i = 0; i < n; i++) {
+                into[ i ] = GROUP_OF[ buckets[from + i] ] - 1;
+            }
+            Arrays.fill(GROUP_OF, 0, maxBucket + 1, 0);
+            return nextGroup;
+        }
+
+
+        //----------------------------------------------------------------
+        // fills VALUE[depth]
+        private void respond(
+                StateTree.Node node,
+                double         reach[],
+                int            depth)
+        {
+            if (node.status() != HeadsUpStatus.IN_PROGRESS) {
+                evaluate(node, reach, VALUE[ depth ]);
+            } else if (node.dealerIsNext() == seat.FOR_DEALER) {
+                if (fitting) {
+                    advance(node, reach, depth);
+                } else {
+                    follow(node, reach, depth);
+                }
+            } else {
+                pass(node, reach, depth);
+            }
+        }
+
+
+        //----------------------------------------------------------------
+        private void advance(
+                StateTree.Node node,
+                double         reach[],
+                int            depth)
+        {
+            int round   = node.round().ordinal();
+            int group[] = GROUP [ round ];
+            int nGroups = GROUPS[ round ];
+
+            double actValues[][] = ACT_VALUE[ depth ];
+            for (AbstractAction act : AbstractAction.VALUES) {
+                StateTree.Node nextNode = node.kid(act);
+                if (nextNode == null) continue;
+
+                respond(nextNode, reach, depth + 1);
+                System.arraycopy(VALUE[ depth + 1 ], 0,
+                                 actValues[ act.ordinal() ], 0, n);
+            }
+
+            for (AbstractAction act : AbstractAction.VALUES) {
+                if (node.kid(act) == null) continue;
+
+                double actValue  [] = actValues  [ act.ordinal() ];
+                double groupValue[] = GROUP_VALUE[ act.ordinal() ];
+                Arrays.fill(groupValue, 0, nGroups, 0);
+                for (int i = 0; i < n; i++) {
+                    groupValue[ group[i] ] += actValue[ i ];
+                }
+            }
+
+            // ties go to the first action
+            int    fallback      = -1;
+            double fallbackValue = Double.NEGATIVE_INFINITY;
+            for (AbstractAction act : AbstractAction.VALUES) {
+                if (node.kid(act) == null) continue;
+
+                double value = 0;
+                for (int g = 0; g < nGroups; g++) {
+                    value += GROUP_VALUE[ act.ordinal() ][ g ];
+                }
+                if (value > fallbackValue) {
+                    fallback      = act.ordinal();
+                    fallbackValue = value;
+                }
+            }
+
+            for (int g = 0; g < nGroups; g++) {
+                int    bestAct   = -1;
+                double bestValue = Double.NEGATIVE_INFINITY;
+                for (AbstractAction act : AbstractAction.VALUES) {
+                    if (node.kid(act) == null) continue;
+
+                    double value = GROUP_VALUE[ act.ordinal() ][ g ];
+                    if (value > bestValue) {
+                        bestAct   = act.ordinal();
+                        bestValue = value;
+                    }
+                }
+                GROUP_ACT[ g ] = bestAct;
+            }
+
+            char ownBuckets[] = seat.OWN_BUCKETS[ round ];
+            for (int i = 0; i < n; i++) {
+                GROUP_BUCKET[ group[i] ] = ownBuckets[ from + i ];
+            }
+            byte acts[] = new byte[ nGroups ];
+            for (int g = 0; g < nGroups; g++) {
+                acts[ g ] = (byte) GROUP_ACT[ g ];
+            }
+            POLICY.put(node, new Choice(
+                    Arrays.copyOf(GROUP_BUCKET, nGroups), acts, fallback));
+
+            double value[] = VALUE[ depth ];
+            for (int i = 0; i < n; i++) {
+                value[ i ] = actValues[ GROUP_ACT[group[i]] ][ i ];
+            }
+        }
+
+
+        //----------------------------------------------------------------
+        private void follow(
+                StateTree.Node node,
+                double         reach[],
+                int            depth)
+        {
+            Choice choice       = POLICY.get(node);
+            char   ownBuckets[] = seat.OWN_BUCKETS[ node.round().ordinal() ];
+            int    chosen    [] = CHOSEN[ depth ];
+
+            int unreached = (node.kid(AbstractAction.CHECK_CALL) != null)
+                            ? AbstractAction.CHECK_CALL.ordinal()
+                            : firstAct(node);
+
+            int chosenActs = 0;
+            for (int i = 0; i < n; i++) {
+                chosen[ i ] = (choice == null)
+                              ? unreached
+                              : choice.act(ownBuckets[ from + i ]);
+                chosenActs |= 1 << chosen[ i ];
+            }
+
+            double actValues[][] = ACT_VALUE[ depth ];
+            for (AbstractAction act : AbstractAction.VALUES) {
+                if ((chosenActs & (1 << act.ordinal())) == 0) continue;
+
+                respond(node.kid(act), reach, depth + 1);
+                System.arraycopy(VALUE[ depth + 1 ], 0,
+                                 actValues[ act.ordinal() ], 0, n);
+            }
+
+            double value[] = VALUE[ depth ];
+            for (int i = 0; i < n; i++) {
+                value[ i ] = actValues[ chosen[i] ][ i ];
+            }
+        }
+
+        private int firstAct(StateTree.Node node)
+        {
+            for (AbstractAction act : AbstractAction.VALUES) {
+                if (node.kid(act) != null) {
+                    return act.ordinal();
+                }
+            }
+            throw new IllegalStateException(node.toString());
+        }
+
+
+        //----------------------------------------------------------------
+        private void pass(
+                StateTree.Node node,
+                double         reach[],
+                int            depth)
+        {
+            char   oppBuckets[]  = seat.OPP_BUCKETS[ node.round().ordinal() ];
+            double actProbs [][] = ACT_VALUE[ depth ];
+            for (int i = 0; i < n; i++) {
+                if (reach[i] == 0) continue;
+
+                INFO.averageStrategy(node, oppBuckets[from + i], STRATEGY);
+                for (int act = 0; act < ACTS; act++) {
+                    actProbs[ act ][ i ] = STRATEGY[ act ];
+                }
+            }
+
+            double value[]    = VALUE[ depth ];
+            double oppReach[] = REACH[ depth ];
+            Arrays.fill(value, 0, n, 0);
+            for (AbstractAction act : AbstractAction.VALUES) {
+                StateTree.Node nextNode = node.kid(act);
+                if (nextNode == null) continue;
+
+                double  actProb[] = actProbs[ act.ordinal() ];
+                boolean reached   = false;
+                for (int i = 0; i < n; i++) {
+                    oppReach[ i ] = (reach[i] == 0)
+                                    ? 0 : reach[i] * actProb[i];
+                    reached |= (oppReach[i] != 0);
+                }
+                if (! reached) continue;
+
+                respond(nextNode, oppReach, depth + 1);
+
+                double nextValue[] = VALUE[ depth + 1 ];
+                for (int i = 0; i < n; i++) {
+                    value[ i ] += nextValue[ i ];
+                }
+            }
+        }
+
+
+        //----------------------------------------------------------------
+        private void evaluate(
+                StateTree.Node node,
+                double         reach[],
+                double         into[])
+        {
+            boolean forDealer = seat.FOR_DEALER;
+            switch (node.status()) {
+                case SHOWDOWN:
+                    double showdown[] = seat.SHOWDOWN;
+                    int    stakes     = node.stakes();
+                    for (int i = 0; i < n; i++) {
+                        into[ i ] = reach[i] * stakes * showdown[from + i];
+                    }
+                    return;
+
+                case DEALER_WINS:
+                    fill(into, reach, forDealer
+                                      ?  node.dealeeCommit()
+                                      : -node.dealeeCommit());
+                    return;
+
+                case DEALEE_WINS:
+                    fill(into, reach, forDealer
+                                      ? -node.dealerCommit()
+                                      :  node.dealerCommit());
+                    return;
+            }
+            throw new IllegalStateException(node.status().toString());
+        }
+
+        private void fill(double into[], double reach[], double utility)
+        {
+            for (int i = 0; i < n; i++) {
+                into[ i ] = reach[i] * utility;
+            }
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Values of best responses, in milli-big-blinds per hand, as scored
+     *  on deals that they were not picked on.
+     */
+    public static class Result
+    {
+        private final int    DEALS;
+        private final double DEALER_MB;
+        private final double DEALEE_MB;
+        private final double FIT_DEALER_MB;
+        private final double FIT_DEALEE_MB;
+
+        private Result(
+                int    deals,
+                double dealerMb,
+                double dealeeMb,
+                double fitDealerMb,
+                double fitDealeeMb)
+        {
+            DEALS         = deals;
+            DEALER_MB     = dealerMb;
+            DEALEE_MB     = dealeeMb;
+            FIT_DEALER_MB = fitDealerMb;
+            FIT_DEALEE_MB = fitDealeeMb;
+        }
+
+
+        //----------------------------------------------------------------
+        // scored deals
+        public int deals()
+        {
+            return DEALS;
+        }
+
+        // best response in the dealer seat vs the strategy's dealee
+        public double dealerMbPerHand()
+        {
+            return DEALER_MB;
+        }
+
+        // best response in the dealee seat vs the strategy's dealer
+        public double dealeeMbPerHand()
+        {
+            return DEALEE_MB;
+        }
+
+        // what a best response wins per hand, alternating seats,
+        //  zero at an equilibrium
+        public double exploitability()
+        {
+            return (DEALER_MB + DEALEE_MB) / 2;
+        }
+
+        // exploitability on the deals that the actions were picked on,
+        //  overstated when there are few deals per bucket
+        public double fitExploitability()
+        {
+            return (FIT_DEALER_MB + FIT_DEALEE_MB) / 2;
+        }
+
+
+        //----------------------------------------------------------------
+        @Override
+        public String toString()
+        {
+            return String.format(
+                    "exploitability %.2f mb/hand" +
+                    " (dealer %+.2f, dealee %+.2f) over %d deals" +
+                    ", %.2f in-sample",
+                    exploitability(), DEALER_MB, DEALEE_MB, DEALS,
+                    fitExploitability());
+        }
+    }
+}
@@ -2,18 +2,23 @@ package ao.holdem.bot.regret;
 
 import ao.Infrastructure;
 import ao.holdem.abs.bucket.abstraction.access.BucketDecoder;
+import ao.holdem.abs.bucket.abstraction.access.BucketSequence;
 import ao.holdem.abs.bucket.abstraction.access.BucketSequencer;
 import ao.holdem.abs.bucket.abstraction.access.odds.BucketOdds;
 import ao.holdem.abs.bucket.abstraction.access.odds.IBucketOdds;
+import ao.holdem.abs.bucket.abstraction.access.odds.PackedBucketOdds;
 import ao.holdem.abs.bucket.abstraction.access.tree.BucketTree;
 import ao.holdem.abs.bucket.abstraction.access.tree.BucketTreeImpl;
 import ao.holdem.abs.bucket.abstraction.bucketize.build.BucketTreeBuilder;
 import ao.holdem.abs.bucket.abstraction.bucketize.build.FastBucketTreeBuilder;
 import ao.holdem.abs.bucket.abstraction.bucketize.def.Bucketizer;
+import ao.holdem.bot.regret.grid.Grid;
 import ao.util.io.Dirs;
 import org.apache.log4j.Logger;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -43,8 +48,10 @@ public class HoldemAbstraction
     private BucketTree            tree;
     private BucketDecoder         decoder;
     private BucketOdds            odds;
+    private Map<PackedBucketOdds.Precision, PackedBucketOdds> packedOdds;
     private BucketSequencer       sequence;
     private Map<String, InfoPart> infoParts;
+    private Map<String, Long>     resumed;
 
 
     //--------------------------------------------------------------------
@@ -76,7 +83,9 @@ public class HoldemAbstraction
         N_TURNS  = nTurnBuckets;
         N_RIVERS = nRiverBuckets;
 
-        infoParts = new HashMap<>();
+        infoParts  = new HashMap<>();
+        packedOdds = new EnumMap<>(PackedBucketOdds.Precision.class);
+        resumed    = new HashMap<>();
     }
 
 
@@ -166,6 +175,22 @@ public class HoldemAbstraction
         return bucketOdds.cache();
     }
 
+    public IBucketOdds packedOdds(PackedBucketOdds.Precision precision)
+    {
+        PackedBucketOdds packed = packedOdds.get(precision);
+        if (packed != null) return packed;
+
+        char nRiverBuckets = decoder().riverBucketCount();
+        packed = PackedBucketOdds.retrieve(DIR, precision, nRiverBuckets);
+        if (packed == null) {
+            packed = PackedBucketOdds.computeAndStore(
+                    DIR, precision, odds(), nRiverBuckets);
+        }
+
+        packedOdds.put(precision, packed);
+        return packed;
+    }
+
 
     //--------------------------------------------------------------------
     public boolean deleteSequence()
@@ -184,6 +209,12 @@ public class HoldemAbstraction
         return sequence;
     }
 
+    public BucketSequence sampler(long seed, int stream)
+    {
+        return BucketSequencer.sampler(
+                tree(false), decoder(), seed, stream, Long.MAX_VALUE);
+    }
+
 
     //--------------------------------------------------------------------
     public InfoPart infoPart(boolean readOnly, boolean doublePrecision)
@@ -192,9 +223,30 @@ public class HoldemAbstraction
     }
     public InfoPart infoPart(
             String name, boolean readOnly, boolean doublePrecision)
+    {
+        return infoPart(name, readOnly, doublePrecision, false);
+    }
+    public InfoPart infoPart(
+            String  name,
+            boolean readOnly,
+            boolean doublePrecision,
+            boolean mapped)
+    {
+        return infoPart(name, readOnly,
+                        InfoPart.precisions(doublePrecision), mapped);
+    }
+
+    /**
+     * @param precisions of each round, see InfoPart.retrieveOrCreate
+     */
+    public InfoPart infoPart(
+            String           name,
+            boolean          readOnly,
+            Grid.Precision[] precisions,
+            boolean          mapped)
     {
         if (name == null) {
-            return infoPart("main", readOnly, doublePrecision);
+            return infoPart("main", readOnly, precisions, mapped);
         }
 
         InfoPart infoPart = infoParts.get(name);
@@ -204,33 +256,98 @@ public class HoldemAbstraction
         }
 
         infoPart = InfoPart.retrieveOrCreate(
-                     infoPartDir(name, doublePrecision),
+                     infoPartDir(name, precisions),
                      N_HOLES, N_FLOPS, N_TURNS, N_RIVERS,
-                     readOnly, doublePrecision);
+                     readOnly, precisions, mapped);
         infoParts.put(name, infoPart);
 
         return infoPart;
     }
 
-    private File infoPartDir(String name, boolean doublePrecision)
+    private File infoPartDir(String name, Grid.Precision[] precisions)
     {
-        return Dirs.get(DIR, "info/" + name +
-                            (doublePrecision ? "_d" : "_f"));
+        return Dirs.get(DIR, "info/" + name + suffix(precisions));
     }
 
+    /**
+     * @return "_d" or "_f" for the precisions of a doublePrecision
+     *          flag (as always), otherwise one code per round
+     */
+    private static String suffix(Grid.Precision[] precisions)
+    {
+        if (Arrays.equals(precisions, InfoPart.precisions(true))) {
+            return "_d";
+        } else if (Arrays.equals(precisions, InfoPart.precisions(false))) {
+            return "_f";
+        }
+
+        StringBuilder codes = new StringBuilder("_");
+        for (Grid.Precision precision : precisions) {
+            codes.append(precision.CODE);
+        }
+        return codes.toString();
+    }
+
+
+    //--------------------------------------------------------------------
+    public InfoCheckpoints checkpoints(String name, boolean doublePrecision)
+    {
+        return checkpoints(name, InfoPart.precisions(doublePrecision));
+    }
+    public InfoCheckpoints checkpoints(
+            String name, Grid.Precision[] precisions)
+    {
+        return new InfoCheckpoints(Dirs.get(DIR, "checkpoint/" + name +
+                                   suffix(precisions)));
+    }
+
+    public long resume(String name, boolean doublePrecision)
+    {
+        return resume(name, InfoPart.precisions(doublePrecision));
+    }
+
+    /**
+     * Restores the latest checkpoint of an InfoPart (if any) over its
+     *  files, so that it is loaded from there.  Must be called before
+     *  the InfoPart is loaded, calling it again has no effect.
+     *
+     * @return number of bucket sequences the InfoPart was trained on
+     */
+    public long resume(String name, Grid.Precision[] precisions)
+    {
+        String key = name + suffix(precisions);
+
+        Long offset = resumed.get(key);
+        if (offset != null) return offset;
+
+        if (infoParts.containsKey(name)) {
+            throw new IllegalStateException("already loaded: " + name);
+        }
+
+        offset = checkpoints(name, precisions).restore(
+                    infoPartDir(name, precisions));
+        resumed.put(key, offset);
+        return offset;
+    }
+
+
+    //--------------------------------------------------------------------
     public boolean hasInfoPart(boolean doublePrecision)
     {
         return hasInfoPart(null, doublePrecision);
     }
     public boolean hasInfoPart(String name, boolean doublePrecision)
+    {
+        return hasInfoPart(name, InfoPart.precisions(doublePrecision));
+    }
+    public boolean hasInfoPart(String name, Grid.Precision[] precisions)
     {
         if (name == null) {
-            return hasInfoPart("main", doublePrecision);
+            return hasInfoPart("main", precisions);
         }
 
         return infoParts.get(name) != null ||
-               InfoPart.exists(infoPartDir(name, doublePrecision));
-
+               InfoPart.exists(infoPartDir(name, precisions));
     }
 
 
@@ -0,0 +1,278 @@
+package ao.holdem.bot.regret;
+
+import ao.holdem.bot.regret.grid.Grid;
+import ao.util.time.Stopwatch;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Checkpoints of an InfoPart taken during training, each with the
+ *  number of bucket sequences it has been trained on.
+ *
+ * Saving captures the rows changed since the previous checkpoint (see
+ *  Grid.changes) on the calling thread, between iterations, in time
+ *  proportional to the changed rows.  A background thread then copies
+ *  the previous checkpoint into a temporary directory, writes the
+ *  changes over it, and renames it once complete, so a crash during
+ *  the write leaves the previous checkpoint intact.  The first
+ *  checkpoint of an InfoPart captures all of its rows.  At most one
+ *  write is in progress, saving again waits for it first.
+ *
+ * Layout: dir/checkpoint.[offset]/ is laid out like an InfoPart
+ *  directory, where offset is the number of bucket sequences.
+ */
+public class InfoCheckpoints
+{
+    //--------------------------------------------------------------------
+    private static final Logger LOG =
+            Logger.getLogger(InfoCheckpoints.class);
+
+    private static final String PREFIX      = "checkpoint.";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+
+    //--------------------------------------------------------------------
+    private final File            DIR;
+    private final ExecutorService WRITER;
+
+    private Future<Void> pending;
+
+    // last checkpoint written from changes of writtenFrom
+    private File     written;
+    private InfoPart writtenFrom;
+
+
+    //--------------------------------------------------------------------
+    public InfoCheckpoints(File dir)
+    {
+        DIR    = dir;
+        WRITER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "info-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            }});
+
+        if (! DIR.isDirectory() && ! DIR.mkdirs()) {
+            throw new Error("can't create " + DIR);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param info to capture now, delta views must be committed first
+     * @param offset number of bucket sequences info was trained on
+     */
+    public synchronized void save(InfoPart info, final long offset)
+    {
+        await();
+
+        final File previous =
+                (info == writtenFrom && written != null && written.exists())
+                ? written : null;
+        written     = null;
+        writtenFrom = info;
+
+        Stopwatch          time    = new Stopwatch();
+        final Grid.Changes changes = info.changes(previous == null);
+        LOG.debug("changes at " + offset + " took " + time);
+
+        pending = WRITER.submit(new Callable<Void>() {
+            @Override public Void call() throws Exception {
+                written = write(changes, previous, offset);
+                return null;
+            }});
+    }
+
+    /**
+     * Waits for the checkpoint being written, if any.
+     */
+    public synchronized void await()
+    {
+        if (pending == null) return;
+
+        try {
+            pending.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            pending = null;
+        }
+    }
+
+    /**
+     * Deletes all checkpoints, e.g. once training is done and flushed.
+     */
+    public synchronized void clear()
+    {
+        await();
+
+        try {
+            for (File checkpoint : listCheckpoints()) {
+                delete(checkpoint);
+            }
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+
+    public void close()
+    {
+        await();
+        WRITER.shutdown();
+    }
+
+
+    //--------------------------------------------------------------------
+    private File write(
+            Grid.Changes changes, File previous, long offset)
+            throws IOException
+    {
+        Stopwatch time = new Stopwatch();
+
+        File temp = new File(DIR, PREFIX + offset + TEMP_SUFFIX);
+        delete(temp);
+
+        if (previous != null) {
+            copy(previous, temp);
+        }
+        changes.writeOver(temp);
+
+        File done = new File(DIR, PREFIX + offset);
+        delete(done);
+        Files.move(temp.toPath(), done.toPath(),
+                   StandardCopyOption.ATOMIC_MOVE);
+
+        // only once the new one is in place
+        for (File old : listCheckpoints()) {
+            if (! old.equals(done)) {
+                delete(old);
+            }
+        }
+
+        LOG.debug("wrote " + done + ", took " + time);
+        return done;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @return latest complete checkpoint, or null if there is none
+     */
+    public File latest()
+    {
+        File latest       = null;
+        long latestOffset = -1;
+        for (File checkpoint : listCheckpoints()) {
+            long offset = offset(checkpoint);
+            if (offset > latestOffset) {
+                latest       = checkpoint;
+                latestOffset = offset;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * @return number of bucket sequences the latest checkpoint was
+     *          trained on, zero if there is none
+     */
+    public long offset()
+    {
+        File latest = latest();
+        return latest == null ? 0 : offset(latest);
+    }
+
+    private static long offset(File checkpoint)
+    {
+        return Long.parseLong(
+                checkpoint.getName().substring(PREFIX.length()));
+    }
+
+    private File[] listCheckpoints()
+    {
+        File files[] = DIR.listFiles();
+        if (files == null) return new File[0];
+
+        int count = 0;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(PREFIX) && ! name.endsWith(TEMP_SUFFIX)) {
+                files[ count++ ] = file;
+            }
+        }
+        return Arrays.copyOf(files, count);
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Copies the latest checkpoint over an InfoPart directory, must be
+     *  done before the InfoPart is loaded from it.
+     *
+     * @param infoDir where the InfoPart is loaded from
+     * @return offset of the restored checkpoint, zero if there is none
+     */
+    public long restore(File infoDir)
+    {
+        await();
+
+        File latest = latest();
+        if (latest == null) return 0;
+
+        try {
+            copy(latest, infoDir);
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+
+        long offset = offset(latest);
+        LOG.debug("restored " + latest + " into " + infoDir);
+        return offset;
+    }
+
+    private static void copy(File from, File to) throws IOException
+    {
+        if (! to.isDirectory() && ! to.mkdirs()) {
+            throw new IOException("can't create " + to);
+        }
+
+        File files[] = from.listFiles();
+        if (files == null) return;
+
+        for (File file : files) {
+            File target = new File(to, file.getName());
+            if (file.isDirectory()) {
+                copy(file, target);
+            } else {
+                Files.copy(file.toPath(), target.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static void delete(File file) throws IOException
+    {
+        File files[] = file.listFiles();
+        if (files != null) {
+            for (File sub : files) {
+                delete(sub);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+}
@@ -2,7 +2,10 @@ package ao.holdem.bot.regret;
 
 import ao.holdem.engine.state.tree.StateTree;
 import ao.holdem.model.act.AbstractAction;
+import ao.holdem.bot.regret.grid.DeltaGrid;
+import ao.holdem.bot.regret.grid.FixedPointGrid;
 import ao.holdem.bot.regret.grid.Grid;
+import ao.holdem.bot.regret.grid.MappedGrid;
 import ao.holdem.bot.regret.grid.StoredGrid;
 import ao.util.math.rand.Rand;
 import ao.util.persist.PersistentChars;
@@ -11,6 +14,7 @@ import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Random;
 
 /**
  * User: alex
@@ -53,36 +57,91 @@ public class InfoMatrix
     public static InfoMatrix retrieveOrCreate(
             File dir, int nBuckets, int nIntents,
             boolean readOnly, boolean doublePrecision) {
+        return retrieveOrCreate(dir, nBuckets, nIntents,
+                                readOnly, doublePrecision, false);
+    }
+
+    public static InfoMatrix retrieveOrCreate(
+            File dir, int nBuckets, int nIntents,
+            boolean readOnly, boolean doublePrecision, boolean mapped) {
+        return retrieveOrCreate(dir, nBuckets, nIntents, readOnly,
+                                precision(doublePrecision), mapped);
+    }
+
+    /**
+     * @param mapped if true, grids are memory-mapped directly from
+     *                  the files in dir (which are created if missing),
+     *                  instead of being loaded onto the heap (or read
+     *                  through a RandomAccessFile if readOnly).
+     *               Fixed-point grids are never mapped.
+     */
+    public static InfoMatrix retrieveOrCreate(
+            File dir, int nBuckets, int nIntents,
+            boolean readOnly, Grid.Precision precision, boolean mapped) {
+        return retrieveOrCreate(dir, nBuckets, nIntents,
+                                readOnly, precision, mapped, null);
+    }
+
+    /**
+     * @param intentNodes node of each intent, so that fixed-point grids
+     *                      scale the intents of each node separately,
+     *                      see FixedPointGrid
+     */
+    public static InfoMatrix retrieveOrCreate(
+            File dir, int nBuckets, int nIntents,
+            boolean readOnly, Grid.Precision precision, boolean mapped,
+            int intentNodes[]) {
         char counts[] = PersistentChars.retrieve(
                             new File(dir, COUNT_FILE));
 
+        boolean map = mapped && ! precision.isFixedPoint();
         LOG.debug((counts == null ? "creating" : "retrieving") +
-                  " in " + dir);
-        return (counts == null)
-                ? newInstance(nBuckets, nIntents, doublePrecision)
+                  (map ? " mapped" : "") + " " + precision + " in " + dir);
+        return (counts == null && ! map)
+                ? newInstance(nBuckets, nIntents, precision, intentNodes)
                 : new InfoMatrix(
                         retrieve(dir, STRATEGY_FILE,
                                  nBuckets, nIntents,
-                                 readOnly, doublePrecision),
+                                 readOnly, precision, map, intentNodes),
                         retrieve(dir, CFREGRET_FILE,
                                  nBuckets, nIntents,
-                                 readOnly, doublePrecision));
+                                 readOnly, precision, map, intentNodes));
     }
 
     public static InfoMatrix newInstance(
             int nBuckets, int nIntents, boolean doublePrecision) {
-        return new InfoMatrix(nBuckets, nIntents, doublePrecision);
+        return newInstance(nBuckets, nIntents, precision(doublePrecision));
+    }
+    public static InfoMatrix newInstance(
+            int nBuckets, int nIntents, Grid.Precision precision) {
+        return newInstance(nBuckets, nIntents, precision, null);
+    }
+    public static InfoMatrix newInstance(
+            int nBuckets, int nIntents, Grid.Precision precision,
+            int intentNodes[]) {
+        return new InfoMatrix(
+                Grid.Impl.newInstance(nBuckets, nIntents,
+                        false, precision, false, intentNodes),
+                Grid.Impl.newInstance(nBuckets, nIntents,
+                        false, precision, false, intentNodes));
     }
     private static Grid retrieve(
             File dir, String file,
             int nBuckets, int nIntents,
-            boolean readOnly, boolean doublePrecision) {
+            boolean readOnly, Grid.Precision precision, boolean mapped,
+            int intentNodes[]) {
         Grid grid = Grid.Impl.newInstance(
-                nBuckets, nIntents, readOnly, doublePrecision);
+                nBuckets, nIntents, readOnly, precision, mapped, intentNodes);
         grid.load( new File(dir, file) );
         return grid ;
     }
 
+    private static Grid.Precision precision(boolean doublePrecision) {
+        return doublePrecision
+               ? Grid.Precision.DOUBLE
+               : Grid.Precision.FLOAT;
+    }
+
 
     public static void persist(File dir, InfoMatrix matrix)
     {
@@ -112,14 +171,6 @@ public class InfoMatrix
 
 
     //--------------------------------------------------------------------
-    private InfoMatrix(int     nBuckets,
-                       int     nIntents,
-                       boolean doublePrecision)
-    {
-        this(Grid.Impl.newInstance(nBuckets, nIntents, doublePrecision),
-             Grid.Impl.newInstance(nBuckets, nIntents, doublePrecision));
-    }
-
     private InfoMatrix(
             Grid copyAverageStrategy,
             Grid copyCumulativeRegret)
@@ -140,7 +191,56 @@ public class InfoMatrix
     }
 
     public boolean isReadOnly() {
-        return averageStrategy instanceof StoredGrid;
+        return averageStrategy instanceof StoredGrid ||
+               (averageStrategy instanceof MappedGrid &&
+                ((MappedGrid) averageStrategy).isReadOnly()) ||
+               (averageStrategy instanceof FixedPointGrid &&
+                ((FixedPointGrid) averageStrategy).isReadOnly());
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param nStripes number of row stripes to buffer additions in
+     * @return view which reads from this matrix, but buffers additions
+     *          until they are committed with commitDelta
+     */
+    public InfoMatrix deltaView(int nStripes)
+    {
+        return new InfoMatrix(
+                new DeltaGrid(averageStrategy , nStripes),
+                new DeltaGrid(cumulativeRegret, nStripes));
+    }
+
+    public void commitDelta(int stripe)
+    {
+        if (! (averageStrategy instanceof DeltaGrid)) {
+            throw new IllegalStateException("not a delta view");
+        }
+
+        ((DeltaGrid) averageStrategy ).commit( stripe );
+        ((DeltaGrid) cumulativeRegret).commit( stripe );
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @return changes to write over a directory this matrix was persisted
+     *          to, see Grid.changes
+     */
+    public Grid.Changes changes(boolean all)
+    {
+        final int counts[] = {averageStrategy.rows(),
+                              averageStrategy.columns()};
+
+        final Grid.Changes strategy = averageStrategy .changes(all);
+        final Grid.Changes regret   = cumulativeRegret.changes(all);
+        return new Grid.Changes() {
+            @Override public void writeOver(File dir) {
+                PersistentInts.persist(counts, new File(dir, COUNT_FILE));
+                strategy.writeOver(new File(dir, STRATEGY_FILE));
+                regret  .writeOver(new File(dir, CFREGRET_FILE));
+            }};
     }
 
 
@@ -155,6 +255,142 @@ public class InfoMatrix
     }
 
 
+    //--------------------------------------------------------------------
+    // Allocation free equivalents of the InfoSet methods,
+    //  for use in the inner loops of the minimizers.
+    //  Strategies and regrets are {fold, call, raise}.
+
+    /**
+     * See InfoSet.strategy.
+     *
+     * @param into where to put the current regret-matching strategy
+     */
+    public void strategy(
+            int    bucket,
+            int    foldIntent,
+            int    callIntent,
+            int    raiseIntent,
+            double into[])
+    {
+        double fRegret = positiveRegret(bucket, foldIntent);
+        double cRegret = positiveRegret(bucket, callIntent);
+        double rRegret = positiveRegret(bucket, raiseIntent);
+
+        double cumRegret = fRegret + cRegret + rRegret;
+        if (cumRegret <= 0) {
+            defaultProbabilities(foldIntent, raiseIntent, into);
+        } else {
+            into[0] = fRegret / cumRegret;
+            into[1] = cRegret / cumRegret;
+            into[2] = rRegret / cumRegret;
+        }
+    }
+
+    /**
+     * See InfoSet.averageStrategy.
+     *
+     * @param into where to put the average strategy
+     */
+    public void averageStrategy(
+            int    bucket,
+            int    foldIntent,
+            int    callIntent,
+            int    raiseIntent,
+            double into[])
+    {
+        double fAvg = average(bucket, foldIntent);
+        double cAvg = average(bucket, callIntent);
+        double rAvg = average(bucket, raiseIntent);
+
+        double sum = fAvg + cAvg + rAvg;
+        if (sum == 0) {
+            defaultProbabilities(foldIntent, raiseIntent, into);
+        } else {
+            into[0] = fAvg / sum;
+            into[1] = cAvg / sum;
+            into[2] = rAvg / sum;
+        }
+    }
+
+    public void addStrategy(
+            int    bucket,
+            int    foldIntent,
+            int    callIntent,
+            int    raiseIntent,
+            double strategy[],
+            double proponentReachProbability)
+    {
+        if (foldIntent != -1)
+            averageStrategy.add(bucket, foldIntent,
+                    proponentReachProbability * strategy[0]);
+
+      //if (callIntent != -1)
+            averageStrategy.add(bucket, callIntent,
+                    proponentReachProbability * strategy[1]);
+
+        if (raiseIntent != -1)
+            averageStrategy.add(bucket, raiseIntent,
+                    proponentReachProbability * strategy[2]);
+    }
+
+    public void addRegret(
+            int    bucket,
+            int    foldIntent,
+            int    callIntent,
+            int    raiseIntent,
+            double counterfactualRegret[])
+    {
+        if (foldIntent != -1)
+            cumulativeRegret.add(bucket, foldIntent,
+                                 counterfactualRegret[0]);
+
+      //if (callIntent != -1)
+            cumulativeRegret.add(bucket, callIntent,
+                                 counterfactualRegret[1]);
+
+        if (raiseIntent != -1)
+            cumulativeRegret.add(bucket, raiseIntent,
+                                 counterfactualRegret[2]);
+    }
+
+
+    //--------------------------------------------------------------------
+    private double average(int bucket, int intent) {
+        return intent == -1
+               ? 0 : Math.max(averageStrategy.get(bucket, intent), 0);
+    }
+
+    private double positiveRegret(int bucket, int intent) {
+        return Math.max(regret(bucket, intent), 0);
+    }
+    private double regret(int bucket, int intent) {
+        return intent == -1
+               ? 0 : cumulativeRegret.get(bucket, intent);
+    }
+
+    private static double[] defaultProbabilities(
+            int foldIntent, int raiseIntent) {
+        if (foldIntent != -1) {
+            if (raiseIntent != -1) {
+                return defaultEqual;
+            } else {
+                return defaultNoRaise;
+            }
+        } else {
+//            if (raiseIntent != -1) {
+                return defaultNoFold;
+//            } else {
+//                // never happens
+//            }
+        }
+    }
+    private static void defaultProbabilities(
+            int foldIntent, int raiseIntent, double into[]) {
+        System.arraycopy(defaultProbabilities(foldIntent, raiseIntent),
+                         0, into, 0, into.length);
+    }
+
+
     //--------------------------------------------------------------------
     public class InfoSet
     {
@@ -183,12 +419,22 @@ public class InfoMatrix
             return nextProbableAction( averageStrategy() );
         }
 
+        public AbstractAction nextProbableAction(Random rand)
+        {
+            return nextProbableAction(
+                    averageStrategy(), rand.nextDouble());
+        }
+
         public AbstractAction nextProbableAction(
                     double probabilities[]) {
+            return nextProbableAction(probabilities, Rand.nextDouble());
+        }
+
+        private AbstractAction nextProbableAction(
+                    double probabilities[], double rand) {
             double toFold = probabilities[0];
             double toCall = probabilities[1];
 
-            double rand = Rand.nextDouble();
             if (rand <= toFold) {
                 return AbstractAction.QUIT_FOLD;
             } else {
@@ -202,20 +448,14 @@ public class InfoMatrix
 
         //--------------------------------------------------------------------
         public double[] averageStrategy() {
-            double fAvg = average(fIntent);
-            double cAvg = average(cIntent);
-            double rAvg = average(rIntent);
-
-            double sum = fAvg + cAvg + rAvg;
-            return (sum == 0)
-                   ? defaultProbabilities()
-                   : new double[] {
-                        fAvg/sum, cAvg/sum, rAvg/sum};
+            double strategy[] = new double[ 3 ];
+            InfoMatrix.this.averageStrategy(
+                    bucket, fIntent, cIntent, rIntent, strategy);
+            return strategy;
         }
 
         private double average(int intent) {
-            return intent == -1
-                   ? 0 : Math.max(averageStrategy.get(bucket, intent), 0);
+            return InfoMatrix.this.average(bucket, intent);
         }
         public double[] averages() {
             return new double[] {
@@ -226,71 +466,26 @@ public class InfoMatrix
         //----------------------------------------------------------------
         public void add(double strategy[],
                         double proponentReachProbability) {
-            if (fIntent != -1)
-                averageStrategy.add(bucket, fIntent,
-                        proponentReachProbability * strategy[0]);
-
-          //if (cIntent != -1)
-                averageStrategy.add(bucket, cIntent,
-                        proponentReachProbability * strategy[1]);
-
-            if (rIntent != -1)
-                averageStrategy.add(bucket, rIntent,
-                        proponentReachProbability * strategy[2]);
+            addStrategy(bucket, fIntent, cIntent, rIntent,
+                        strategy, proponentReachProbability);
         }
 
         public void add(double counterfactualRegret[]) {
-            if (fIntent != -1)
-                cumulativeRegret.add(bucket, fIntent,
-                                     counterfactualRegret[0]);
-
-          //if (cIntent != -1)
-                cumulativeRegret.add(bucket, cIntent,
-                                     counterfactualRegret[1]);
-
-            if (rIntent != -1)
-                cumulativeRegret.add(bucket, rIntent,
-                                     counterfactualRegret[2]);
+            addRegret(bucket, fIntent, cIntent, rIntent,
+                      counterfactualRegret);
         }
 
 
         //----------------------------------------------------------------
         public double[] strategy() {
-            double fRegret = positiveRegret(fIntent);
-            double cRegret = positiveRegret(cIntent);
-            double rRegret = positiveRegret(rIntent);
-
-            double cumRegret = fRegret + cRegret + rRegret;
-            return (cumRegret <= 0)
-                   ? defaultProbabilities()
-                   : new double[]{
-                        fRegret / cumRegret,
-                        cRegret / cumRegret,
-                        rRegret / cumRegret};
+            double strategy[] = new double[ 3 ];
+            InfoMatrix.this.strategy(
+                    bucket, fIntent, cIntent, rIntent, strategy);
+            return strategy;
         }
 
-        private double positiveRegret(int intent) {
-            return Math.max(regret(intent), 0);
-        }
         private double regret(int intent) {
-            return intent == -1
-                   ? 0 : cumulativeRegret.get(bucket, intent);
-        }
-
-        private double[] defaultProbabilities() {
-            if (fIntent != -1) {
-                if (rIntent != -1) {
-                    return defaultEqual;
-                } else {
-                    return defaultNoRaise;
-                }
-            } else {
-//                if (rIntent != -1) {
-                    return defaultNoFold;
-//                } else {
-//                    // never happens
-//                }
-            }
+            return InfoMatrix.this.regret(bucket, intent);
         }
 
 
@@ -1,11 +1,15 @@
 package ao.holdem.bot.regret;
 
+import ao.holdem.bot.regret.grid.Grid;
+import ao.holdem.engine.state.HeadsUpStatus;
 import ao.holdem.engine.state.tree.StateTree;
 import ao.holdem.model.Round;
+import ao.holdem.model.act.AbstractAction;
 import ao.util.io.Dirs;
 import org.apache.log4j.Logger;
 
 import java.io.File;
+import java.util.Arrays;
 
 /**
  * User: alex
@@ -52,29 +56,108 @@ public class InfoPart
             char    nRiverBuckets,
             boolean readOnly,
             boolean doublePrecision)
+    {
+        return retrieveOrCreate(dir,
+                nHoleBuckets, nFlopBuckets, nTurnBuckets, nRiverBuckets,
+                readOnly, doublePrecision, false);
+    }
+
+    public static InfoPart retrieveOrCreate(
+            File    dir,
+            int     nHoleBuckets,
+            char    nFlopBuckets,
+            char    nTurnBuckets,
+            char    nRiverBuckets,
+            boolean readOnly,
+            boolean doublePrecision,
+            boolean mapped)
+    {
+        return retrieveOrCreate(dir,
+                nHoleBuckets, nFlopBuckets, nTurnBuckets, nRiverBuckets,
+                readOnly, precisions(doublePrecision), mapped);
+    }
+
+    /**
+     * @param precisions of the grids of each round, indexed by
+     *                      Round.ordinal(), e.g. fixed-point for the
+     *                      much larger turn and river
+     */
+    public static InfoPart retrieveOrCreate(
+            File           dir,
+            int            nHoleBuckets,
+            char           nFlopBuckets,
+            char           nTurnBuckets,
+            char           nRiverBuckets,
+            boolean        readOnly,
+            Grid.Precision precisions[],
+            boolean        mapped)
     {
         LOG.debug("loading (or creating) " +
-                  (readOnly ? "read only" : "in-memory") );
+                  (readOnly ? "read only" : "in-memory") +
+                  (mapped   ? " mapped"   : "") +
+                  " " + Arrays.toString(precisions));
 
         return new InfoPart(
                 get(dir,  HOLE_DIR,  nHoleBuckets, Round.PREFLOP,
-                        readOnly, true),
+                        readOnly, precisions, mapped),
                 get(dir,  FLOP_DIR,  nFlopBuckets, Round.FLOP   ,
-                        readOnly, true),
+                        readOnly, precisions, mapped),
                 get(dir,  TURN_DIR,  nTurnBuckets, Round.TURN   ,
-                        readOnly, true),
+                        readOnly, precisions, mapped),
                 get(dir, RIVER_DIR, nRiverBuckets, Round.RIVER  ,
-                        readOnly, doublePrecision),
+                        readOnly, precisions, mapped),
                     dir);
     }
     private static InfoMatrix get(
             File dir, String subDir,
             int nBuckets, Round intentRound,
-            boolean readOnly, boolean doublePrecision) {
+            boolean readOnly, Grid.Precision precisions[], boolean mapped) {
+        Grid.Precision precision = precisions[ intentRound.ordinal() ];
         return InfoMatrix.retrieveOrCreate(
                  Dirs.get(dir, subDir),
                  nBuckets, StateTree.intentCount(intentRound),
-                 readOnly, doublePrecision);
+                 readOnly, precision, mapped,
+                 precision.isFixedPoint() ? intentNodes(intentRound) : null);
+    }
+
+    // intents of the kids of a node share a node number, in tree order
+    private static int[] intentNodes(Round intentRound) {
+        int nodes[] = new int[ StateTree.intentCount(intentRound) ];
+        intentNodes(StateTree.headsUpRoot(), intentRound, nodes, new int[1]);
+        return nodes;
+    }
+    private static void intentNodes(
+            StateTree.Node node, Round intentRound,
+            int nodes[], int nextNode[]) {
+        if (node.status() != HeadsUpStatus.IN_PROGRESS) return;
+
+        int nodeIndex = (node.round() == intentRound)
+                        ? nextNode[0]++ : -1;
+        for (AbstractAction act : AbstractAction.VALUES) {
+            StateTree.Node kid = node.kid(act);
+            if (kid == null) continue;
+
+            if (nodeIndex != -1) {
+                nodes[ kid.intent() ] = nodeIndex;
+            }
+            intentNodes(kid, intentRound, nodes, nextNode);
+        }
+    }
+
+    /**
+     * @param doublePrecision of the river, earlier rounds are always
+     *                          double precision
+     * @return precisions of each round, indexed by Round.ordinal()
+     */
+    public static Grid.Precision[] precisions(boolean doublePrecision)
+    {
+        return new Grid.Precision[]{
+                Grid.Precision.DOUBLE,
+                Grid.Precision.DOUBLE,
+                Grid.Precision.DOUBLE,
+                doublePrecision
+                ? Grid.Precision.DOUBLE
+                : Grid.Precision.FLOAT};
     }
 
     private static void persist(File dir, InfoPart part)
@@ -175,6 +258,45 @@ public class InfoPart
     }
 
 
+    //--------------------------------------------------------------------
+    // Allocation free equivalents of the InfoSet methods,
+    //  see InfoMatrix.
+
+    public void strategy(
+            StateTree.Node node, int bucket, double into[])
+    {
+        infoMatrix(node.round()).strategy(bucket,
+                node.foldIntent(), node.callIntent(), node.raiseIntent(),
+                into);
+    }
+
+    public void averageStrategy(
+            StateTree.Node node, int bucket, double into[])
+    {
+        infoMatrix(node.round()).averageStrategy(bucket,
+                node.foldIntent(), node.callIntent(), node.raiseIntent(),
+                into);
+    }
+
+    public void addStrategy(
+            StateTree.Node node, int bucket,
+            double strategy[], double proponentReachProbability)
+    {
+        infoMatrix(node.round()).addStrategy(bucket,
+                node.foldIntent(), node.callIntent(), node.raiseIntent(),
+                strategy, proponentReachProbability);
+    }
+
+    public void addRegret(
+            StateTree.Node node, int bucket,
+            double counterfactualRegret[])
+    {
+        infoMatrix(node.round()).addRegret(bucket,
+                node.foldIntent(), node.callIntent(), node.raiseIntent(),
+                counterfactualRegret);
+    }
+
+
 
     //--------------------------------------------------------------------
     public void displayHeadsUpRoots()
@@ -191,9 +313,67 @@ public class InfoPart
     }
 
 
+    //--------------------------------------------------------------------
+    /**
+     * See InfoMatrix.deltaView.
+     * Persisting a delta view is not supported, flush the original.
+     *
+     * @param nStripes number of row stripes to buffer additions in
+     * @return view of all rounds that buffers additions
+     */
+    public InfoPart deltaView(int nStripes)
+    {
+        return new InfoPart(
+                hole .deltaView(nStripes),
+                flop .deltaView(nStripes),
+                turn .deltaView(nStripes),
+                river.deltaView(nStripes),
+                dir);
+    }
+
+    public void commitDelta(int stripe)
+    {
+        hole .commitDelta(stripe);
+        flop .commitDelta(stripe);
+        turn .commitDelta(stripe);
+        river.commitDelta(stripe);
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Changes of all rounds since the previous call, which can be
+     *  written over a directory this InfoPart was flushed to, on another
+     *  thread while this one keeps changing.  Delta views must be
+     *  committed first.
+     *
+     * @param all capture every row, see Grid.changes
+     * @return changes to write over a flushed directory
+     */
+    public Grid.Changes changes(boolean all)
+    {
+        final Grid.Changes holeChanges  = hole .changes(all);
+        final Grid.Changes flopChanges  = flop .changes(all);
+        final Grid.Changes turnChanges  = turn .changes(all);
+        final Grid.Changes riverChanges = river.changes(all);
+        return new Grid.Changes() {
+            @Override public void writeOver(File toDir) {
+                holeChanges .writeOver(Dirs.get(toDir,  HOLE_DIR));
+                flopChanges .writeOver(Dirs.get(toDir,  FLOP_DIR));
+                turnChanges .writeOver(Dirs.get(toDir,  TURN_DIR));
+                riverChanges.writeOver(Dirs.get(toDir, RIVER_DIR));
+            }};
+    }
+
+
     //--------------------------------------------------------------------
     public void flush()
     {
         persist(dir, this);
     }
+
+    public void flush(File toDir)
+    {
+        persist(toDir, this);
+    }
 }
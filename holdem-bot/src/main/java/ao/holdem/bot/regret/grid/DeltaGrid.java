@@ -0,0 +1,113 @@
+package ao.holdem.bot.regret.grid;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Reads through to a shared base grid, but buffers all additions
+ *  in a private log which is later committed to the base.
+ *
+ * The log is striped by row so that several threads can commit
+ *  disjoint stripes of many DeltaGrids (over the same base) at once.
+ *  Within a stripe, additions are committed in the order they were
+ *  made, so committing the same logs in the same order always yields
+ *  the same result.
+ *
+ * Note: NOT threadsafe, each thread should have its own DeltaGrid.
+ */
+public class DeltaGrid implements Grid
+{
+    //--------------------------------------------------------------------
+    private static final int INITIAL_CAPACITY = 1024;
+
+
+    //--------------------------------------------------------------------
+    private final Grid BASE;
+
+    private final int      cells  [][]; // [stripe][entry]
+    private final double   addends[][]; // [stripe][entry]
+    private final int      size   [];   // [stripe]
+
+
+    //--------------------------------------------------------------------
+    public DeltaGrid(Grid base, int nStripes)
+    {
+        BASE    = base;
+        cells   = new int   [ nStripes ][ INITIAL_CAPACITY ];
+        addends = new double[ nStripes ][ INITIAL_CAPACITY ];
+        size    = new int   [ nStripes ];
+    }
+
+
+    //--------------------------------------------------------------------
+    public int rows() {
+        return BASE.rows();
+    }
+
+    public int columns() {
+        return BASE.columns();
+    }
+
+    public int stripes() {
+        return size.length;
+    }
+
+
+    //--------------------------------------------------------------------
+    public double get(int row, int col) {
+        return BASE.get(row, col);
+    }
+
+    public void add(int row, int col, double addend) {
+        if (addend == 0) return;
+
+        int stripe = row % size.length;
+        int entry  = size[ stripe ]++;
+
+        if (entry == cells[ stripe ].length) {
+            cells  [ stripe ] = Arrays.copyOf(cells  [ stripe ], entry * 2);
+            addends[ stripe ] = Arrays.copyOf(addends[ stripe ], entry * 2);
+        }
+
+        cells  [ stripe ][ entry ] = row * columns() + col;
+        addends[ stripe ][ entry ] = addend;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Adds all buffered additions in the given stripe to the base grid,
+     *  and clears them from this log.
+     *
+     * @param stripe which stripe of rows to commit
+     */
+    public void commit(int stripe)
+    {
+        int    stripeCells  [] = cells  [ stripe ];
+        double stripeAddends[] = addends[ stripe ];
+        int    cols            = columns();
+
+        for (int i = 0; i < size[ stripe ]; i++) {
+            int cell = stripeCells[ i ];
+            BASE.add(cell / cols, cell % cols, stripeAddends[ i ]);
+        }
+
+        size[ stripe ] = 0;
+    }
+
+
+    //--------------------------------------------------------------------
+    public void save(File to) {
+        throw new UnsupportedOperationException();
+    }
+
+    public void load(File from) {
+        throw new UnsupportedOperationException();
+    }
+
+    public Changes changes(boolean all) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,58 @@
+package ao.holdem.bot.regret.grid;
+
+import java.util.Arrays;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Rows changed since they were last captured, see Grid.changes.
+ *
+ * Rows are marked by the threads that add to them, which is safe as
+ *  long as concurrent additions are to different rows (see DeltaGrid
+ *  stripes), and rows are only taken between additions.
+ */
+class DirtyRows
+{
+    //--------------------------------------------------------------------
+    private final boolean dirty[];
+    private       boolean all = true;
+
+
+    //--------------------------------------------------------------------
+    public DirtyRows(int nRows)
+    {
+        dirty = new boolean[ nRows ];
+    }
+
+
+    //--------------------------------------------------------------------
+    public void mark(int row) {
+        dirty[ row ] = true;
+    }
+
+    public void markAll() {
+        all = true;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param takeAll take every row, dirty or not
+     * @return rows marked since the previous call, in increasing order
+     */
+    public int[] take(boolean takeAll)
+    {
+        int rows[] = new int[ dirty.length ];
+        int count  = 0;
+        for (int row = 0; row < dirty.length; row++) {
+            if (takeAll || all || dirty[ row ]) {
+                rows[ count++ ] = row;
+            }
+        }
+
+        Arrays.fill(dirty, false);
+        all = false;
+
+        return Arrays.copyOf(rows, count);
+    }
+}
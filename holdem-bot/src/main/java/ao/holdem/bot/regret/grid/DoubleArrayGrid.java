@@ -12,7 +12,8 @@ import java.io.File;
 public class DoubleArrayGrid implements Grid
 {
     //--------------------------------------------------------------------
-    private final double vals[][]; // [bucket][intent]
+    private final double    vals[][]; // [bucket][intent]
+    private final DirtyRows dirty;
 
 
     //--------------------------------------------------------------------
@@ -25,7 +26,8 @@ public class DoubleArrayGrid implements Grid
     private DoubleArrayGrid(
             double values[][])
     {
-        vals = values;
+        vals  = values;
+        dirty = new DirtyRows( values.length );
     }
 
 
@@ -46,6 +48,7 @@ public class DoubleArrayGrid implements Grid
 
     public void add(int row, int col, double addend) {
         vals[ row ][ col ] += addend;
+        dirty.mark( row );
     }
 
 
@@ -56,5 +59,18 @@ public class DoubleArrayGrid implements Grid
 
     public void load(File from) {
         PersistentDoubles.retrieve(from, vals);
+        dirty.markAll();
+    }
+
+
+    //--------------------------------------------------------------------
+    public Changes changes(boolean all) {
+        int        rows[]  = dirty.take( all );
+        RowChanges changes = new RowChanges(
+                rows, vals[0].length * (Double.SIZE / 8));
+        for (int i = 0; i < rows.length; i++) {
+            changes.values( i ).asDoubleBuffer().put( vals[ rows[i] ] );
+        }
+        return changes;
     }
 }
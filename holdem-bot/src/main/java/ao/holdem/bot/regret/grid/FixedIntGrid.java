@@ -0,0 +1,79 @@
+package ao.holdem.bot.regret.grid;
+
+import ao.util.persist.PersistentInts;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * 32 bit fixed-point values, half of a DoubleArrayGrid.
+ *  Cells start with a resolution of 2^-20 (and a range of +-2048), see
+ *  FixedPointGrid for how they are rescaled.
+ */
+public class FixedIntGrid extends FixedPointGrid
+{
+    //--------------------------------------------------------------------
+    private static final int MIN_EXPONENT = -20;
+
+
+    //--------------------------------------------------------------------
+    private final int vals[][]; // [bucket][intent]
+
+
+    //--------------------------------------------------------------------
+    public FixedIntGrid(int     nBuckets,
+                        int     nIntents,
+                        boolean readOnly)
+    {
+        this(nBuckets, nIntents, null, readOnly);
+    }
+
+    /**
+     * @param intentNodes node of each intent, see FixedPointGrid
+     */
+    public FixedIntGrid(int     nBuckets,
+                        int     nIntents,
+                        int     intentNodes[],
+                        boolean readOnly)
+    {
+        super(nBuckets, nIntents, intentNodes,
+              MIN_EXPONENT, Integer.MAX_VALUE, readOnly);
+        vals = new int[ nBuckets ][ nIntents ];
+    }
+
+
+    //--------------------------------------------------------------------
+    public int columns() {
+        return vals[0].length;
+    }
+
+
+    //--------------------------------------------------------------------
+    protected long raw(int row, int col) {
+        return vals[ row ][ col ];
+    }
+
+    protected void raw(int row, int col, long value) {
+        vals[ row ][ col ] = (int) value;
+    }
+
+
+    //--------------------------------------------------------------------
+    protected void saveRaw(File to) {
+        PersistentInts.persist(vals, to);
+    }
+
+    protected void loadRaw(File from) {
+        PersistentInts.retrieve(from, vals);
+    }
+
+    protected void putRaw(int row, ByteBuffer into) {
+        into.asIntBuffer().put( vals[ row ] );
+    }
+
+    protected int rawSize() {
+        return Integer.SIZE / 8;
+    }
+}
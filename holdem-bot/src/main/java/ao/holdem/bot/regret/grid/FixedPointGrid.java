@@ -0,0 +1,262 @@
+package ao.holdem.bot.regret.grid;
+
+import ao.util.persist.PersistentBytes;
+import ao.util.persist.PersistentInts;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Signed fixed-point values, in a fraction of the bytes of a double.
+ *  Columns are split into nodes (the intents of one StateTree node,
+ *  which regret matching compares), and each (row, node) has its own
+ *  binary exponent: a value is its raw integer times
+ *  2^(MIN_EXPONENT + exponent[row][node]).  Cells start at the finest
+ *  resolution, and when an addition would overflow a cell, the cells
+ *  of its row and node are rescaled: raw values are halved and the
+ *  exponent goes up by one.  Rescaling keeps the ratios between the
+ *  intents of a node, so regret matching is unaffected (apart from the
+ *  lost low bit), and a large regret at one node doesn't coarsen the
+ *  other nodes of its bucket.  Without nodes, a whole row shares one
+ *  exponent.
+ *
+ * Additions are rounded stochastically, so that addends smaller than
+ *  the resolution of their row (e.g. the reach-weighted strategies of
+ *  late iterations) still add up in expectation instead of vanishing.
+ *  The rounding is a hash of the cell, its value, and a per-row
+ *  counter of additions, so the same additions in the same order
+ *  always give the same values.
+ *
+ * Additions to different rows may be made from different threads,
+ *  as done by DeltaGrid stripes.
+ */
+public abstract class FixedPointGrid implements Grid
+{
+    //--------------------------------------------------------------------
+    private static final String SCALE_SUFFIX = ".scale";
+    private static final String TICK_SUFFIX  = ".ticks";
+
+
+    //--------------------------------------------------------------------
+    private final int     MIN_EXPONENT;
+    private final long    MAX_RAW;
+    private final boolean READ_ONLY;
+
+    private final int     NODE_OF  [];   // [col]
+    private final int     NODE_COLS[][]; // [node][]
+
+    private final byte exponent[];  // [row * nodes + node]
+    private final int  additions[]; // [row]
+
+    private final DirtyRows dirty;
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param nodeOf node of each column, or null for one node per row
+     */
+    protected FixedPointGrid(
+            int     nRows,
+            int     nCols,
+            int     nodeOf[],
+            int     minExponent,
+            long    maxRaw,
+            boolean readOnly)
+    {
+        MIN_EXPONENT = minExponent;
+        MAX_RAW      = maxRaw;
+        READ_ONLY    = readOnly;
+
+        NODE_OF   = (nodeOf == null) ? new int[ nCols ] : nodeOf.clone();
+        NODE_COLS = nodeCols(NODE_OF);
+
+        exponent  = new byte[ nRows * NODE_COLS.length ];
+        additions = new int [ nRows ];
+
+        dirty = new DirtyRows( nRows );
+    }
+
+    private static int[][] nodeCols(int nodeOf[])
+    {
+        int nNodes = 0;
+        for (int node : nodeOf) {
+            nNodes = Math.max(nNodes, node + 1);
+        }
+
+        int counts[] = new int[ nNodes ];
+        for (int node : nodeOf) {
+            counts[ node ]++;
+        }
+
+        int cols[][] = new int[ nNodes ][];
+        for (int node = 0; node < nNodes; node++) {
+            cols[ node ] = new int[ counts[node] ];
+        }
+
+        Arrays.fill(counts, 0);
+        for (int col = 0; col < nodeOf.length; col++) {
+            int node = nodeOf[ col ];
+            cols[ node ][ counts[node]++ ] = col;
+        }
+        return cols;
+    }
+
+
+    //--------------------------------------------------------------------
+    protected abstract long raw(int row, int col);
+
+    protected abstract void raw(int row, int col, long value);
+
+    protected abstract void saveRaw(File to);
+
+    protected abstract void loadRaw(File from);
+
+    /**
+     * @param row to put
+     * @param into big endian buffer, with room for the row as saved
+     */
+    protected abstract void putRaw(int row, ByteBuffer into);
+
+    // bytes per saved raw value
+    protected abstract int rawSize();
+
+
+    //--------------------------------------------------------------------
+    public int rows() {
+        return additions.length;
+    }
+
+    public boolean isReadOnly() {
+        return READ_ONLY;
+    }
+
+
+    //--------------------------------------------------------------------
+    public double get(int row, int col) {
+        return Math.scalb((double) raw(row, col), scale(row, col));
+    }
+
+    public void add(int row, int col, double addend) {
+        if (READ_ONLY) {
+            throw new UnsupportedOperationException();
+        }
+        if (Double.isNaN(addend) || Double.isInfinite(addend)) {
+            throw new IllegalArgumentException("addend: " + addend);
+        }
+        if (addend == 0) return;
+
+        dirty.mark( row );
+        int  tick  = additions[ row ]++;
+        long value = raw(row, col);
+        while (true) {
+            double exact = Math.scalb(addend, -scale(row, col));
+            if (Math.abs(exact) <= MAX_RAW) {
+                long sum = value + round(exact, hash(row, col, value, tick));
+                if (-MAX_RAW <= sum && sum <= MAX_RAW) {
+                    raw(row, col, sum);
+                    return;
+                }
+            }
+
+            rescale(row, NODE_OF[ col ], tick);
+            value = raw(row, col);
+        }
+    }
+
+    private int scale(int row, int col) {
+        return MIN_EXPONENT + exponent[ scaleIndex(row, NODE_OF[col]) ];
+    }
+
+    private int scaleIndex(int row, int node) {
+        return row * NODE_COLS.length + node;
+    }
+
+    private void rescale(int row, int node, int tick) {
+        for (int col : NODE_COLS[ node ]) {
+            long value = raw(row, col);
+            raw(row, col, round(value / 2.0, hash(row, col, value, tick)));
+        }
+        exponent[ scaleIndex(row, node) ]++;
+    }
+
+
+    //--------------------------------------------------------------------
+    private static long round(double exact, long hash) {
+        double floor    = Math.floor(exact);
+        double fraction = exact - floor;
+        double uniform  = (hash >>> 11) * 0x1.0p-53;
+        return (long) floor + (fraction > uniform ? 1 : 0);
+    }
+
+    private static long hash(int row, int col, long value, int tick) {
+        long h = (((long) row << 32) | col) * 0x9E3779B97F4A7C15L;
+        h ^= value * 0xC2B2AE3D27D4EB4FL + tick;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+
+    //--------------------------------------------------------------------
+    public void save(File to) {
+        saveRaw(to);
+        PersistentBytes.persist(exponent,  sideFile(to, SCALE_SUFFIX));
+        PersistentInts .persist(additions, sideFile(to, TICK_SUFFIX ));
+    }
+
+    public void load(File from) {
+        loadRaw(from);
+
+        byte savedExponent[] =
+                PersistentBytes.retrieve(sideFile(from, SCALE_SUFFIX));
+        if (savedExponent != null) {
+            System.arraycopy(savedExponent, 0, exponent, 0, exponent.length);
+        }
+
+        int savedAdditions[] =
+                PersistentInts.retrieve(sideFile(from, TICK_SUFFIX));
+        if (savedAdditions != null) {
+            System.arraycopy(savedAdditions, 0, additions, 0, additions.length);
+        }
+
+        dirty.markAll();
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Captures the exponents and addition counts of the changed rows
+     *  along with their raw values.
+     */
+    public Changes changes(boolean all) {
+        int rows[] = dirty.take( all );
+        int nNodes = NODE_COLS.length;
+
+        final RowChanges raws      = new RowChanges(rows, columns() * rawSize());
+        final RowChanges exponents = new RowChanges(rows, nNodes);
+        final RowChanges ticks     = new RowChanges(rows, Integer.SIZE / 8);
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[ i ];
+            putRaw(row, raws.values( i ));
+            exponents.values( i ).put(exponent, scaleIndex(row, 0), nNodes);
+            ticks    .values( i ).putInt( additions[ row ] );
+        }
+
+        return new Changes() {
+            @Override public void writeOver(File savedCopy) {
+                raws     .writeOver( savedCopy );
+                exponents.writeOver( sideFile(savedCopy, SCALE_SUFFIX) );
+                ticks    .writeOver( sideFile(savedCopy, TICK_SUFFIX ) );
+            }};
+    }
+
+    private static File sideFile(File valueFile, String suffix) {
+        return new File(valueFile.getPath() + suffix);
+    }
+}
@@ -0,0 +1,79 @@
+package ao.holdem.bot.regret.grid;
+
+import ao.util.persist.PersistentShorts;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * 16 bit fixed-point values, a quarter of a DoubleArrayGrid.
+ *  Cells start with a resolution of 2^-10 (and a range of +-32), see
+ *  FixedPointGrid for how they are rescaled.
+ */
+public class FixedShortGrid extends FixedPointGrid
+{
+    //--------------------------------------------------------------------
+    private static final int MIN_EXPONENT = -10;
+
+
+    //--------------------------------------------------------------------
+    private final short vals[][]; // [bucket][intent]
+
+
+    //--------------------------------------------------------------------
+    public FixedShortGrid(int     nBuckets,
+                          int     nIntents,
+                          boolean readOnly)
+    {
+        this(nBuckets, nIntents, null, readOnly);
+    }
+
+    /**
+     * @param intentNodes node of each intent, see FixedPointGrid
+     */
+    public FixedShortGrid(int     nBuckets,
+                          int     nIntents,
+                          int     intentNodes[],
+                          boolean readOnly)
+    {
+        super(nBuckets, nIntents, intentNodes,
+              MIN_EXPONENT, Short.MAX_VALUE, readOnly);
+        vals = new short[ nBuckets ][ nIntents ];
+    }
+
+
+    //--------------------------------------------------------------------
+    public int columns() {
+        return vals[0].length;
+    }
+
+
+    //--------------------------------------------------------------------
+    protected long raw(int row, int col) {
+        return vals[ row ][ col ];
+    }
+
+    protected void raw(int row, int col, long value) {
+        vals[ row ][ col ] = (short) value;
+    }
+
+
+    //--------------------------------------------------------------------
+    protected void saveRaw(File to) {
+        PersistentShorts.persist(vals, to);
+    }
+
+    protected void loadRaw(File from) {
+        PersistentShorts.retrieve(from, vals);
+    }
+
+    protected void putRaw(int row, ByteBuffer into) {
+        into.asShortBuffer().put( vals[ row ] );
+    }
+
+    protected int rawSize() {
+        return Short.SIZE / 8;
+    }
+}
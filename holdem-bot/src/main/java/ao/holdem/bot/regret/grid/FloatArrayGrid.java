@@ -12,7 +12,8 @@ import java.io.File;
 public class FloatArrayGrid implements Grid
 {
     //--------------------------------------------------------------------
-    private final float vals[][]; // [bucket][intent]
+    private final float     vals[][]; // [bucket][intent]
+    private final DirtyRows dirty;
 
 
     //--------------------------------------------------------------------
@@ -26,7 +27,8 @@ public class FloatArrayGrid implements Grid
             float values[][]
             )
     {
-        vals = values;
+        vals  = values;
+        dirty = new DirtyRows( values.length );
     }
 
 
@@ -47,6 +49,7 @@ public class FloatArrayGrid implements Grid
 
     public void add(int row, int col, double addend) {
         vals[ row ][ col ] += addend;
+        dirty.mark( row );
     }
 
 
@@ -57,5 +60,18 @@ public class FloatArrayGrid implements Grid
 
     public void load(File from) {
         PersistentFloats.retrieve(from, vals);
+        dirty.markAll();
+    }
+
+
+    //--------------------------------------------------------------------
+    public Changes changes(boolean all) {
+        int        rows[]  = dirty.take( all );
+        RowChanges changes = new RowChanges(
+                rows, vals[0].length * (Float.SIZE / 8));
+        for (int i = 0; i < rows.length; i++) {
+            changes.values( i ).asFloatBuffer().put( vals[ rows[i] ] );
+        }
+        return changes;
     }
 }
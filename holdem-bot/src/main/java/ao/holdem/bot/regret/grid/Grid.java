@@ -29,11 +29,106 @@ public interface Grid
     public void load(File from);
 
 
+    //--------------------------------------------------------------------
+    /**
+     * Captures the rows changed since the previous call (all rows on the
+     *  first call, or after a load), so that they can be written on
+     *  another thread while this grid keeps changing.  Heap grids copy
+     *  the changed rows, MappedGrid copies them only before changing
+     *  them again.  No additions may be made during the call.
+     *
+     * @param all capture every row, e.g. when there is no copy of the
+     *              previous changes to write over
+     * @return changes, to be written exactly once
+     */
+    public Changes changes(boolean all);
+
+
+    //--------------------------------------------------------------------
+    public static interface Changes
+    {
+        /**
+         * @param savedCopy where this grid was saved, with the changes of
+         *                   the previous call already written over it
+         */
+        public void writeOver(File savedCopy);
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * How values are stored, in decreasing number of bytes per cell.
+     *  Fixed-point grids are always on the heap, see FixedPointGrid.
+     */
+    public static enum Precision
+    {
+        DOUBLE  ('d'),
+        FLOAT   ('f'),
+        FIXED_32('i'),
+        FIXED_16('s');
+
+        public final char CODE;
+
+        private Precision(char code) {
+            CODE = code;
+        }
+
+        public boolean isFixedPoint() {
+            return this == FIXED_32 || this == FIXED_16;
+        }
+    }
+
+
     //--------------------------------------------------------------------
     public static class Impl
     {
         private Impl() {}
 
+        public static Grid newInstance(
+                int       rows,
+                int       cols,
+                boolean   readOnly,
+                Precision precision,
+                boolean   mapped)
+        {
+            return newInstance(rows, cols, readOnly, precision, mapped, null);
+        }
+
+        /**
+         * @param colNodes node of each column, for fixed-point grids
+         *                  which scale each node of a row separately,
+         *                  or null for one scale per row
+         */
+        public static Grid newInstance(
+                int       rows,
+                int       cols,
+                boolean   readOnly,
+                Precision precision,
+                boolean   mapped,
+                int       colNodes[])
+        {
+            switch (precision) {
+                case FIXED_32: return new FixedIntGrid  (
+                                        rows, cols, colNodes, readOnly);
+                case FIXED_16: return new FixedShortGrid(
+                                        rows, cols, colNodes, readOnly);
+                default:       return newInstance(rows, cols, readOnly,
+                                        precision == Precision.DOUBLE, mapped);
+            }
+        }
+
+        public static Grid newInstance(
+                int     rows,
+                int     cols,
+                boolean readOnly,
+                boolean doublePrecision,
+                boolean mapped)
+        {
+            return mapped
+                   ? new MappedGrid(rows, cols, doublePrecision, readOnly)
+                   : newInstance(rows, cols, readOnly, doublePrecision);
+        }
+
         public static Grid newInstance(
                 int     rows,
                 int     cols,
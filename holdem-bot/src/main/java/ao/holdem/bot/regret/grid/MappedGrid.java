@@ -0,0 +1,354 @@
+package ao.holdem.bot.regret.grid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Grid backed by a memory-mapped file, in the same (row major,
+ *  big endian) format that StoredGrid reads and the array grids write.
+ *
+ * Values live in the OS page cache instead of the heap, so loading
+ *  only maps the file, and saving to the loaded file only forces
+ *  dirty pages out to disk.
+ *
+ * Changes are tracked by stripes of rows.  Captured stripes are not
+ *  copied up front: the writer reads them straight from the mapping,
+ *  and an addition to a stripe that has not been written yet first
+ *  copies that stripe to the heap (copy-on-write).
+ *
+ * Additions to disjoint cells may be made from different threads.
+ */
+public class MappedGrid implements Grid
+{
+    //--------------------------------------------------------------------
+    private static final int SEGMENT_BITS = 30;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private static final int STRIPE_BYTES = 1 << 20;
+
+
+    //--------------------------------------------------------------------
+    private final int     rows;
+    private final int     cols;
+    private final boolean doublePrecision;
+    private final boolean readOnly;
+    private final int     stripeRows;
+
+    private File               mappedFile;
+    private MappedByteBuffer[] segments;
+
+    // stripes changed since the previous changes, all if none yet
+    private final boolean dirtyStripes[];
+    private       boolean allDirty = true;
+
+    // stripes being written, see StripeChanges
+    private volatile StripeChanges writing;
+
+
+    //--------------------------------------------------------------------
+    public MappedGrid(int     nRows,
+                      int     nColumns,
+                      boolean useDoubles,
+                      boolean isReadOnly)
+    {
+        rows            = nRows;
+        cols            = nColumns;
+        doublePrecision = useDoubles;
+        readOnly        = isReadOnly;
+
+        stripeRows   = Math.max(1, STRIPE_BYTES / rowBytes());
+        dirtyStripes = new boolean[ (nRows + stripeRows - 1) / stripeRows ];
+    }
+
+
+    //--------------------------------------------------------------------
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return cols;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    private int elementSize() {
+        return doublePrecision
+               ? Double.SIZE / 8
+               : Float .SIZE / 8;
+    }
+
+    private int rowBytes() {
+        return cols * elementSize();
+    }
+
+    private long offset(int row, int col) {
+        return ((long) row * cols + col) * elementSize();
+    }
+
+
+    //--------------------------------------------------------------------
+    public double get(int row, int col) {
+        checkLoaded();
+        if (segments == null) return 0; // missing read only file
+
+        long             offset  = offset(row, col);
+        MappedByteBuffer segment = segments[ (int) (offset >>> SEGMENT_BITS) ];
+        int              at      = (int) (offset & SEGMENT_MASK);
+
+        return doublePrecision
+               ? segment.getDouble(at)
+               : segment.getFloat (at);
+    }
+
+    public void add(int row, int col, double addend) {
+        if (readOnly) {
+            throw new UnsupportedOperationException();
+        }
+        checkLoaded();
+
+        int stripe = row / stripeRows;
+        dirtyStripes[ stripe ] = true;
+
+        StripeChanges toWrite = writing;
+        if (toWrite != null) {
+            toWrite.preserve( stripe );
+        }
+
+        long             offset  = offset(row, col);
+        MappedByteBuffer segment = segments[ (int) (offset >>> SEGMENT_BITS) ];
+        int              at      = (int) (offset & SEGMENT_MASK);
+
+        if (doublePrecision) {
+            segment.putDouble(at, segment.getDouble(at) + addend);
+        } else {
+            segment.putFloat(at, (float) (segment.getFloat(at) + addend));
+        }
+    }
+
+    private void checkLoaded() {
+        if (mappedFile == null) {
+            throw new IllegalStateException("not loaded");
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    public void save(File to) {
+        try {
+            doSave(to);
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+    private void doSave(File to) throws IOException
+    {
+        if (segments == null || readOnly) return;
+
+        if (to.getCanonicalFile().equals( mappedFile.getCanonicalFile() )) {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            return;
+        }
+
+        try (FileChannel out = new RandomAccessFile(to, "rw").getChannel()) {
+            out.truncate(0);
+            for (MappedByteBuffer segment : segments) {
+                ByteBuffer buffer = segment.duplicate();
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    out.write( buffer );
+                }
+            }
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    public void load(File from) {
+        try {
+            doLoad(from);
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+    private void doLoad(File from) throws IOException
+    {
+        if (segments != null && ! readOnly) {
+            save( mappedFile );
+        }
+        segments   = null;
+        mappedFile = from;
+        allDirty   = true;
+
+        if (readOnly && ! from.canRead()) return;
+
+        long length = (long) rows * cols * elementSize();
+        try (RandomAccessFile file = new RandomAccessFile(
+                from, readOnly ? "r" : "rw")) {
+            if (file.length() < length) {
+                if (readOnly) {
+                    throw new IOException("truncated: " + from);
+                }
+                file.setLength( length );
+            }
+
+            FileChannel channel = file.getChannel();
+            segments = new MappedByteBuffer[
+                    (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS) ];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[ i ] = channel.map(
+                        readOnly ? FileChannel.MapMode.READ_ONLY
+                                 : FileChannel.MapMode.READ_WRITE,
+                        start,
+                        Math.min(SEGMENT_SIZE, length - start));
+            }
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    public Changes changes(boolean all) {
+        checkLoaded();
+
+        int stripes[] = new int[ dirtyStripes.length ];
+        int count     = 0;
+        if (segments != null) { // else a missing read only file
+            for (int stripe = 0; stripe < dirtyStripes.length; stripe++) {
+                if (all || allDirty || dirtyStripes[ stripe ]) {
+                    stripes[ count++ ] = stripe;
+                }
+                dirtyStripes[ stripe ] = false;
+            }
+        }
+        allDirty = false;
+
+        StripeChanges changes = new StripeChanges(stripes, count);
+        writing = changes;
+        return changes;
+    }
+
+    private int firstRow(int stripe) {
+        return stripe * stripeRows;
+    }
+
+    private int stripeLength(int stripe) {
+        return Math.min(stripeRows, rows - firstRow(stripe)) * rowBytes();
+    }
+
+    // bytes of a stripe, which may span segments
+    private void read(int stripe, byte into[])
+    {
+        long offset = (long) firstRow(stripe) * rowBytes();
+        int  length = stripeLength(stripe);
+        for (int done = 0; done < length;) {
+            long       at      = offset + done;
+            ByteBuffer segment = segments[ (int) (at >>> SEGMENT_BITS) ]
+                                    .duplicate();
+            segment.position( (int) (at & SEGMENT_MASK) );
+
+            int size = Math.min(length - done, segment.remaining());
+            segment.get(into, done, size);
+            done += size;
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Stripes captured by changes.  Each one is written from the mapping,
+     *  unless an addition got to it first and preserved its values on
+     *  the heap.  Stripes are claimed under the lock of this object.
+     */
+    private class StripeChanges implements Changes
+    {
+        private static final int PENDING   = 1;
+        private static final int PRESERVED = 2;
+        private static final int WRITTEN   = 3;
+
+        private final int                stripes[];
+        private final int                count;
+        private final AtomicIntegerArray state;         // [stripe]
+        private final byte               preserved[][]; // [stripe][byte]
+
+        public StripeChanges(int changedStripes[], int changedCount)
+        {
+            stripes   = changedStripes;
+            count     = changedCount;
+            state     = new AtomicIntegerArray( dirtyStripes.length );
+            preserved = new byte[ dirtyStripes.length ][];
+
+            for (int i = 0; i < count; i++) {
+                state.set(stripes[ i ], PENDING);
+            }
+        }
+
+        // before the first addition to a stripe that is not written yet
+        public void preserve(int stripe) {
+            if (state.get( stripe ) != PENDING) return;
+
+            synchronized (this) {
+                if (state.get( stripe ) == PENDING) {
+                    byte values[] = new byte[ stripeLength(stripe) ];
+                    read(stripe, values);
+                    preserved[ stripe ] = values;
+                    state.set(stripe, PRESERVED);
+                }
+            }
+        }
+
+        public void writeOver(File savedCopy) {
+            try {
+                doWriteOver(savedCopy);
+            } catch (IOException e) {
+                throw new Error( e );
+            } finally {
+                if (writing == this) {
+                    writing = null;
+                }
+            }
+        }
+        private void doWriteOver(File savedCopy) throws IOException
+        {
+            if (count == 0) return;
+
+            byte buffer[] = new byte[ stripeLength(0) ];
+            try (FileChannel out =
+                         new RandomAccessFile(savedCopy, "rw").getChannel()) {
+                for (int i = 0; i < count; i++) {
+                    int  stripe = stripes[ i ];
+                    byte values[];
+                    synchronized (this) {
+                        if (state.get( stripe ) == PENDING) {
+                            read(stripe, buffer);
+                            values = buffer;
+                        } else {
+                            values = preserved[ stripe ];
+                            preserved[ stripe ] = null;
+                        }
+                        state.set(stripe, WRITTEN);
+                    }
+
+                    ByteBuffer toWrite  = ByteBuffer.wrap(
+                            values, 0, stripeLength(stripe));
+                    long       position = (long) firstRow(stripe) * rowBytes();
+                    while (toWrite.hasRemaining()) {
+                        position += out.write(toWrite, position);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ao.holdem.bot.regret.grid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Copies of some rows of a grid, as saved (row major, big endian), and
+ *  written over a saved copy of the grid at the offset of each row.
+ */
+class RowChanges implements Grid.Changes
+{
+    //--------------------------------------------------------------------
+    private final int  rowBytes;
+    private final int  rows  [];
+    private final byte values[][]; // [changed row][byte]
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param changedRows in increasing order
+     * @param bytesPerRow size of a saved row
+     */
+    public RowChanges(int changedRows[], int bytesPerRow)
+    {
+        rowBytes = bytesPerRow;
+        rows     = changedRows;
+        values   = new byte[ changedRows.length ][ bytesPerRow ];
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param index of a changed row
+     * @return buffer to put the saved values of that row in
+     */
+    public ByteBuffer values(int index) {
+        return ByteBuffer.wrap( values[ index ] );
+    }
+
+
+    //--------------------------------------------------------------------
+    public void writeOver(File savedCopy) {
+        if (rows.length == 0) return;
+
+        try {
+            doWriteOver(savedCopy);
+        } catch (IOException e) {
+            throw new Error( e );
+        }
+    }
+    private void doWriteOver(File savedCopy) throws IOException
+    {
+        try (FileChannel out =
+                     new RandomAccessFile(savedCopy, "rw").getChannel()) {
+            for (int i = 0; i < rows.length; i++) {
+                ByteBuffer buffer   = ByteBuffer.wrap( values[ i ] );
+                long       position = (long) rows[ i ] * rowBytes;
+                while (buffer.hasRemaining()) {
+                    position += out.write(buffer, position);
+                }
+            }
+        }
+    }
+}
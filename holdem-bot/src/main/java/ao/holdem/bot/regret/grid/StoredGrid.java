@@ -93,4 +93,11 @@ public class StoredGrid implements Grid
 
         inFile = from;
     }
+
+
+    //--------------------------------------------------------------------
+    // read only, and not saved either
+    public Changes changes(boolean all) {
+        return new RowChanges(new int[0], 0);
+    }
 }
@@ -22,6 +22,11 @@ public class MonoRegretMin implements IterativeMinimizer
     private       boolean     updateDealee;
     private       double      showdownStakesFactor;
 
+    // per-depth scratch, so that no arrays are allocated per node
+    private final double      STRATEGY [][];
+    private final double      UTILITIES[][];
+    private final double      REGRET   [][];
+
 
     //--------------------------------------------------------------------
     public MonoRegretMin(
@@ -29,6 +34,11 @@ public class MonoRegretMin implements IterativeMinimizer
     {
         INFO = info;
         ODDS = odds;
+
+        int depth = StateTree.depth();
+        STRATEGY  = new double[ depth ][ AbstractAction.VALUES.length ];
+        UTILITIES = new double[ depth ][ AbstractAction.VALUES.length ];
+        REGRET    = new double[ depth ][ AbstractAction.VALUES.length ];
     }
 
 
@@ -57,7 +67,7 @@ public class MonoRegretMin implements IterativeMinimizer
                 StateTree.headsUpRoot(),
                 absDealerBuckets,
                 absDealeeBuckets,
-                1.0, 1.0);
+                1.0, 1.0, 0);
     }
 
 
@@ -67,7 +77,8 @@ public class MonoRegretMin implements IterativeMinimizer
             char           absDealerBuckets[],
             char           absDealeeBuckets[],
             double         pDealer,
-            double         pDealee)
+            double         pDealee,
+            int            depth)
     {
         boolean dealerProp  = node.dealerIsNext();
         char    roundBucket =
@@ -75,19 +86,18 @@ public class MonoRegretMin implements IterativeMinimizer
                     ? absDealerBuckets
                     : absDealeeBuckets)[ node.round().ordinal() ];
 
-        InfoMatrix.InfoSet infoSet =
-                INFO.infoSet(node, roundBucket);
-
-        double strategy[] = infoSet.strategy();
+        double strategy[] = STRATEGY[ depth ];
+        INFO.strategy(node, roundBucket, strategy);
 
         if ((dealerProp && pDealee == 0) ||
                 ((!dealerProp) && pDealer == 0)) {
             return approximate(
-                    node, absDealerBuckets, absDealeeBuckets, strategy);
+                    node, absDealerBuckets, absDealeeBuckets,
+                    strategy, depth);
         } else {
             return approximateAndUpdateFully(
                     node, absDealerBuckets, absDealeeBuckets,
-                    pDealer, pDealee, infoSet, strategy);
+                    pDealer, pDealee, roundBucket, strategy, depth);
         }
     }
 
@@ -99,13 +109,16 @@ public class MonoRegretMin implements IterativeMinimizer
             char               absDealeeBuckets[],
             double             pDealer,
             double             pDealee,
-            InfoMatrix.InfoSet info,
-            double             strategy[])
+            char               roundBucket,
+            double             strategy[],
+            int                depth)
     {
         double counterfactualUtility = 0;
-        double utilities[]           = {0, 0, 0};
+        double utilities[]           = UTILITIES[ depth ];
 
         for (AbstractAction act : AbstractAction.VALUES) {
+            utilities[ act.ordinal() ] = 0;
+
             StateTree.Node nextNode = node.kid(act);
             if (nextNode == null) continue;
 
@@ -120,7 +133,8 @@ public class MonoRegretMin implements IterativeMinimizer
                         absDealerBuckets,
                         absDealeeBuckets,
                         pDealer * (node.dealerIsNext() ? actProb : 1.0),
-                        pDealee * (node.dealerIsNext() ? 1.0 : actProb));
+                        pDealee * (node.dealerIsNext() ? 1.0 : actProb),
+                        depth + 1);
             }
 
             utilities[ act.ordinal() ]  = val;
@@ -130,8 +144,7 @@ public class MonoRegretMin implements IterativeMinimizer
         double oppReachingFactor =
                 node.dealerIsNext() ? pDealee : -pDealer;
         if (oppReachingFactor != 0) {
-            double immediateCounterfactualRegret[] =
-                new double[ AbstractAction.VALUES.length ];
+            double immediateCounterfactualRegret[] = REGRET[ depth ];
 
             for (AbstractAction act : AbstractAction.VALUES) {
                 double cRegret =
@@ -142,11 +155,13 @@ public class MonoRegretMin implements IterativeMinimizer
             }
 
             if (updateDealee || node.dealerIsNext()) {
-                info.add(immediateCounterfactualRegret);
+                INFO.addRegret(node, roundBucket,
+                               immediateCounterfactualRegret);
             }
         }
         if (updateDealee || node.dealerIsNext()) {
-            info.add(strategy, node.dealerIsNext() ? pDealer : pDealee);
+            INFO.addStrategy(node, roundBucket, strategy,
+                             node.dealerIsNext() ? pDealer : pDealee);
         }
 
         return counterfactualUtility;
@@ -158,7 +173,8 @@ public class MonoRegretMin implements IterativeMinimizer
             StateTree.Node node,
             char           absDealerBuckets[],
             char           absDealeeBuckets[],
-            double         strategy[])
+            double         strategy[],
+            int            depth)
     {
         double expectedValue = 0;
         for (AbstractAction act : AbstractAction.VALUES) {
@@ -174,7 +190,7 @@ public class MonoRegretMin implements IterativeMinimizer
                             nextNode,
                             absDealerBuckets,
                             absDealeeBuckets,
-                            0, 0));
+                            0, 0, depth + 1));
         }
         return expectedValue;
     }
@@ -0,0 +1,273 @@
+package ao.holdem.bot.regret.parallel;
+
+import ao.holdem.abs.bucket.abstraction.access.BucketSequence;
+import ao.holdem.abs.bucket.abstraction.access.odds.IBucketOdds;
+import ao.holdem.bot.regret.InfoPart;
+import ao.holdem.bot.regret.IterativeMinimizer;
+import ao.holdem.bot.regret.mono.ChainMinimizer;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Runs a batch of bucket sequences across several threads.
+ *
+ * Each thread iterates its own minimizer over a contiguous slice of
+ *  the batch, against a delta view of the shared InfoPart.
+ *  All threads read the InfoPart as it was at the start of the batch,
+ *  and their additions are committed to it when the batch completes,
+ *  in thread order, striped by bucket across all threads.
+ *
+ * Results depend only on the sequences, the thread count and the
+ *  batch size, not on thread scheduling, so runs are reproducible.
+ *  Note that updates are visible one batch later than with a serial
+ *  minimizer.
+ *
+ * Note: NOT threadsafe, iterate should be called from a single thread.
+ */
+public class ParallelMinimizer implements IterativeMinimizer
+{
+    //--------------------------------------------------------------------
+    private static final Logger LOG =
+            Logger.getLogger(ParallelMinimizer.class);
+
+    public static final int DEFAULT_BATCH_PER_THREAD = 64;
+
+
+    //--------------------------------------------------------------------
+    public static interface MinimizerFactory
+    {
+        public IterativeMinimizer newInstance(InfoPart info);
+    }
+
+
+    //--------------------------------------------------------------------
+    public static IterativeMinimizer newMulti(
+            InfoPart          info,
+            final IBucketOdds odds,
+            final double      aggression,
+            int               nThreads)
+    {
+        if (nThreads <= 1) {
+            return ChainMinimizer.newMulti(info, odds, aggression);
+        }
+
+        return newInstance(info, odds, aggression, nThreads);
+    }
+
+    public static ParallelMinimizer newInstance(
+            InfoPart          info,
+            final IBucketOdds odds,
+            final double      aggression,
+            int               nThreads)
+    {
+        return new ParallelMinimizer(
+                info,
+                new MinimizerFactory() {
+                    public IterativeMinimizer newInstance(InfoPart view) {
+                        return ChainMinimizer.newMulti(
+                                view, odds, aggression);
+                    }},
+                nThreads,
+                nThreads * DEFAULT_BATCH_PER_THREAD);
+    }
+
+
+    //--------------------------------------------------------------------
+    private final ExecutorService    EXEC;
+    private final InfoPart           VIEWS[];
+    private final IterativeMinimizer MINIMIZERS[];
+    private final char               BATCH[][][]; // [seq][dealer?][round]
+
+    private       int                batchSize;
+
+
+    //--------------------------------------------------------------------
+    public ParallelMinimizer(
+            InfoPart         info,
+            MinimizerFactory factory,
+            int              nThreads,
+            int              batchCapacity)
+    {
+        if (nThreads < 1 || batchCapacity < nThreads) {
+            throw new IllegalArgumentException(
+                    nThreads + " threads with batch of " + batchCapacity);
+        }
+
+        LOG.debug("using " + nThreads + " threads" +
+                  " with batch of " + batchCapacity);
+
+        EXEC       = Executors.newFixedThreadPool(nThreads,
+                        new ThreadFactory() {
+                            private final AtomicInteger count =
+                                    new AtomicInteger();
+                            public Thread newThread(Runnable r) {
+                                Thread t = new Thread(r,
+                                        ParallelMinimizer.class
+                                                .getSimpleName() + "-" +
+                                        count.getAndIncrement());
+                                t.setDaemon(true);
+                                return t;
+                            }});
+        VIEWS      = new InfoPart          [ nThreads ];
+        MINIMIZERS = new IterativeMinimizer[ nThreads ];
+        for (int i = 0; i < nThreads; i++) {
+            VIEWS     [ i ] = info.deltaView( nThreads );
+            MINIMIZERS[ i ] = factory.newInstance( VIEWS[i] );
+        }
+
+        BATCH     = new char[ batchCapacity ][ 2 ][ 4 ];
+        batchSize = 0;
+    }
+
+
+    //--------------------------------------------------------------------
+    public void iterate(
+            char absDealerBuckets[],
+            char absDealeeBuckets[])
+    {
+        char seq[][] = BATCH[ batchSize++ ];
+        System.arraycopy(absDealerBuckets, 0, seq[0], 0, seq[0].length);
+        System.arraycopy(absDealeeBuckets, 0, seq[1], 0, seq[1].length);
+
+        if (batchSize == BATCH.length) {
+            runBatch();
+        }
+    }
+
+
+    /**
+     * Iterates over sequences that each thread draws from its own
+     *  source, e.g. a BucketSampler, instead of from the calling thread.
+     * Batching, and so reproducibility, is as for iterate.
+     *
+     * @param sources one per thread
+     * @param sequences total across all threads
+     */
+    public void iterate(
+            final BucketSequence sources[],
+            long                 sequences)
+    {
+        final int nThreads = MINIMIZERS.length;
+        if (sources.length != nThreads) {
+            throw new IllegalArgumentException(
+                    sources.length + " sources for " + nThreads + " threads");
+        }
+
+        if (batchSize > 0) {
+            runBatch();
+        }
+
+        for (long done = 0; done < sequences; done += batchSize) {
+            batchSize = (int) Math.min(BATCH.length, sequences - done);
+
+            List<Callable<Void>> iterations = new ArrayList<>(nThreads);
+            for (int i = 0; i < nThreads; i++) {
+                final IterativeMinimizer minimizer = MINIMIZERS[ i ];
+                final BucketSequence     source    = sources   [ i ];
+                final int from = (int) ((long) batchSize *  i      / nThreads);
+                final int to   = (int) ((long) batchSize * (i + 1) / nThreads);
+
+                iterations.add(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (int seq = from; seq < to; seq++) {
+                            source.next(BATCH[seq][0], BATCH[seq][1]);
+                            minimizer.iterate(BATCH[seq][0], BATCH[seq][1]);
+                        }
+                        return null;
+                    }});
+            }
+            invokeAll( iterations );
+            commitAll();
+        }
+
+        batchSize = 0;
+    }
+
+
+    //--------------------------------------------------------------------
+    private void runBatch()
+    {
+        final int nThreads = MINIMIZERS.length;
+
+        List<Callable<Void>> iterations = new ArrayList<>(nThreads);
+        for (int i = 0; i < nThreads; i++) {
+            final IterativeMinimizer minimizer = MINIMIZERS[ i ];
+            final int from = (int) ((long) batchSize *  i      / nThreads);
+            final int to   = (int) ((long) batchSize * (i + 1) / nThreads);
+
+            iterations.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    for (int seq = from; seq < to; seq++) {
+                        minimizer.iterate(BATCH[seq][0], BATCH[seq][1]);
+                    }
+                    return null;
+                }});
+        }
+        invokeAll( iterations );
+        commitAll();
+
+        batchSize = 0;
+    }
+
+    private void commitAll()
+    {
+        int nThreads = MINIMIZERS.length;
+
+        List<Callable<Void>> commits = new ArrayList<>(nThreads);
+        for (int i = 0; i < nThreads; i++) {
+            final int stripe = i;
+            commits.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    for (InfoPart view : VIEWS) {
+                        view.commitDelta( stripe );
+                    }
+                    return null;
+                }});
+        }
+        invokeAll( commits );
+    }
+
+    private void invokeAll(List<Callable<Void>> tasks)
+    {
+        try {
+            for (Future<Void> done : EXEC.invokeAll( tasks )) {
+                done.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    public void flush()
+    {
+        if (batchSize > 0) {
+            runBatch();
+        }
+
+        for (IterativeMinimizer minimizer : MINIMIZERS) {
+            minimizer.flush();
+        }
+    }
+
+    /**
+     * Flushes, and stops the worker threads, once training is done.
+     */
+    public void close()
+    {
+        flush();
+        EXEC.shutdown();
+    }
+}
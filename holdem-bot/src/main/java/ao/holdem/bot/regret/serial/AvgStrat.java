@@ -3,7 +3,6 @@ package ao.holdem.bot.regret.serial;
 import ao.holdem.engine.state.HeadsUpStatus;
 import ao.holdem.engine.state.tree.StateTree;
 import ao.holdem.model.act.AbstractAction;
-import ao.holdem.bot.regret.InfoMatrix;
 import ao.holdem.bot.regret.InfoPart;
 import ao.holdem.bot.regret.IterativeMinimizer;
 
@@ -21,6 +20,9 @@ public class AvgStrat implements IterativeMinimizer
     private       char     DEALER_BUCKETS[];
     private       char     DEALEE_BUCKETS[];
 
+    // per-depth scratch, so that no arrays are allocated per node
+    private final double   STRATEGY[][];
+
 
     //--------------------------------------------------------------------
     public AvgStrat(
@@ -30,6 +32,9 @@ public class AvgStrat implements IterativeMinimizer
     {
         INFO = info;
 //        EXEC = exec;
+
+        STRATEGY = new double[ StateTree.depth() ]
+                             [ AbstractAction.VALUES.length ];
     }
 
 
@@ -42,10 +47,10 @@ public class AvgStrat implements IterativeMinimizer
         DEALEE_BUCKETS = absDealeeBuckets;
 
         updateOrPassStrategy(
-                true, StateTree.headsUpRoot(), 1.0);
+                true, StateTree.headsUpRoot(), 1.0, 0);
 
         updateOrPassStrategy(
-                false, StateTree.headsUpRoot(), 1.0);
+                false, StateTree.headsUpRoot(), 1.0, 0);
 
 //        try {
 //            doIterate();
@@ -80,24 +85,27 @@ public class AvgStrat implements IterativeMinimizer
     private void updateOrPassStrategy(
             boolean        forDealer,
             StateTree.Node node,
-            double         propReach)
+            double         propReach,
+            int            depth)
     {
         if (node.status() != HeadsUpStatus.IN_PROGRESS) return;
 
         if (node.dealerIsNext() == forDealer) {
-            updateStrategy(forDealer, node, propReach);
+            updateStrategy(forDealer, node, propReach, depth);
         } else {
-            passStrategy(forDealer, node, propReach);
+            passStrategy(forDealer, node, propReach, depth);
         }
     }
 
     private void updateStrategy(
             boolean        forDealer,
             StateTree.Node node,
-            double         propReach)
+            double         propReach,
+            int            depth)
     {
-        InfoMatrix.InfoSet info       = infoSet(node);
-        double             strategy[] = info.strategy();
+        char   roundBucket = roundBucket(node);
+        double strategy[]  = STRATEGY[ depth ];
+        INFO.strategy(node, roundBucket, strategy);
 
         for (AbstractAction act : AbstractAction.VALUES) {
             StateTree.Node nextNode = node.kid(act);
@@ -107,35 +115,33 @@ public class AvgStrat implements IterativeMinimizer
             if (actProb == 0) continue;
 
             updateOrPassStrategy(
-                    forDealer, nextNode, propReach * actProb);
+                    forDealer, nextNode, propReach * actProb, depth + 1);
         }
 
-        info.add(strategy, propReach);
+        INFO.addStrategy(node, roundBucket, strategy, propReach);
     }
 
     private void passStrategy(
             boolean        forDealer,
             StateTree.Node node,
-            double         propReach)
+            double         propReach,
+            int            depth)
     {
         for (AbstractAction act : AbstractAction.VALUES) {
             StateTree.Node nextNode = node.kid(act);
             if (nextNode == null) continue;
 
-            updateOrPassStrategy(forDealer, nextNode, propReach);
+            updateOrPassStrategy(forDealer, nextNode, propReach, depth + 1);
         }
     }
 
 
     //--------------------------------------------------------------------
-    private InfoMatrix.InfoSet infoSet(StateTree.Node node)
+    private char roundBucket(StateTree.Node node)
     {
-        char roundBucket =
-                (node.dealerIsNext()
-                 ? DEALER_BUCKETS
-                 : DEALEE_BUCKETS)[ node.round().ordinal() ];
-
-        return INFO.infoSet(node, roundBucket);
+        return (node.dealerIsNext()
+                ? DEALER_BUCKETS
+                : DEALEE_BUCKETS)[ node.round().ordinal() ];
     }
 
 
@@ -4,7 +4,6 @@ import ao.holdem.abs.bucket.abstraction.access.odds.IBucketOdds;
 import ao.holdem.engine.state.HeadsUpStatus;
 import ao.holdem.engine.state.tree.StateTree;
 import ao.holdem.model.act.AbstractAction;
-import ao.holdem.bot.regret.InfoMatrix;
 import ao.holdem.bot.regret.InfoPart;
 import ao.holdem.bot.regret.IterativeMinimizer;
 
@@ -28,6 +27,11 @@ public class RegMin implements IterativeMinimizer
     private       boolean     forDealer;
     private       double      showdownStakesFactor;
 
+    // per-depth scratch, so that no arrays are allocated per node
+    private final double      STRATEGY [][];
+    private final double      UTILITIES[][];
+    private final double      REGRET   [][];
+
 
     //--------------------------------------------------------------------
     public RegMin(InfoPart        info
@@ -41,6 +45,11 @@ public class RegMin implements IterativeMinimizer
         INFO       = info;
         ODDS       = odds;
         AGGRESSION = aggression;
+
+        int depth = StateTree.depth();
+        STRATEGY   = new double[ depth ][ AbstractAction.VALUES.length ];
+        UTILITIES  = new double[ depth ][ AbstractAction.VALUES.length ];
+        REGRET     = new double[ depth ][ AbstractAction.VALUES.length ];
     }
 
 
@@ -58,31 +67,33 @@ public class RegMin implements IterativeMinimizer
                         DEALEE_BUCKETS[3]) - 0.5) * 2.0;
 
         forDealer = true;
-        advanceOrPassRegret(StateTree.headsUpRoot(),  1.0);
+        advanceOrPassRegret(StateTree.headsUpRoot(),  1.0, 0);
 
         forDealer = false;
-        advanceOrPassRegret(StateTree.headsUpRoot(), -1.0);
+        advanceOrPassRegret(StateTree.headsUpRoot(), -1.0, 0);
     }
 
 
     //--------------------------------------------------------------------
     private double advanceOrPassRegret(
             StateTree.Node node,
-            double         oppReach)
+            double         oppReach,
+            int            depth)
     {
         if (node.status() != HeadsUpStatus.IN_PROGRESS) {
             return evaluate(node);
         }
 
-        InfoMatrix.InfoSet info       = infoSet(node);
-        double             strategy[] = info.strategy();
+        char   roundBucket = roundBucket(node);
+        double strategy[]  = STRATEGY[ depth ];
+        INFO.strategy(node, roundBucket, strategy);
 
         if (oppReach == 0) {
-            return approximate  (node, strategy);
+            return approximate  (node, strategy, depth);
         } else if (node.dealerIsNext() == forDealer) {
-            return advanceRegret(node, oppReach, info, strategy);
+            return advanceRegret(node, oppReach, roundBucket, strategy, depth);
         } else {
-            return passRegret   (node, oppReach, strategy);
+            return passRegret   (node, oppReach, strategy, depth);
         }
     }
 
@@ -91,34 +102,39 @@ public class RegMin implements IterativeMinimizer
     private double advanceRegret(
             StateTree.Node     node,
             double             oppReach,
-            InfoMatrix.InfoSet info,
-            double             strategy[])
+            char               roundBucket,
+            double             strategy[],
+            int                depth)
     {
         double counterfactualUtility = 0;
-        double utilities[]           = {0, 0, 0};
+        double utilities[]           = UTILITIES[ depth ];
 
         for (AbstractAction act : AbstractAction.VALUES) {
+            utilities[ act.ordinal() ] = 0;
+
             StateTree.Node nextNode = node.kid(act);
             if (nextNode == null) continue;
 
             double actProb = strategy[ act.ordinal() ];
-            double val     = advanceOrPassRegret(nextNode, oppReach);
+            double val     = advanceOrPassRegret(
+                                nextNode, oppReach, depth + 1);
 
             utilities[ act.ordinal() ]  = val;
             counterfactualUtility      += val * actProb;
         }
 
-        double immediateCounterfactualRegret[] =
-                new double[ AbstractAction.VALUES.length ];
+        double immediateCounterfactualRegret[] = REGRET[ depth ];
         for (AbstractAction act : AbstractAction.VALUES) {
+            immediateCounterfactualRegret[ act.ordinal() ] = 0;
             if (node.kid(act) == null) continue;
+
             double cRegret = oppReach *
                     (utilities[ act.ordinal() ] - counterfactualUtility);
 
             immediateCounterfactualRegret[ act.ordinal() ] = cRegret;
         }
 
-        info.add( immediateCounterfactualRegret );
+        INFO.addRegret(node, roundBucket, immediateCounterfactualRegret);
         return counterfactualUtility;
     }
 
@@ -127,7 +143,8 @@ public class RegMin implements IterativeMinimizer
     private double passRegret(
             StateTree.Node node,
             double         oppReach,
-            double         strategy[])
+            double         strategy[],
+            int            depth)
     {
         double counterfactualUtility = 0;
         for (AbstractAction act : AbstractAction.VALUES) {
@@ -138,7 +155,7 @@ public class RegMin implements IterativeMinimizer
             if (actProb == 0) continue;
 
             double val     = advanceOrPassRegret(
-                    nextNode, oppReach * actProb);
+                    nextNode, oppReach * actProb, depth + 1);
 
             // todo gotta test this replacement for if (val > 0)
             if (forDealer && val > 0 ||
@@ -156,7 +173,8 @@ public class RegMin implements IterativeMinimizer
     //--------------------------------------------------------------------
     private double approximate(
             StateTree.Node node,
-            double         strategy[])
+            double         strategy[],
+            int            depth)
     {
         double expectedValue = 0;
         for (AbstractAction act : AbstractAction.VALUES) {
@@ -165,7 +183,7 @@ public class RegMin implements IterativeMinimizer
             if (actProb == 0 || nextNode == null) continue;
 
             expectedValue += actProb *
-                   advanceOrPassRegret(nextNode, 0);
+                   advanceOrPassRegret(nextNode, 0, depth + 1);
         }
         return expectedValue;
     }
@@ -187,14 +205,11 @@ public class RegMin implements IterativeMinimizer
 
 
     //--------------------------------------------------------------------
-    private InfoMatrix.InfoSet infoSet(StateTree.Node node)
+    private char roundBucket(StateTree.Node node)
     {
-        char roundBucket =
-                (node.dealerIsNext()
-                 ? DEALER_BUCKETS
-                 : DEALEE_BUCKETS)[ node.round().ordinal() ];
-
-        return INFO.infoSet(node, roundBucket);
+        return (node.dealerIsNext()
+                ? DEALER_BUCKETS
+                : DEALEE_BUCKETS)[ node.round().ordinal() ];
     }
 
 
@@ -0,0 +1,24 @@
+package ao.holdem.bot.regret.vector;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Round buckets of a private hand on a public board, as dealt in
+ *  a BucketSequence.  Cards are given by Card.ordinal().
+ */
+public interface HandBuckets
+{
+    /**
+     * @param holeMask the two hole cards
+     * @param flopMask the three flop cards
+     * @param turnCard the turn card
+     * @param riverCard the river card
+     * @param into absolute bucket of each round, by Round.ordinal()
+     */
+    public void buckets(
+            long holeMask,
+            long flopMask,
+            int  turnCard,
+            int  riverCard,
+            char into[]);
+}
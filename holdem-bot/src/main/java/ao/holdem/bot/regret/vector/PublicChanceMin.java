@@ -0,0 +1,491 @@
+package ao.holdem.bot.regret.vector;
+
+import ao.holdem.bot.regret.InfoPart;
+import ao.holdem.bot.regret.IterativeMinimizer;
+import ao.holdem.engine.eval.Eval7;
+import ao.holdem.engine.state.HeadsUpStatus;
+import ao.holdem.engine.state.tree.StateTree;
+import ao.holdem.model.Round;
+import ao.holdem.model.act.AbstractAction;
+import ao.holdem.model.card.Card;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Public chance sampling CFR: each iteration deals one public board
+ *  and updates every pair of private hands on it, with one walk of the
+ *  StateTree per seat, instead of one walk per seat for every sampled
+ *  pair of bucket sequences as in RegMin.
+ *
+ * Reach probabilities are vectors over the C(47, 2) hands left by the
+ *  board.  At the nodes of the seat being updated, the regrets and
+ *  average strategy weights of hands with the same round bucket are
+ *  added up, and added to the InfoPart once per bucket.
+ *
+ * At showdowns hands are compared by the value of their seven cards,
+ *  which are sorted once per board, so the value of each hand against
+ *  all those of the opponent comes from running sums: O(n log n) per
+ *  board and O(n) per showdown, instead of a nonLossProb per pair.
+ *  Opponent hands that share a card with the hand are taken out with
+ *  running sums per card.  Over boards, this is the same in
+ *  expectation as nonLossProb of the river buckets.
+ *
+ * Values are averaged over the opponent hands that don't share a
+ *  card, so an iteration has the scale of a RegMin (and AvgStrat)
+ *  iteration for each hand.
+ *
+ * Note: NOT threadsafe.
+ */
+public class PublicChanceMin implements IterativeMinimizer
+{
+    //--------------------------------------------------------------------
+    private static final int BOARD     = 5;
+    private static final int LEFT      = Card.COUNT - BOARD;
+    private static final int HANDS     = LEFT * (LEFT - 1) / 2;
+    private static final int OPPONENTS = (LEFT - 2) * (LEFT - 3) / 2;
+
+    private static final int ACTS      = AbstractAction.VALUES.length;
+    private static final int ROUNDS    = Round.VALUES.length;
+
+
+    //--------------------------------------------------------------------
+    private final InfoPart    INFO;
+    private final HandBuckets BUCKETS;
+    private final Random      RAND;
+
+    private final Card        DECK[] = Card.VALUES.clone();
+
+    // hands of the current board, by hand
+    private final int         CARD_A[] = new int[ HANDS ];
+    private final int         CARD_B[] = new int[ HANDS ];
+    private final int         RANK  [] = new int[ HANDS ];
+
+    // hands by increasing RANK, packed with RANK while sorting
+    private final int         BY_RANK[] = new int [ HANDS ];
+    private final long        SORTED [] = new long[ HANDS ];
+
+    // bucket of each hand, the distinct ones, and the slot of each hand
+    private final char        BUCKET      [][] = new char[ ROUNDS ][ HANDS ];
+    private final char        SLOT_BUCKETS[][] = new char[ ROUNDS ][ HANDS ];
+    private final int         SLOT        [][] = new int [ ROUNDS ][ HANDS ];
+    private final int         SLOTS       []   = new int [ ROUNDS ];
+    private final int         SLOT_OF     []   =
+            new int[ Character.MAX_VALUE + 1 ];
+
+    private       boolean     forDealer;
+
+    // per-depth scratch, so that no arrays are allocated per node
+    private final double      OWN_REACH[][];   // [depth][hand]
+    private final double      OPP_REACH[][];   // [depth][hand]
+    private final double      VALUES   [][][]; // [depth][act][hand]
+    private final double      STRATEGY [][][]; // [depth][slot][act]
+
+    // per node, once its kids are done
+    private final double      REGRET[][]   = new double[ HANDS ][ ACTS ];
+    private final double      WEIGHT[]     = new double[ HANDS ];
+    private final double      CARD_SUM[]   = new double[ Card.COUNT ];
+    private final double      ROOT[]       = new double[ HANDS ];
+    private final char        HAND_BUCKETS[] = new char[ ROUNDS ];
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param info what to minimize regret in
+     * @param buckets of each hand on a board
+     * @param rand source of boards
+     */
+    public PublicChanceMin(
+            InfoPart    info,
+            HandBuckets buckets,
+            Random      rand)
+    {
+        INFO    = info;
+        BUCKETS = buckets;
+        RAND    = rand;
+
+        int depth = StateTree.depth() + 1;
+        OWN_REACH = new double[ depth ][ HANDS ];
+        OPP_REACH = new double[ depth ][ HANDS ];
+        VALUES    = new double[ depth ][ ACTS ][ HANDS ];
+        STRATEGY  = new double[ depth ][ HANDS ][ ACTS ];
+
+        Arrays.fill(SLOT_OF, -1);
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Plugs into loops over bucket sequences, e.g. in CfrOptimizer,
+     *  the given buckets are not used, a board is dealt instead.
+     */
+    public void iterate(
+            char absDealerBuckets[],
+            char absDealeeBuckets[])
+    {
+        iterate();
+    }
+
+    /**
+     * Deals a random board and updates all hands on it.
+     */
+    public void iterate()
+    {
+        // partial shuffle, only the board is needed
+        for (int i = 0; i < BOARD; i++) {
+            int  j    = i + RAND.nextInt(Card.COUNT - i);
+            Card swap = DECK[ i ];
+            DECK[ i ] = DECK[ j ];
+            DECK[ j ] = swap;
+        }
+
+        iterate((1L << DECK[0].ordinal()) |
+                (1L << DECK[1].ordinal()) |
+                (1L << DECK[2].ordinal()),
+                DECK[3].ordinal(),
+                DECK[4].ordinal());
+    }
+
+    /**
+     * @param flopMask the three flop cards, by Card.ordinal()
+     * @param turnCard Card.ordinal() of the turn
+     * @param riverCard Card.ordinal() of the river
+     */
+    public void iterate(long flopMask, int turnCard, int riverCard)
+    {
+        deal(flopMask, turnCard, riverCard);
+
+        Arrays.fill(OWN_REACH[0], 1.0);
+        Arrays.fill(OPP_REACH[0], 1.0);
+
+        forDealer = true;
+        walk(StateTree.headsUpRoot(), 0, ROOT);
+
+        forDealer = false;
+        walk(StateTree.headsUpRoot(), 0, ROOT);
+    }
+
+
+    //--------------------------------------------------------------------
+    void deal(long flopMask, int turnCard, int riverCard)
+    {
+        long boardMask = flopMask | (1L << turnCard) | (1L << riverCard);
+
+        int hand = 0;
+        for (int a = 0; a < Card.COUNT; a++) {
+            if ((boardMask & (1L << a)) != 0) continue;
+
+            for (int b = a + 1; b < Card.COUNT; b++) {
+                if ((boardMask & (1L << b)) != 0) continue;
+
+                long holeMask = (1L << a) | (1L << b);
+                BUCKETS.buckets(holeMask, flopMask, turnCard, riverCard,
+                                HAND_BUCKETS);
+                for (int round = 0; round < ROUNDS; round++) {
+                    BUCKET[ round ][ hand ] = HAND_BUCKETS[ round ];
+                }
+
+                CARD_A[ hand ] = a;
+                CARD_B[ hand ] = b;
+                SORTED[ hand ] =
+                        ((long) Eval7.valueOf(holeMask | boardMask) << 32)
+                        | hand;
+                hand++;
+            }
+        }
+
+        Arrays.sort(SORTED);
+        for (int i = 0; i < HANDS; i++) {
+            int sortedHand = (int) SORTED[ i ];
+            BY_RANK[ i ]          = sortedHand;
+            RANK   [ sortedHand ] = (int) (SORTED[ i ] >>> 32);
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            slot(round);
+        }
+    }
+
+    private void slot(int round)
+    {
+        char buckets    [] = BUCKET      [ round ];
+        char slotBuckets[] = SLOT_BUCKETS[ round ];
+        int  slots      [] = SLOT        [ round ];
+
+        int nSlots = 0;
+        for (int hand = 0; hand < HANDS; hand++) {
+            char bucket = buckets[ hand ];
+            if (SLOT_OF[ bucket ] == -1) {
+                slotBuckets[ nSlots ] = bucket;
+                SLOT_OF    [ bucket ] = nSlots++;
+            }
+            slots[ hand ] = SLOT_OF[ bucket ];
+        }
+        SLOTS[ round ] = nSlots;
+
+        for (int s = 0; s < nSlots; s++) {
+            SLOT_OF[ slotBuckets[s] ] = -1;
+        }
+    }
+
+    long holeMask(int hand)
+    {
+        return (1L << CARD_A[ hand ]) | (1L << CARD_B[ hand ]);
+    }
+
+    static int hands()
+    {
+        return HANDS;
+    }
+
+
+    //--------------------------------------------------------------------
+    // counterfactual value of each hand of the seat being updated
+    private void walk(
+            StateTree.Node node,
+            int            depth,
+            double         values[])
+    {
+        if (node.status() != HeadsUpStatus.IN_PROGRESS) {
+            evaluate(node, forDealer, OPP_REACH[ depth ], values);
+        } else if (isZero( OPP_REACH[ depth ] )) {
+            Arrays.fill(values, 0);
+        } else if (node.dealerIsNext() == forDealer) {
+            update(node, depth, values);
+        } else {
+            pass(node, depth, values);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private void update(
+            StateTree.Node node,
+            int            depth,
+            double         values[])
+    {
+        int      round      = node.round().ordinal();
+        int      slot    [] = SLOT[ round ];
+        double   strategy[][] = strategies(node, round, depth);
+
+        double   ownReach[] = OWN_REACH[ depth ];
+        double   kidReach[] = OWN_REACH[ depth + 1 ];
+        System.arraycopy(OPP_REACH[ depth     ], 0,
+                         OPP_REACH[ depth + 1 ], 0, HANDS);
+
+        Arrays.fill(values, 0);
+        for (AbstractAction act : AbstractAction.VALUES) {
+            StateTree.Node kid = node.kid(act);
+            if (kid == null) continue;
+
+            int    a           = act.ordinal();
+            double kidValues[] = VALUES[ depth ][ a ];
+            for (int hand = 0; hand < HANDS; hand++) {
+                kidReach[ hand ] =
+                        ownReach[ hand ] * strategy[ slot[hand] ][ a ];
+            }
+
+            walk(kid, depth + 1, kidValues);
+
+            for (int hand = 0; hand < HANDS; hand++) {
+                values[ hand ] +=
+                        strategy[ slot[hand] ][ a ] * kidValues[ hand ];
+            }
+        }
+
+        int nSlots = SLOTS[ round ];
+        for (int s = 0; s < nSlots; s++) {
+            Arrays.fill(REGRET[ s ], 0);
+            WEIGHT[ s ] = 0;
+        }
+        for (AbstractAction act : AbstractAction.VALUES) {
+            if (node.kid(act) == null) continue;
+
+            int    a           = act.ordinal();
+            double kidValues[] = VALUES[ depth ][ a ];
+            for (int hand = 0; hand < HANDS; hand++) {
+                REGRET[ slot[hand] ][ a ] +=
+                        kidValues[ hand ] - values[ hand ];
+            }
+        }
+        for (int hand = 0; hand < HANDS; hand++) {
+            WEIGHT[ slot[hand] ] += ownReach[ hand ];
+        }
+
+        char buckets[] = SLOT_BUCKETS[ round ];
+        for (int s = 0; s < nSlots; s++) {
+            INFO.addRegret(node, buckets[ s ], REGRET[ s ]);
+            if (WEIGHT[ s ] != 0) {
+                INFO.addStrategy(node, buckets[ s ],
+                                 strategy[ s ], WEIGHT[ s ]);
+            }
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private void pass(
+            StateTree.Node node,
+            int            depth,
+            double         values[])
+    {
+        int      round        = node.round().ordinal();
+        int      slot    []   = SLOT[ round ];
+        double   strategy[][] = strategies(node, round, depth);
+
+        double   oppReach[] = OPP_REACH[ depth ];
+        double   kidReach[] = OPP_REACH[ depth + 1 ];
+        System.arraycopy(OWN_REACH[ depth     ], 0,
+                         OWN_REACH[ depth + 1 ], 0, HANDS);
+
+        Arrays.fill(values, 0);
+        for (AbstractAction act : AbstractAction.VALUES) {
+            StateTree.Node kid = node.kid(act);
+            if (kid == null) continue;
+
+            int    a           = act.ordinal();
+            double kidValues[] = VALUES[ depth ][ a ];
+            for (int hand = 0; hand < HANDS; hand++) {
+                kidReach[ hand ] =
+                        oppReach[ hand ] * strategy[ slot[hand] ][ a ];
+            }
+
+            walk(kid, depth + 1, kidValues);
+
+            for (int hand = 0; hand < HANDS; hand++) {
+                values[ hand ] += kidValues[ hand ];
+            }
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private double[][] strategies(
+            StateTree.Node node, int round, int depth)
+    {
+        double strategy[][] = STRATEGY    [ depth ];
+        char   buckets []   = SLOT_BUCKETS[ round ];
+        for (int s = 0; s < SLOTS[ round ]; s++) {
+            INFO.strategy(node, buckets[ s ], strategy[ s ]);
+        }
+        return strategy;
+    }
+
+    private static boolean isZero(double reach[])
+    {
+        for (double r : reach) {
+            if (r != 0) return false;
+        }
+        return true;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param node terminal
+     * @param forDealer whose values
+     * @param oppReach reach probability of each opponent hand
+     * @param values where to put the value of each hand of forDealer,
+     *                  averaged over the opponent hands
+     */
+    void evaluate(
+            StateTree.Node node,
+            boolean        forDealer,
+            double         oppReach[],
+            double         values[])
+    {
+        switch (node.status()) {
+            case SHOWDOWN:
+                showdown((double) node.stakes() / OPPONENTS,
+                         oppReach, values);
+                break;
+
+            case DEALER_WINS:
+                fold((forDealer ? node.dealeeCommit()
+                                : -node.dealeeCommit()) /
+                        (double) OPPONENTS, oppReach, values);
+                break;
+
+            case DEALEE_WINS:
+                fold((forDealer ? -node.dealerCommit()
+                                : node.dealerCommit()) /
+                        (double) OPPONENTS, oppReach, values);
+                break;
+        }
+    }
+
+    private void fold(
+            double payoff,
+            double oppReach[],
+            double values[])
+    {
+        Arrays.fill(CARD_SUM, 0);
+        double total = 0;
+        for (int hand = 0; hand < HANDS; hand++) {
+            double reach = oppReach[ hand ];
+            total                    += reach;
+            CARD_SUM[ CARD_A[hand] ] += reach;
+            CARD_SUM[ CARD_B[hand] ] += reach;
+        }
+
+        // the hand itself is taken out twice
+        for (int hand = 0; hand < HANDS; hand++) {
+            values[ hand ] = payoff * (total
+                    - CARD_SUM[ CARD_A[hand] ]
+                    - CARD_SUM[ CARD_B[hand] ]
+                    + oppReach[ hand ]);
+        }
+    }
+
+    private void showdown(
+            double stakes,
+            double oppReach[],
+            double values[])
+    {
+        // reach of weaker opponent hands, up the ranks
+        Arrays.fill(CARD_SUM, 0);
+        double total = 0;
+        for (int from = 0, to; from < HANDS; from = to) {
+            int rank = RANK[ BY_RANK[from] ];
+            for (to = from; to < HANDS && RANK[ BY_RANK[to] ] == rank; to++) {
+                int hand = BY_RANK[ to ];
+                values[ hand ] = total
+                        - CARD_SUM[ CARD_A[hand] ]
+                        - CARD_SUM[ CARD_B[hand] ];
+            }
+            for (int tie = from; tie < to; tie++) {
+                int    hand  = BY_RANK[ tie ];
+                double reach = oppReach[ hand ];
+                total                    += reach;
+                CARD_SUM[ CARD_A[hand] ] += reach;
+                CARD_SUM[ CARD_B[hand] ] += reach;
+            }
+        }
+
+        // less the reach of stronger ones, down the ranks
+        Arrays.fill(CARD_SUM, 0);
+        total = 0;
+        for (int from = HANDS - 1, to; from >= 0; from = to) {
+            int rank = RANK[ BY_RANK[from] ];
+            for (to = from; to >= 0 && RANK[ BY_RANK[to] ] == rank; to--) {
+                int hand = BY_RANK[ to ];
+                values[ hand ] = stakes * (values[ hand ] - (total
+                        - CARD_SUM[ CARD_A[hand] ]
+                        - CARD_SUM[ CARD_B[hand] ]));
+            }
+            for (int tie = from; tie > to; tie--) {
+                int    hand  = BY_RANK[ tie ];
+                double reach = oppReach[ hand ];
+                total                    += reach;
+                CARD_SUM[ CARD_A[hand] ] += reach;
+                CARD_SUM[ CARD_B[hand] ] += reach;
+            }
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    public void flush() {}
+}
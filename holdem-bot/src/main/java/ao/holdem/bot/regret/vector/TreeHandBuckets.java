@@ -0,0 +1,72 @@
+package ao.holdem.bot.regret.vector;
+
+import ao.holdem.abs.bucket.abstraction.access.BucketDecoder;
+import ao.holdem.abs.bucket.abstraction.access.tree.BucketTree;
+import ao.holdem.canon.CanonIndexer;
+import ao.holdem.model.card.canon.hole.CanonHole;
+
+import java.util.Arrays;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Hand buckets looked up in a BucketTree, the same way as
+ *  BucketSampler does for random deals.
+ *
+ * Note: NOT threadsafe, each thread should have its own.
+ */
+public class TreeHandBuckets implements HandBuckets
+{
+    //--------------------------------------------------------------------
+    private final BucketTree    TREE;
+    private final BucketDecoder DECODER;
+
+    // by canon hole, hole buckets are the same on every board
+    private final int           HOLE_BUCKETS[];
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param tree source of canon bucket for each round
+     * @param decoder translates canon buckets into absolute buckets
+     */
+    public TreeHandBuckets(
+            BucketTree    tree,
+            BucketDecoder decoder)
+    {
+        TREE    = tree;
+        DECODER = decoder;
+
+        HOLE_BUCKETS = new int[ CanonHole.CANONS ];
+        Arrays.fill(HOLE_BUCKETS, -1);
+    }
+
+
+    //--------------------------------------------------------------------
+    public void buckets(
+            long holeMask,
+            long flopMask,
+            int  turnCard,
+            int  riverCard,
+            char into[])
+    {
+        char canonHole = CanonIndexer.holeIndex(holeMask);
+        if (HOLE_BUCKETS[ canonHole ] == -1) {
+            HOLE_BUCKETS[ canonHole ] = TREE.getHole(canonHole);
+        }
+        int holeBucket = HOLE_BUCKETS[ canonHole ];
+
+        int flopBucket  = TREE.getFlop(CanonIndexer.flopIndex(
+                holeMask, flopMask));
+        int turnBucket  = TREE.getTurn(CanonIndexer.turnIndex(
+                holeMask, flopMask, turnCard));
+        int riverBucket = TREE.getRiver(CanonIndexer.riverIndex(
+                holeMask, flopMask, turnCard, riverCard));
+
+        into[0] = (char) holeBucket;
+        into[1] = DECODER.decode(holeBucket, flopBucket);
+        into[2] = DECODER.decode(holeBucket, flopBucket, turnBucket);
+        into[3] = DECODER.decode(holeBucket, flopBucket,
+                                 turnBucket, riverBucket);
+    }
+}
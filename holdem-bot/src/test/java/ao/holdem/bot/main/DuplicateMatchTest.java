@@ -0,0 +1,53 @@
+package ao.holdem.bot.main;
+
+import ao.holdem.bot.simple.AlwaysRaiseBot;
+import ao.holdem.bot.simple.DuaneBot;
+import ao.holdem.engine.Player;
+import ao.holdem.model.Avatar;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class DuplicateMatchTest
+{
+    //--------------------------------------------------------------------
+    private static final long PAIRS = 5500;
+    private static final long SEED  = 42;
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void outcomeDoesNotDependOnThreads() {
+        DuplicateMatch.Result serial   =
+                new DuplicateMatch(PAIRS, 1, SEED).play(players());
+        DuplicateMatch.Result parallel =
+                new DuplicateMatch(PAIRS, 3, SEED).play(players());
+
+        assertEquals(PAIRS * 2, serial.hands());
+        assertEquals(serial.hands(),           parallel.hands());
+        assertEquals(serial.mbPerHand(),       parallel.mbPerHand(),       0);
+        assertEquals(serial.confidence95(),    parallel.confidence95(),    0);
+        assertEquals(serial.dealerMbPerHand(), parallel.dealerMbPerHand(), 0);
+    }
+
+
+    //--------------------------------------------------------------------
+    private static Map<Avatar, DuplicateMatch.PlayerFactory> players() {
+        Map<Avatar, DuplicateMatch.PlayerFactory> players = new LinkedHashMap<>();
+        players.put(Avatar.local("duane"), new DuplicateMatch.PlayerFactory() {
+            @Override public Player newPlayer(long seed) {
+                return new DuaneBot();
+            }});
+        players.put(Avatar.local("raise"), new DuplicateMatch.PlayerFactory() {
+            @Override public Player newPlayer(long seed) {
+                return new AlwaysRaiseBot();
+            }});
+        return players;
+    }
+}
@@ -0,0 +1,155 @@
+package ao.holdem.bot.regret;
+
+import ao.holdem.abs.bucket.abstraction.access.odds.IBucketOdds;
+import ao.holdem.bot.regret.mono.ChainMinimizer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class BestResponseTest
+{
+    //--------------------------------------------------------------------
+    private static final int  DEALS = 2000;
+    private static final long SEED  = 42;
+
+    // each round splits the bucket of the previous one in two
+    private static final int  HOLES = 2;
+
+    // river buckets are ordered by strength
+    private static final IBucketOdds ODDS = new IBucketOdds() {
+        @Override public double nonLossProb(char index, char vsIndex) {
+            return index > vsIndex ? 1.0 : index == vsIndex ? 0.5 : 0.0;
+        }};
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void resultDoesNotDependOnThreads() throws IOException {
+        InfoPart info = infoPart();
+
+        char fitDealer  [][] = new char[ DEALS ][];
+        char fitDealee  [][] = new char[ DEALS ][];
+        char scoreDealer[][] = new char[ DEALS ][];
+        char scoreDealee[][] = new char[ DEALS ][];
+        deal(SEED,     fitDealer,   fitDealee);
+        deal(SEED + 1, scoreDealer, scoreDealee);
+
+        BestResponse.Result serial   = new BestResponse(info, ODDS, 1)
+                .evaluate(fitDealer, fitDealee, scoreDealer, scoreDealee);
+        BestResponse.Result parallel = new BestResponse(info, ODDS, 3)
+                .evaluate(fitDealer, fitDealee, scoreDealer, scoreDealee);
+
+        assertEquals(DEALS, serial.deals());
+        assertEquals(serial.dealerMbPerHand(),
+                     parallel.dealerMbPerHand(), 0);
+        assertEquals(serial.dealeeMbPerHand(),
+                     parallel.dealeeMbPerHand(), 0);
+        assertEquals(serial.fitExploitability(),
+                     parallel.fitExploitability(), 0);
+    }
+
+
+    @Test
+    public void sameDealsScoreAsPicked() throws IOException {
+        InfoPart info = infoPart();
+
+        char dealer[][] = new char[ DEALS ][];
+        char dealee[][] = new char[ DEALS ][];
+        deal(SEED, dealer, dealee);
+
+        BestResponse.Result result = new BestResponse(info, ODDS, 2)
+                .evaluate(dealer, dealee, dealer, dealee);
+        assertEquals(result.fitExploitability(),
+                     result.exploitability(), 1e-9);
+    }
+
+
+    // with a few deals per bucket the in-sample value overfits
+    @Test
+    public void heldOutIsBelowInSample() throws IOException {
+        InfoPart info = infoPart();
+
+        char fitDealer  [][] = new char[ DEALS / 20 ][];
+        char fitDealee  [][] = new char[ DEALS / 20 ][];
+        char scoreDealer[][] = new char[ DEALS ][];
+        char scoreDealee[][] = new char[ DEALS ][];
+        deal(SEED,     fitDealer,   fitDealee);
+        deal(SEED + 1, scoreDealer, scoreDealee);
+
+        BestResponse.Result result = new BestResponse(info, ODDS, 2)
+                .evaluate(fitDealer, fitDealee, scoreDealer, scoreDealee);
+        assertTrue(result.toString(),
+                   result.exploitability() < result.fitExploitability());
+    }
+
+
+    @Test
+    public void trainingReducesExploitability() throws IOException {
+        InfoPart info = infoPart();
+
+        char dealer[][] = new char[ DEALS ][];
+        char dealee[][] = new char[ DEALS ][];
+        deal(SEED, dealer, dealee);
+
+        char scoreDealer[][] = new char[ DEALS ][];
+        char scoreDealee[][] = new char[ DEALS ][];
+        deal(SEED + 1, scoreDealer, scoreDealee);
+
+        BestResponse        response = new BestResponse(info, ODDS, 2);
+        BestResponse.Result initial  = response.evaluate(
+                dealer, dealee, scoreDealer, scoreDealee);
+        assertTrue(initial.exploitability() > 0);
+
+        IterativeMinimizer cfrMin =
+                ChainMinimizer.newMulti(info, ODDS, 1.0);
+        for (int pass = 0; pass < 5; pass++) {
+            for (int i = 0; i < DEALS; i++) {
+                cfrMin.iterate(dealer[i], dealee[i]);
+            }
+        }
+
+        BestResponse.Result trained = response.evaluate(
+                dealer, dealee, scoreDealer, scoreDealee);
+        assertTrue(trained.exploitability() >= 0);
+        assertTrue(trained + " vs " + initial,
+                   trained.exploitability() < initial.exploitability() / 2);
+    }
+
+
+    //--------------------------------------------------------------------
+    private InfoPart infoPart() throws IOException {
+        return InfoPart.retrieveOrCreate(dir.newFolder(),
+                HOLES, (char) (HOLES * 2), (char) (HOLES * 4),
+                (char) (HOLES * 8), false, true);
+    }
+
+    private static void deal(long seed, char dealer[][], char dealee[][]) {
+        Random rand = new Random(seed);
+        for (int i = 0; i < dealer.length; i++) {
+            dealer[ i ] = buckets(rand);
+            dealee[ i ] = buckets(rand);
+        }
+    }
+
+    private static char[] buckets(Random rand) {
+        char buckets[] = new char[4];
+        buckets[0] = (char) rand.nextInt(HOLES);
+        for (int round = 1; round < buckets.length; round++) {
+            buckets[ round ] =
+                    (char) (buckets[round - 1] * 2 + rand.nextInt(2));
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,101 @@
+package ao.holdem.bot.regret;
+
+import ao.holdem.engine.state.tree.StateTree;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class InfoCheckpointsTest
+{
+    //--------------------------------------------------------------------
+    private static final int  HOLES  = 3;
+    private static final char FLOPS  = 5;
+    private static final char TURNS  = 7;
+    private static final char RIVERS = 11;
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void restoresValuesAsOfSave() throws IOException {
+        InfoCheckpoints checkpoints = new InfoCheckpoints(dir.newFolder());
+        assertNull(checkpoints.latest());
+        assertEquals(0, checkpoints.offset());
+
+        InfoPart info = infoPart(dir.newFolder());
+        train(info, 1);
+        checkpoints.save(info, 100);
+        train(info, 2);
+        checkpoints.save(info, 200);
+
+        // changes after the save are not in the checkpoint
+        double expected[] = rootRegret(info);
+        train(info, 3);
+        checkpoints.close();
+
+        assertEquals(200, checkpoints.offset());
+
+        File restored = dir.newFolder();
+        assertEquals(200, checkpoints.restore(restored));
+        assertArrayEquals(expected, rootRegret(infoPart(restored)), 0);
+    }
+
+    @Test
+    public void keepsOnlyTheLatest() throws IOException {
+        File            checkpointDir = dir.newFolder();
+        InfoCheckpoints checkpoints   = new InfoCheckpoints(checkpointDir);
+
+        InfoPart info = infoPart(dir.newFolder());
+        for (long offset = 1; offset <= 3; offset++) {
+            train(info, offset);
+            checkpoints.save(info, offset);
+        }
+        checkpoints.await();
+
+        File files[] = checkpointDir.listFiles();
+        assertEquals(1, files.length);
+        assertEquals(checkpoints.latest(), files[0]);
+
+        checkpoints.clear();
+        checkpoints.close();
+        assertNull(checkpoints.latest());
+    }
+
+
+    //--------------------------------------------------------------------
+    private static InfoPart infoPart(File dir) {
+        return InfoPart.retrieveOrCreate(
+                dir, HOLES, FLOPS, TURNS, RIVERS, false, true);
+    }
+
+    private static void train(InfoPart info, double regret) {
+        StateTree.Node root = StateTree.headsUpRoot();
+        for (int bucket = 0; bucket < HOLES; bucket++) {
+            info.addRegret(root, bucket,
+                    new double[]{0, regret * bucket, regret});
+        }
+    }
+
+    private static double[] rootRegret(InfoPart info) {
+        StateTree.Node root = StateTree.headsUpRoot();
+
+        double regret[] = new double[ HOLES * 3 ];
+        for (int bucket = 0; bucket < HOLES; bucket++) {
+            System.arraycopy(info.infoSet(root, bucket).regret(), 0,
+                             regret, bucket * 3, 3);
+        }
+        return regret;
+    }
+}
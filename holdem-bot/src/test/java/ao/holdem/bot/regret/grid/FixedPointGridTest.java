@@ -0,0 +1,153 @@
+package ao.holdem.bot.regret.grid;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class FixedPointGridTest
+{
+    @Test
+    public void addsWithinResolution() {
+        Grid grid = new FixedShortGrid(2, 3, false);
+        grid.add(1, 2,  1.5);
+        grid.add(1, 2,  0.25);
+        grid.add(0, 0, -3.0);
+
+        assertEquals( 1.75, grid.get(1, 2), 0);
+        assertEquals(-3.0 , grid.get(0, 0), 0);
+        assertEquals( 0.0 , grid.get(1, 1), 0);
+    }
+
+    @Test
+    public void rescalesRowOnOverflow() {
+        Grid grid = new FixedShortGrid(2, 3, false);
+        grid.add(0, 0,  1.0);
+        grid.add(0, 1, -2.0);
+        grid.add(1, 0,  0.5);
+        for (int i = 0; i < 1000; i++) {
+            grid.add(0, 2, 1000);
+        }
+
+        assertEquals(1000 * 1000, grid.get(0, 2), 1000 * 1000 / 500);
+        assertEquals( 1.0, grid.get(0, 0), 32);
+        assertEquals(-2.0, grid.get(0, 1), 32);
+
+        // other rows keep their resolution
+        assertEquals(0.5, grid.get(1, 0), 0);
+    }
+
+    @Test
+    public void nodesOfRowRescaleSeparately() {
+        Grid grid = new FixedShortGrid(1, 4, new int[]{0, 0, 1, 1}, false);
+        grid.add(0, 1, 1.0);
+        grid.add(0, 2, 0.5);
+        grid.add(0, 3, 0x1p-10);
+        for (int i = 0; i < 1000; i++) {
+            grid.add(0, 0, 1000);
+        }
+
+        assertEquals(1000 * 1000, grid.get(0, 0), 1000 * 1000 / 500);
+        assertEquals(1.0, grid.get(0, 1), 32);
+
+        // the other node of the row keeps its resolution
+        assertEquals(0.5    , grid.get(0, 2), 0);
+        assertEquals(0x1p-10, grid.get(0, 3), 0);
+    }
+
+    @Test
+    public void smallAdditionsAddUpInExpectation() {
+        Grid grid = new FixedShortGrid(1, 1, false);
+        for (int i = 0; i < 100000; i++) {
+            grid.add(0, 0, 1e-5);
+        }
+        assertEquals(1.0, grid.get(0, 0), 0.05);
+    }
+
+    @Test
+    public void sameAdditionsSameValues() {
+        Grid a = new FixedIntGrid(3, 4, false);
+        Grid b = new FixedIntGrid(3, 4, false);
+        for (int i = 0; i < 10000; i++) {
+            double addend = Math.sin(i) * i;
+            a.add(i % 3, i % 4, addend);
+            b.add(i % 3, i % 4, addend);
+        }
+
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 4; col++) {
+                assertEquals(a.get(row, col), b.get(row, col), 0);
+            }
+        }
+    }
+
+    @Test
+    public void savedAndLoadedWithScale() throws IOException {
+        File file = File.createTempFile("fixed", ".short");
+        file.deleteOnExit();
+        new File(file.getPath() + ".scale").deleteOnExit();
+        new File(file.getPath() + ".ticks").deleteOnExit();
+
+        int  nodes[]  = {0, 1};
+        Grid training = new FixedShortGrid(3, 2, nodes, false);
+        training.add(2, 1, 1e6);
+        training.add(2, 0, 0.125);
+        training.add(0, 0, 0.125);
+        training.save(file);
+
+        FixedShortGrid serving = new FixedShortGrid(3, 2, nodes, true);
+        serving.load(file);
+        assertTrue(serving.isReadOnly());
+        assertEquals(training.get(2, 1), serving.get(2, 1), 0);
+        assertEquals(0.125, serving.get(2, 0), 0);
+        assertEquals(0.125, serving.get(0, 0), 0);
+    }
+
+    @Test
+    public void changesAreAsOfCall() throws IOException {
+        File file = File.createTempFile("fixed", ".int");
+        file.deleteOnExit();
+        new File(file.getPath() + ".scale").deleteOnExit();
+        new File(file.getPath() + ".ticks").deleteOnExit();
+
+        Grid grid = new FixedIntGrid(2, 2, false);
+        grid.add(0, 1, 2.0);
+
+        Grid.Changes changes = grid.changes(false);
+        grid.add(0, 1, 1.0);
+        changes.writeOver(file);
+
+        Grid saved = new FixedIntGrid(2, 2, true);
+        saved.load(file);
+        assertEquals(2.0, saved.get(0, 1), 0);
+        assertEquals(3.0, grid .get(0, 1), 0);
+    }
+
+    @Test
+    public void onlyChangedRowsAreWritten() throws IOException {
+        Grid grid = new FixedShortGrid(2, 2, false);
+        grid.add(0, 0, 1.0);
+        grid.changes(false);
+
+        for (int i = 0; i < 100; i++) {
+            grid.add(1, 1, 1000);
+        }
+
+        File file = File.createTempFile("fixed", ".short");
+        file.deleteOnExit();
+        new File(file.getPath() + ".scale").deleteOnExit();
+        new File(file.getPath() + ".ticks").deleteOnExit();
+        grid.changes(false).writeOver(file);
+
+        Grid saved = new FixedShortGrid(2, 2, true);
+        saved.load(file);
+        assertEquals(grid.get(1, 1), saved.get(1, 1), 0);
+        assertEquals(0.0, saved.get(0, 0), 0);
+    }
+}
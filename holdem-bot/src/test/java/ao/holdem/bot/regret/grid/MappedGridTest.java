@@ -0,0 +1,105 @@
+package ao.holdem.bot.regret.grid;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class MappedGridTest
+{
+    @Test
+    public void additionsArePersistedByFlush() throws IOException {
+        File file = File.createTempFile("mapped", ".double");
+        file.deleteOnExit();
+
+        MappedGrid training = new MappedGrid(3, 5, true, false);
+        training.load(file);
+        training.add(2, 4, 1.5);
+        training.add(2, 4, 1.0);
+        training.add(0, 1, -3.0);
+        training.save(file);
+
+        assertEquals(3 * 5 * 8, file.length());
+
+        MappedGrid serving = new MappedGrid(3, 5, true, true);
+        serving.load(file);
+        assertEquals( 2.5, serving.get(2, 4), 0);
+        assertEquals(-3.0, serving.get(0, 1), 0);
+        assertEquals( 0.0, serving.get(1, 1), 0);
+    }
+
+    @Test
+    public void readsStoredGridFormat() throws IOException {
+        File file = File.createTempFile("mapped", ".float");
+        file.deleteOnExit();
+
+        MappedGrid training = new MappedGrid(4, 2, false, false);
+        training.load(file);
+        training.add(3, 1, 0.25);
+        training.save(file);
+
+        StoredGrid stored = new StoredGrid(4, 2, false);
+        stored.load(file);
+        assertEquals(0.25, stored.get(3, 1), 0);
+    }
+
+    @Test
+    public void changesAreAsOfCall() throws IOException {
+        File file = File.createTempFile("mapped", ".double");
+        file.deleteOnExit();
+
+        MappedGrid training = new MappedGrid(2, 3, true, false);
+        training.load(file);
+        training.add(1, 2, 2.0);
+
+        Grid.Changes changes = training.changes(false);
+        training.add(1, 2, 1.0);
+        assertEquals(3.0, training.get(1, 2), 0);
+
+        File saved = File.createTempFile("changes", ".double");
+        saved.deleteOnExit();
+        changes.writeOver(saved);
+
+        MappedGrid serving = new MappedGrid(2, 3, true, true);
+        serving.load(saved);
+        assertEquals(2.0, serving.get(1, 2), 0);
+    }
+
+    @Test
+    public void onlyChangedStripesAreWritten() throws IOException {
+        File file = File.createTempFile("mapped", ".double");
+        file.deleteOnExit();
+
+        // a stripe per row
+        int        cols     = (1 << 20) / 8;
+        MappedGrid training = new MappedGrid(3, cols, true, false);
+        training.load(file);
+        training.add(0, 0, 1.0);
+        training.changes(false).writeOver(file);
+
+        training.add(2, 1, 5.0);
+        File saved = File.createTempFile("changes", ".double");
+        saved.deleteOnExit();
+        training.changes(false).writeOver(saved);
+
+        MappedGrid serving = new MappedGrid(3, cols, true, true);
+        serving.load(saved);
+        assertEquals(5.0, serving.get(2, 1), 0);
+        assertEquals(0.0, serving.get(0, 0), 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addBeforeLoadFails() {
+        new MappedGrid(2, 2, true, false).add(1, 1, 1.0);
+    }
+
+    @Test
+    public void missingReadOnlyFileIsEmpty() {
+        MappedGrid serving = new MappedGrid(2, 2, true, true);
+        serving.load(new File("does-not-exist.double"));
+        assertEquals(0, serving.get(1, 1), 0);
+    }
+}
@@ -0,0 +1,187 @@
+package ao.holdem.bot.regret.vector;
+
+import ao.holdem.abs.bucket.abstraction.access.odds.IBucketOdds;
+import ao.holdem.bot.regret.BestResponse;
+import ao.holdem.bot.regret.InfoPart;
+import ao.holdem.engine.eval.Eval5;
+import ao.holdem.engine.eval.Eval7;
+import ao.holdem.engine.eval.EvalBy5;
+import ao.holdem.engine.state.HeadsUpStatus;
+import ao.holdem.engine.state.tree.StateTree;
+import ao.holdem.model.act.AbstractAction;
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.chance.Deck;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class PublicChanceMinTest
+{
+    //--------------------------------------------------------------------
+    private static final long SEED   = 42;
+    private static final int  BOARDS = 32;
+    private static final int  DEALS  = 2000;
+
+    // each round up to the turn splits the previous bucket in two,
+    //  river buckets are ordered by the value of the seven cards
+    private static final int  HOLES  = 2;
+    private static final char RIVERS = (char) (7462 / 64 + 1);
+
+    private static final HandBuckets BUCKETS = new HandBuckets() {
+        @Override public void buckets(
+                long holeMask, long flopMask,
+                int turnCard, int riverCard, char into[]) {
+            Card hole[] = cards(holeMask);
+            Card flop[] = cards(flopMask);
+            Card turn   = Card.VALUES[ turnCard ];
+
+            into[0] = (char) (hole[0].rank().ordinal() +
+                              hole[1].rank().ordinal() >= 16 ? 1 : 0);
+            into[1] = (char) (into[0] * 2 + (Eval5.valueOf(
+                    hole[0], hole[1], flop[0], flop[1], flop[2])
+                            >= 1277 ? 1 : 0));
+            into[2] = (char) (into[1] * 2 + (EvalBy5.valueOf(
+                    hole[0], hole[1], flop[0], flop[1], flop[2], turn)
+                            >= 4137 ? 1 : 0));
+            into[3] = (char) (Eval7.valueOf(holeMask | flopMask |
+                    (1L << turnCard) | (1L << riverCard)) / 64);
+        }};
+
+    private static final IBucketOdds ODDS = new IBucketOdds() {
+        @Override public double nonLossProb(char index, char vsIndex) {
+            return index > vsIndex ? 1.0 : index == vsIndex ? 0.5 : 0.0;
+        }};
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void terminalValuesMatchPairwise() {
+        PublicChanceMin min =
+                new PublicChanceMin(null, BUCKETS, new Random(SEED));
+
+        long flopMask = (1L << 3) | (1L << 17) | (1L << 30);
+        int  turn     = 44;
+        int  river    = 45;
+        long board    = flopMask | (1L << turn) | (1L << river);
+        min.deal(flopMask, turn, river);
+
+        Random rand        = new Random(SEED);
+        int    hands       = PublicChanceMin.hands();
+        double oppReach[]  = new double[ hands ];
+        for (int i = 0; i < hands; i++) {
+            oppReach[ i ] = rand.nextInt(4) == 0 ? 0 : rand.nextDouble();
+        }
+
+        StateTree.Node showdown = StateTree.headsUpRoot();
+        while (showdown.status() == HeadsUpStatus.IN_PROGRESS) {
+            showdown = showdown.kid(AbstractAction.CHECK_CALL);
+        }
+        StateTree.Node fold = StateTree.headsUpRoot().kid(
+                AbstractAction.QUIT_FOLD);
+
+        double values[] = new double[ hands ];
+        for (boolean forDealer : new boolean[]{true, false}) {
+            min.evaluate(showdown, forDealer, oppReach, values);
+            for (int h = 0; h < hands; h++) {
+                double expected = 0;
+                for (int o = 0; o < hands; o++) {
+                    if ((min.holeMask(h) & min.holeMask(o)) != 0) continue;
+                    expected += oppReach[ o ] * Integer.signum(
+                            Eval7.valueOf(min.holeMask(h) | board) -
+                            Eval7.valueOf(min.holeMask(o) | board));
+                }
+                assertEquals(expected * showdown.stakes() / 990,
+                             values[ h ], 1e-9);
+            }
+
+            min.evaluate(fold, forDealer, oppReach, values);
+            double payoff = fold.status() == HeadsUpStatus.DEALER_WINS
+                            ?  fold.dealeeCommit()
+                            : -fold.dealerCommit();
+            for (int h = 0; h < hands; h++) {
+                double expected = 0;
+                for (int o = 0; o < hands; o++) {
+                    if ((min.holeMask(h) & min.holeMask(o)) != 0) continue;
+                    expected += oppReach[ o ];
+                }
+                assertEquals((forDealer ? payoff : -payoff) *
+                             expected / 990, values[ h ], 1e-9);
+            }
+        }
+    }
+
+
+    @Test
+    public void trainingReducesExploitability() throws IOException {
+        InfoPart info = InfoPart.retrieveOrCreate(dir.newFolder(),
+                HOLES, (char) (HOLES * 2), (char) (HOLES * 4),
+                RIVERS, false, true);
+
+        char dealer[][] = new char[ DEALS ][ 4 ];
+        char dealee[][] = new char[ DEALS ][ 4 ];
+        deal(SEED, dealer, dealee);
+
+        char scoreDealer[][] = new char[ DEALS ][ 4 ];
+        char scoreDealee[][] = new char[ DEALS ][ 4 ];
+        deal(SEED + 1, scoreDealer, scoreDealee);
+
+        BestResponse        response = new BestResponse(info, ODDS, 2);
+        BestResponse.Result initial  = response.evaluate(
+                dealer, dealee, scoreDealer, scoreDealee);
+
+        PublicChanceMin min =
+                new PublicChanceMin(info, BUCKETS, new Random(SEED));
+        for (int i = 0; i < BOARDS; i++) {
+            min.iterate();
+        }
+
+        BestResponse.Result trained = response.evaluate(
+                dealer, dealee, scoreDealer, scoreDealee);
+        assertTrue(trained + " vs " + initial,
+                   trained.exploitability() < initial.exploitability() / 2);
+    }
+
+
+    //--------------------------------------------------------------------
+    private static void deal(long seed, char dealer[][], char dealee[][]) {
+        Random rand = new Random(seed);
+        for (int i = 0; i < dealer.length; i++) {
+            Deck shuffled = new Deck(rand);
+            Card deck[]   = new Card[ 9 ];
+            for (int j = 0; j < deck.length; j++) {
+                deck[ j ] = shuffled.nextCard();
+            }
+
+            long flop = mask(deck[4]) | mask(deck[5]) | mask(deck[6]);
+            BUCKETS.buckets(mask(deck[0]) | mask(deck[1]), flop,
+                    deck[7].ordinal(), deck[8].ordinal(), dealer[i]);
+            BUCKETS.buckets(mask(deck[2]) | mask(deck[3]), flop,
+                    deck[7].ordinal(), deck[8].ordinal(), dealee[i]);
+        }
+    }
+
+    private static long mask(Card card) {
+        return 1L << card.ordinal();
+    }
+
+    private static Card[] cards(long mask) {
+        Card cards[] = new Card[ Long.bitCount(mask) ];
+        for (int i = 0; i < cards.length; i++) {
+            cards[ i ] = Card.VALUES[ Long.numberOfTrailingZeros(mask) ];
+            mask &= mask - 1;
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,309 @@
+package ao.holdem.canon;
+
+import ao.holdem.canon.flop.Flop;
+import ao.holdem.canon.river.River;
+import ao.holdem.canon.turn.Turn;
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.canon.CanonCard;
+import ao.holdem.model.card.canon.Order;
+import ao.holdem.model.card.canon.hole.CanonHole;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Computes the same canonical indexes as CanonHole, Flop, Turn and
+ *  River, but straight from card masks and without allocating.
+ *
+ * Cards are given as masks with one bit per Card.ordinal(), the
+ *  turn and river are single cards so they are given as ordinals
+ *  (turn and river indexes depend on which card came on which street).
+ *
+ * The inverse goes from a canonical index to one of the deals that
+ *  have it, as card ordinals packed six bits apiece into a long:
+ *  hole, hole, flop, flop, flop, turn, river from the lowest bits up.
+ *
+ * Follows the same steps as the object path: the suit Order of the
+ *  hole is refined by each street, and the cards seen so far are
+ *  re-expressed under the refined Order.  Order.refine allocates for
+ *  some orders, so its results are cached here.
+ *
+ * Safe to use from any thread.
+ */
+public enum CanonIndexer
+{;
+    //--------------------------------------------------------------------
+    private static final Card    CARDS[]   = Card.VALUES;
+    private static final int     CARD_BITS = 6;
+    private static final int     CARD_MASK = (1 << CARD_BITS) - 1;
+
+    // [order][with], racy but every thread computes the same value
+    private static final Order   REFINED[][] =
+            new Order[ Order.VALUES.length ][ Order.VALUES.length ];
+
+
+    //--------------------------------------------------------------------
+    public static char holeIndex(long holeMask)
+    {
+        return hole(holeMask).canonIndex();
+    }
+
+    public static int flopIndex(long holeMask, long flopMask)
+    {
+        CanonHole hole = hole(holeMask);
+
+        Card  flopA = CARDS[ lowest(flopMask) ];
+        Card  flopB = CARDS[ lowest(flopMask = dropLowest(flopMask)) ];
+        Card  flopC = CARDS[ lowest(            dropLowest(flopMask)) ];
+
+        Order order = flopOrder(hole, flopA, flopB, flopC);
+        return flopIndex(hole, order, flopA, flopB, flopC);
+    }
+
+    public static int turnIndex(
+            long holeMask, long flopMask, int turnCard)
+    {
+        CanonHole hole  = hole(holeMask);
+
+        Card      flopA = CARDS[ lowest(flopMask) ];
+        Card      flopB = CARDS[ lowest(flopMask = dropLowest(flopMask)) ];
+        Card      flopC = CARDS[ lowest(            dropLowest(flopMask)) ];
+        Card      turn  = CARDS[ turnCard ];
+
+        Order     flopOrder = flopOrder(hole, flopA, flopB, flopC);
+        Order     turnOrder = refine(flopOrder, Order.suited(turn.suit()));
+
+        return Turn.canonIndex(
+                flopIndex(hole, flopOrder, flopA, flopB, flopC),
+                turnOrder.asCanon(turn));
+    }
+
+    public static long riverIndex(
+            long holeMask, long flopMask, int turnCard, int riverCard)
+    {
+        CanonHole hole  = hole(holeMask);
+
+        Card      flopA = CARDS[ lowest(flopMask) ];
+        Card      flopB = CARDS[ lowest(flopMask = dropLowest(flopMask)) ];
+        Card      flopC = CARDS[ lowest(            dropLowest(flopMask)) ];
+        Card      turn  = CARDS[ turnCard  ];
+        Card      river = CARDS[ riverCard ];
+
+        Order     flopOrder  = flopOrder(hole, flopA, flopB, flopC);
+        Order     turnOrder  = refine(flopOrder,
+                                      Order.suited(turn .suit()));
+        Order     riverOrder = refine(turnOrder,
+                                      Order.suited(river.suit()));
+
+        CanonCard canonTurn  = turnOrder.asCanon(turn);
+        int       turnIndex  = Turn.canonIndex(
+                flopIndex(hole, flopOrder, flopA, flopB, flopC),
+                canonTurn);
+
+        // the hole is re-expressed under each order for as long as
+        //  any of its cards are wild, see CanonHole.asWild
+        CanonCard holeA = hole.canonCards()[0];
+        CanonCard holeB = hole.canonCards()[1];
+        if (holeA.isWild() || holeB.isWild()) {
+            holeA = flopOrder.asCanon(hole.a());
+            holeB = flopOrder.asCanon(hole.b());
+            if (holeA.isWild() || holeB.isWild()) {
+                holeA = turnOrder.asCanon(hole.a());
+                holeB = turnOrder.asCanon(hole.b());
+                if (holeA.isWild() || holeB.isWild()) {
+                    holeA = riverOrder.asCanon(hole.a());
+                    holeB = riverOrder.asCanon(hole.b());
+                }
+            }
+        }
+
+        return River.canonIndex(turnIndex,
+                holeA, holeB,
+                riverOrder.asCanon(flopA),
+                riverOrder.asCanon(flopB),
+                riverOrder.asCanon(flopC),
+                canonTurn.isWild()
+                ? riverOrder.asCanon(turn)
+                : canonTurn,
+                riverOrder.asCanon(river));
+    }
+
+
+    //--------------------------------------------------------------------
+    private static CanonHole hole(long holeMask)
+    {
+        return CanonHole.create(
+                CARDS[ lowest(           holeMask)  ],
+                CARDS[ lowest(dropLowest(holeMask)) ]);
+    }
+
+    private static Order flopOrder(
+            CanonHole hole, Card flopA, Card flopB, Card flopC)
+    {
+        return refine(hole.order(),
+                      Flop.orderSuitsBy(flopA, flopB, flopC));
+    }
+
+    private static int flopIndex(
+            CanonHole hole, Order order,
+            Card flopA, Card flopB, Card flopC)
+    {
+        CanonCard holeA = hole.canonCards()[0];
+        CanonCard holeB = hole.canonCards()[1];
+        if (holeA.isWild() || holeB.isWild()) {
+            holeA = order.asCanon(hole.a());
+            holeB = order.asCanon(hole.b());
+            if (holeA.ordinal() > holeB.ordinal()) {
+                CanonCard swap = holeA;
+                holeA = holeB;
+                holeB = swap;
+            }
+        }
+
+        // sort by CanonCard order
+        CanonCard a = order.asCanon(flopA);
+        CanonCard b = order.asCanon(flopB);
+        CanonCard c = order.asCanon(flopC);
+        if (a.ordinal() > b.ordinal()) { CanonCard t = a; a = b; b = t; }
+        if (b.ordinal() > c.ordinal()) { CanonCard t = b; b = c; c = t; }
+        if (a.ordinal() > b.ordinal()) { CanonCard t = a; a = b; b = t; }
+
+        return Flop.canonIndex(hole, holeA, holeB, a, b, c);
+    }
+
+    private static Order refine(Order order, Order with)
+    {
+        Order refined = REFINED[ order.ordinal() ][ with.ordinal() ];
+        if (refined == null) {
+            refined = order.refine( with );
+            REFINED[ order.ordinal() ][ with.ordinal() ] = refined;
+        }
+        return refined;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param canonHole canonical hole index
+     * @return packed cards of one hole with that index
+     */
+    public static long holeCards(char canonHole)
+    {
+        CanonHole hole = CanonHole.create( canonHole );
+        return pack(pack(0, 0, hole.a().ordinal()), 1, hole.b().ordinal());
+    }
+
+    /**
+     * Searches the flops dealt to the canonical hole, so this
+     *  takes up to C(50, 3) flopIndex calls.
+     *
+     * @param canonFlop canonical flop index
+     * @return packed cards of one deal with that index
+     */
+    public static long flopCards(int canonFlop)
+    {
+        long hole     = holeCards( Flop.holeOf(canonFlop) );
+        long holeMask = holeMask( hole );
+
+        for (int a = 0; a < Card.COUNT; a++) {
+            if ((holeMask & 1L << a) != 0) continue;
+            for (int b = a + 1; b < Card.COUNT; b++) {
+                if ((holeMask & 1L << b) != 0) continue;
+                for (int c = b + 1; c < Card.COUNT; c++) {
+                    if ((holeMask & 1L << c) != 0) continue;
+
+                    long flopMask = 1L << a | 1L << b | 1L << c;
+                    if (flopIndex(holeMask, flopMask) == canonFlop) {
+                        return pack(pack(pack(hole, 2, a), 3, b), 4, c);
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("flop: " + canonFlop);
+    }
+
+    /**
+     * @param canonTurn canonical turn index
+     * @return packed cards of one deal with that index
+     */
+    public static long turnCards(int canonTurn)
+    {
+        long flop     = flopCards( Turn.flopOf(canonTurn) );
+        long holeMask = holeMask( flop );
+        long flopMask = flopMask( flop );
+
+        for (int turn = 0; turn < Card.COUNT; turn++) {
+            if (((holeMask | flopMask) & 1L << turn) != 0) continue;
+
+            if (turnIndex(holeMask, flopMask, turn) == canonTurn) {
+                return pack(flop, 5, turn);
+            }
+        }
+        throw new IllegalArgumentException("turn: " + canonTurn);
+    }
+
+    /**
+     * @param canonRiver canonical river index
+     * @return packed cards of one deal with that index
+     */
+    public static long riverCards(long canonRiver)
+    {
+        long turn     = turnCards( River.turnOf(canonRiver) );
+        long holeMask = holeMask( turn );
+        long flopMask = flopMask( turn );
+        int  turnCard = card(turn, 5);
+
+        for (int river = 0; river < Card.COUNT; river++) {
+            if (((holeMask | flopMask | 1L << turnCard) & 1L << river)
+                    != 0) continue;
+
+            if (riverIndex(holeMask, flopMask, turnCard, river)
+                    == canonRiver) {
+                return pack(turn, 6, river);
+            }
+        }
+        throw new IllegalArgumentException("river: " + canonRiver);
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param packedCards as returned by the inverse lookups
+     * @param position 0 and 1 for the hole, 2 to 4 for the flop,
+     *                  5 for the turn, 6 for the river
+     * @return Card.ordinal() of the card at that position
+     */
+    public static int card(long packedCards, int position)
+    {
+        return (int) (packedCards >>> (position * CARD_BITS)) & CARD_MASK;
+    }
+
+    public static long holeMask(long packedCards)
+    {
+        return 1L << card(packedCards, 0) |
+               1L << card(packedCards, 1);
+    }
+
+    public static long flopMask(long packedCards)
+    {
+        return 1L << card(packedCards, 2) |
+               1L << card(packedCards, 3) |
+               1L << card(packedCards, 4);
+    }
+
+    private static long pack(long packedCards, int position, int card)
+    {
+        return packedCards | (long) card << (position * CARD_BITS);
+    }
+
+
+    //--------------------------------------------------------------------
+    private static int lowest(long mask)
+    {
+        return Long.numberOfTrailingZeros( mask );
+    }
+
+    private static long dropLowest(long mask)
+    {
+        return mask & (mask - 1);
+    }
+}
@@ -0,0 +1,46 @@
+package ao.holdem.canon.enumeration;
+
+import ao.holdem.model.card.canon.base.CanonIndexed;
+import ao.util.pass.Filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * UniqueFilter that can be shared between threads, for the parallel
+ *  forms of HandEnum.  Exactly one of the threads that see a given
+ *  canonical index is accepted.
+ *
+ * Unlike UniqueFilter, the number of canonical indexes must be known
+ *  up front, it takes one bit for each.
+ */
+public class ConcurrentUniqueFilter<T extends CanonIndexed>
+        implements Filter<T>
+{
+    //--------------------------------------------------------------------
+    private final AtomicLongArray SEEN;
+
+
+    //--------------------------------------------------------------------
+    public ConcurrentUniqueFilter(long size) {
+        SEEN = new AtomicLongArray((int) ((size + 63) >>> 6));
+    }
+
+
+    //--------------------------------------------------------------------
+    public boolean accept(T indexed)
+    {
+        long index = indexed.packedCanonIndex();
+        int  word  = (int) (index >>> 6);
+        long bit   = 1L << index;
+
+        long seen;
+        do {
+            seen = SEEN.get( word );
+            if ((seen & bit) != 0) return false;
+        }
+        while (! SEEN.compareAndSet(word, seen, seen | bit));
+        return true;
+    }
+}
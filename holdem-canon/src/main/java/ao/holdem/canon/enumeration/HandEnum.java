@@ -11,13 +11,36 @@ import ao.util.math.stats.FastIntCombiner.CombinationVisitor3;
 import ao.util.pass.Filter;
 import ao.util.pass.Traverser;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static ao.util.data.Arrs.swap;
 
 /**
  * Date: Jan 21, 2009
  * Time: 12:37:11 PM
  *
- * NOTE: not nestable and not threadsafe
+ * Every enumeration works on its own copy of the deck, so they are
+ *  nestable, and can run on many threads at once as long as the
+ *  given filters and traversers can.
+ *
+ * An enumeration can be split by the hole cards it starts from: the
+ *  HOLES hole card pairs are numbered in the order they are dealt,
+ *  and a range of them yields exactly the hands that the full
+ *  enumeration yields from those holes, in the same order.
+ *  Each flop, turn, and river is yielded together with the others
+ *  from the same hole, so per-flop or per-turn state that is flushed
+ *  when the flop or turn changes works within a range.
+ *
+ * The parallel forms run ranges of holes on a thread pool, their
+ *  filters and traversers must be threadsafe (see
+ *  ConcurrentUniqueFilter).
  */
 public class HandEnum
 {
@@ -26,7 +49,20 @@ public class HandEnum
 
 
     //--------------------------------------------------------------------
-    private static final Card[] CARDS = Card.values();
+    /**
+     * Number of hole card pairs, enumerations are split by ranges of these.
+     */
+    public static final int HOLES = Card.COUNT * (Card.COUNT - 1) / 2;
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Enumerates the holes in [fromHole, toHole).
+     */
+    public static interface Range
+    {
+        public void enumerate(int fromHole, int toHole);
+    }
 
 
     //--------------------------------------------------------------------
@@ -39,22 +75,45 @@ public class HandEnum
     public static void holes(
             final Filter<CanonHole> holeFilter,
             final Traverser<CanonHole> holeTraverser)
+    {
+        holes(0, HOLES, holeFilter, holeTraverser);
+    }
+    public static void holes(
+            int                  fromHole,
+            int                  toHole,
+            Filter<CanonHole>    holeFilter,
+            Traverser<CanonHole> holeTraverser)
+    {
+        holes(Card.values(), fromHole, toHole,
+              holeFilter, holeTraverser);
+    }
+    private static void holes(
+            final Card                 cards[],
+            final int                  fromHole,
+            final int                  toHole,
+            final Filter<CanonHole>    holeFilter,
+            final Traverser<CanonHole> holeTraverser)
     {
         new FastIntCombiner(Card.INDEXES, Card.INDEXES.length)
                 .combine(new CombinationVisitor2() {
+            private int nextHole = 0;
+
             public void visit(int holeA, int holeB)
             {
+                int hole = nextHole++;
+                if (hole < fromHole || hole >= toHole) return;
+
                 CanonHole canonHole = CanonHole.create(
-                        CARDS[holeA], CARDS[holeB]);
+                        cards[holeA], cards[holeB]);
                 if (holeFilter.accept(canonHole))
                 {
-                    swap(CARDS, holeB, 51);
-                    swap(CARDS, holeA, 51-1);
+                    swap(cards, holeB, 51);
+                    swap(cards, holeA, 51-1);
 
                     holeTraverser.traverse( canonHole );
 
-                    swap(CARDS, holeA, 51-1);
-                    swap(CARDS, holeB, 51  );
+                    swap(cards, holeA, 51-1);
+                    swap(cards, holeB, 51  );
                 }
             }
         });
@@ -68,31 +127,71 @@ public class HandEnum
                       new UniqueFilter<Flop>(),
                       flopTraverser);
     }
+    public static void uniqueFlops(
+            Traverser<Flop> flopTraverser, int nThreads)
+    {
+        flops(new ConcurrentUniqueFilter<CanonHole>(CanonHole.CANONS),
+              new ConcurrentUniqueFilter<Flop>     (Flop.CANONS),
+              flopTraverser, nThreads);
+    }
+    public static void flops(
+            final Filter<CanonHole> holeFilter,
+            final Filter<Flop>      flopFilter,
+            final Traverser<Flop>   flopTraverser)
+    {
+        flops(0, HOLES, holeFilter, flopFilter, flopTraverser);
+    }
+    public static void flops(
+            final Filter<CanonHole> holeFilter,
+            final Filter<Flop>      flopFilter,
+            final Traverser<Flop>   flopTraverser,
+            int                     nThreads)
+    {
+        split(new Range() {
+            public void enumerate(int fromHole, int toHole) {
+                flops(fromHole, toHole,
+                      holeFilter, flopFilter, flopTraverser);
+            }}, nThreads);
+    }
     public static void flops(
+            int               fromHole,
+            int               toHole,
+            Filter<CanonHole> holeFilter,
+            Filter<Flop>      flopFilter,
+            Traverser<Flop>   flopTraverser)
+    {
+        flops(Card.values(), fromHole, toHole,
+              holeFilter, flopFilter, flopTraverser);
+    }
+    private static void flops(
+            final Card              cards[],
+            int                     fromHole,
+            int                     toHole,
             final Filter<CanonHole> holeFilter,
             final Filter<Flop>      flopFilter,
             final Traverser<Flop>   flopTraverser)
     {
-        holes(holeFilter, new Traverser<CanonHole>() {
+        holes(cards, fromHole, toHole,
+              holeFilter, new Traverser<CanonHole>() {
             public void traverse(final CanonHole canonHole) {
                 new FastIntCombiner(
                         Card.INDEXES, Card.INDEXES.length - 2).combine(
                         new CombinationVisitor3() {
                 public void visit(int flopA, int flopB, int flopC) {
                     Flop flop = new Flop(canonHole,
-                        CARDS[flopA], CARDS[flopB], CARDS[flopC]);
+                        cards[flopA], cards[flopB], cards[flopC]);
 
                     if (flopFilter.accept(flop))
                     {
-                        swap(CARDS, flopC, 51-2);
-                        swap(CARDS, flopB, 51-3);
-                        swap(CARDS, flopA, 51-4);
+                        swap(cards, flopC, 51-2);
+                        swap(cards, flopB, 51-3);
+                        swap(cards, flopA, 51-4);
 
                         flopTraverser.traverse(flop);
 
-                        swap(CARDS, flopA, 51-4);
-                        swap(CARDS, flopB, 51-3);
-                        swap(CARDS, flopC, 51-2);
+                        swap(cards, flopA, 51-4);
+                        swap(cards, flopB, 51-3);
+                        swap(cards, flopC, 51-2);
                     }
                 }
             });
@@ -109,28 +208,72 @@ public class HandEnum
                       new UniqueFilter<Turn>(),
                       turnTraverser);
     }
+    public static void uniqueTurns(
+            Traverser<Turn> turnTraverser, int nThreads)
+    {
+        turns(new ConcurrentUniqueFilter<CanonHole>(CanonHole.CANONS),
+              new ConcurrentUniqueFilter<Flop>     (Flop.CANONS),
+              new ConcurrentUniqueFilter<Turn>     (Turn.CANONS),
+              turnTraverser, nThreads);
+    }
     public static void turns(
             final Filter<CanonHole> holeFilter,
             final Filter<Flop>      flopFilter,
             final Filter<Turn>      turnFilter,
             final Traverser<Turn>   turnTraverser)
     {
-        flops(holeFilter, flopFilter, new Traverser<Flop>() {
+        turns(0, HOLES, holeFilter, flopFilter, turnFilter, turnTraverser);
+    }
+    public static void turns(
+            final Filter<CanonHole> holeFilter,
+            final Filter<Flop>      flopFilter,
+            final Filter<Turn>      turnFilter,
+            final Traverser<Turn>   turnTraverser,
+            int                     nThreads)
+    {
+        split(new Range() {
+            public void enumerate(int fromHole, int toHole) {
+                turns(fromHole, toHole,
+                      holeFilter, flopFilter, turnFilter, turnTraverser);
+            }}, nThreads);
+    }
+    public static void turns(
+            int               fromHole,
+            int               toHole,
+            Filter<CanonHole> holeFilter,
+            Filter<Flop>      flopFilter,
+            Filter<Turn>      turnFilter,
+            Traverser<Turn>   turnTraverser)
+    {
+        turns(Card.values(), fromHole, toHole,
+              holeFilter, flopFilter, turnFilter, turnTraverser);
+    }
+    private static void turns(
+            final Card              cards[],
+            int                     fromHole,
+            int                     toHole,
+            final Filter<CanonHole> holeFilter,
+            final Filter<Flop>      flopFilter,
+            final Filter<Turn>      turnFilter,
+            final Traverser<Turn>   turnTraverser)
+    {
+        flops(cards, fromHole, toHole, holeFilter, flopFilter,
+              new Traverser<Flop>() {
             public void traverse(Flop flop) {
                 for (int turnCardIndex = 0;
                          turnCardIndex <= 51 - 5;
                          turnCardIndex++)
                 {
-                    Card turnCard = CARDS[ turnCardIndex ];
+                    Card turnCard = cards[ turnCardIndex ];
                     Turn turn     = flop.addTurn(turnCard);
 
                     if (turnFilter.accept(turn))
                     {
-                        swap(CARDS, turnCardIndex, 51 - 5);
+                        swap(cards, turnCardIndex, 51 - 5);
 
                         turnTraverser.traverse(turn);
 
-                        swap(CARDS, turnCardIndex, 51 - 5);
+                        swap(cards, turnCardIndex, 51 - 5);
                     }
                 }
             }
@@ -148,6 +291,15 @@ public class HandEnum
                new UniqueFilter<River>(),
                riverTraverser);
     }
+    public static void uniqueRivers(
+            Traverser<River> riverTraverser, int nThreads)
+    {
+        rivers(new ConcurrentUniqueFilter<CanonHole>(CanonHole.CANONS),
+               new ConcurrentUniqueFilter<Flop>     (Flop.CANONS),
+               new ConcurrentUniqueFilter<Turn>     (Turn.CANONS),
+               new ConcurrentUniqueFilter<River>    (River.CANONS),
+               riverTraverser, nThreads);
+    }
     public static void rivers(
             final Filter<CanonHole> holeFilter,
             final Filter<Flop>      flopFilter,
@@ -155,14 +307,53 @@ public class HandEnum
             final Filter<River>     riverFilter,
             final Traverser<River>  riverTraverser)
     {
-        turns(holeFilter, flopFilter, turnFilter,
+        rivers(0, HOLES, holeFilter, flopFilter,
+               turnFilter, riverFilter, riverTraverser);
+    }
+    public static void rivers(
+            final Filter<CanonHole> holeFilter,
+            final Filter<Flop>      flopFilter,
+            final Filter<Turn>      turnFilter,
+            final Filter<River>     riverFilter,
+            final Traverser<River>  riverTraverser,
+            int                     nThreads)
+    {
+        split(new Range() {
+            public void enumerate(int fromHole, int toHole) {
+                rivers(fromHole, toHole, holeFilter, flopFilter,
+                       turnFilter, riverFilter, riverTraverser);
+            }}, nThreads);
+    }
+    public static void rivers(
+            int               fromHole,
+            int               toHole,
+            Filter<CanonHole> holeFilter,
+            Filter<Flop>      flopFilter,
+            Filter<Turn>      turnFilter,
+            Filter<River>     riverFilter,
+            Traverser<River>  riverTraverser)
+    {
+        rivers(Card.values(), fromHole, toHole, holeFilter, flopFilter,
+               turnFilter, riverFilter, riverTraverser);
+    }
+    private static void rivers(
+            final Card              cards[],
+            int                     fromHole,
+            int                     toHole,
+            final Filter<CanonHole> holeFilter,
+            final Filter<Flop>      flopFilter,
+            final Filter<Turn>      turnFilter,
+            final Filter<River>     riverFilter,
+            final Traverser<River>  riverTraverser)
+    {
+        turns(cards, fromHole, toHole, holeFilter, flopFilter, turnFilter,
                       new Traverser<Turn>() {
             public void traverse(Turn turn) {
                 for (int riverCardIndex  = 0;
                          riverCardIndex <= 51 - 6;
                          riverCardIndex++)
                 {
-                    Card  riverCard  = CARDS[ riverCardIndex ];
+                    Card  riverCard  = cards[ riverCardIndex ];
                     River river      = turn.addRiver( riverCard );
 
                     if (riverFilter.accept(river))
@@ -173,4 +364,42 @@ public class HandEnum
             }
         });
     }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Runs the given range over all holes, one hole at a time on
+     *  each of nThreads threads.  Holes are handed out in order, so
+     *  the threads stay close to each other in the enumeration.
+     *
+     * @param range enumerates a range of holes, called concurrently
+     * @param nThreads number of threads to enumerate on
+     */
+    public static void split(final Range range, int nThreads)
+    {
+        final AtomicInteger nextHole = new AtomicInteger(0);
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for (int t = 0; t < nThreads; t++) {
+            tasks.add(new Callable<Void>() {
+                public Void call() throws Exception {
+                    int hole;
+                    while ((hole = nextHole.getAndIncrement()) < HOLES) {
+                        range.enumerate(hole, hole + 1);
+                    }
+                    return null;
+                }});
+        }
+
+        ExecutorService exec = Executors.newFixedThreadPool(nThreads);
+        try {
+            for (Future<Void> done : exec.invokeAll( tasks )) {
+                done.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new Error( e );
+        } finally {
+            exec.shutdown();
+        }
+    }
 }
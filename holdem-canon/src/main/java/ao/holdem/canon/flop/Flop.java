@@ -129,15 +129,53 @@ public class Flop implements CanonIndexed
 
     private int computeCanonIndex()
     {
-        return FlopLookup.globalOffset(HOLE_CARDS, FLOP_CASE) +
-               subIndex();
+        return canonIndex(HOLE_CARDS, FLOP_CASE,
+                          HOLE[0], HOLE[1], FLOP[0], FLOP[1], FLOP[2]);
     }
-    private int subIndex()
+
+    /**
+     * Canonical index without building a Flop, for use by CanonIndexer.
+     *
+     * @param hole canonical hole
+     * @param holeA canonical hole cards under the refined order,
+     * @param holeB  in CanonCard order
+     * @param flopA canonical flop cards under the refined order,
+     * @param flopB  in CanonCard order
+     * @param flopC
+     * @return same as new Flop(..).canonIndex()
+     */
+    public static int canonIndex(
+            CanonHole hole,
+            CanonCard holeA, CanonCard holeB,
+            CanonCard flopA, CanonCard flopB, CanonCard flopC)
+    {
+        return canonIndex(hole,
+                FlopCase.newInstance(hole.paired(),
+                        holeA.suit(), holeB.suit(),
+                        flopA.suit(), flopB.suit(), flopC.suit()),
+                holeA, holeB, flopA, flopB, flopC);
+    }
+
+    private static int canonIndex(
+            CanonHole hole,
+            FlopCase  flopCase,
+            CanonCard holeA, CanonCard holeB,
+            CanonCard flopA, CanonCard flopB, CanonCard flopC)
+    {
+        return FlopLookup.globalOffset(hole, flopCase) +
+               flopCase.subIndex(
+                    holeA.rank().ordinal(), holeB.rank().ordinal(),
+                    flopA.rank().ordinal(), flopB.rank().ordinal(),
+                    flopC.rank().ordinal());
+    }
+
+    /**
+     * @param canonFlop canonical flop index
+     * @return canonical index of the hole it was dealt to
+     */
+    public static char holeOf(int canonFlop)
     {
-        return FLOP_CASE.subIndex(
-                HOLE[0].rank().ordinal(), HOLE[1].rank().ordinal(),
-                FLOP[0].rank().ordinal(), FLOP[1].rank().ordinal(),
-                FLOP[2].rank().ordinal());
+        return FlopLookup.holeOf(canonFlop);
     }
 
 
@@ -223,7 +261,7 @@ public class Flop implements CanonIndexed
 
 
     //--------------------------------------------------------------------
-    private static Order orderSuitsBy(
+    public static Order orderSuitsBy(
             Card flopA, Card flopB, Card flopC)
     {
         // sort by rank
@@ -29,6 +29,9 @@ import java.util.Arrays;
     private static final int  OFFSETS[][] =
             retrieveOrCalculateOffsets();
 
+    // first canonical flop of each canonical hole
+    private static final int  HOLE_STARTS[] = computeHoleStarts();
+
 
     //--------------------------------------------------------------------
     private static int[][] retrieveOrCalculateOffsets()
@@ -133,6 +136,30 @@ import java.util.Arrays;
     }
 
 
+    //--------------------------------------------------------------------
+    private static int[] computeHoleStarts()
+    {
+        int starts[] = new int[ OFFSETS.length ];
+        for (int hole = 0; hole < OFFSETS.length; hole++) {
+            int start = Integer.MAX_VALUE;
+            for (int offset : OFFSETS[ hole ]) {
+                if (offset != -1) {
+                    start = Math.min(start, offset);
+                }
+            }
+            starts[ hole ] = start;
+        }
+        return starts;
+    }
+
+    // holes are assigned flop offsets in canonical order
+    public static char holeOf(int canonFlop)
+    {
+        int found = Arrays.binarySearch(HOLE_STARTS, canonFlop);
+        return (char) (found >= 0 ? found : -found - 2);
+    }
+
+
     //--------------------------------------------------------------------
     public static int globalOffset(CanonHole hole, FlopCase flopCase)
     {
@@ -39,34 +39,11 @@ public class River implements CanonIndexed
         RIVER            = order.asCanon(riverCard);
 
         {
-            int precedences = 0, offset = 0;
-            if (RIVER.suit() == hole[0].suit()) {
-                precedences++;
-                if (RIVER.rank().comesAfter( hole[0].rank() )) offset++;
-            }
-            if (RIVER.suit() == hole[1].suit()) {
-                precedences++;
-                if (RIVER.rank().comesAfter( hole[1].rank() )) offset++;
-            }
-            if (RIVER.suit() == flop[0].suit()) {
-                precedences++;
-                if (RIVER.rank().comesAfter( flop[0].rank() )) offset++;
-            }
-            if (RIVER.suit() == flop[1].suit()) {
-                precedences++;
-                if (RIVER.rank().comesAfter( flop[1].rank() )) offset++;
-            }
-            if (RIVER.suit() == flop[2].suit()) {
-                precedences++;
-                if (RIVER.rank().comesAfter( flop[2].rank() )) offset++;
-            }
-            if (RIVER.suit() == turn.suit()) {
-                precedences++;
-                if (RIVER.rank().comesAfter( turn.rank() )) offset++;
-            }
-            RANK_OFFSET = offset;
+            int preceding = preceding(RIVER,
+                    hole[0], hole[1], flop[0], flop[1], flop[2], turn);
+            RANK_OFFSET = preceding & OFFSET_MASK;
             CASE        = RiverCase.valueOf(
-                            RIVER.suit(), precedences);
+                            RIVER.suit(), preceding >>> PRECEDENCE_SHIFT);
         }
 
         TURN_CARDS = turnCards;
@@ -74,6 +51,30 @@ public class River implements CanonIndexed
     }
 
 
+    //--------------------------------------------------------------------
+    // number of cards of the same suit as the river (high bits), and
+    //  how many of those the river comes after (low bits)
+    private static final int PRECEDENCE_SHIFT = 4;
+    private static final int OFFSET_MASK      = (1 << PRECEDENCE_SHIFT) - 1;
+
+    private static int preceding(
+            CanonCard river,
+            CanonCard holeA, CanonCard holeB,
+            CanonCard flopA, CanonCard flopB, CanonCard flopC,
+            CanonCard turn)
+    {
+        return preceding(river, holeA) + preceding(river, holeB) +
+               preceding(river, flopA) + preceding(river, flopB) +
+               preceding(river, flopC) + preceding(river, turn);
+    }
+    private static int preceding(CanonCard river, CanonCard other)
+    {
+        if (river.suit() != other.suit()) return 0;
+        return (1 << PRECEDENCE_SHIFT) |
+               (river.rank().comesAfter( other.rank() ) ? 1 : 0);
+    }
+
+
     //--------------------------------------------------------------------
     public RiverCase riverCase()
     {
@@ -100,16 +101,63 @@ public class River implements CanonIndexed
         return canonIndex;
     }
     private long calcCanonIndex()
+    {
+        return canonIndex(TURN_CARDS.canonIndex(),
+                          CASE, RIVER.rank().ordinal(), RANK_OFFSET);
+    }
+    private static long canonIndex(
+            int       canonTurn,
+            RiverCase riverCase,
+            int       rank,
+            int       rankOffset)
     {
         long globalOffset =
-                RiverLookup.offset(TURN_CARDS.canonIndex());
+                RiverLookup.offset(canonTurn);
         RiverCaseSet caseSet =
-                RiverRawLookup.caseSet(TURN_CARDS.canonIndex());
-        int caseOffset = caseSet.offsetOf( CASE );
+                RiverRawLookup.caseSet(canonTurn);
+        int caseOffset = caseSet.offsetOf( riverCase );
 
         return globalOffset +
                caseOffset +
-               (RIVER.rank().ordinal() - RANK_OFFSET);
+               (rank - rankOffset);
+    }
+
+    /**
+     * Canonical index without building a River, for use by CanonIndexer.
+     *
+     * @param canonTurn canonical index of the turn
+     * @param holeA hole, flop, and turn cards
+     * @param holeB  under the order refined by the river
+     * @param flopA
+     * @param flopB
+     * @param flopC
+     * @param turn
+     * @param river river card under the refined order
+     * @return same as new River(..).canonIndex()
+     */
+    public static long canonIndex(
+            int       canonTurn,
+            CanonCard holeA, CanonCard holeB,
+            CanonCard flopA, CanonCard flopB, CanonCard flopC,
+            CanonCard turn,
+            CanonCard river)
+    {
+        int preceding = preceding(river,
+                holeA, holeB, flopA, flopB, flopC, turn);
+        return canonIndex(canonTurn,
+                RiverCase.valueOf(
+                        river.suit(), preceding >>> PRECEDENCE_SHIFT),
+                river.rank().ordinal(),
+                preceding & OFFSET_MASK);
+    }
+
+    /**
+     * @param canonRiver canonical river index
+     * @return canonical index of the turn it was dealt on
+     */
+    public static int turnOf(long canonRiver)
+    {
+        return RiverLookup.turnOf(canonRiver);
     }
     public long packedCanonIndex()
     {
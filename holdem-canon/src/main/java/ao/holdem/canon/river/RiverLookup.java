@@ -36,6 +36,22 @@ import org.apache.log4j.Logger;
     }
 
 
+    // turns are assigned river offsets in canonical order
+    public static int turnOf(long canonRiver)
+    {
+        int lo = 0, hi = Turn.CANONS - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offset(mid) <= canonRiver) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+
     //--------------------------------------------------------------------
     private static int[] computeOffsets()
     {
@@ -90,7 +90,28 @@ public class Turn implements CanonIndexed
 
     private int computeCanonIndex(int flopIndex)
     {
-        return TurnLookup.canonIndex(flopIndex, TURN);
+        return canonIndex(flopIndex, TURN);
+    }
+
+    /**
+     * Canonical index without building a Turn, for use by CanonIndexer.
+     *
+     * @param canonFlop canonical index of the flop
+     * @param turn turn card under the refined order
+     * @return same as new Turn(..).canonIndex()
+     */
+    public static int canonIndex(int canonFlop, CanonCard turn)
+    {
+        return TurnLookup.canonIndex(canonFlop, turn);
+    }
+
+    /**
+     * @param canonTurn canonical turn index
+     * @return canonical index of the flop it was dealt on
+     */
+    public static int flopOf(int canonTurn)
+    {
+        return TurnLookup.flopOf(canonTurn);
     }
 
     public CanonCard turnCard()
@@ -184,6 +184,33 @@ import java.util.Set;
     }
 
 
+    //--------------------------------------------------------------------
+    // flops are assigned turn offsets in canonical order
+    public static int flopOf(int canonTurn)
+    {
+        int lo = 0, hi = CODED_OFFSET.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (firstTurn(mid) <= canonTurn) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private static int firstTurn(int canonFlop)
+    {
+        for (int codedOffset : CODED_OFFSET[ canonFlop ]) {
+            if (codedOffset != -1) {
+                return TurnUtil.decodeTurnOffset(codedOffset);
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+
     //--------------------------------------------------------------------
     public static int canonIndex(
             int flopIndex, CanonCard turn)
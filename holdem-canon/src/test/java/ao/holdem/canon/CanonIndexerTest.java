@@ -0,0 +1,106 @@
+package ao.holdem.canon;
+
+import ao.holdem.canon.flop.Flop;
+import ao.holdem.canon.river.River;
+import ao.holdem.canon.turn.Turn;
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.canon.hole.CanonHole;
+import ao.holdem.model.card.chance.Deck;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class CanonIndexerTest
+{
+    //--------------------------------------------------------------------
+    private static final int DEALS    = 100 * 1000;
+    private static final int INVERSES = 100;
+
+    // each river inverse scans the rivers of its turn
+    private static final int RIVER_INVERSES = 10;
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void matchesObjectPath() {
+        Random rand = new Random(42);
+        for (int i = 0; i < DEALS; i++) {
+            Card c[] = deal(rand);
+
+            long holeMask = 1L << c[0].ordinal() | 1L << c[1].ordinal();
+            long flopMask = 1L << c[2].ordinal() |
+                            1L << c[3].ordinal() |
+                            1L << c[4].ordinal();
+
+            CanonHole hole = CanonHole.create(c[0], c[1]);
+            Flop      flop = new Flop(hole, c[2], c[3], c[4]);
+            Turn      turn = flop.addTurn(c[5]);
+            River     rivr = turn.addRiver(c[6]);
+
+            assertEquals(hole.canonIndex(),
+                         CanonIndexer.holeIndex(holeMask));
+            assertEquals(flop.canonIndex(),
+                         CanonIndexer.flopIndex(holeMask, flopMask));
+            assertEquals(turn.canonIndex(),
+                         CanonIndexer.turnIndex(
+                                 holeMask, flopMask, c[5].ordinal()));
+            assertEquals(rivr.canonIndex(),
+                         CanonIndexer.riverIndex(
+                                 holeMask, flopMask,
+                                 c[5].ordinal(), c[6].ordinal()));
+        }
+    }
+
+    @Test
+    public void inverseRoundTrips() {
+        Random rand = new Random(7);
+        for (int i = 0; i < INVERSES; i++) {
+            char canonHole = (char) rand.nextInt(CanonHole.CANONS);
+            assertEquals(canonHole, CanonIndexer.holeIndex(
+                    CanonIndexer.holeMask(
+                            CanonIndexer.holeCards(canonHole))));
+
+            int  canonFlop = rand.nextInt(Flop.CANONS);
+            long flopCards = CanonIndexer.flopCards(canonFlop);
+            assertEquals(canonFlop, CanonIndexer.flopIndex(
+                    CanonIndexer.holeMask(flopCards),
+                    CanonIndexer.flopMask(flopCards)));
+
+            int  canonTurn = rand.nextInt(Turn.CANONS);
+            long turnCards = CanonIndexer.turnCards(canonTurn);
+            assertEquals(canonTurn, CanonIndexer.turnIndex(
+                    CanonIndexer.holeMask(turnCards),
+                    CanonIndexer.flopMask(turnCards),
+                    CanonIndexer.card(turnCards, 5)));
+        }
+    }
+
+    @Test
+    public void riverInverseRoundTrips() {
+        Random rand = new Random(11);
+        for (int i = 0; i < RIVER_INVERSES; i++) {
+            long canonRiver = (long) (rand.nextDouble() * River.CANONS);
+            long riverCards = CanonIndexer.riverCards(canonRiver);
+            assertEquals(canonRiver, CanonIndexer.riverIndex(
+                    CanonIndexer.holeMask(riverCards),
+                    CanonIndexer.flopMask(riverCards),
+                    CanonIndexer.card(riverCards, 5),
+                    CanonIndexer.card(riverCards, 6)));
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private Card[] deal(Random rand) {
+        Deck deck = new Deck(rand);
+
+        Card hand[] = new Card[ 7 ];
+        for (int i = 0; i < hand.length; i++) {
+            hand[ i ] = deck.nextCard();
+        }
+        return hand;
+    }
+}
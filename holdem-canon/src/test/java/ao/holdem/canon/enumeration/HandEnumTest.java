@@ -0,0 +1,78 @@
+package ao.holdem.canon.enumeration;
+
+import ao.holdem.canon.flop.Flop;
+import ao.holdem.model.card.canon.hole.CanonHole;
+import ao.util.pass.Traverser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class HandEnumTest
+{
+    //--------------------------------------------------------------------
+    private static final int THREADS = 4;
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void rangesJoinIntoFullEnumeration() {
+        final List<Long> full = new ArrayList<Long>();
+        HandEnum.holes(new PermisiveFilter<CanonHole>(),
+                new Traverser<CanonHole>() {
+            public void traverse(CanonHole hole) {
+                full.add( hole.packedCanonIndex() );
+            }});
+
+        final List<Long> joined = new ArrayList<Long>();
+        for (int from = 0; from < HandEnum.HOLES; from += 100) {
+            HandEnum.holes(from, Math.min(from + 100, HandEnum.HOLES),
+                    new PermisiveFilter<CanonHole>(),
+                    new Traverser<CanonHole>() {
+                public void traverse(CanonHole hole) {
+                    joined.add( hole.packedCanonIndex() );
+                }});
+        }
+
+        assertEquals(HandEnum.HOLES, full.size());
+        assertEquals(full, joined);
+    }
+
+
+    @Test
+    public void parallelUniqueFlopsVisitEachOnce() {
+        final AtomicLongArray visits = new AtomicLongArray(Flop.CANONS);
+        final AtomicInteger   count  = new AtomicInteger();
+        HandEnum.uniqueFlops(new Traverser<Flop>() {
+            public void traverse(Flop flop) {
+                visits.incrementAndGet( flop.canonIndex() );
+                count.incrementAndGet();
+            }}, THREADS);
+
+        assertEquals(Flop.CANONS, count.get());
+        for (int i = 0; i < Flop.CANONS; i++) {
+            assertEquals(1, visits.get(i));
+        }
+    }
+
+
+    @Test
+    public void nestedEnumerationsAreIndependent() {
+        final AtomicInteger inner = new AtomicInteger();
+        HandEnum.holes(0, 2, new PermisiveFilter<CanonHole>(),
+                new Traverser<CanonHole>() {
+            public void traverse(CanonHole hole) {
+                HandEnum.uniqueHoles(new Traverser<CanonHole>() {
+                    public void traverse(CanonHole innerHole) {
+                        inner.incrementAndGet();
+                    }});
+            }});
+
+        assertEquals(2 * CanonHole.CANONS, inner.get());
+    }
+}
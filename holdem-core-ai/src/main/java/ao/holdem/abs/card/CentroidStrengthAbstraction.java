@@ -74,10 +74,18 @@ public class CentroidStrengthAbstraction implements CardAbstraction, Serializabl
     @Override
     public int indexInRound(CardSequence cards, OddsEvaluator oddsEvaluator) {
         Round round = cards.community().round();
-        double[] centroids = centroidsFor(round);
         double strength = oddsEvaluator.approximateHeadsUpHandStrength(cards);
 
-        return indexIn(centroids, strength);
+        return indexInRound(round, strength);
+    }
+
+    /**
+     * @param round round of the hand
+     * @param strength heads up strength of the hand vs a random hand
+     * @return index of the closest centroid in the round
+     */
+    public int indexInRound(Round round, double strength) {
+        return indexIn(centroidsFor(round), strength);
     }
 
     @Override
@@ -0,0 +1,248 @@
+package ao.holdem.engine.eval;
+
+import ao.holdem.model.card.Card;
+
+/**
+ * Date: 17-Oct-2026
+ *
+ * Seven card evaluator that needs about 120 KB of tables, all of which
+ *  are computed (from Eval5) when the class is loaded.
+ *
+ * Gives the same values as EvalBy5, from 0 (lowest) to 7461 (highest).
+ *
+ * Works on a card mask with one bit per Card.ordinal(), that is
+ *  13 bits per suit.  With seven cards a flush always beats any
+ *  other hand the cards can make, so the flush and non-flush values
+ *  are looked up separately and the higher one is returned:
+ *   - flushes are looked up by the 13 bit rank mask of each suit.
+ *   - everything else is looked up by the multiset of ranks, which
+ *      is perfectly hashed to its colex index among the C(19, 7)
+ *      multisets of seven ranks.
+ */
+public enum Eval7
+{;
+    //--------------------------------------------------------------------
+    private static final int   RANKS     = 13;
+    private static final int   SUITS     = 4;
+    private static final int   CARDS     = 7;
+    private static final int   SUIT_MASK = (1 << RANKS) - 1;
+
+    // bits of all cards of the given rank or lower, by rank
+    private static final long  UP_TO_RANK[] = computeUpToRank();
+
+    // multiset index is RANK_INDEX_BASE plus, for every rank r below
+    //  the ace, RANK_INDEX[r * 8 + n] where n cards have rank r or lower
+    private static final int   RANK_INDEX[]    = computeRankIndex();
+    private static final int   RANK_INDEX_BASE = colexPrefix(RANKS - 1, CARDS);
+
+    // by multiset index, the value of the best non-flush hand
+    private static final short RANK_VALUES[]  = computeRankValues();
+
+    // by suit rank mask, the value of the best flush, or 0
+    private static final short FLUSH_VALUES[] = computeFlushValues();
+
+
+    //--------------------------------------------------------------------
+    public static short valueOf(Card... sevenCards)
+    {
+        assert sevenCards.length == CARDS;
+        return valueOf(sevenCards[0], sevenCards[1], sevenCards[2],
+                       sevenCards[3], sevenCards[4], sevenCards[5],
+                       sevenCards[6]);
+    }
+
+    public static short valueOf(
+            Card c0, Card c1, Card c2, Card c3, Card c4, Card c5, Card c6)
+    {
+        return valueOf(mask(c0, c1, c2, c3, c4, c5, c6));
+    }
+
+
+    //--------------------------------------------------------------------
+    // Cactus Kev's signitures.
+    //  see Eval5.asCactusKevsFormat( Card )
+    public static short valueOf(
+            int ck0, int ck1, int ck2, int ck3, int ck4, int ck5, int ck6)
+    {
+        return valueOf(mask(ck0) | mask(ck1) | mask(ck2) | mask(ck3) |
+                       mask(ck4) | mask(ck5) | mask(ck6));
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * @param sevenCardMask seven bits, at Card.ordinal() of each card
+     * @return from 0 (lowest) to 7461 (highest)
+     */
+    public static short valueOf(long sevenCardMask)
+    {
+        int flush = Math.max(
+                Math.max(FLUSH_VALUES[ (int)  sevenCardMask
+                                                  & SUIT_MASK ],
+                         FLUSH_VALUES[ (int) (sevenCardMask >>> RANKS)
+                                                  & SUIT_MASK ]),
+                Math.max(FLUSH_VALUES[ (int) (sevenCardMask >>> 2 * RANKS)
+                                                  & SUIT_MASK ],
+                         FLUSH_VALUES[ (int) (sevenCardMask >>> 3 * RANKS)
+                                                  & SUIT_MASK ]));
+
+        return (short) Math.max(
+                flush, RANK_VALUES[ rankIndex(sevenCardMask) ]);
+    }
+
+    // colex index of the multiset of ranks in the given cards,
+    //  every term is independent so they can all be done at once
+    private static int rankIndex(long cardMask)
+    {
+        int index = RANK_INDEX_BASE;
+        for (int rank = 0; rank < RANKS - 1; rank++) {
+            index += RANK_INDEX[ rank * 8 +
+                        Long.bitCount(cardMask & UP_TO_RANK[ rank ]) ];
+        }
+        return index;
+    }
+
+
+    //--------------------------------------------------------------------
+    public static long mask(
+            Card c0, Card c1, Card c2, Card c3, Card c4, Card c5, Card c6)
+    {
+        return 1L << c0.ordinal() |
+               1L << c1.ordinal() |
+               1L << c2.ordinal() |
+               1L << c3.ordinal() |
+               1L << c4.ordinal() |
+               1L << c5.ordinal() |
+               1L << c6.ordinal();
+    }
+
+    // Cactus Kev's signiture, suit bits are cdhs from the top,
+    //  see Eval5.asCactusKevsFormat( Card )
+    public static long mask(int cactusKev)
+    {
+        int rank = (cactusKev >>> 8) & 0xf;
+        int suit = 3 - Integer.numberOfTrailingZeros(cactusKev >>> 12);
+        return 1L << (suit * RANKS + rank);
+    }
+
+
+    //--------------------------------------------------------------------
+    private static long[] computeUpToRank()
+    {
+        long upTo[] = new long[ RANKS ];
+        long rankCards = 1L | 1L << RANKS | 1L << 2 * RANKS | 1L << 3 * RANKS;
+        for (int rank = 0; rank < RANKS; rank++) {
+            upTo[ rank ] = (rank == 0 ? 0 : upTo[ rank - 1 ]) |
+                           rankCards << rank;
+        }
+        return upTo;
+    }
+
+    /*
+     * With the ranks sorted as r0 <= r1 <= .. <= r6, the colex index of
+     *  the multiset is the sum of C(r_i + i, i + 1).  If n cards are of
+     *  rank r or lower, rank r adds colexPrefix(r, n) - colexPrefix(r, m)
+     *  where m cards are of a lower rank.  Regrouping those terms by n
+     *  gives one independent term per rank.
+     */
+    private static int[] computeRankIndex()
+    {
+        int index[] = new int[ (RANKS - 1) * 8 ];
+        for (int rank = 0; rank < RANKS - 1; rank++) {
+            for (int n = 0; n <= CARDS; n++) {
+                index[ rank * 8 + n ] = colexPrefix(rank,     n) -
+                                        colexPrefix(rank + 1, n);
+            }
+        }
+        return index;
+    }
+
+    private static int colexPrefix(int rank, int n)
+    {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += choose(rank + i, i + 1);
+        }
+        return sum;
+    }
+
+    private static int choose(int n, int k)
+    {
+        if (k > n) return 0;
+
+        long c = 1;
+        for (int i = 0; i < k; i++) {
+            c = c * (n - i) / (i + 1);
+        }
+        return (int) c;
+    }
+
+
+    //--------------------------------------------------------------------
+    private static short[] computeRankValues()
+    {
+        short values[] = new short[ choose(RANKS + CARDS - 1, CARDS) ];
+        fillRankValues(values, new int[ CARDS ], 0, 0);
+        return values;
+    }
+
+    // ranks are chosen in non-decreasing order, at most four of each
+    private static void fillRankValues(
+            short values[], int ranks[], int nChosen, int minRank)
+    {
+        if (nChosen == CARDS) {
+            // consecutive cards get consecutive suits, so no rank is
+            //  repeated in a suit and no five cards share a suit
+            int  ck[]  = new int[ CARDS ];
+            long mask  = 0;
+            for (int i = 0; i < CARDS; i++) {
+                ck[ i ] = Eval5.asCactusKevsFormat(ranks[ i ], i % SUITS);
+                mask   |= 1L << ((i % SUITS) * RANKS + ranks[ i ]);
+            }
+
+            values[ rankIndex(mask) ] = EvalBy5.valueOf(
+                    ck[0], ck[1], ck[2], ck[3], ck[4], ck[5], ck[6]);
+            return;
+        }
+
+        for (int rank = minRank; rank < RANKS; rank++) {
+            if (nChosen >= SUITS && ranks[ nChosen - SUITS ] == rank) {
+                continue;
+            }
+
+            ranks[ nChosen ] = rank;
+            fillRankValues(values, ranks, nChosen + 1, rank);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private static short[] computeFlushValues()
+    {
+        short values[] = new short[ 1 << RANKS ];
+        for (int rankMask = 0; rankMask < values.length; rankMask++) {
+            int count = Integer.bitCount( rankMask );
+            if (count < 5) continue;
+
+            if (count == 5) {
+                int ck[] = new int[ 5 ];
+                for (int i = 0, bits = rankMask; i < 5; i++) {
+                    int rank = Integer.numberOfTrailingZeros( bits );
+                    ck[ i ]  = Eval5.asCactusKevsFormat(rank, 0);
+                    bits    &= bits - 1;
+                }
+                values[ rankMask ] = Eval5.valueOf(
+                        ck[0], ck[1], ck[2], ck[3], ck[4]);
+            } else {
+                // best of the flushes with one less card
+                short best = 0;
+                for (int bits = rankMask; bits != 0; bits &= bits - 1) {
+                    best = (short) Math.max(best,
+                            values[ rankMask & ~Integer.lowestOneBit(bits) ]);
+                }
+                values[ rankMask ] = best;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,59 @@
+package ao.holdem.engine.eval;
+
+import ao.holdem.model.card.Card;
+import ao.holdem.model.card.chance.Deck;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class Eval7Test
+{
+    //--------------------------------------------------------------------
+    private static final int HANDS = 200 * 1000;
+
+
+    //--------------------------------------------------------------------
+    @Test
+    public void matchesEvalBy5() {
+        Random rand = new Random(42);
+        for (int i = 0; i < HANDS; i++) {
+            Card c[] = deal(rand);
+
+            assertEquals(
+                    EvalBy5.valueOf(c[0], c[1], c[2], c[3], c[4], c[5], c[6]),
+                    Eval7  .valueOf(c[0], c[1], c[2], c[3], c[4], c[5], c[6]));
+        }
+    }
+
+    @Test
+    public void matchesForCactusKevsFormat() {
+        Random rand = new Random(7);
+        for (int i = 0; i < HANDS; i++) {
+            Card c[]  = deal(rand);
+            int  ck[] = new int[ c.length ];
+            for (int j = 0; j < c.length; j++) {
+                ck[ j ] = Eval5.asCactusKevsFormat( c[j] );
+            }
+
+            assertEquals(
+                    EvalBy5.valueOf(c[0], c[1], c[2], c[3], c[4], c[5], c[6]),
+                    Eval7  .valueOf(ck[0], ck[1], ck[2], ck[3],
+                                    ck[4], ck[5], ck[6]));
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    private Card[] deal(Random rand) {
+        Deck deck = new Deck(rand);
+
+        Card hand[] = new Card[ 7 ];
+        for (int i = 0; i < hand.length; i++) {
+            hand[ i ] = deck.nextCard();
+        }
+        return hand;
+    }
+}
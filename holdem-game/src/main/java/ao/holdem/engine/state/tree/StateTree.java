@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Date: Feb 1, 2009
@@ -34,14 +35,38 @@ public class StateTree
 
     private static int nextIndex = 0;
 
+    // base 3 digits of a long, after the leading 1
+    private static final int MAX_PATH_DEPTH = 39;
+
 
     private static final Node ROOT;
+    private static final int  DEPTH;
+
+    // by action sequence, see Node.pathKey
+    private static final Map<Long, Node> BY_PATH = new HashMap<>();
+
+    private static final AtomicLong FOLLOW_MISSES = new AtomicLong();
 
     static
     {
         LOG.debug("computing heads-up");
-        ROOT = new Node(ActionState.autoBlindInstance(2));
-        LOG.debug("tree size: {}", nextIndex);
+        ROOT  = new Node(ActionState.autoBlindInstance(2));
+        DEPTH = ROOT.depth();
+        LOG.debug("tree size: {}, depth: {}", nextIndex, DEPTH);
+
+        if (DEPTH > MAX_PATH_DEPTH) {
+            throw new IllegalStateException(
+                    "action sequences too long for keys: " + DEPTH);
+        }
+        index(ROOT);
+    }
+
+    private static void index(Node node)
+    {
+        BY_PATH.put(node.pathKey(), node);
+        for (Node kid : node.acts().values()) {
+            index(kid);
+        }
     }
     
 
@@ -51,6 +76,84 @@ public class StateTree
         return ROOT;
     }
 
+    /**
+     * @return number of nodes on the longest path from the root
+     *          to a terminal node (inclusive), useful for sizing
+     *          per-depth scratch buffers
+     */
+    public static int depth()
+    {
+        return DEPTH;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Equal states can be reached by different action sequences (most
+     *  non-terminal nodes share their state with another), so a state
+     *  on its own does not always identify its node, the action
+     *  sequence does.
+     *
+     * @param pathKey see Node.pathKey
+     * @return node reached by the action sequence, or null if none
+     */
+    public static Node fromPath(long pathKey)
+    {
+        return BY_PATH.get( pathKey );
+    }
+
+    public static Node fromPath(List<AbstractAction> actions)
+    {
+        Node node = ROOT;
+        for (AbstractAction act : actions) {
+            node = node.kid( act );
+            if (node == null) return null;
+        }
+        return node;
+    }
+
+
+    //--------------------------------------------------------------------
+    /**
+     * Incremental transition: the state is looked for at, or up to two
+     *  actions after, the given node, without searching the rest of
+     *  the tree.
+     *
+     * @param from last known node, e.g. after the player's own action
+     * @param state current state
+     * @return matching node, or null (counted in followMisses)
+     */
+    public static Node follow(Node from, ActionState state)
+    {
+        if (from.state().equals( state )) return from;
+
+        for (Node kid : from.KID_NODES) {
+            if (kid == null) continue;
+            if (kid.state().equals( state )) return kid;
+        }
+        for (Node kid : from.KID_NODES) {
+            if (kid == null) continue;
+            for (Node grandKid : kid.KID_NODES) {
+                if (grandKid != null &&
+                        grandKid.state().equals( state )) {
+                    return grandKid;
+                }
+            }
+        }
+
+        FOLLOW_MISSES.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @return number of times follow has not found its state, since
+     *          the start of the process
+     */
+    public static long followMisses()
+    {
+        return FOLLOW_MISSES.get();
+    }
+
 
     //--------------------------------------------------------------------
     public static Node fromState(ActionState state)
@@ -122,6 +225,7 @@ public class StateTree
     {
         //----------------------------------------------------------------
         private final int           INDEX;
+        private final long          PATH_KEY;
         private final char          ID;
         private final char          INTENT;
         private final boolean       CAN_RAISE;
@@ -145,13 +249,14 @@ public class StateTree
         //----------------------------------------------------------------
         private Node(ActionState state) {
             this(null, state, null,
-                 new ArrayList<AbstractAction>(), null);
+                 new ArrayList<AbstractAction>(), null, 1);
         }
         private Node(AbstractAction       prevAct,
                      ActionState state,
                      Round                prevRound,
                      List<AbstractAction> path,
-                     PathToFlop           pathToFlop)
+                     PathToFlop           pathToFlop,
+                     long                 pathKey)
         {
             if (pathToFlop != null) {
                 PATH = pathToFlop;
@@ -165,6 +270,7 @@ public class StateTree
             //nextIntent
 
             INDEX         = nextIndex++;
+            PATH_KEY      = pathKey;
             ID            = nextId(PATH, state.round());
             INTENT        = nextIntent(prevRound);
             CAN_RAISE     = state.canRaise();
@@ -193,7 +299,8 @@ public class StateTree
                                      act.getValue(),
                                      ROUND,
                                      nextPath,
-                                     PATH));
+                                     PATH,
+                                     PATH_KEY * 3 + act.getKey().ordinal()));
 //                }
             }
 
@@ -252,6 +359,12 @@ public class StateTree
             return INDEX;
         }
 
+        // the actions leading here, as base 3 digits (AbstractAction
+        //  ordinals) after a leading 1, which is the key of the root
+        public long pathKey() {
+            return PATH_KEY;
+        }
+
         // sequential for (round, pathToFlop) combination
         public char roundPathId() {
             // never happens:
@@ -295,6 +408,14 @@ public class StateTree
 
 
         //----------------------------------------------------------------
+        public int depth() {
+            int kidDepth = 0;
+            for (Node k : acts().values()) {
+                kidDepth = Math.max(kidDepth, k.depth());
+            }
+            return kidDepth + 1;
+        }
+
         public int countSub() {
             if (status() != HeadsUpStatus.IN_PROGRESS) return 1;
 
@@ -7,6 +7,7 @@ import ao.holdem.model.card.Hole;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  *
@@ -22,7 +23,12 @@ public class DeckCards implements ChanceCards
     //--------------------------------------------------------------------
     public DeckCards()
     {
-        cards = new Deck();
+        this(new Random());
+    }
+
+    public DeckCards(Random rand)
+    {
+        cards = new Deck(rand);
         holes = new ArrayList<>();
     }
 
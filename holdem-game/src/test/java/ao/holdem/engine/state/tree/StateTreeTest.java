@@ -0,0 +1,61 @@
+package ao.holdem.engine.state.tree;
+
+import ao.holdem.model.act.AbstractAction;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Date: 17-Oct-2026
+ */
+public class StateTreeTest
+{
+    //--------------------------------------------------------------------
+    @Test
+    public void everyNodeIsFoundByItsPath() {
+        assertEquals(StateTree.nodeCount(),
+                     checkPaths(StateTree.headsUpRoot()));
+    }
+
+    private static int checkPaths(StateTree.Node node) {
+        assertSame(node, StateTree.fromPath(node.pathKey()));
+
+        int count = 1;
+        for (StateTree.Node kid : node.acts().values()) {
+            count += checkPaths(kid);
+        }
+        return count;
+    }
+
+
+    @Test
+    public void pathOfActionsLeadsToKid() {
+        StateTree.Node root = StateTree.headsUpRoot();
+
+        assertSame(root.kid(AbstractAction.CHECK_CALL)
+                       .kid(AbstractAction.BET_RAISE),
+                   StateTree.fromPath(Arrays.asList(
+                           AbstractAction.CHECK_CALL,
+                           AbstractAction.BET_RAISE)));
+    }
+
+
+    @Test
+    public void followsTwoActionsAndCountsMisses() {
+        StateTree.Node root     = StateTree.headsUpRoot();
+        StateTree.Node raised   = root.kid(AbstractAction.BET_RAISE);
+        StateTree.Node reRaised = raised.kid(AbstractAction.BET_RAISE);
+
+        assertSame(root,     StateTree.follow(root, root.state()));
+        assertSame(raised,   StateTree.follow(root, raised.state()));
+        assertSame(reRaised, StateTree.follow(root, reRaised.state()));
+
+        long misses = StateTree.followMisses();
+        assertNull(StateTree.follow(reRaised, root.state()));
+        assertEquals(misses + 1, StateTree.followMisses());
+    }
+}
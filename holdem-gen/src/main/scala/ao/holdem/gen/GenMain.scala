@@ -57,6 +57,9 @@ object GenMain extends App
 //    20, 30, 30, 50)
   val smallCardAbstraction: CardAbstraction = PercentileImperfectAbstractionBuilder.loadOrBuildAndSave(
     5, 20, 20, 20)
+  // precomputed buckets, needs RiverEvalLookup and builds a 2.4 GB river table
+//  val smallCardAbstraction: CardAbstraction = PercentileImperfectAbstractionBuilder.loadOrBuildTabled(
+//    5, 20, 20, 20)
 
   val actionViewName: String =
     //"BasicActionView.bin"
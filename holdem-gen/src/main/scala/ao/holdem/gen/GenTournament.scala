@@ -75,6 +75,9 @@ object GenTournament extends App
 
   val cardAbstraction: CardAbstraction = PercentileImperfectAbstractionBuilder.loadOrBuildAndSave(
     20, 30, 30, 50)
+  // precomputed buckets, needs RiverEvalLookup and builds a 2.4 GB river table
+//  val cardAbstraction: CardAbstraction = PercentileImperfectAbstractionBuilder.loadOrBuildTabled(
+//    20, 30, 30, 50)
 
   val stateAbstraction: StateAbstraction = {
     val actionAbstraction: ActionAbstraction = ViewActionAbstraction.loadOrBuildAndSave(